@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+#
+# Builds an AppCDS archive of the classes loaded during startup, for faster cold starts.
+#
+# CDS only archives classes loaded from jar files, and the Spring Boot fat jar loads them through its own
+# class loader, so this lays the application out as a plain jar plus its dependency jars:
+#
+#   target/cds/app.jar   application classes, with a manifest Class-Path pointing at lib/
+#   target/cds/lib/      runtime dependencies
+#   target/cds/app.jsa   the archive, recorded by a training run that exits once the application is ready
+#
+# The archive is only valid for the same JDK build and the same jars; rebuild it whenever either changes.
+# Requires JDK 13 or later for -XX:ArchiveClassesAtExit.
+#
+# Usage: scripts/build-cds-archive.sh [profile]    (default profile: fast-startup)
+# Then:  java -XX:SharedArchiveFile=target/cds/app.jsa -jar target/cds/app.jar --spring.profiles.active=fast-startup
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PROFILE="${1:-fast-startup}"
+OUT=target/cds
+
+rm -rf "$OUT"
+mvn -B -q compile dependency:copy-dependencies -DincludeScope=runtime -DoutputDirectory="$OUT/lib"
+
+# Manifest lines are limited in length, so list one jar per continuation line.
+(
+  cd "$OUT"
+  jars=(lib/*.jar)
+  echo "Main-Class: com.hotelbooking.HotelBookingSpringbootApplication"
+  echo "Class-Path: ${jars[0]}"
+  for jar in "${jars[@]:1}"; do
+    echo "  $jar"
+  done
+) > "$OUT/MANIFEST.MF"
+jar --create --file "$OUT/app.jar" --manifest "$OUT/MANIFEST.MF" -C target/classes .
+
+echo "Recording the classes loaded during startup with profile '$PROFILE'..."
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off \
+  -jar "$OUT/app.jar" \
+  --spring.profiles.active="$PROFILE" --server.port=0 --booking.startup.exit-after-ready=true > "$OUT/training.log"
+
+echo "Archive written to $OUT/app.jsa ($(du -h "$OUT/app.jsa" | cut -f1)). Start with:"
+echo "  java -XX:SharedArchiveFile=$OUT/app.jsa -jar $OUT/app.jar --spring.profiles.active=$PROFILE"
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+#
+# Runs the /bookings load harness (ServerLoadBenchmark) against each embedded server engine with its
+# default settings and a few tuned variants, and prints one result line per run.
+#
+# Every engine profile (tomcat, undertow, jetty) shares the compiled classes and differs only in the
+# classpath, so the sources are compiled once and each run picks its engine's dependency list.
+# The variants are run in rounds, each round trying every variant once, so drift in the host's speed
+# shows up as spread within a variant rather than as a difference between variants. Compare medians,
+# and only when the spread is smaller than the difference. The clients run on the same machine as the
+# server; compare results from the same host only.
+#
+# Usage: scripts/compare-server-engines.sh [clients] [secondsPerRun] [rounds]    (defaults: 32, 20, 3)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CLIENTS="${1:-32}"
+SECONDS_PER_RUN="${2:-20}"
+ROUNDS="${3:-3}"
+OUT=target/engines
+
+mkdir -p "$OUT"
+mvn -B -q test-compile
+for engine in tomcat undertow jetty; do
+  mvn -B -q -P"$engine" dependency:build-classpath -Dmdep.outputFile="$OUT/$engine.classpath"
+done
+
+run() {
+  local engine="$1"
+  shift
+  java -cp "target/classes:target/test-classes:$(cat "$OUT/$engine.classpath")" \
+    com.hotelbooking.benchmark.ServerLoadBenchmark "$CLIENTS" "$SECONDS_PER_RUN" "$@" 2>&1 > "$OUT/$engine.log" \
+    | grep 'requests/s'
+}
+
+# The application.properties settings apply to every run; the variants are overrides.
+for round in $(seq "$ROUNDS"); do
+  echo "Round $round of $ROUNDS"
+  for engine in tomcat undertow jetty; do
+    run "$engine"
+    run "$engine" server.http2.enabled=true
+  done
+  run tomcat server.tomcat.threads.max=8
+  run tomcat server.tomcat.threads.max=16
+  run tomcat server.tomcat.max-keep-alive-requests=-1
+  run undertow server.undertow.threads.worker=8
+  run undertow server.undertow.threads.worker=32
+  run jetty server.jetty.threads.max=16
+done
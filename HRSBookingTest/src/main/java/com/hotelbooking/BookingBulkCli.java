@@ -0,0 +1,137 @@
+package com.hotelbooking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotelbooking.bulk.BookingImporter;
+import com.hotelbooking.bulk.BulkFormat;
+import com.hotelbooking.model.ImportReport;
+import com.hotelbooking.service.BookingService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point for bulk import and export, next to {@link HotelBookingSpringbootApplication}.
+ * <pre>
+ * BookingBulkCli import   &lt;file&gt; [--url http://localhost:8080] [--format csv|ndjson]
+ * BookingBulkCli export   &lt;file&gt; [--url http://localhost:8080] [--format csv|ndjson]
+ * BookingBulkCli validate &lt;file&gt; [--format csv|ndjson] [--threads n]
+ * </pre>
+ * {@code import} and {@code export} stream the file to or from a running server's /bookings/bulk endpoints.
+ * {@code validate} imports the file into a throwaway in-memory store, printing the per-line errors and
+ * the import rate without touching a server. The format defaults to CSV for .csv files and NDJSON otherwise.
+ */
+public final class BookingBulkCli {
+
+    private static final String DEFAULT_URL = "http://localhost:8080";
+
+    private BookingBulkCli() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        String url = DEFAULT_URL;
+        String format = null;
+        int threads = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--format":
+                    format = args[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    positional.add(args[i]);
+            }
+        }
+        if (positional.size() != 2) {
+            System.err.println("Usage: BookingBulkCli import|export|validate <file> [--url URL] [--format csv|ndjson] [--threads n]");
+            System.exit(2);
+        }
+        Path file = Paths.get(positional.get(1));
+        BulkFormat bulkFormat = format != null ? BulkFormat.from(format)
+                : file.toString().toLowerCase().endsWith(".csv") ? BulkFormat.CSV : BulkFormat.NDJSON;
+
+        switch (positional.get(0)) {
+            case "import":
+                System.out.println(upload(url, file, bulkFormat));
+                break;
+            case "export":
+                System.out.println("Exported " + download(url, file, bulkFormat) + " bytes to " + file);
+                break;
+            case "validate":
+                validate(file, bulkFormat, threads);
+                break;
+            default:
+                System.err.println("Unknown command: " + positional.get(0));
+                System.exit(2);
+        }
+    }
+
+    private static String upload(String url, Path file, BulkFormat format) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + "/bookings/bulk/import").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(1 << 16);
+        connection.setRequestProperty("Content-Type", format.getMediaType());
+        try (OutputStream out = connection.getOutputStream()) {
+            Files.copy(file, out);
+        }
+        return readBody(connection);
+    }
+
+    private static long download(String url, Path file, BulkFormat format) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+                url + "/bookings/bulk/export?format=" + format.name().toLowerCase()).openConnection();
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Export failed: " + readBody(connection));
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void validate(Path file, BulkFormat format, int threads) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        BookingImporter importer = new BookingImporter(new BookingService(false), objectMapper, threads, 4096);
+        try (InputStream in = Files.newInputStream(file)) {
+            ImportReport report = importer.importBookings(in, format);
+            System.out.printf("received=%d imported=%d failed=%d in %dms (%.0f bookings/s)%n",
+                    report.getReceived(), report.getImported(), report.getFailed(), report.getDurationMs(),
+                    report.getImported() * 1000.0 / Math.max(1, report.getDurationMs()));
+            report.getErrors().forEach(System.out::println);
+            if (report.isErrorsTruncated()) {
+                System.out.println("... and " + (report.getFailed() - report.getErrors().size()) + " more errors");
+            }
+        } finally {
+            importer.close();
+        }
+    }
+
+    private static String readBody(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in == null) {
+            return "HTTP " + connection.getResponseCode();
+        }
+        try (InputStream body = in) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.hotelbooking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hotelbooking.replay.AnalyticsLogParser;
+import com.hotelbooking.replay.Capture;
+import com.hotelbooking.replay.CaptureFile;
+import com.hotelbooking.replay.EndpointLatency;
+import com.hotelbooking.replay.ReplayComparison;
+import com.hotelbooking.replay.ReplayReport;
+import com.hotelbooking.replay.TrafficReplayer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point for capturing production traffic from the analytics log and replaying it.
+ * <pre>
+ * BookingReplayCli capture &lt;analytics.log&gt; &lt;capture.tsv&gt;
+ * BookingReplayCli replay  &lt;capture.tsv|analytics.log&gt; [--url http://localhost:8080] [--speed 1] [--max-in-flight 64] [--no-seed] [--report report.json]
+ * BookingReplayCli compare &lt;baseline.json&gt; &lt;candidate.json&gt; [--threshold 10]
+ * </pre>
+ * {@code capture} extracts the replayable requests from a log into the compact {@link CaptureFile} format.
+ * {@code replay} sends them to a running server at the recorded timing, sped up by {@code --speed}
+ * (0 sends them back to back), and prints per-endpoint latency; {@code --report} also saves it as JSON.
+ * {@code compare} prints the latency change between two saved reports, e.g. of the previous build and
+ * the current one replaying the same capture, and exits with status 1 if an endpoint regressed by more
+ * than the threshold percentage.
+ */
+public final class BookingReplayCli {
+
+    private static final String DEFAULT_URL = "http://localhost:8080";
+
+    private BookingReplayCli() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        String url = DEFAULT_URL;
+        double speed = 1;
+        int maxInFlight = 64;
+        boolean seed = true;
+        String report = null;
+        double threshold = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--speed":
+                    speed = Double.parseDouble(args[++i]);
+                    break;
+                case "--max-in-flight":
+                    maxInFlight = Integer.parseInt(args[++i]);
+                    break;
+                case "--no-seed":
+                    seed = false;
+                    break;
+                case "--report":
+                    report = args[++i];
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    positional.add(args[i]);
+            }
+        }
+        String command = positional.isEmpty() ? "" : positional.get(0);
+        int expectedArguments = command.equals("replay") ? 2 : 3;
+        if (positional.size() != expectedArguments) {
+            System.err.println("Usage: BookingReplayCli capture <log> <capture> | replay <capture|log> [--url URL] [--speed n]"
+                    + " [--max-in-flight n] [--no-seed] [--report file] | compare <baseline> <candidate> [--threshold percent]");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        switch (command) {
+            case "capture":
+                capture(Paths.get(positional.get(1)), Paths.get(positional.get(2)), objectMapper);
+                break;
+            case "replay":
+                replay(Paths.get(positional.get(1)), new TrafficReplayer(url, speed, maxInFlight, seed, objectMapper),
+                        report == null ? null : Paths.get(report), objectMapper);
+                break;
+            case "compare":
+                ReplayComparison comparison = ReplayComparison.of(
+                        objectMapper.readValue(Paths.get(positional.get(1)).toFile(), ReplayReport.class),
+                        objectMapper.readValue(Paths.get(positional.get(2)).toFile(), ReplayReport.class));
+                System.out.print(comparison.format(threshold));
+                List<String> regressions = comparison.getRegressions(threshold);
+                if (!regressions.isEmpty()) {
+                    System.out.println("Regressed by more than " + threshold + "%: " + String.join(", ", regressions));
+                    System.exit(1);
+                }
+                break;
+            default:
+                System.err.println("Unknown command: " + command);
+                System.exit(2);
+        }
+    }
+
+    private static void capture(Path log, Path captureFile, ObjectMapper objectMapper) throws IOException {
+        Capture capture = load(log, objectMapper);
+        try (Writer writer = Files.newBufferedWriter(captureFile, StandardCharsets.UTF_8)) {
+            CaptureFile.write(capture.getRequests(), writer);
+        }
+        System.out.println("Captured " + capture.getRequests().size() + " requests to " + captureFile);
+        printSkipped(capture);
+    }
+
+    private static void replay(Path source, TrafficReplayer replayer, Path reportFile, ObjectMapper objectMapper)
+            throws IOException, InterruptedException {
+        Capture capture = load(source, objectMapper);
+        printSkipped(capture);
+        ReplayReport report = replayer.replay(capture.getRequests());
+        System.out.printf("Replayed %d requests in %d ms (max schedule lag %d ms, %d bookings seeded)%n",
+                report.getRequests(), report.getDurationMillis(), report.getMaxScheduleLagMillis(), report.getSeededBookings());
+        System.out.printf("%-40s %8s %10s %10s %10s %10s %10s %8s%n",
+                "Endpoint", "Requests", "p50 ms", "p90 ms", "p99 ms", "max ms", "mismatch", "failed");
+        for (EndpointLatency latency : report.getEndpoints()) {
+            System.out.printf("%-40s %8d %10.2f %10.2f %10.2f %10.2f %10d %8d%n",
+                    latency.getEndpoint(), latency.getRequests(), latency.getP50Millis(), latency.getP90Millis(),
+                    latency.getP99Millis(), latency.getMaxMillis(), latency.getStatusMismatches(), latency.getFailed());
+        }
+        if (reportFile != null) {
+            objectMapper.writeValue(reportFile.toFile(), report);
+            System.out.println("Report saved to " + reportFile);
+        }
+    }
+
+    // Capture files are recognized by their header; anything else is parsed as a log.
+    private static Capture load(Path source, ObjectMapper objectMapper) throws IOException {
+        boolean isCapture;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            isCapture = CaptureFile.isCapture(reader.readLine());
+        }
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            return isCapture ? CaptureFile.read(reader) : new AnalyticsLogParser(objectMapper).parse(reader);
+        }
+    }
+
+    private static void printSkipped(Capture capture) {
+        for (Map.Entry<String, Integer> skipped : capture.getSkipped().entrySet()) {
+            System.out.println("Skipped " + skipped.getValue() + " requests: " + skipped.getKey());
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.hotelbooking;
 
+import com.hotelbooking.cluster.BookingCluster;
+import com.hotelbooking.index.AvailabilityProperties;
+import com.hotelbooking.logging.RequestLoggingProperties;
+import com.hotelbooking.logging.SampledRequestLoggingFilter;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.tracing.RequestTracingFilter;
+import com.hotelbooking.tracing.TracingProperties;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
 /**
  * Main Spring Boot application class for the Hotel Booking MVP.
  * Uses @SpringBootApplication to enable auto-configuration and component scanning.
  */
 @SpringBootApplication
+@EnableConfigurationProperties({RequestLoggingProperties.class, TracingProperties.class, AvailabilityProperties.class})
 public class HotelBookingSpringbootApplication {
 
     public static void main(String[] args) {
@@ -17,18 +29,42 @@ public class HotelBookingSpringbootApplication {
     }
 
     /**
-     * Optional: Bean to log incoming requests, including headers and payload.
-     * Useful for debugging and understanding request flow.
+     * Bean to log a sample of incoming requests, plus every failed or slow one.
+     * Payloads are bounded and redacted, and records are written off the request thread.
+     * See booking.request-logging.* in application.properties.
      */
     @Bean
-    public CommonsRequestLoggingFilter requestLoggingFilter() {
-        CommonsRequestLoggingFilter loggingFilter = new CommonsRequestLoggingFilter();
-        loggingFilter.setIncludeClientInfo(true);
-        loggingFilter.setIncludeQueryString(true);
-        loggingFilter.setIncludePayload(true);
-        loggingFilter.setMaxPayloadLength(64000);
-        loggingFilter.setIncludeHeaders(true);
-        loggingFilter.setAfterMessagePrefix("REQUEST DATA: ");
-        return loggingFilter;
+    public SampledRequestLoggingFilter requestLoggingFilter(RequestLoggingProperties properties) {
+        return new SampledRequestLoggingFilter(properties);
+    }
+
+    /**
+     * Bean to time the stages of a sample of requests; see GET /diagnostics/traces.
+     * See booking.tracing.* in application.properties.
+     */
+    @Bean
+    public RequestTracingFilter requestTracingFilter(TracingProperties properties) {
+        return new RequestTracingFilter(properties);
+    }
+
+    /**
+     * Beans that stay eager when spring.main.lazy-initialization is on (the "fast-startup" profile):
+     * the booking store, so sample data and indexes are not built during the first request, and the
+     * cluster node, which must listen for its peers before any request arrives.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookingService.class, BookingCluster.class);
+    }
+
+    /**
+     * Bean to shut down as soon as the application is ready, for AppCDS training runs that record the
+     * classes loaded during startup (see scripts/build-cds-archive.sh).
+     * Enabled with booking.startup.exit-after-ready=true.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.startup", name = "exit-after-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitAfterReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
     }
 }
@@ -0,0 +1,147 @@
+package com.hotelbooking.bulk;
+
+import com.hotelbooking.model.Booking;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads and writes bookings as CSV lines: {@value #HEADER}.
+ * <p>
+ * Fields containing commas, quotes or line breaks are quoted, with quotes doubled (RFC 4180). Because
+ * import works line by line, a quoted field cannot span lines; line breaks in values are written as
+ * spaces on export. Empty id and status fields are read as missing, so the usual defaults apply.
+ */
+final class BookingCsv {
+
+    static final String HEADER = "id,hotelName,guestName,checkInDate,checkOutDate,status";
+    private static final int FIELD_COUNT = 6;
+
+    private BookingCsv() {
+    }
+
+    static boolean isHeader(String line) {
+        return line.trim().equalsIgnoreCase(HEADER);
+    }
+
+    /**
+     * Parses one CSV line into a booking.
+     *
+     * @param line The line, without its line terminator.
+     * @return The booking; not validated yet.
+     * @throws IllegalArgumentException If the line is malformed.
+     */
+    static Booking parse(String line) {
+        String[] fields = new String[FIELD_COUNT];
+        int count = 0;
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            field.setLength(0);
+            if (i < length && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Unterminated quoted field.");
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < length && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field.");
+                }
+            } else {
+                int end = line.indexOf(',', i);
+                if (end < 0) {
+                    end = length;
+                }
+                field.append(line, i, end);
+                i = end;
+            }
+            if (count == FIELD_COUNT) {
+                throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields but found more.");
+            }
+            fields[count++] = field.toString();
+            if (i >= length) {
+                break;
+            }
+            i++; // Skip the comma; a trailing comma leaves an empty last field
+        }
+        if (count != FIELD_COUNT) {
+            throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields but found " + count + ".");
+        }
+        return new Booking(emptyToNull(fields[0]), emptyToNull(fields[1]), emptyToNull(fields[2]),
+                parseDate(fields[3], "checkInDate"), parseDate(fields[4], "checkOutDate"), emptyToNull(fields[5]));
+    }
+
+    /**
+     * Appends a booking as one CSV line, including the line terminator.
+     */
+    static void write(Booking booking, Appendable out) throws IOException {
+        writeField(booking.getId(), out);
+        out.append(',');
+        writeField(booking.getHotelName(), out);
+        out.append(',');
+        writeField(booking.getGuestName(), out);
+        out.append(',');
+        writeField(booking.getCheckInDate() == null ? null : booking.getCheckInDate().toString(), out);
+        out.append(',');
+        writeField(booking.getCheckOutDate() == null ? null : booking.getCheckOutDate().toString(), out);
+        out.append(',');
+        writeField(booking.getStatus(), out);
+        out.append('\n');
+    }
+
+    private static void writeField(String value, Appendable out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append("\"\"");
+            } else if (c == '\n' || c == '\r') {
+                out.append(' ');
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
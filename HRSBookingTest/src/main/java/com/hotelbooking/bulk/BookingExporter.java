@@ -0,0 +1,73 @@
+package com.hotelbooking.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports all bookings as CSV or NDJSON, streamed straight from the store one booking at a time.
+ */
+@Component
+public class BookingExporter {
+
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter bookingWriter;
+
+    @Autowired
+    public BookingExporter(BookingService bookingService, ObjectMapper objectMapper) {
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.bookingWriter = objectMapper.writerFor(Booking.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every booking to a stream. CSV output starts with a header line.
+     *
+     * @param output Where to write UTF-8 encoded lines; flushed but not closed.
+     * @param format The output format.
+     * @return The number of bookings written.
+     * @throws IOException If writing fails.
+     */
+    public long exportBookings(OutputStream output, BulkFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+        long count = 0;
+        try (Stream<Booking> bookings = bookingService.streamAllBookings()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            if (format == BulkFormat.CSV) {
+                writer.write(BookingCsv.HEADER);
+                writer.write('\n');
+                while (iterator.hasNext()) {
+                    BookingCsv.write(iterator.next(), writer);
+                    count++;
+                }
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                while (iterator.hasNext()) {
+                    bookingWriter.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    count++;
+                }
+                generator.close();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+}
@@ -0,0 +1,261 @@
+package com.hotelbooking.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.ImportReport;
+import com.hotelbooking.service.BookingAlreadyExistsException;
+import com.hotelbooking.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Imports bookings from a CSV or NDJSON stream.
+ * <p>
+ * The calling thread only splits the input into chunks of lines. Worker threads parse and validate each
+ * chunk with the rules of {@link BookingService#createBooking(Booking)} and store the valid bookings with
+ * one {@link BookingService#createBookings(List)} call per chunk. At most two chunks per worker are in
+ * flight, so memory use does not depend on the size of the input. Rejected lines are counted and the
+ * first {@link #MAX_REPORTED_ERRORS} are reported with their line numbers; the rest of the input is still
+ * imported. Chunks may be stored in a different order than they appear in the input.
+ */
+@Component
+public class BookingImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingImporter.class);
+
+    /** Maximum number of rejected lines listed in an {@link ImportReport}. */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BookingService bookingService;
+    private final ObjectReader bookingReader;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final ExecutorService workers;
+
+    /**
+     * @param bookingService The store to import into.
+     * @param objectMapper Used to read NDJSON lines.
+     * @param threads Number of worker threads; 0 means one per available processor.
+     * @param chunkSize Number of lines per chunk.
+     */
+    @Autowired
+    public BookingImporter(BookingService bookingService, ObjectMapper objectMapper,
+                           @Value("${booking.bulk.import-threads:0}") int threads,
+                           @Value("${booking.bulk.chunk-size:4096}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        int workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.bookingService = bookingService;
+        this.bookingReader = objectMapper.readerFor(Booking.class);
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = 2 * workerCount;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "booking-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Imports every booking in a stream. Blank lines and a CSV header line are skipped.
+     *
+     * @param input The UTF-8 encoded input; not closed.
+     * @param format The format of the input.
+     * @return Counts and the first errors.
+     * @throws IOException If the input cannot be read; chunks read before the failure stay imported.
+     */
+    public ImportReport importBookings(InputStream input, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        ImportJob job = new ImportJob(format);
+        Semaphore inFlight = new Semaphore(maxChunksInFlight);
+        List<Future<?>> chunks = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        try {
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(chunkSize);
+            long firstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLine = lineNumber;
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    chunks.add(submit(job, lines, firstLine, inFlight));
+                    lines = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!lines.isEmpty()) {
+                chunks.add(submit(job, lines, firstLine, inFlight));
+            }
+        } finally {
+            awaitAll(chunks);
+        }
+
+        List<ImportReport.LineError> errors = new ArrayList<>(job.errors);
+        errors.sort(Comparator.comparingLong(ImportReport.LineError::getLine));
+        long failed = job.failed.sum();
+        ImportReport report = new ImportReport(job.received.sum(), job.imported.sum(), failed, errors,
+                failed > errors.size(), (System.nanoTime() - start) / 1_000_000);
+        logger.info("Bulk {} import finished: {} received, {} imported, {} failed in {}ms.",
+                format, report.getReceived(), report.getImported(), report.getFailed(), report.getDurationMs());
+        return report;
+    }
+
+    private Future<?> submit(ImportJob job, List<String> lines, long firstLine, Semaphore inFlight) throws IOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted.", e);
+        }
+        try {
+            return workers.submit(() -> {
+                try {
+                    processChunk(job, lines, firstLine);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void processChunk(ImportJob job, List<String> lines, long firstLine) {
+        List<Booking> batch = new ArrayList<>(lines.size());
+        long[] batchLines = new long[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            long lineNumber = firstLine + i;
+            if (line.trim().isEmpty() || (job.format == BulkFormat.CSV && lineNumber == 1 && BookingCsv.isHeader(line))) {
+                continue;
+            }
+            job.received.increment();
+            try {
+                Booking booking = parse(line, job.format);
+                BookingService.validateNewBooking(booking);
+                batchLines[batch.size()] = lineNumber;
+                batch.add(booking);
+            } catch (IllegalArgumentException e) {
+                job.reject(lineNumber, e.getMessage());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            job.imported.add(bookingService.createBookings(batch));
+        } catch (IllegalArgumentException e) {
+            // The date rolled over since validation, or an ID already exists; fall back to one at a time.
+            createOneByOne(job, batch, batchLines, 0);
+        } catch (BookingAlreadyExistsException e) {
+            // Created concurrently, e.g. by another chunk: the bookings before it are stored.
+            int failed = 0;
+            while (!batch.get(failed).getId().equals(e.getBookingId())) {
+                failed++;
+            }
+            job.imported.add(failed);
+            job.reject(batchLines[failed], e.getMessage());
+            createOneByOne(job, batch, batchLines, failed + 1);
+        } catch (RuntimeException e) {
+            logger.error("Failed to store bulk import chunk starting at line {}: {}", firstLine, e.getMessage(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                job.reject(batchLines[i], "Failed to store booking: " + e.getMessage());
+            }
+        }
+    }
+
+    private void createOneByOne(ImportJob job, List<Booking> batch, long[] batchLines, int from) {
+        for (int i = from; i < batch.size(); i++) {
+            try {
+                bookingService.createBooking(batch.get(i));
+                job.imported.increment();
+            } catch (IllegalArgumentException | BookingAlreadyExistsException single) {
+                job.reject(batchLines[i], single.getMessage());
+            }
+        }
+    }
+
+    private Booking parse(String line, BulkFormat format) {
+        if (format == BulkFormat.CSV) {
+            return BookingCsv.parse(line);
+        }
+        try {
+            return bookingReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> chunks) throws IOException {
+        boolean interrupted = false;
+        for (Future<?> chunk : chunks) {
+            while (true) {
+                try {
+                    chunk.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting: the chunks still hold references to the job.
+                } catch (ExecutionException e) {
+                    throw new IOException("Import chunk failed.", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdown();
+    }
+
+    private static final class ImportJob {
+        final BulkFormat format;
+        final LongAdder received = new LongAdder();
+        final LongAdder imported = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final AtomicInteger reportedErrors = new AtomicInteger();
+        final ConcurrentLinkedQueue<ImportReport.LineError> errors = new ConcurrentLinkedQueue<>();
+
+        ImportJob(BulkFormat format) {
+            this.format = format;
+        }
+
+        void reject(long line, String message) {
+            failed.increment();
+            if (reportedErrors.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.LineError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hotelbooking.bulk;
+
+import java.util.Locale;
+
+/**
+ * Line-oriented formats supported by bulk import and export. Both hold one booking per line.
+ */
+public enum BulkFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    BulkFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Looks up a format by name ("csv", "ndjson") or media type, ignoring case and media type parameters.
+     *
+     * @param value The name or media type.
+     * @return The format.
+     * @throws IllegalArgumentException If the value names no supported format.
+     */
+    public static BulkFormat from(String value) {
+        if (value != null) {
+            String normalized = value.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            for (BulkFormat format : values()) {
+                if (format.name().toLowerCase(Locale.ROOT).equals(normalized) || format.mediaType.equals(normalized)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported bulk format: " + value + " (expected csv or ndjson).");
+    }
+}
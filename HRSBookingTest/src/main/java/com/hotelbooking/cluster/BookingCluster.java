@@ -0,0 +1,387 @@
+package com.hotelbooking.cluster;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.service.BookingAlreadyExistsException;
+import com.hotelbooking.service.BookingMutationListener;
+import com.hotelbooking.service.BookingRouter;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IllegalBookingTransitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * One node of the optional booking cluster.
+ * <p>
+ * Bookings are partitioned by consistent hashing on their ID. The owner of a booking keeps it in the
+ * regular {@link BookingService} store and ships every change to the next member on the ring (its
+ * follower), which keeps a replica in a separate store. Operations on bookings owned by another node are
+ * forwarded to the owner over plain TCP; if the owner cannot be reached they fail over to the follower,
+ * which then serves reads and writes from its replica. Reads fail over on any error, but a write fails
+ * over only if it never reached the owner: after a timeout the owner may already have applied it, and
+ * applying it again on the follower could duplicate a create or reject a repeated transition. Such a
+ * write fails with {@link ClusterUnavailableException} instead. Reads skip an owner that failed recently,
+ * but writes always try the owner first, so that a slow owner is never bypassed while it is still applying
+ * changes. Lists and searches only cover the local node.
+ * <p>
+ * Limits: a node that restarts comes back empty and does not pull its partition back from the follower,
+ * and writes accepted by a follower during failover are not replicated any further.
+ */
+public class BookingCluster implements BookingRouter, BookingMutationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCluster.class);
+
+    private final ClusterProperties properties;
+    private final BookingService bookingService;
+    // Replicas of the bookings owned by the members this node follows.
+    private final BookingService replicaService = new BookingService(false);
+    private final ClusterMember self;
+    private final ConsistentHashRing ring;
+    private final Map<String, PeerClient> peers = new LinkedHashMap<>();
+    private final ExecutorService connectionHandlers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile ServerSocket serverSocket;
+
+    public BookingCluster(ClusterProperties properties, BookingService bookingService) {
+        this.properties = properties;
+        this.bookingService = bookingService;
+        List<ClusterMember> members = properties.getMembers().stream()
+                .map(ClusterMember::parse)
+                .collect(Collectors.toList());
+        this.self = members.stream()
+                .filter(member -> member.getId().equals(properties.getNodeId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Cluster node ID " + properties.getNodeId() + " is not one of the members " + members));
+        this.ring = new ConsistentHashRing(members, properties.getVirtualNodes());
+        for (ClusterMember member : members) {
+            if (!member.equals(self)) {
+                peers.put(member.getId(), new PeerClient(member, properties));
+            }
+        }
+    }
+
+    /**
+     * Opens the cluster port and starts routing and replicating bookings.
+     *
+     * @throws IOException If the cluster port cannot be opened.
+     */
+    public void start() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(self.getPort()));
+        this.serverSocket = socket;
+        Thread acceptor = new Thread(this::acceptConnections, "cluster-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        bookingService.addMutationListener(this);
+        bookingService.setRouter(this);
+        logger.info("Cluster node {} started with members {}", self, properties.getMembers());
+    }
+
+    /**
+     * Stops routing, ships queued replication messages and closes the cluster port.
+     */
+    public void stop() {
+        bookingService.setRouter(null);
+        try {
+            ServerSocket socket = serverSocket;
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close cluster port: {}", e.getMessage());
+        }
+        peers.values().forEach(PeerClient::close);
+        connectionHandlers.shutdownNow();
+        logger.info("Cluster node {} stopped.", self);
+    }
+
+    public ClusterMember getSelf() {
+        return self;
+    }
+
+    /**
+     * @return Number of bookings this node holds as follower for other members.
+     */
+    public int getReplicaCount() {
+        return replicaService.getAllBookings().size();
+    }
+
+    // --- BookingRouter: called by the local BookingService for bookings owned elsewhere ---
+
+    @Override
+    public boolean isLocal(String bookingId) {
+        return ring.owner(bookingId).equals(self);
+    }
+
+    @Override
+    public String newLocalId() {
+        // Expected number of attempts equals the number of members.
+        while (true) {
+            String id = UUID.randomUUID().toString();
+            if (isLocal(id)) {
+                return id;
+            }
+        }
+    }
+
+    @Override
+    public Optional<Booking> getBookingById(String id) {
+        String response = route(id, ClusterProtocol.message(ClusterProtocol.GET, id), true);
+        return response.equals(ClusterProtocol.NOT_FOUND)
+                ? Optional.empty()
+                : Optional.of(ClusterProtocol.fromJson(value(response)));
+    }
+
+    @Override
+    public Booking createBooking(Booking booking) {
+        String response;
+        try {
+            response = route(booking.getId(),
+                    ClusterProtocol.message(ClusterProtocol.CREATE, ClusterProtocol.toJson(booking)), false);
+        } catch (IllegalBookingTransitionException e) {
+            // The only conflict a create can meet on the owner
+            throw new BookingAlreadyExistsException(booking.getId());
+        }
+        return ClusterProtocol.fromJson(value(response));
+    }
+
+    @Override
+    public Optional<Booking> updateBooking(String id, Booking updatedBooking) {
+        String response = route(id,
+                ClusterProtocol.message(ClusterProtocol.UPDATE, id, ClusterProtocol.toJson(updatedBooking)), false);
+        return response.equals(ClusterProtocol.NOT_FOUND)
+                ? Optional.empty()
+                : Optional.of(ClusterProtocol.fromJson(value(response)));
+    }
+
+    @Override
+    public Optional<Booking> transitionBooking(String id, BookingStatus target) {
+        String response = route(id, ClusterProtocol.message(ClusterProtocol.TRANSITION, id, target.name()), false);
+        return response.equals(ClusterProtocol.NOT_FOUND)
+                ? Optional.empty()
+                : Optional.of(ClusterProtocol.fromJson(value(response)));
+    }
+
+    @Override
+    public boolean cancelBooking(String id) {
+        return Boolean.parseBoolean(value(route(id, ClusterProtocol.message(ClusterProtocol.CANCEL, id), false)));
+    }
+
+    @Override
+    public boolean deleteBooking(String id) {
+        return Boolean.parseBoolean(value(route(id, ClusterProtocol.message(ClusterProtocol.DELETE, id), false)));
+    }
+
+    /**
+     * Sends a request for a key to its owner, or to the follower if the owner is unreachable.
+     *
+     * @param read Whether the request has no effect, so that it can be repeated on the follower even if the
+     *             owner may have received it.
+     */
+    private String route(String key, String request, boolean read) {
+        ClusterMember owner = ring.owner(key);
+        ClusterMember follower = ring.follower(key);
+        IOException lastFailure = null;
+        for (ClusterMember target : new ClusterMember[]{owner, follower}) {
+            if (target == null) {
+                continue;
+            }
+            if (target.equals(self)) {
+                // This node follows the key and the owner is down: serve it from the replica.
+                return checkResponse(handle(request));
+            }
+            PeerClient peer = peers.get(target.getId());
+            // Reads skip an owner that failed recently, unless it is the last option. Writes never do: a
+            // timeout does not mean the owner is down, and a write applied only to the replica would be lost.
+            if (read && peer.isMarkedUnavailable() && target == owner && follower != null) {
+                continue;
+            }
+            try {
+                return checkResponse(peer.request(request));
+            } catch (PeerClient.NotSentException e) {
+                logger.warn("Cluster member {} is not reachable for booking {}: {}", target, key, e.getMessage());
+                lastFailure = e;
+            } catch (IOException e) {
+                logger.warn("Cluster member {} did not answer for booking {}: {}", target, key, e.getMessage());
+                if (!read) {
+                    throw new ClusterUnavailableException("Cluster member " + target.getId() + " did not answer for booking "
+                            + key + "; the change may or may not have been applied.", e);
+                }
+                lastFailure = e;
+            }
+        }
+        throw new ClusterUnavailableException("Neither the owner nor the follower of booking " + key
+                + " is reachable.", lastFailure);
+    }
+
+    private static String checkResponse(String response) {
+        if (response.startsWith(ClusterProtocol.BAD_REQUEST)) {
+            throw new IllegalArgumentException(value(response));
+        }
+        if (response.startsWith(ClusterProtocol.CONFLICT)) {
+            throw new IllegalBookingTransitionException(value(response));
+        }
+        if (response.startsWith(ClusterProtocol.ERROR)) {
+            throw new IllegalStateException("Cluster member failed: " + value(response));
+        }
+        return response;
+    }
+
+    private static String value(String response) {
+        int separator = response.indexOf(ClusterProtocol.SEPARATOR);
+        return separator < 0 ? "" : response.substring(separator + 1);
+    }
+
+    // --- BookingMutationListener: ships changes of owned bookings to the follower ---
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        replicate(booking.getId(), ClusterProtocol.message(ClusterProtocol.REPLICATE_PUT, ClusterProtocol.toJson(booking)));
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        replicate(current.getId(), ClusterProtocol.message(ClusterProtocol.REPLICATE_PUT, ClusterProtocol.toJson(current)));
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        replicate(booking.getId(), ClusterProtocol.message(ClusterProtocol.REPLICATE_DELETE, booking.getId()));
+    }
+
+    private void replicate(String key, String message) {
+        ClusterMember follower = ring.follower(key);
+        if (follower != null && !follower.equals(self)) {
+            peers.get(follower.getId()).replicate(message);
+        }
+    }
+
+    // --- Server side: requests forwarded by other members and the replication log ---
+
+    private void acceptConnections() {
+        ServerSocket socket = serverSocket;
+        while (!socket.isClosed()) {
+            try {
+                Socket connection = socket.accept();
+                connection.setTcpNoDelay(true);
+                connectionHandlers.execute(() -> serve(connection));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.warn("Failed to accept cluster connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try (Socket socket = connection;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String response = handle(line);
+                if (response != null) {
+                    writer.write(response);
+                    writer.write('\n');
+                    writer.flush();
+                }
+            }
+        } catch (SocketException e) {
+            logger.debug("Cluster connection closed: {}", e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Cluster connection failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Handles one message from another member.
+     *
+     * @return The response line, or null for replication messages.
+     */
+    String handle(String line) {
+        String[] fields = ClusterProtocol.fields(line, 3);
+        String command = fields[0];
+        try {
+            switch (command) {
+                case ClusterProtocol.REPLICATE_PUT:
+                    replicaService.applyReplicatedBooking(ClusterProtocol.fromJson(fields[1]));
+                    return null;
+                case ClusterProtocol.REPLICATE_DELETE:
+                    replicaService.applyReplicatedDeletion(fields[1]);
+                    return null;
+                case ClusterProtocol.PING:
+                    return ClusterProtocol.OK;
+                case ClusterProtocol.GET:
+                    return storeFor(fields[1]).getBookingById(fields[1])
+                            .map(booking -> ClusterProtocol.message(ClusterProtocol.OK, ClusterProtocol.toJson(booking)))
+                            .orElse(ClusterProtocol.NOT_FOUND);
+                case ClusterProtocol.CREATE: {
+                    Booking booking = ClusterProtocol.fromJson(fields[1]);
+                    Booking created = storeFor(booking.getId()).createBooking(booking);
+                    return ClusterProtocol.message(ClusterProtocol.OK, ClusterProtocol.toJson(created));
+                }
+                case ClusterProtocol.UPDATE:
+                    return storeFor(fields[1]).updateBooking(fields[1], ClusterProtocol.fromJson(fields[2]))
+                            .map(booking -> ClusterProtocol.message(ClusterProtocol.OK, ClusterProtocol.toJson(booking)))
+                            .orElse(ClusterProtocol.NOT_FOUND);
+                case ClusterProtocol.TRANSITION:
+                    return storeFor(fields[1]).transitionBooking(fields[1], BookingStatus.parse(fields[2]))
+                            .map(booking -> ClusterProtocol.message(ClusterProtocol.OK, ClusterProtocol.toJson(booking)))
+                            .orElse(ClusterProtocol.NOT_FOUND);
+                case ClusterProtocol.CANCEL:
+                    return ClusterProtocol.message(ClusterProtocol.OK,
+                            String.valueOf(storeFor(fields[1]).cancelBooking(fields[1])));
+                case ClusterProtocol.DELETE:
+                    return ClusterProtocol.message(ClusterProtocol.OK,
+                            String.valueOf(storeFor(fields[1]).deleteBooking(fields[1])));
+                default:
+                    return ClusterProtocol.message(ClusterProtocol.ERROR, "Unknown command " + command);
+            }
+        } catch (IllegalBookingTransitionException | BookingAlreadyExistsException e) {
+            return ClusterProtocol.message(ClusterProtocol.CONFLICT, ClusterProtocol.singleLine(e.getMessage()));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return ClusterProtocol.message(ClusterProtocol.BAD_REQUEST, ClusterProtocol.singleLine(e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle cluster command {}: {}", command, e.getMessage(), e);
+            return ClusterProtocol.message(ClusterProtocol.ERROR, ClusterProtocol.singleLine(e.getMessage()));
+        }
+    }
+
+    /**
+     * @return The primary store if this node owns the key, the replica store if it only follows it.
+     */
+    private BookingService storeFor(String key) {
+        if (ring.owner(key).equals(self)) {
+            return bookingService;
+        }
+        if (self.equals(ring.follower(key))) {
+            return replicaService;
+        }
+        throw new IllegalStateException("Node " + self.getId() + " neither owns nor follows booking " + key);
+    }
+}
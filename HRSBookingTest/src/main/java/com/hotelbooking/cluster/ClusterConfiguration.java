@@ -0,0 +1,21 @@
+package com.hotelbooking.cluster;
+
+import com.hotelbooking.service.BookingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the clustered mode when booking.cluster.enabled=true. Single-node deployments are unaffected.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "booking.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public BookingCluster bookingCluster(ClusterProperties properties, BookingService bookingService) {
+        return new BookingCluster(properties, bookingService);
+    }
+}
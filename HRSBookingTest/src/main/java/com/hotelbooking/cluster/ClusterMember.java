@@ -0,0 +1,69 @@
+package com.hotelbooking.cluster;
+
+import java.util.Objects;
+
+/**
+ * A node of the cluster: its ID and the address of its cluster port.
+ */
+public class ClusterMember {
+
+    private final String id;
+    private final String host;
+    private final int port;
+
+    public ClusterMember(String id, String host, int port) {
+        this.id = id;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Parses a member definition of the form "id@host:port".
+     *
+     * @param definition The member definition.
+     * @return The parsed member.
+     * @throws IllegalArgumentException If the definition is malformed.
+     */
+    public static ClusterMember parse(String definition) {
+        int at = definition.indexOf('@');
+        int colon = definition.lastIndexOf(':');
+        if (at <= 0 || colon <= at + 1 || colon == definition.length() - 1) {
+            throw new IllegalArgumentException("Cluster member must look like id@host:port, got: " + definition);
+        }
+        try {
+            return new ClusterMember(definition.substring(0, at).trim(), definition.substring(at + 1, colon).trim(),
+                    Integer.parseInt(definition.substring(colon + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port in cluster member: " + definition);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return id.equals(((ClusterMember) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return id + "@" + host + ":" + port;
+    }
+}
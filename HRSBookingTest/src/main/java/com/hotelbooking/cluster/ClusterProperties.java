@@ -0,0 +1,92 @@
+package com.hotelbooking.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the optional clustered mode, bound from the "booking.cluster" prefix.
+ * Every node must be started with the same member list.
+ */
+@ConfigurationProperties(prefix = "booking.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+    // ID of this node; must match one of the members.
+    private String nodeId;
+    // Cluster members as "id@host:port", where port is the cluster (not HTTP) port of the node.
+    private List<String> members = new ArrayList<>();
+    // Points per member on the hash ring; more points spread keys more evenly.
+    private int virtualNodes = 64;
+    private int connectTimeoutMs = 500;
+    private int readTimeoutMs = 2000;
+    // How long a member that failed is skipped before it is tried again.
+    private long retryFailedMemberAfterMs = 1000;
+    // Mutations waiting to be shipped to a follower; when full, new mutations are not replicated.
+    private int replicationQueueCapacity = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<String> members) {
+        this.members = members;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public void setReadTimeoutMs(int readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public long getRetryFailedMemberAfterMs() {
+        return retryFailedMemberAfterMs;
+    }
+
+    public void setRetryFailedMemberAfterMs(long retryFailedMemberAfterMs) {
+        this.retryFailedMemberAfterMs = retryFailedMemberAfterMs;
+    }
+
+    public int getReplicationQueueCapacity() {
+        return replicationQueueCapacity;
+    }
+
+    public void setReplicationQueueCapacity(int replicationQueueCapacity) {
+        this.replicationQueueCapacity = replicationQueueCapacity;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotelbooking.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotelbooking.model.Booking;
+
+/**
+ * Line-based wire protocol between cluster nodes.
+ * <p>
+ * Each message is one UTF-8 line of tab separated fields: a command followed by its arguments.
+ * Bookings travel as single-line JSON. Request commands get exactly one response line
+ * ({@code OK}, {@code OK<TAB>value}, {@code NF}, {@code BAD<TAB>message}, {@code CONFLICT<TAB>message}
+ * or {@code ERR<TAB>message});
+ * replication commands are pipelined and get no response.
+ */
+final class ClusterProtocol {
+
+    static final char SEPARATOR = '\t';
+
+    // Requests forwarded to the owner (or its follower when the owner is down).
+    static final String GET = "GET";
+    static final String CREATE = "CREATE";
+    static final String UPDATE = "UPDATE";
+    static final String TRANSITION = "TRANSITION";
+    static final String CANCEL = "CANCEL";
+    static final String DELETE = "DELETE";
+    static final String PING = "PING";
+
+    // Mutation log shipped from an owner to its follower.
+    static final String REPLICATE_PUT = "REPL_PUT";
+    static final String REPLICATE_DELETE = "REPL_DEL";
+
+    static final String OK = "OK";
+    static final String NOT_FOUND = "NF";
+    static final String BAD_REQUEST = "BAD";
+    static final String CONFLICT = "CONFLICT";
+    static final String ERROR = "ERR";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ClusterProtocol() {
+    }
+
+    static String message(String command, String... arguments) {
+        StringBuilder sb = new StringBuilder(command);
+        for (String argument : arguments) {
+            sb.append(SEPARATOR).append(argument);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits a line into at most {@code limit} fields; the last field keeps any further separators.
+     */
+    static String[] fields(String line, int limit) {
+        return line.split(String.valueOf(SEPARATOR), limit);
+    }
+
+    /**
+     * Makes free text (such as an error message) safe to send as a single field.
+     */
+    static String singleLine(String text) {
+        return String.valueOf(text).replace('\n', ' ').replace('\r', ' ').replace(SEPARATOR, ' ');
+    }
+
+    static String toJson(Booking booking) {
+        try {
+            return MAPPER.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize booking " + booking.getId(), e);
+        }
+    }
+
+    static Booking fromJson(String json) {
+        try {
+            return MAPPER.readValue(json, Booking.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed booking in cluster message: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hotelbooking.cluster;
+
+/**
+ * Thrown when neither the owner of a booking nor its follower can be reached.
+ */
+public class ClusterUnavailableException extends IllegalStateException {
+
+    public ClusterUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotelbooking.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring mapping booking IDs to the member that owns them and to the
+ * member that follows it (the replica holder). Each member is placed on the ring several times
+ * to spread keys evenly.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, ClusterMember> ring = new TreeMap<>();
+    private final int memberCount;
+
+    /**
+     * @param members The cluster members.
+     * @param virtualNodes Number of ring points per member.
+     */
+    public ConsistentHashRing(Collection<ClusterMember> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one member.");
+        }
+        for (ClusterMember member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member.getId() + "#" + i), member);
+            }
+        }
+        this.memberCount = members.size();
+    }
+
+    /**
+     * @param key The booking ID.
+     * @return The member owning the key.
+     */
+    public ClusterMember owner(String key) {
+        Map.Entry<Long, ClusterMember> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @param key The booking ID.
+     * @return The next distinct member clockwise from the owner, or null in a single-node cluster.
+     */
+    public ClusterMember follower(String key) {
+        if (memberCount < 2) {
+            return null;
+        }
+        long h = hash(key);
+        ClusterMember owner = owner(key);
+        // Walk clockwise from the owner's point until a different member shows up.
+        for (ClusterMember member : ring.tailMap(h, true).values()) {
+            if (!member.equals(owner)) {
+                return member;
+            }
+        }
+        for (ClusterMember member : ring.headMap(h, false).values()) {
+            if (!member.equals(owner)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by the MurmurHash3 finalizer, so similar keys land far apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,276 @@
+package com.hotelbooking.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side of the connection to one other cluster member.
+ * <p>
+ * Forwarded requests use a small pool of connections, one request/response at a time per connection.
+ * Replication messages go through a bounded queue and are pipelined over a dedicated connection by a
+ * background sender, in the order they were queued. Messages still buffered when that connection
+ * breaks are lost, leaving the follower stale for those bookings until they change again. So are
+ * messages dropped because the queue is full; drops are counted and logged at most once per
+ * {@link #DROP_LOG_INTERVAL_MS} so that a lagging follower cannot flood the log from the write path.
+ */
+class PeerClient implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerClient.class);
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+    static final long DROP_LOG_INTERVAL_MS = 10_000;
+
+    private final ClusterMember member;
+    private final ClusterProperties properties;
+    private final ConcurrentLinkedDeque<Connection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final BlockingQueue<String> replicationQueue;
+    private final Thread replicationSender;
+    private final LongAdder replicationDropped = new LongAdder();
+    // Drops already reported, and when the next report is due; updated only by the thread that claims it.
+    private final AtomicLong replicationDropsLogged = new AtomicLong();
+    private final AtomicLong nextDropLogAt = new AtomicLong();
+    private volatile long unavailableUntil;
+    private volatile boolean closed;
+
+    PeerClient(ClusterMember member, ClusterProperties properties) {
+        this.member = member;
+        this.properties = properties;
+        this.replicationQueue = new ArrayBlockingQueue<>(properties.getReplicationQueueCapacity());
+        this.replicationSender = new Thread(this::sendReplicationLog, "cluster-replication-" + member.getId());
+        this.replicationSender.setDaemon(true);
+        this.replicationSender.start();
+    }
+
+    ClusterMember getMember() {
+        return member;
+    }
+
+    /**
+     * @return True if a recent request to this member failed and it should be skipped for now.
+     */
+    boolean isMarkedUnavailable() {
+        return System.currentTimeMillis() < unavailableUntil;
+    }
+
+    /**
+     * Sends a request and waits for its one-line response.
+     *
+     * @param line The request message.
+     * @return The response message.
+     * @throws NotSentException If no connection to the member could be opened, so it never saw the request.
+     * @throws IOException If the member cannot be reached or did not answer; it is then marked unavailable
+     *                     for a while. Except for {@link NotSentException}, the member may have handled the request.
+     */
+    String request(String line) throws IOException {
+        Connection connection = idleConnections.pollFirst();
+        try {
+            if (connection == null) {
+                connection = connect();
+            }
+            connection.writer.write(line);
+            connection.writer.write('\n');
+            connection.writer.flush();
+            String response = connection.reader.readLine();
+            if (response == null) {
+                throw new EOFException("Connection closed by " + member);
+            }
+            release(connection);
+            return response;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            markUnavailable();
+            throw e;
+        }
+    }
+
+    /**
+     * Queues a mutation for the follower without blocking. If the queue is full the mutation is dropped
+     * and the follower's copy is stale until the booking changes again.
+     *
+     * @param line The replication message.
+     */
+    void replicate(String line) {
+        if (!replicationQueue.offer(line)) {
+            replicationDropped.increment();
+            reportDrops();
+        }
+    }
+
+    // Called on the write path, so it only logs if this thread wins the next report slot.
+    private void reportDrops() {
+        long now = System.currentTimeMillis();
+        long due = nextDropLogAt.get();
+        if (now < due || !nextDropLogAt.compareAndSet(due, now + DROP_LOG_INTERVAL_MS)) {
+            return;
+        }
+        long total = replicationDropped.sum();
+        long sinceLastReport = total - replicationDropsLogged.getAndSet(total);
+        logger.warn("Replication queue to {} is full: dropped {} mutations since the last report ({} in total).",
+                member, sinceLastReport, total);
+    }
+
+    int getReplicationBacklog() {
+        return replicationQueue.size();
+    }
+
+    long getReplicationDropped() {
+        return replicationDropped.sum();
+    }
+
+    private void sendReplicationLog() {
+        Connection connection = null;
+        String pending = null;
+        while (!closed || !replicationQueue.isEmpty() || pending != null) {
+            if (closed && Thread.currentThread().isInterrupted()) {
+                break; // Gave up draining on shutdown.
+            }
+            try {
+                if (pending == null) {
+                    pending = replicationQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (pending == null) {
+                        continue;
+                    }
+                }
+                if (connection == null) {
+                    connection = new Connection(openSocket());
+                }
+                connection.writer.write(pending);
+                connection.writer.write('\n');
+                pending = null;
+                // Batch writes: flush only once the queue has been drained.
+                String next;
+                while ((next = replicationQueue.poll()) != null) {
+                    pending = next;
+                    connection.writer.write(next);
+                    connection.writer.write('\n');
+                    pending = null;
+                }
+                connection.writer.flush();
+            } catch (InterruptedException e) {
+                if (closed) {
+                    break;
+                }
+            } catch (IOException e) {
+                // Keep the unsent message and retry once the follower is reachable again.
+                if (connection != null) {
+                    connection.close();
+                    connection = null;
+                }
+                markUnavailable();
+                sleepQuietly(properties.getRetryFailedMemberAfterMs());
+            }
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private Connection connect() throws NotSentException {
+        try {
+            return new Connection(openSocket());
+        } catch (IOException e) {
+            throw new NotSentException(e);
+        }
+    }
+
+    private Socket openSocket() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(member.getHost(), member.getPort()), properties.getConnectTimeoutMs());
+            socket.setSoTimeout(properties.getReadTimeoutMs());
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void release(Connection connection) {
+        if (closed || idleConnections.size() >= MAX_IDLE_CONNECTIONS) {
+            connection.close();
+        } else {
+            idleConnections.offerFirst(connection);
+        }
+    }
+
+    private void markUnavailable() {
+        unavailableUntil = System.currentTimeMillis() + properties.getRetryFailedMemberAfterMs();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the replication sender after it has shipped what is queued (bounded by the read timeout)
+     * and closes all connections.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            replicationSender.join(properties.getReadTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        replicationSender.interrupt();
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Thrown when a request could not be sent because no connection to the member could be opened.
+     * Unlike a failure after sending, the member is known not to have handled the request.
+     */
+    static final class NotSentException extends IOException {
+
+        NotSentException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final BufferedReader reader;
+        final BufferedWriter writer;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing left to do with a broken connection.
+            }
+        }
+    }
+}
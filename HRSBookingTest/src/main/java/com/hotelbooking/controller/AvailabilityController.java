@@ -0,0 +1,84 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.logging.RequestIds;
+import com.hotelbooking.model.HotelAvailability;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.tracing.RequestTracer;
+import com.hotelbooking.tracing.TraceStage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for searching hotels with free rooms across all hotels.
+ */
+@RestController
+@RequestMapping("/availability")
+public class AvailabilityController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityController.class);
+    private static final Logger analyticsLogger = LoggerFactory.getLogger("com.hotelbooking.analytics");
+
+    private final BookingService bookingService;
+
+    /**
+     * Spring will automatically inject the BookingService instance.
+     * @param bookingService The BookingService whose availability index is searched.
+     */
+    @Autowired
+    public AvailabilityController(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Handles GET requests for the hotels with a free room on every night of a stay.
+     * Endpoint: GET /availability?from={from}&to={to}
+     *
+     * @param from The first night (ISO date), defaults to today.
+     * @param to The day after the last night (ISO date), defaults to the day after from.
+     * @return ResponseEntity with the available hotels and HTTP status 200 (OK), or 400 Bad Request
+     *         if the range is empty, in the past or beyond {@link BookingService#AVAILABILITY_HORIZON_DAYS}.
+     */
+    @GetMapping
+    public ResponseEntity<?> findAvailableHotels(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /availability?from={}&to={}",
+                requestId, from, to);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        try {
+            LocalDate start = from != null ? from : LocalDate.now();
+            LocalDate end = to != null ? to : start.plusDays(1);
+            HotelAvailability availability = bookingService.findAvailableHotels(start, end);
+            RequestTracer.lap(TraceStage.STORE);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Availability, Hotels: {}, Duration: {}ms",
+                    requestId, availability.getAvailableHotels().size(), millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(availability, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Availability, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Availability, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search availability.", e);
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,132 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.bulk.BookingExporter;
+import com.hotelbooking.bulk.BookingImporter;
+import com.hotelbooking.bulk.BulkFormat;
+import com.hotelbooking.logging.RequestIds;
+import com.hotelbooking.model.ImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * REST Controller for bulk import and export of bookings.
+ * Request and response bodies are streamed line by line instead of being held in memory.
+ */
+@RestController
+@RequestMapping("/bookings/bulk")
+public class BookingBulkController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingBulkController.class);
+    private static final Logger analyticsLogger = LoggerFactory.getLogger("com.hotelbooking.analytics");
+
+    private final BookingImporter bookingImporter;
+    private final BookingExporter bookingExporter;
+
+    /**
+     * Spring will automatically inject the BookingImporter and BookingExporter instances.
+     * @param bookingImporter Parses, validates and stores imported bookings.
+     * @param bookingExporter Writes out the stored bookings.
+     */
+    @Autowired
+    public BookingBulkController(BookingImporter bookingImporter, BookingExporter bookingExporter) {
+        this.bookingImporter = bookingImporter;
+        this.bookingExporter = bookingExporter;
+    }
+
+    /**
+     * Handles POST requests to import many bookings at once.
+     * Endpoint: POST /bookings/bulk/import (Content-Type: text/csv or application/x-ndjson)
+     * <p>
+     * Each line is one booking. Invalid lines are skipped and reported; all valid lines are imported.
+     *
+     * @param request The request, whose body is read as a stream.
+     * @return ResponseEntity with the ImportReport and HTTP status 200 (OK).
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importBookings(HttpServletRequest request) {
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: POST, Path: /bookings/bulk/import, ContentType: {}",
+                requestId, request.getContentType());
+
+        BulkFormat format;
+        try {
+            format = BulkFormat.from(request.getContentType());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unsupported Media Type for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 415, Action: Import, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage());
+        }
+
+        try {
+            ImportReport report = bookingImporter.importBookings(request.getInputStream(), format);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Import, Imported: {}, Failed: {}, Duration: {}ms",
+                    requestId, report.getImported(), report.getFailed(), millisSince(startTime));
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Import, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to import bookings.", e);
+        }
+    }
+
+    /**
+     * Handles GET requests to export all bookings.
+     * Endpoint: GET /bookings/bulk/export?format={ndjson|csv}
+     *
+     * @param format The output format, NDJSON by default.
+     * @param response The response the bookings are streamed to.
+     */
+    @GetMapping("/export")
+    public void exportBookings(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/bulk/export?format={}", requestId, format);
+
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = BulkFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Export, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(bulkFormat.getMediaType() + ";charset=UTF-8");
+        try {
+            long count = bookingExporter.exportBookings(response.getOutputStream(), bulkFormat);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Export, Streamed: {}, Duration: {}ms",
+                    requestId, count, millisSince(startTime));
+        } catch (IOException e) {
+            // The status line may already be sent; the client sees a truncated stream.
+            logger.warn("Export aborted for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 200, Action: Export, Aborted: true, Duration: {}ms",
+                    requestId, millisSince(startTime));
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Exception handler for ResponseStatusException, returning the reason as the body.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleResponseStatusException(ResponseStatusException ex) {
+        return new ResponseEntity<>(ex.getReason(), ex.getStatus());
+    }
+}
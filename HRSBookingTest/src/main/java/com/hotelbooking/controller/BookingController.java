@@ -1,19 +1,45 @@
 package com.hotelbooking.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hotelbooking.index.BookingDateIndex;
+import com.hotelbooking.logging.RequestIds;
 import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingField;
+import com.hotelbooking.model.BookingLookupRequest;
+import com.hotelbooking.model.BookingLookupResult;
+import com.hotelbooking.model.BookingProjection;
+import com.hotelbooking.model.BookingSort;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.model.HotelOccupancy;
+import com.hotelbooking.model.HotelSuggestion;
+import com.hotelbooking.service.BookingAlreadyExistsException;
 import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IdempotencyKeyConflictException;
+import com.hotelbooking.service.IdempotencyService;
+import com.hotelbooking.service.IllegalBookingTransitionException;
+import com.hotelbooking.tracing.RequestTracer;
+import com.hotelbooking.tracing.TraceStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Instant;
-import java.time.Duration;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * REST Controller for booking-related API endpoints.
@@ -26,74 +52,245 @@ public class BookingController {
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
     private static final Logger analyticsLogger = LoggerFactory.getLogger("com.hotelbooking.analytics");
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final int DEFAULT_OCCUPANCY_NIGHTS = 90;
+    private static final String SEARCH_MODE_EXACT = "exact";
+    private static final String SEARCH_MODE_FUZZY = "fuzzy";
+    static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final String BOOKING_NOT_FOUND = "Booking not found with ID: ";
+    private static final String BOOKING_NOT_FOUND_OR_CANCELLED = "Booking not found or already cancelled with ID: ";
+    private static final String IDEMPOTENCY_KEY_TOO_LONG =
+            "Idempotency key cannot be longer than " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.";
+    private static final ResponseEntity<Void> NO_CONTENT = new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter streamWriter; // Leaves flushing to the servlet's response buffer
 
     /**
-     * Spring will automatically inject the BookingService instance.
+     * Spring will automatically inject the BookingService, IdempotencyService and ObjectMapper instances.
      * @param bookingService The BookingService instance to use for business logic.
+     * @param idempotencyService The IdempotencyService used to deduplicate retried creates.
+     * @param objectMapper The application's ObjectMapper, used for streamed (NDJSON) responses.
      */
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyService idempotencyService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.streamWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
      * Handles POST requests to create a new booking.
      * Endpoint: POST /bookings
+     * <p>
+     * When an Idempotency-Key header is sent, a retry with the same key and body returns the stored
+     * response (marked with an Idempotent-Replayed header) instead of creating a second booking.
      *
      * @param booking The booking object from the request body.
-     * @return ResponseEntity with the created Booking and HTTP status 201 (Created).
+     * @param idempotencyKey Optional client supplied key identifying this logical request.
+     * @return ResponseEntity with the created Booking and HTTP status 201 (Created), 400 Bad Request, or
+     *         409 Conflict if the body carries the ID of an existing booking.
      */
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@RequestBody Booking booking) {
-        Instant startTime = Instant.now();
-        String requestId = UUID.randomUUID().toString();
+    public ResponseEntity<?> createBooking(@RequestBody Booking booking,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            String invalid = BookingService.findNewBookingError(booking);
+            return invalid != null ? rejectCreate(booking, invalid) : doCreateBooking(booking);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return error(HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_TOO_LONG);
+        }
+
+        // Fingerprint the body before the service assigns an ID and default status to it.
+        String fingerprint = IdempotencyService.fingerprint(booking);
+        try {
+            IdempotencyService.IdempotentResult<ResponseEntity<Booking>> result =
+                    idempotencyService.execute(idempotencyKey, fingerprint, () -> {
+                        // Validated only for a new key: a retry is replayed even if, say, its check-in date has passed since.
+                        String invalid = BookingService.findNewBookingError(booking);
+                        if (invalid != null) {
+                            rejectCreate(booking, invalid);
+                            // Thrown so the idempotency cache does not store it, like the 400s of doCreateBooking.
+                            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, invalid);
+                        }
+                        ResponseEntity<Booking> response = doCreateBooking(booking);
+                        // Keep a detached copy so later updates to the booking do not change the replayed response.
+                        return new ResponseEntity<>(new Booking(response.getBody()), response.getStatusCode());
+                    });
+            if (!result.isReplayed()) {
+                return result.getValue();
+            }
+            ResponseEntity<Booking> stored = result.getValue();
+            analyticsLogger.info("[REQ_REPLAY] Method: POST, Path: /bookings, IdempotencyKey: {}, BookingId: {}",
+                    idempotencyKey, stored.getBody().getId());
+            return ResponseEntity.status(stored.getStatusCode())
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(stored.getBody());
+        } catch (IdempotencyKeyConflictException e) {
+            logger.warn("Idempotency conflict for key {}: {}", idempotencyKey, e.getMessage());
+            HttpStatus status = e.getReason() == IdempotencyKeyConflictException.Reason.PAYLOAD_MISMATCH
+                    ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CONFLICT;
+            return error(status, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<String> rejectCreate(Booking booking, String reason) {
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: POST, Path: /bookings, Body: {}", requestId, booking);
+        logger.warn("Bad Request for RequestId {}: {}", requestId, reason);
+        analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Create, Duration: {}ms",
+                requestId, millisSince(startTime));
+        return error(HttpStatus.BAD_REQUEST, reason);
+    }
+
+    private ResponseEntity<Booking> doCreateBooking(Booking booking) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
         analyticsLogger.info("[REQ_START] RequestId: {}, Method: POST, Path: /bookings, Body: {}",
                 requestId, booking);
+        RequestTracer.lap(TraceStage.LOGGING);
 
         try {
             Booking createdBooking = bookingService.createBooking(booking);
-            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 201, Action: Create, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+            RequestTracer.lap(TraceStage.STORE);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 201, Action: Create, BookingId: {}, Duration: {}ms",
+                    requestId, createdBooking.getId(), millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
             return new ResponseEntity<>(createdBooking, HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
             analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Create, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
+            // Thrown so the idempotency cache does not store it; createBooking rejects invalid bodies before this.
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (BookingAlreadyExistsException e) {
+            logger.warn("Conflict for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 409, Action: Create, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
             analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Create, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create booking.", e);
         }
     }
 
     /**
      * Handles GET requests to retrieve all bookings.
-     * Endpoint: GET /bookings
+     * Endpoint: GET /bookings?fields={fields}&sort={sort}&limit={limit}
      *
-     * @return ResponseEntity with a list of all Bookings and HTTP status 200 (OK).
+     * @param fields Optional comma separated Booking properties to include, e.g. "id,status,checkInDate".
+     * @param sort Optional order: checkInDate, hotelName or status, prefixed with '-' for descending.
+     * @param limit Optional maximum number of bookings; with sort, only that many are selected, not the whole store sorted.
+     * @return ResponseEntity with the Bookings (or their selected fields) and HTTP status 200 (OK), or 400 Bad Request.
      */
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        Instant startTime = Instant.now();
-        String requestId = UUID.randomUUID().toString();
-        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings", requestId);
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) Integer limit) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        if (fields == null && sort == null && limit == null) {
+            analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings", requestId);
+        } else {
+            analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings?fields={}&sort={}&limit={}",
+                    requestId, fields, sort, limit);
+        }
+        RequestTracer.lap(TraceStage.LOGGING);
 
         try {
-            List<Booking> bookings = bookingService.getAllBookings();
+            Set<BookingField> projection = fields != null ? BookingField.parseList(fields) : null;
+            BookingSort order = sort != null ? BookingSort.parse(sort) : null;
+            List<Booking> bookings = order == null && limit == null
+                    ? bookingService.getAllBookings()
+                    : bookingService.getAllBookings(order, limit != null ? limit : Integer.MAX_VALUE);
+            RequestTracer.lap(TraceStage.STORE);
             analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: GetAll, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
-            return new ResponseEntity<>(bookings, HttpStatus.OK);
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(project(bookings, projection), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: GetAll, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
             analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: GetAll, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve bookings.", e);
         }
     }
 
+    private static Object project(List<Booking> bookings, Set<BookingField> fields) {
+        return fields != null ? new BookingProjection(bookings, fields) : bookings;
+    }
+
+    /**
+     * Handles GET requests to retrieve several bookings by ID in one round trip.
+     * Endpoint: GET /bookings?ids=id1,id2,...
+     *
+     * @param ids The booking IDs, comma separated or as repeated parameters.
+     * @return ResponseEntity with the BookingLookupResult (200 OK, also when some IDs are missing), or 400 Bad Request.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getBookingsByIds(@RequestParam List<String> ids) {
+        return lookup("GET", "/bookings?ids=", ids);
+    }
+
+    /**
+     * Handles POST requests to retrieve several bookings by ID in one round trip.
+     * Endpoint: POST /bookings/lookup with a body like {"ids": ["id1", "id2"]}
+     * <p>
+     * Unlike GET /bookings?ids=, the number of IDs is not limited by the URL length.
+     *
+     * @param request The IDs to look up, from the request body.
+     * @return ResponseEntity with the BookingLookupResult (200 OK, also when some IDs are missing), or 400 Bad Request.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupBookings(@RequestBody BookingLookupRequest request) {
+        return lookup("POST", "/bookings/lookup", request.getIds());
+    }
+
+    private ResponseEntity<?> lookup(String method, String path, List<String> ids) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: {}, Path: {}, Ids: {}",
+                requestId, method, path, ids != null ? ids.size() : 0);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        try {
+            BookingLookupResult result = bookingService.getBookingsByIds(ids);
+            RequestTracer.lap(TraceStage.STORE);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Lookup, Found: {}, Missing: {}, Duration: {}ms",
+                    requestId, result.getBookings().size(), result.getMissingIds().size(),
+                    millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Lookup, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Lookup, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to look up bookings.", e);
+        }
+    }
+
     /**
      * Handles GET requests to retrieve a specific booking by ID.
      * Endpoint: GET /bookings/{id}
@@ -102,105 +299,373 @@ public class BookingController {
      * @return ResponseEntity with the Booking if found (200 OK), or 404 Not Found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBookingById(@PathVariable String id) {
-        Instant startTime = Instant.now();
-        String requestId = UUID.randomUUID().toString();
+    public ResponseEntity<?> getBookingById(@PathVariable String id) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
         analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/{}", requestId, id);
+        RequestTracer.lap(TraceStage.LOGGING);
 
         try {
-            return bookingService.getBookingById(id)
-                    .map(booking -> {
-                        analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: GetById, Duration: {}ms",
-                                requestId, Duration.between(startTime, Instant.now()).toMillis());
-                        return new ResponseEntity<>(booking, HttpStatus.OK);
-                    })
-                    .orElseGet(() -> {
-                        logger.warn("Booking not found for RequestId {}: ID {}", requestId, id);
-                        analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 404, Action: GetById, Duration: {}ms",
-                                requestId, Duration.between(startTime, Instant.now()).toMillis());
-                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found with ID: " + id);
-                    });
+            Optional<Booking> booking = bookingService.getBookingById(id);
+            RequestTracer.lap(TraceStage.STORE);
+            if (!booking.isPresent()) {
+                return notFound(requestId, "GetById", startTime, id, BOOKING_NOT_FOUND);
+            }
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: GetById, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(booking.get(), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
             analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: GetById, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
             analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: GetById, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve booking.", e);
         }
     }
 
     /**
      * Handles GET requests to search for bookings by hotel name.
-     * Endpoint: GET /bookings/search?hotelName={hotelName}
+     * Endpoint: GET /bookings/search?hotelName={hotelName}&mode={exact|fuzzy}&fields={fields}&sort={sort}&limit={limit}
      *
      * @param hotelName The hotel name to search for (partial or full, case-insensitive).
-     * @return ResponseEntity with a list of matching Bookings and HTTP status 200 (OK).
+     * @param mode "exact" (default) for substring matches, "fuzzy" to tolerate typos and rank hotels by similarity.
+     * @param fields Optional comma separated Booking properties to include, e.g. "id,status,checkInDate".
+     * @param sort Optional order: checkInDate, hotelName or status, prefixed with '-' for descending.
+     * @param limit Optional maximum number of bookings.
+     * @return ResponseEntity with a list of matching Bookings (or their selected fields) and HTTP status 200 (OK).
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Booking>> searchBookings(@RequestParam String hotelName) {
-        Instant startTime = Instant.now();
-        String requestId = UUID.randomUUID().toString();
-        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/search?hotelName={}", requestId, hotelName);
+    public ResponseEntity<?> searchBookings(@RequestParam String hotelName,
+                                            @RequestParam(defaultValue = SEARCH_MODE_EXACT) String mode,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) Integer limit) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        if (fields == null && sort == null && limit == null) {
+            analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/search?hotelName={}&mode={}", requestId, hotelName, mode);
+        } else {
+            analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/search?hotelName={}&mode={}&fields={}&sort={}&limit={}",
+                    requestId, hotelName, mode, fields, sort, limit);
+        }
+        RequestTracer.lap(TraceStage.LOGGING);
 
         try {
-            List<Booking> bookings = bookingService.searchBookingsByHotelName(hotelName);
+            Set<BookingField> projection = fields != null ? BookingField.parseList(fields) : null;
+            BookingSort order = sort != null ? BookingSort.parse(sort) : null;
+            List<Booking> bookings;
+            if (SEARCH_MODE_EXACT.equalsIgnoreCase(mode)) {
+                bookings = bookingService.searchBookingsByHotelName(hotelName);
+            } else if (SEARCH_MODE_FUZZY.equalsIgnoreCase(mode)) {
+                bookings = bookingService.searchBookingsByHotelNameFuzzy(hotelName);
+            } else {
+                throw new IllegalArgumentException("Unknown search mode: " + mode);
+            }
+            if (order != null || limit != null) {
+                bookings = BookingService.sortAndLimit(bookings, order, limit != null ? limit : Integer.MAX_VALUE);
+            }
+            RequestTracer.lap(TraceStage.STORE);
             analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Search, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
-            return new ResponseEntity<>(bookings, HttpStatus.OK);
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(project(bookings, projection), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
             analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Search, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
             analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Search, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search bookings.", e);
         }
     }
 
+    /**
+     * Handles GET requests for the bookings arriving within a date range.
+     * Endpoint: GET /bookings/arrivals?from={from}&to={to}&hotelName={hotelName}&status={status}
+     * <p>
+     * Send {@code Accept: application/x-ndjson} to stream one booking per line instead of a JSON array.
+     *
+     * @param from The first check-in date (ISO date), defaults to today.
+     * @param to The last check-in date (ISO date), defaults to from.
+     * @param hotelName Optional hotel name filter (case-insensitive, exact match).
+     * @param status Optional status filter (case-insensitive).
+     * @return ResponseEntity with the arriving Bookings in check-in order and HTTP status 200 (OK).
+     */
+    @GetMapping("/arrivals")
+    public ResponseEntity<?> getArrivals(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(required = false) String hotelName,
+                                         @RequestParam(required = false) String status) {
+        return listByDate("Arrivals", "/bookings/arrivals", BookingDateIndex.DateField.CHECK_IN, from, to, hotelName, status);
+    }
+
+    /**
+     * Streams the bookings arriving within a date range as newline-delimited JSON.
+     * Endpoint: GET /bookings/arrivals (Accept: application/x-ndjson)
+     */
+    @GetMapping(value = "/arrivals", produces = NDJSON_MEDIA_TYPE)
+    public void streamArrivals(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestParam(required = false) String hotelName,
+                               @RequestParam(required = false) String status,
+                               HttpServletResponse response) throws IOException {
+        streamByDate("Arrivals", "/bookings/arrivals", BookingDateIndex.DateField.CHECK_IN, from, to, hotelName, status, response);
+    }
+
+    /**
+     * Handles GET requests for the bookings departing within a date range.
+     * Endpoint: GET /bookings/departures?from={from}&to={to}&hotelName={hotelName}&status={status}
+     * <p>
+     * Send {@code Accept: application/x-ndjson} to stream one booking per line instead of a JSON array.
+     *
+     * @param from The first check-out date (ISO date), defaults to today.
+     * @param to The last check-out date (ISO date), defaults to from.
+     * @param hotelName Optional hotel name filter (case-insensitive, exact match).
+     * @param status Optional status filter (case-insensitive).
+     * @return ResponseEntity with the departing Bookings in check-out order and HTTP status 200 (OK).
+     */
+    @GetMapping("/departures")
+    public ResponseEntity<?> getDepartures(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) String hotelName,
+                                           @RequestParam(required = false) String status) {
+        return listByDate("Departures", "/bookings/departures", BookingDateIndex.DateField.CHECK_OUT, from, to, hotelName, status);
+    }
+
+    /**
+     * Streams the bookings departing within a date range as newline-delimited JSON.
+     * Endpoint: GET /bookings/departures (Accept: application/x-ndjson)
+     */
+    @GetMapping(value = "/departures", produces = NDJSON_MEDIA_TYPE)
+    public void streamDepartures(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                 @RequestParam(required = false) String hotelName,
+                                 @RequestParam(required = false) String status,
+                                 HttpServletResponse response) throws IOException {
+        streamByDate("Departures", "/bookings/departures", BookingDateIndex.DateField.CHECK_OUT, from, to, hotelName, status, response);
+    }
+
+    private ResponseEntity<?> listByDate(String action, String path, BookingDateIndex.DateField field,
+                                         LocalDate from, LocalDate to, String hotelName, String status) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: {}?from={}&to={}&hotelName={}&status={}",
+                requestId, path, from, to, hotelName, status);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        try {
+            LocalDate start = from != null ? from : LocalDate.now();
+            List<Booking> bookings;
+            try (Stream<Booking> matches = bookingService.findBookingsByDate(field, start, to != null ? to : start, hotelName, status)) {
+                bookings = matches.collect(Collectors.toList());
+            }
+            RequestTracer.lap(TraceStage.STORE);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(bookings, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve bookings by date.", e);
+        }
+    }
+
+    private void streamByDate(String action, String path, BookingDateIndex.DateField field, LocalDate from, LocalDate to,
+                              String hotelName, String status, HttpServletResponse response) throws IOException {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: {}?from={}&to={}&hotelName={}&status={}, Accept: {}",
+                requestId, path, from, to, hotelName, status, NDJSON_MEDIA_TYPE);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        LocalDate start = from != null ? from : LocalDate.now();
+        Stream<Booking> matches;
+        try {
+            matches = bookingService.findBookingsByDate(field, start, to != null ? to : start, hotelName, status);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        // Bookings are written as they are read from the index; nothing is collected in memory.
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON_MEDIA_TYPE);
+        long[] written = new long[1];
+        try (Stream<Booking> bookings = matches;
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            bookings.forEach(booking -> {
+                try {
+                    streamWriter.writeValue(generator, booking);
+                    generator.writeRaw('\n');
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // The status line is already sent; the client sees a truncated stream.
+            logger.warn("Streaming aborted for RequestId {} after {} bookings: {}", requestId, written[0], e.getCause().getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 200, Action: {}, Streamed: {}, Aborted: true, Duration: {}ms",
+                    requestId, action, written[0], millisSince(startTime));
+            return;
+        }
+        RequestTracer.lap(TraceStage.STORE);
+        analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: {}, Streamed: {}, Duration: {}ms",
+                requestId, action, written[0], millisSince(startTime));
+        RequestTracer.lap(TraceStage.LOGGING);
+    }
+
+    /**
+     * Handles GET requests for hotel name suggestions while the user types.
+     * Endpoint: GET /bookings/autocomplete?prefix={prefix}&limit={limit}
+     *
+     * @param prefix The typed prefix of the hotel name (case-insensitive).
+     * @param limit The maximum number of suggestions, 10 by default.
+     * @return ResponseEntity with the hotel names ranked by booking count and HTTP status 200 (OK).
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocompleteHotelNames(@RequestParam String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/autocomplete?prefix={}&limit={}",
+                requestId, prefix, limit);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        try {
+            List<HotelSuggestion> suggestions = bookingService.autocompleteHotelNames(prefix, limit);
+            RequestTracer.lap(TraceStage.STORE);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Autocomplete, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(suggestions, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Autocomplete, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Autocomplete, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to autocomplete hotel names.", e);
+        }
+    }
+
+    /**
+     * Handles GET requests for the per-night occupancy of a hotel.
+     * Endpoint: GET /bookings/occupancy?hotelName={hotelName}&from={from}&to={to}
+     *
+     * @param hotelName The hotel name (case-insensitive, exact match).
+     * @param from The first night (ISO date), defaults to today.
+     * @param to The day after the last night (ISO date), defaults to 90 nights after from.
+     * @return ResponseEntity with the booking counts per night and status and HTTP status 200 (OK).
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<?> getOccupancy(@RequestParam String hotelName,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: GET, Path: /bookings/occupancy?hotelName={}&from={}&to={}",
+                requestId, hotelName, from, to);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        try {
+            LocalDate start = from != null ? from : LocalDate.now();
+            LocalDate end = to != null ? to : start.plusDays(DEFAULT_OCCUPANCY_NIGHTS);
+            HotelOccupancy occupancy = bookingService.getOccupancy(hotelName, start, end);
+            RequestTracer.lap(TraceStage.STORE);
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Occupancy, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(occupancy, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Occupancy, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Occupancy, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve occupancy.", e);
+        }
+    }
+
     /**
      * Handles PUT requests to update an existing booking.
      * Endpoint: PUT /bookings/{id}
      *
      * @param id The ID of the booking to update, from the path variable.
      * @param booking The updated booking object from the request body.
-     * @return ResponseEntity with the updated Booking (200 OK), or 404 Not Found.
+     * @return ResponseEntity with the updated Booking (200 OK), 400 Bad Request, 404 Not Found, or 409 Conflict.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Booking> updateBooking(@PathVariable String id, @RequestBody Booking booking) {
-        Instant startTime = Instant.now();
-        String requestId = UUID.randomUUID().toString();
+    public ResponseEntity<?> updateBooking(@PathVariable String id, @RequestBody Booking booking) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
         analyticsLogger.info("[REQ_START] RequestId: {}, Method: PUT, Path: /bookings/{}, Body: {}",
                 requestId, id, booking);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        String invalid = BookingService.findUpdateError(id, booking);
+        if (invalid != null) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, invalid);
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Update, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, invalid);
+        }
 
         try {
-            return bookingService.updateBooking(id, booking)
-                    .map(updatedBooking -> {
-                        analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Update, Duration: {}ms",
-                                requestId, Duration.between(startTime, Instant.now()).toMillis());
-                        return new ResponseEntity<>(updatedBooking, HttpStatus.OK);
-                    })
-                    .orElseGet(() -> {
-                        logger.warn("Booking not found for RequestId {}: ID {}", requestId, id);
-                        analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 404, Action: Update, Duration: {}ms",
-                                requestId, Duration.between(startTime, Instant.now()).toMillis());
-                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found with ID: " + id);
-                    });
+            Optional<Booking> updatedBooking = bookingService.updateValidatedBooking(id, booking);
+            RequestTracer.lap(TraceStage.STORE);
+            if (!updatedBooking.isPresent()) {
+                return notFound(requestId, "Update", startTime, id, BOOKING_NOT_FOUND);
+            }
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: Update, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return new ResponseEntity<>(updatedBooking.get(), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
             analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Update, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalBookingTransitionException e) {
+            logger.warn("Conflict for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 409, Action: Update, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
             analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Update, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update booking.", e);
         }
     }
@@ -213,36 +678,158 @@ public class BookingController {
      * @return ResponseEntity with no content (204 No Content) if successful, or 404 Not Found.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> cancelBooking(@PathVariable String id) {
-        Instant startTime = Instant.now();
-        String requestId = UUID.randomUUID().toString();
+    public ResponseEntity<?> cancelBooking(@PathVariable String id) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
         analyticsLogger.info("[REQ_START] RequestId: {}, Method: DELETE, Path: /bookings/{}", requestId, id);
+        RequestTracer.lap(TraceStage.LOGGING);
 
         try {
             boolean cancelled = bookingService.cancelBooking(id);
-            if (cancelled) {
-                analyticsLogger.info("[REQ_END] RequestId: {}, Status: 204, Action: Cancel, Duration: {}ms",
-                        requestId, Duration.between(startTime, Instant.now()).toMillis());
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content
-            } else {
-                logger.warn("Booking not found or already cancelled for RequestId {}: ID {}", requestId, id);
-                analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 404, Action: Cancel, Duration: {}ms",
-                        requestId, Duration.between(startTime, Instant.now()).toMillis());
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found or already cancelled with ID: " + id);
+            RequestTracer.lap(TraceStage.STORE);
+            if (!cancelled) {
+                return notFound(requestId, "Cancel", startTime, id, BOOKING_NOT_FOUND_OR_CANCELLED);
             }
+            analyticsLogger.info("[REQ_END] RequestId: {}, Status: 204, Action: Cancel, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            RequestTracer.lap(TraceStage.LOGGING);
+            return NO_CONTENT;
         } catch (IllegalArgumentException e) {
             logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
             analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: Cancel, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalBookingTransitionException e) {
+            logger.warn("Conflict for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 409, Action: Cancel, Duration: {}ms",
+                    requestId, millisSince(startTime));
+            return error(HttpStatus.CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
             analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: Cancel, Duration: {}ms",
-                    requestId, Duration.between(startTime, Instant.now()).toMillis());
+                    requestId, millisSince(startTime));
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to cancel booking.", e);
         }
     }
 
+    /**
+     * Handles POST requests to confirm a pending booking.
+     * Endpoint: POST /bookings/{id}/confirm
+     *
+     * @param id The ID of the booking, from the path variable.
+     * @return ResponseEntity with the confirmed Booking (200 OK), 404 Not Found, or 409 Conflict if the
+     * booking is not pending (including when a concurrent request changed it first).
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<?> confirmBooking(@PathVariable String id) {
+        return transition("Confirm", "confirm", id, BookingStatus.CONFIRMED);
+    }
+
+    /**
+     * Handles POST requests to cancel a pending or confirmed booking.
+     * Endpoint: POST /bookings/{id}/cancel
+     *
+     * @param id The ID of the booking, from the path variable.
+     * @return ResponseEntity with the cancelled Booking (200 OK), 404 Not Found, or 409 Conflict if the
+     * booking cannot be cancelled from its current status.
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancelBookingTransition(@PathVariable String id) {
+        return transition("CancelTransition", "cancel", id, BookingStatus.CANCELLED);
+    }
+
+    /**
+     * Handles POST requests to check in the guest of a confirmed booking.
+     * Endpoint: POST /bookings/{id}/check-in
+     *
+     * @param id The ID of the booking, from the path variable.
+     * @return ResponseEntity with the checked-in Booking (200 OK), 404 Not Found, or 409 Conflict if the
+     * booking is not confirmed.
+     */
+    @PostMapping("/{id}/check-in")
+    public ResponseEntity<?> checkInBooking(@PathVariable String id) {
+        return transition("CheckIn", "check-in", id, BookingStatus.CHECKED_IN);
+    }
+
+    /**
+     * Handles POST requests to check out the guest of a checked-in booking.
+     * Endpoint: POST /bookings/{id}/check-out
+     *
+     * @param id The ID of the booking, from the path variable.
+     * @return ResponseEntity with the checked-out Booking (200 OK), 404 Not Found, or 409 Conflict if the
+     * booking is not checked in.
+     */
+    @PostMapping("/{id}/check-out")
+    public ResponseEntity<?> checkOutBooking(@PathVariable String id) {
+        return transition("CheckOut", "check-out", id, BookingStatus.CHECKED_OUT);
+    }
+
+    private ResponseEntity<?> transition(String action, String pathSuffix, String id, BookingStatus target) {
+        RequestTracer.lap(TraceStage.BINDING);
+        long startTime = System.nanoTime();
+        String requestId = RequestIds.next();
+        analyticsLogger.info("[REQ_START] RequestId: {}, Method: POST, Path: /bookings/{}/{}", requestId, id, pathSuffix);
+        RequestTracer.lap(TraceStage.LOGGING);
+
+        Optional<Booking> result;
+        try {
+            result = bookingService.transitionBooking(id, target);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bad Request for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 400, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalBookingTransitionException e) {
+            logger.warn("Conflict for RequestId {}: {}", requestId, e.getMessage());
+            analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 409, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Internal Server Error for RequestId {}: {}", requestId, e.getMessage(), e);
+            analyticsLogger.error("[REQ_END] RequestId: {}, Status: 500, Action: {}, Duration: {}ms",
+                    requestId, action, millisSince(startTime));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to change booking status.", e);
+        }
+
+        RequestTracer.lap(TraceStage.STORE);
+        if (!result.isPresent()) {
+            return notFound(requestId, action, startTime, id, BOOKING_NOT_FOUND);
+        }
+        analyticsLogger.info("[REQ_END] RequestId: {}, Status: 200, Action: {}, Duration: {}ms",
+                requestId, action, millisSince(startTime));
+        RequestTracer.lap(TraceStage.LOGGING);
+        return new ResponseEntity<>(result.get(), HttpStatus.OK);
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Expected failures (400, 404, 409) are returned rather than thrown: a thrown ResponseStatusException
+    // fills in a stack trace and goes through exception handler resolution, which dominated the cost of
+    // lookups for unknown IDs. Exceptions remain for the unexpected (500) paths.
+    private static ResponseEntity<String> error(HttpStatus status, String message) {
+        return new ResponseEntity<>(message, status);
+    }
+
+    private static ResponseEntity<String> notFound(String requestId, String action, long startTime, String id, String reason) {
+        logger.debug("Booking not found for RequestId {}: ID {}", requestId, id);
+        analyticsLogger.warn("[REQ_END] RequestId: {}, Status: 404, Action: {}, Duration: {}ms",
+                requestId, action, millisSince(startTime));
+        RequestTracer.lap(TraceStage.LOGGING);
+        return error(HttpStatus.NOT_FOUND, reason.concat(id));
+    }
+
+    /**
+     * Exception handler for ResponseStatusException.
+     * Keeps the status chosen by the handler method instead of falling through to the catch-all below.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleResponseStatusException(ResponseStatusException ex) {
+        return new ResponseEntity<>(ex.getReason(), ex.getStatus());
+    }
+
     /**
      * Custom exception handler for IllegalArgumentException.
      * This ensures a consistent 400 Bad Request response.
@@ -0,0 +1,96 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.model.SearchCacheStats;
+import com.hotelbooking.model.TraceReport;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.tracing.RequestTracer;
+import com.hotelbooking.tracing.TraceRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * REST Controller for operational diagnostics.
+ * Exposes the per-stage request traces sampled by {@link RequestTracer} and the search cache counters.
+ */
+@RestController
+@RequestMapping("/diagnostics")
+public class DiagnosticsController {
+
+    /** Largest number of raw traces returned by one request. */
+    public static final int MAX_RECENT_TRACES = 1000;
+
+    private final BookingService bookingService;
+
+    /**
+     * @param bookingService The BookingService whose search cache is reported.
+     */
+    @Autowired
+    public DiagnosticsController(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Handles GET requests for the per-stage latency breakdown of the sampled requests.
+     * Endpoint: GET /diagnostics/traces?operation=GET /bookings/{id}
+     *
+     * @param operation Optional HTTP method and path pattern to restrict the report to.
+     * @return ResponseEntity with the TraceReport and HTTP status 200 (OK).
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<TraceReport> getTraceReport(@RequestParam(required = false) String operation) {
+        return new ResponseEntity<>(RequestTracer.report(operation), HttpStatus.OK);
+    }
+
+    /**
+     * Handles GET requests for the most recent sampled traces.
+     * Endpoint: GET /diagnostics/traces/recent?limit=50
+     *
+     * @param limit Maximum number of traces, between 1 and {@link #MAX_RECENT_TRACES}.
+     * @return ResponseEntity with the traces, newest first, and HTTP status 200 (OK), or 400 Bad Request.
+     */
+    @GetMapping("/traces/recent")
+    public ResponseEntity<List<TraceRecord>> getRecentTraces(@RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_RECENT_TRACES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Limit must be between 1 and " + MAX_RECENT_TRACES + ".");
+        }
+        return new ResponseEntity<>(RequestTracer.recentTraces(limit), HttpStatus.OK);
+    }
+
+    /**
+     * Handles DELETE requests to discard the recorded traces, e.g. before a measurement.
+     * Endpoint: DELETE /diagnostics/traces
+     *
+     * @return ResponseEntity with no content (204 No Content).
+     */
+    @DeleteMapping("/traces")
+    public ResponseEntity<Void> clearTraces() {
+        RequestTracer.clear();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    /**
+     * Handles GET requests for the hit, miss, eviction and invalidation counters of the hotel name search cache.
+     * Endpoint: GET /diagnostics/search-cache
+     *
+     * @return ResponseEntity with the SearchCacheStats and HTTP status 200 (OK).
+     */
+    @GetMapping("/search-cache")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats() {
+        return new ResponseEntity<>(bookingService.getSearchCacheStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Exception handler for ResponseStatusException.
+     * Returns the reason as the response body.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleResponseStatusException(ResponseStatusException ex) {
+        return new ResponseEntity<>(ex.getReason(), ex.getStatus());
+    }
+}
@@ -0,0 +1,385 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingMutationListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-hotel bitmaps of fully booked nights over a rolling horizon, for finding the hotels with a free room
+ * on every night of a stay.
+ * <p>
+ * Each hotel keeps a count of bookings per night, maintained from {@link BookingMutationListener} callbacks
+ * like {@link OccupancyIndex}, and a bitmap with one bit per night that is set while the count is at or
+ * above the hotel's capacity. A bit only flips when a count crosses the capacity, so most changes update
+ * the counts alone; when one does flip, a new copy of the bitmap is published, so readers never lock.
+ * A range query tests 64 nights at a time with a masked word, and hotels are scanned in parallel once
+ * there are {@link #PARALLEL_THRESHOLD} of them.
+ * <p>
+ * Nights are tracked from the start of the current 64-day block to at least {@code horizonDays} after
+ * today. Stays reaching further ahead are kept beyond the window as two boundaries each (+1 at the first
+ * night, -1 after the last) in a sorted map, so a stay costs the same however long or distant it is. The
+ * nights entering the window are expanded from these boundaries into counts as it rolls forward, one hotel
+ * at a time on its next change or query; nights that fall behind it are dropped.
+ * Cancelled bookings do not take a room. Hotels are matched by name, ignoring case and surrounding
+ * whitespace, and are known once they have a booking or a configured capacity.
+ */
+public class AvailabilityIndex implements BookingMutationListener {
+
+    /** Number of known hotels from which queries scan them in parallel. */
+    public static final int PARALLEL_THRESHOLD = 1024;
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_NIGHTS = 1 << WORD_SHIFT;
+
+    private final int horizonDays;
+    private final int trackedNights;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Hotel> hotels = new ConcurrentHashMap<>();
+    // The hotels sorted by name, rebuilt by the next query after a hotel is added.
+    private volatile Hotel[] sortedHotels;
+    // Epoch day of the first tracked night; a multiple of 64 that only moves forward.
+    private final AtomicLong baseDay = new AtomicLong();
+    private volatile Capacities capacities;
+
+    /**
+     * @param horizonDays Number of nights from today that can be queried.
+     * @param defaultCapacity Rooms of every hotel until capacities are configured.
+     */
+    public AvailabilityIndex(int horizonDays, int defaultCapacity) {
+        this(horizonDays, defaultCapacity, Clock.systemDefaultZone());
+    }
+
+    AvailabilityIndex(int horizonDays, int defaultCapacity, Clock clock) {
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("Availability horizon must be positive.");
+        }
+        this.horizonDays = horizonDays;
+        // One spare word, since the window starts up to 63 nights before today.
+        this.trackedNights = ((horizonDays + WORD_NIGHTS - 1) / WORD_NIGHTS + 1) * WORD_NIGHTS;
+        this.clock = clock;
+        this.capacities = new Capacities(defaultCapacity, Collections.emptyMap());
+        currentBase();
+    }
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        apply(booking, 1);
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        apply(previous, -1);
+        apply(current, 1);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        apply(booking, -1);
+    }
+
+    /**
+     * @return The number of nights from today that can be queried.
+     */
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    /**
+     * @return The number of hotels known to the index.
+     */
+    public int getHotelCount() {
+        return hotels.size();
+    }
+
+    /**
+     * Sets the number of rooms per hotel. Bitmaps are rebuilt from the counts, so this can be called
+     * after bookings have been indexed. Configured hotels are known even without bookings.
+     *
+     * @param defaultCapacity Rooms of hotels without a configured capacity.
+     * @param capacities Rooms by hotel name (case-insensitive).
+     * @throws IllegalArgumentException If a capacity is not positive.
+     */
+    public void setCapacities(int defaultCapacity, Map<String, Integer> capacities) {
+        Capacities updated = new Capacities(defaultCapacity, capacities);
+        this.capacities = updated;
+        for (String hotelName : capacities.keySet()) {
+            getOrCreate(hotelName);
+        }
+        long base = currentBase();
+        for (Hotel hotel : hotels.values()) {
+            hotel.refresh(base);
+        }
+    }
+
+    /**
+     * Finds the hotels with at least one free room on every night of a range.
+     *
+     * @param from The first night; not before today.
+     * @param to The day after the last night; after {@code from} and at most {@code horizonDays} after today.
+     * @return The names of the available hotels, sorted ignoring case.
+     * @throws IllegalArgumentException If the range is empty or outside the horizon.
+     */
+    public List<String> findAvailableHotels(LocalDate from, LocalDate to) {
+        long today = LocalDate.now(clock).toEpochDay();
+        long first = from.toEpochDay();
+        long end = to.toEpochDay();
+        if (first >= end || first < today || end > today + horizonDays) {
+            throw new IllegalArgumentException("Availability range must be within the next " + horizonDays + " nights.");
+        }
+        long base = currentBase();
+        Hotel[] sorted = sortedHotels();
+        Stream<Hotel> scan = sorted.length >= PARALLEL_THRESHOLD
+                ? Arrays.stream(sorted).parallel()
+                : Arrays.stream(sorted);
+        return scan.filter(hotel -> hotel.isFree(first, end, base))
+                .map(hotel -> hotel.name)
+                .collect(Collectors.toList());
+    }
+
+    private Hotel[] sortedHotels() {
+        Hotel[] sorted = sortedHotels;
+        if (sorted == null) {
+            sorted = hotels.values().toArray(new Hotel[0]);
+            Arrays.sort(sorted, Comparator.comparing(hotel -> hotel.name, String.CASE_INSENSITIVE_ORDER));
+            // Hotels are never removed, so a size change means one was added during the sort.
+            sortedHotels = sorted;
+            if (sorted.length != hotels.size()) {
+                sortedHotels = null;
+            }
+        }
+        return sorted;
+    }
+
+    private void apply(Booking booking, int delta) {
+        if (booking.getHotelName() == null || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+            return;
+        }
+        Hotel hotel = getOrCreate(booking.getHotelName());
+        if (OccupancyIndex.CANCELLED.equals(OccupancyIndex.statusKey(booking.getStatus()))) {
+            return;
+        }
+        hotel.apply(booking.getCheckInDate().toEpochDay(), booking.getCheckOutDate().toEpochDay(), delta, currentBase());
+    }
+
+    /**
+     * @return The number of stay boundaries beyond the window kept for a hotel, 0 if it is unknown.
+     */
+    int getBoundaryCount(String hotelName) {
+        Hotel hotel = hotels.get(OccupancyIndex.hotelKey(hotelName));
+        return hotel == null ? 0 : hotel.boundaryCount();
+    }
+
+    private Hotel getOrCreate(String hotelName) {
+        String key = OccupancyIndex.hotelKey(hotelName);
+        Hotel hotel = hotels.get(key);
+        if (hotel != null) {
+            return hotel;
+        }
+        hotel = hotels.computeIfAbsent(key, k -> new Hotel(k, hotelName.trim(), currentBase(), capacities));
+        sortedHotels = null;
+        return hotel;
+    }
+
+    // Plain read first, so the common case does not write to the shared counter.
+    private long currentBase() {
+        long base = Math.floorDiv(LocalDate.now(clock).toEpochDay(), WORD_NIGHTS) * WORD_NIGHTS;
+        long current = baseDay.get();
+        return base > current ? baseDay.accumulateAndGet(base, Math::max) : current;
+    }
+
+    /**
+     * Tests whether no bit in {@code [from, to)} is set.
+     *
+     * @param words The bitmap, one bit per night.
+     * @param from First bit offset.
+     * @param to Bit offset after the last one; greater than {@code from}.
+     */
+    static boolean noneSet(long[] words, int from, int to) {
+        int first = from >>> WORD_SHIFT;
+        int last = (to - 1) >>> WORD_SHIFT;
+        long firstMask = -1L << (from & (WORD_NIGHTS - 1));
+        long lastMask = -1L >>> (WORD_NIGHTS - 1 - ((to - 1) & (WORD_NIGHTS - 1)));
+        if (first == last) {
+            return (words[first] & firstMask & lastMask) == 0;
+        }
+        if ((words[first] & firstMask) != 0) {
+            return false;
+        }
+        for (int word = first + 1; word < last; word++) {
+            if (words[word] != 0) {
+                return false;
+            }
+        }
+        return (words[last] & lastMask) == 0;
+    }
+
+    private static final class Capacities {
+        final int defaultCapacity;
+        // hotel key -> rooms
+        final Map<String, Integer> byHotel;
+
+        Capacities(int defaultCapacity, Map<String, Integer> capacities) {
+            if (defaultCapacity <= 0) {
+                throw new IllegalArgumentException("Hotel capacity must be positive.");
+            }
+            Map<String, Integer> byHotel = new HashMap<>();
+            for (Map.Entry<String, Integer> entry : capacities.entrySet()) {
+                if (entry.getValue() == null || entry.getValue() <= 0) {
+                    throw new IllegalArgumentException("Capacity of " + entry.getKey() + " must be positive.");
+                }
+                byHotel.put(OccupancyIndex.hotelKey(entry.getKey()), entry.getValue());
+            }
+            this.defaultCapacity = defaultCapacity;
+            this.byHotel = byHotel;
+        }
+
+        int of(String hotelKey) {
+            return byHotel.getOrDefault(hotelKey, defaultCapacity);
+        }
+    }
+
+    // Published bitmap of full nights, with the window start and capacities it was built for.
+    private static final class Snapshot {
+        final long base;
+        final Capacities config;
+        final long[] full;
+
+        Snapshot(long base, Capacities config, long[] full) {
+            this.base = base;
+            this.config = config;
+            this.full = full;
+        }
+    }
+
+    private final class Hotel {
+        final String key;
+        final String name;
+
+        // Guarded by this.
+        private long base;
+        private final int[] counts = new int[trackedNights];
+        // Night -> change in the count from that night on, for the nights after the window; no key is inside it.
+        private final TreeMap<Long, Integer> later = new TreeMap<>();
+        private int capacity;
+
+        private volatile Snapshot snapshot;
+
+        Hotel(String key, String name, long base, Capacities config) {
+            this.key = key;
+            this.name = name;
+            this.base = base;
+            this.capacity = config.of(key);
+            this.snapshot = new Snapshot(base, config, new long[trackedNights >>> WORD_SHIFT]);
+        }
+
+        synchronized void apply(long first, long end, int delta, long currentBase) {
+            refresh(currentBase);
+            long windowEnd = base + counts.length;
+            if (end > windowEnd) {
+                addBoundary(Math.max(first, windowEnd), delta);
+                addBoundary(end, -delta);
+            }
+            long[] full = null;
+            for (long night = Math.max(first, base); night < Math.min(end, windowEnd); night++) {
+                int i = (int) (night - base);
+                int before = counts[i];
+                counts[i] = before + delta;
+                if ((before >= capacity) != (counts[i] >= capacity)) {
+                    if (full == null) {
+                        full = snapshot.full.clone();
+                    }
+                    full[i >>> WORD_SHIFT] ^= 1L << (i & (WORD_NIGHTS - 1));
+                }
+            }
+            if (full != null) {
+                snapshot = new Snapshot(base, snapshot.config, full);
+            }
+        }
+
+        /**
+         * Rolls the window forward and applies the latest capacities, if either changed since the last snapshot.
+         */
+        synchronized void refresh(long currentBase) {
+            Capacities config = capacities;
+            Snapshot current = snapshot;
+            if (current.base >= currentBase && current.config == config) {
+                return;
+            }
+            if (currentBase > base) {
+                roll(currentBase);
+            }
+            capacity = config.of(key);
+            long[] full = new long[trackedNights >>> WORD_SHIFT];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] >= capacity) {
+                    full[i >>> WORD_SHIFT] |= 1L << (i & (WORD_NIGHTS - 1));
+                }
+            }
+            snapshot = new Snapshot(base, config, full);
+        }
+
+        synchronized int boundaryCount() {
+            return later.size();
+        }
+
+        private void addBoundary(long night, int delta) {
+            later.merge(night, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        private void roll(long newBase) {
+            long shift = newBase - base;
+            long oldWindowEnd = base + counts.length;
+            if (shift < counts.length) {
+                System.arraycopy(counts, (int) shift, counts, 0, counts.length - (int) shift);
+            }
+            base = newBase;
+            long windowEnd = newBase + counts.length;
+            // Expand the boundaries up to the new window end into the nights that entered it; nights
+            // skipped over entirely are never filled, but their boundaries still add to the running count.
+            long night = Math.max(oldWindowEnd, newBase);
+            int count = 0;
+            for (Iterator<Map.Entry<Long, Integer>> boundaries = later.headMap(windowEnd).entrySet().iterator();
+                 boundaries.hasNext(); ) {
+                Map.Entry<Long, Integer> boundary = boundaries.next();
+                if (boundary.getKey() > night) {
+                    Arrays.fill(counts, (int) (night - base), (int) (boundary.getKey() - base), count);
+                    night = boundary.getKey();
+                }
+                count += boundary.getValue();
+                boundaries.remove();
+            }
+            Arrays.fill(counts, (int) (night - base), counts.length, count);
+            if (count != 0) {
+                // Stays still running at the new window end continue from there.
+                addBoundary(windowEnd, count);
+            }
+        }
+
+        boolean isFree(long first, long end, long currentBase) {
+            Snapshot current = snapshot;
+            if (current.base < currentBase || current.config != capacities) {
+                refresh(currentBase);
+                current = snapshot;
+            }
+            // The window may have rolled past the first night since the query started.
+            int from = (int) Math.max(first - current.base, 0);
+            int to = (int) (end - current.base);
+            return from >= to || noneSet(current.full, from, to);
+        }
+    }
+}
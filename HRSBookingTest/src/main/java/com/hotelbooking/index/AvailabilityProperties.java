@@ -0,0 +1,34 @@
+package com.hotelbooking.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hotel capacities for {@link AvailabilityIndex}, bound from the "booking.availability" prefix.
+ */
+@ConfigurationProperties(prefix = "booking.availability")
+public class AvailabilityProperties {
+
+    // Rooms of hotels not listed in capacities.
+    private int defaultCapacity = 50;
+    // Rooms per hotel name (case-insensitive).
+    private Map<String, Integer> capacities = new HashMap<>();
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    public Map<String, Integer> getCapacities() {
+        return capacities;
+    }
+
+    public void setCapacities(Map<String, Integer> capacities) {
+        this.capacities = capacities;
+    }
+}
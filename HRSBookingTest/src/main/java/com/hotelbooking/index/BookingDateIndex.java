@@ -0,0 +1,97 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingMutationListener;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Sorted indexes of booking IDs by check-in and by check-out date, for arrival and departure lists.
+ * <p>
+ * Each index is a {@link ConcurrentSkipListMap} from date to the IDs of the bookings on that date, so a
+ * range query walks only the dates in the range. Iteration is weakly consistent: bookings changed while
+ * a range is being read may or may not be included. Date entries are kept once created, even when all
+ * their bookings are gone; there is at most one per calendar day.
+ */
+public class BookingDateIndex implements BookingMutationListener {
+
+    /**
+     * The date a range query is run against.
+     */
+    public enum DateField {
+        CHECK_IN,
+        CHECK_OUT
+    }
+
+    private final ConcurrentSkipListMap<LocalDate, Set<String>> byCheckIn = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, Set<String>> byCheckOut = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        add(byCheckIn, booking.getCheckInDate(), booking.getId());
+        add(byCheckOut, booking.getCheckOutDate(), booking.getId());
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        move(byCheckIn, previous.getCheckInDate(), current.getCheckInDate(), previous.getId(), current.getId());
+        move(byCheckOut, previous.getCheckOutDate(), current.getCheckOutDate(), previous.getId(), current.getId());
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        remove(byCheckIn, booking.getCheckInDate(), booking.getId());
+        remove(byCheckOut, booking.getCheckOutDate(), booking.getId());
+    }
+
+    /**
+     * Lists the IDs of the bookings with a date in a range, in date order.
+     *
+     * @param field Whether to match the check-in or the check-out date.
+     * @param from The first date, inclusive.
+     * @param to The last date, inclusive.
+     * @return A lazy stream of booking IDs.
+     */
+    public Stream<String> findIds(DateField field, LocalDate from, LocalDate to) {
+        ConcurrentSkipListMap<LocalDate, Set<String>> index = field == DateField.CHECK_IN ? byCheckIn : byCheckOut;
+        return index.subMap(from, true, to, true).values().stream().flatMap(Set::stream);
+    }
+
+    private static void move(ConcurrentSkipListMap<LocalDate, Set<String>> index, LocalDate previousDate,
+                             LocalDate currentDate, String previousId, String currentId) {
+        if (previousDate != null && previousDate.equals(currentDate) && previousId.equals(currentId)) {
+            return;
+        }
+        remove(index, previousDate, previousId);
+        add(index, currentDate, currentId);
+    }
+
+    private static void add(ConcurrentSkipListMap<LocalDate, Set<String>> index, LocalDate date, String id) {
+        if (date == null) {
+            return;
+        }
+        Set<String> ids = index.get(date);
+        if (ids == null) {
+            Set<String> created = ConcurrentHashMap.newKeySet();
+            ids = index.putIfAbsent(date, created);
+            if (ids == null) {
+                ids = created;
+            }
+        }
+        ids.add(id);
+    }
+
+    private static void remove(ConcurrentSkipListMap<LocalDate, Set<String>> index, LocalDate date, String id) {
+        if (date == null) {
+            return;
+        }
+        Set<String> ids = index.get(date);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.SearchCacheStats;
+import com.hotelbooking.service.BookingMutationListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the distinct hotel names in the store, each with the IDs of its bookings.
+ * <p>
+ * Answers substring searches by scanning the distinct names instead of every booking, and typo-tolerant
+ * searches through trigram postings: every word of a name is padded ({@code "  word "}) and cut into
+ * three-character grams, so that a misspelled query still shares most of its grams with the intended
+ * name. Candidates are ranked by the share of the query's grams they contain, then by Dice similarity,
+ * which prefers names without many extra words.
+ * <p>
+ * Names are never removed from the index; names without bookings are skipped by lookups.
+ * <p>
+ * Substring search results can be cached per lower-cased query (see {@link SearchResultCache}). Each
+ * cached result remembers the version of every hotel it matched, bumped whenever a booking joins or
+ * leaves that hotel, and the version of the set of names, bumped when a new hotel name appears. A result
+ * is served only while all of them are unchanged, so it is never stale. Versions are bumped after the
+ * change they guard and read before the data they guard, so a search racing a mutation caches a result
+ * that the next lookup discards. Changes that keep a booking's hotel (status, dates, guest) do not
+ * invalidate anything: results are booking IDs, and callers read the current bookings for them.
+ */
+public class HotelNameIndex implements BookingMutationListener {
+
+    /** Candidates must contain at least this share of the query's trigrams. */
+    static final double MIN_FUZZY_SCORE = 0.5;
+
+    private final ConcurrentHashMap<String, NameEntry> names = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<NameEntry>> postings = new ConcurrentHashMap<>();
+    private final AtomicLong namesVersion = new AtomicLong();
+    private final SearchResultCache<ContainsResult> containsCache; // Null when caching is off
+    private final int cacheSize;
+
+    /**
+     * Creates an index without a search result cache.
+     */
+    public HotelNameIndex() {
+        this(0);
+    }
+
+    /**
+     * @param searchCacheSize Maximum number of substring queries whose results are cached; 0 turns caching off.
+     */
+    public HotelNameIndex(int searchCacheSize) {
+        if (searchCacheSize < 0) {
+            throw new IllegalArgumentException("Search cache size cannot be negative.");
+        }
+        this.cacheSize = searchCacheSize;
+        this.containsCache = searchCacheSize > 0 ? new SearchResultCache<>(searchCacheSize) : null;
+    }
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        add(booking);
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        if (previous.getHotelName() != null && previous.getHotelName().equals(current.getHotelName())
+                && previous.getId().equals(current.getId())) {
+            return;
+        }
+        remove(previous);
+        add(current);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        remove(booking);
+    }
+
+    /**
+     * Finds the bookings of all hotels whose lower-cased name contains a fragment.
+     *
+     * @param lowerCaseFragment The lower-cased fragment to look for.
+     * @return The IDs of the matching bookings, read-only.
+     */
+    public List<String> findIdsByHotelNameContaining(String lowerCaseFragment) {
+        if (containsCache == null) {
+            return findContaining(lowerCaseFragment).ids;
+        }
+        ContainsResult cached = containsCache.get(lowerCaseFragment, this::isCurrent);
+        if (cached != null) {
+            return cached.ids;
+        }
+        ContainsResult result = findContaining(lowerCaseFragment);
+        containsCache.put(lowerCaseFragment, result);
+        return result.ids;
+    }
+
+    /**
+     * @return The counters of the substring search cache; all zero when caching is off.
+     */
+    public SearchCacheStats getSearchCacheStats() {
+        return containsCache != null ? containsCache.stats() : new SearchCacheStats(cacheSize, 0, 0, 0, 0, 0);
+    }
+
+    private ContainsResult findContaining(String lowerCaseFragment) {
+        long currentNamesVersion = namesVersion.get();
+        List<NameEntry> matches = new ArrayList<>();
+        for (NameEntry entry : names.values()) {
+            if (entry.lowerCaseName.contains(lowerCaseFragment)) {
+                matches.add(entry);
+            }
+        }
+        long[] versions = new long[matches.size()];
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < versions.length; i++) {
+            NameEntry entry = matches.get(i);
+            versions[i] = entry.version.get();
+            ids.addAll(entry.bookingIds);
+        }
+        return new ContainsResult(currentNamesVersion, matches, versions, Collections.unmodifiableList(ids));
+    }
+
+    private boolean isCurrent(ContainsResult result) {
+        if (result.namesVersion != namesVersion.get()) {
+            return false;
+        }
+        for (int i = 0; i < result.versions.length; i++) {
+            if (result.matches.get(i).version.get() != result.versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the bookings of the hotels whose names are most similar to a possibly misspelled query.
+     *
+     * @param query The hotel name as typed.
+     * @param maxHotels The maximum number of hotel names to return bookings for.
+     * @return The IDs of the matching bookings, grouped by hotel, best matching hotel first.
+     */
+    public List<String> findIdsBySimilarHotelName(String query, int maxHotels) {
+        Set<String> queryGrams = trigrams(query);
+        if (queryGrams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<NameEntry, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<NameEntry> entries = postings.get(gram);
+            if (entries != null) {
+                for (NameEntry entry : entries) {
+                    shared.merge(entry, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Map.Entry<NameEntry, Integer> match : shared.entrySet()) {
+            NameEntry entry = match.getKey();
+            double coverage = match.getValue() / (double) queryGrams.size();
+            if (coverage >= MIN_FUZZY_SCORE && !entry.bookingIds.isEmpty()) {
+                double dice = 2.0 * match.getValue() / (queryGrams.size() + entry.trigrams.size());
+                candidates.add(new Candidate(entry, coverage, dice));
+            }
+        }
+        candidates.sort((a, b) -> {
+            int byCoverage = Double.compare(b.coverage, a.coverage);
+            if (byCoverage != 0) {
+                return byCoverage;
+            }
+            int byDice = Double.compare(b.dice, a.dice);
+            return byDice != 0 ? byDice : a.entry.name.compareTo(b.entry.name);
+        });
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && i < maxHotels; i++) {
+            ids.addAll(candidates.get(i).entry.bookingIds);
+        }
+        return ids;
+    }
+
+    private void add(Booking booking) {
+        if (booking.getHotelName() == null) {
+            return;
+        }
+        NameEntry entry = names.get(booking.getHotelName());
+        boolean newName = entry == null;
+        if (newName) {
+            entry = names.computeIfAbsent(booking.getHotelName(), this::newEntry);
+        }
+        entry.bookingIds.add(booking.getId());
+        entry.version.incrementAndGet();
+        if (newName) {
+            namesVersion.incrementAndGet(); // Only once the entry is visible to searches
+        }
+    }
+
+    private void remove(Booking booking) {
+        if (booking.getHotelName() == null) {
+            return;
+        }
+        NameEntry entry = names.get(booking.getHotelName());
+        if (entry != null) {
+            entry.bookingIds.remove(booking.getId());
+            entry.version.incrementAndGet();
+        }
+    }
+
+    private NameEntry newEntry(String name) {
+        NameEntry entry = new NameEntry(name);
+        for (String gram : entry.trigrams) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+        return entry;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static final class NameEntry {
+        final String name;
+        final String lowerCaseName; // Same lower-casing as the original substring search
+        final Set<String> trigrams;
+        final Set<String> bookingIds = ConcurrentHashMap.newKeySet();
+        final AtomicLong version = new AtomicLong(); // Bumped after every change to bookingIds
+
+        NameEntry(String name) {
+            this.name = name;
+            this.lowerCaseName = name.toLowerCase();
+            this.trigrams = trigrams(name);
+        }
+    }
+
+    private static final class ContainsResult {
+        final long namesVersion;
+        final List<NameEntry> matches;
+        final long[] versions;
+        final List<String> ids;
+
+        ContainsResult(long namesVersion, List<NameEntry> matches, long[] versions, List<String> ids) {
+            this.namesVersion = namesVersion;
+            this.matches = matches;
+            this.versions = versions;
+            this.ids = ids;
+        }
+    }
+
+    private static final class Candidate {
+        final NameEntry entry;
+        final double coverage;
+        final double dice;
+
+        Candidate(NameEntry entry, double coverage, double dice) {
+            this.entry = entry;
+            this.coverage = coverage;
+            this.dice = dice;
+        }
+    }
+}
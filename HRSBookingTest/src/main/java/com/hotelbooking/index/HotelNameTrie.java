@@ -0,0 +1,249 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.HotelSuggestion;
+import com.hotelbooking.service.BookingMutationListener;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent prefix trie of distinct hotel names with their booking counts, used for autocomplete.
+ * <p>
+ * Names are keyed in lower case, so lookups are case-insensitive; suggestions use the spelling of the
+ * first booking seen for the name. Every node caches the top {@link #MAX_SUGGESTIONS} names below it,
+ * built from the subtree by the first lookup through it. A count change then re-ranks only the changed
+ * name in the cached list of every node on its path, so a busy short prefix keeps its cache. The subtree is
+ * scanned again only when the list can no longer tell what ranks last: a listed name dropping to the end of
+ * a full list, or out of it, may now rank below a name that was not listed. Changes made while a cache is
+ * being built are queued and applied before it is published. Repeated lookups of a popular prefix therefore
+ * cost one walk down the prefix, and writes never wait for readers.
+ * <p>
+ * Nodes are not removed when a name's count drops to zero; such names are simply not suggested.
+ */
+public class HotelNameTrie implements BookingMutationListener {
+
+    /** Largest number of suggestions a lookup can return. */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Comparator<HotelSuggestion> BY_RANK =
+            Comparator.comparingLong(HotelSuggestion::getBookingCount).reversed()
+                    .thenComparing(HotelSuggestion::getHotelName);
+
+    private final Node root = new Node();
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        add(booking.getHotelName(), 1);
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        if (previous.getHotelName() != null && current.getHotelName() != null
+                && key(previous.getHotelName()).equals(key(current.getHotelName()))) {
+            return;
+        }
+        add(previous.getHotelName(), -1);
+        add(current.getHotelName(), 1);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        add(booking.getHotelName(), -1);
+    }
+
+    /**
+     * Finds the hotel names starting with a prefix, ranked by booking count (ties by name).
+     *
+     * @param prefix The prefix, matched case-insensitively; empty matches all names.
+     * @param limit The maximum number of suggestions, at most {@link #MAX_SUGGESTIONS}.
+     * @return The best ranked names that currently have bookings.
+     */
+    public List<HotelSuggestion> suggest(String prefix, int limit) {
+        Node node = find(prefix);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<HotelSuggestion> top = node.top();
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    /** Number of times the cache of a prefix was built from its subtree. */
+    long cacheBuilds(String prefix) {
+        Node node = find(prefix);
+        return node == null ? 0 : node.builds.sum();
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        String key = key(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void add(String hotelName, int delta) {
+        if (hotelName == null) {
+            return;
+        }
+        String key = key(hotelName);
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = node.children.computeIfAbsent(c, k -> new Node());
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+        if (node.displayName == null) {
+            node.displayName = hotelName.trim();
+        }
+        node.count.add(delta);
+        // Count first, caches second: every cache update reads the count after this change.
+        for (Node onPath : path) {
+            onPath.changed(node);
+        }
+    }
+
+    /**
+     * Moves a name to its rank for a new count in a cached list.
+     *
+     * @return The list, unchanged if the name neither is nor gets listed; {@code null} if the name may now
+     * rank below one that was not listed.
+     */
+    private static List<HotelSuggestion> rerank(List<HotelSuggestion> top, String hotelName, long count) {
+        int previous = 0;
+        while (previous < top.size() && !top.get(previous).getHotelName().equals(hotelName)) {
+            previous++;
+        }
+        boolean listed = previous < top.size();
+        if (!listed && count <= 0 || listed && top.get(previous).getBookingCount() == count) {
+            return top;
+        }
+        List<HotelSuggestion> result = new ArrayList<>(top);
+        if (listed) {
+            result.remove(previous);
+        }
+        int rank = result.size();
+        if (count > 0) {
+            HotelSuggestion suggestion = new HotelSuggestion(hotelName, count);
+            rank = -Collections.binarySearch(result, suggestion, BY_RANK) - 1;
+            result.add(rank, suggestion);
+            if (result.size() > MAX_SUGGESTIONS) {
+                result.remove(MAX_SUGGESTIONS);
+                if (!listed && rank == MAX_SUGGESTIONS) {
+                    return top;
+                }
+            }
+        }
+        boolean full = top.size() == MAX_SUGGESTIONS;
+        if (full && listed && count < top.get(previous).getBookingCount() && rank >= result.size() - 1) {
+            return null;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static String key(String hotelName) {
+        return hotelName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        final ConcurrentHashMap<Character, Node> children = new ConcurrentHashMap<>();
+        final LongAdder count = new LongAdder(); // Bookings for the name ending here
+        volatile String displayName; // Set once the node ends a name
+        // The cached top names, a cache being built, or null until the next lookup builds one
+        final AtomicReference<TopCache> cache = new AtomicReference<>();
+        final LongAdder builds = new LongAdder();
+
+        List<HotelSuggestion> top() {
+            TopCache cached = cache.get();
+            if (cached != null && cached.suggestions != null) {
+                return cached.suggestions;
+            }
+            TopCache building = new TopCache(null);
+            if (cached != null || !cache.compareAndSet(null, building)) {
+                return collectTop(); // Another lookup is building it
+            }
+            builds.increment();
+            List<HotelSuggestion> collected = collectTop();
+            List<HotelSuggestion> suggestions = collected;
+            for (Node name; suggestions != null && (name = building.changed.poll()) != null; ) {
+                suggestions = rerank(suggestions, name.displayName, name.count.sum());
+            }
+            cache.set(suggestions == null ? null : new TopCache(suggestions));
+            // Queued after the loop above but before the cache was published
+            for (Node name; (name = building.changed.poll()) != null; ) {
+                changed(name);
+            }
+            return suggestions == null ? collected : suggestions;
+        }
+
+        /** Brings the cached list up to date with the current count of a name below this node. */
+        void changed(Node name) {
+            while (true) {
+                TopCache cached = cache.get();
+                if (cached == null) {
+                    return; // The next lookup builds it from the current counts
+                }
+                if (cached.suggestions == null) {
+                    cached.changed.add(name);
+                    if (cache.get() == cached) {
+                        return; // The lookup building it applies the change before publishing
+                    }
+                    continue;
+                }
+                List<HotelSuggestion> suggestions = rerank(cached.suggestions, name.displayName, name.count.sum());
+                if (suggestions == cached.suggestions
+                        || cache.compareAndSet(cached, suggestions == null ? null : new TopCache(suggestions))) {
+                    return;
+                }
+            }
+        }
+
+        private List<HotelSuggestion> collectTop() {
+            // Min-heap of the best MAX_SUGGESTIONS names seen so far.
+            PriorityQueue<HotelSuggestion> best = new PriorityQueue<>(MAX_SUGGESTIONS + 1, BY_RANK.reversed());
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(this);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                long count = node.count.sum();
+                if (count > 0 && node.displayName != null) {
+                    best.offer(new HotelSuggestion(node.displayName, count));
+                    if (best.size() > MAX_SUGGESTIONS) {
+                        best.poll();
+                    }
+                }
+                pending.addAll(node.children.values());
+            }
+            List<HotelSuggestion> result = new ArrayList<>(best);
+            result.sort(BY_RANK);
+            return Collections.unmodifiableList(result);
+        }
+    }
+
+    private static final class TopCache {
+        final List<HotelSuggestion> suggestions; // null while being built
+        final Queue<Node> changed = new ConcurrentLinkedQueue<>(); // Names changed while being built
+
+        TopCache(List<HotelSuggestion> suggestions) {
+            this.suggestions = suggestions;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.HotelOccupancy;
+import com.hotelbooking.model.NightOccupancy;
+import com.hotelbooking.service.BookingMutationListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized per-hotel, per-night booking counters by status.
+ * <p>
+ * Kept up to date incrementally from {@link BookingMutationListener} callbacks: a create adds one to every
+ * night of the stay, a delete subtracts one, and an update subtracts the previous booking and adds the
+ * current one. Counters are {@link LongAdder}s, so concurrent changes to bookings of the same hotel and
+ * night do not contend on a single value. Reading a range costs one map lookup per night, independent of
+ * the number of bookings. Applying a booking costs one map entry per night of its stay, which
+ * {@link com.hotelbooking.service.BookingService#MAX_STAY_NIGHTS} bounds.
+ * <p>
+ * Hotels are matched by name, ignoring case and surrounding whitespace. While an update is being applied
+ * a concurrent reader may briefly see the old stay removed but the new one not yet added.
+ */
+public class OccupancyIndex implements BookingMutationListener {
+
+    static final String CANCELLED = "CANCELLED";
+    static final String UNKNOWN_STATUS = "UNKNOWN";
+
+    // hotel key -> night -> status -> number of bookings; nights without bookings have no entry
+    private final ConcurrentHashMap<String, ConcurrentHashMap<LocalDate, Map<String, Long>>> counters =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        apply(booking, 1);
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        apply(previous, -1);
+        apply(current, 1);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        apply(booking, -1);
+    }
+
+    /**
+     * Reads the occupancy of a hotel for every night in a range.
+     *
+     * @param hotelName The hotel name (case-insensitive, exact match).
+     * @param from The first night.
+     * @param to The day after the last night; must be after {@code from}.
+     * @return One entry per night, including nights without bookings.
+     */
+    public HotelOccupancy getOccupancy(String hotelName, LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<String, Long>> nights = counters.get(hotelKey(hotelName));
+        List<NightOccupancy> result = new ArrayList<>();
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            Map<String, Long> byStatus = nights == null ? null : nights.get(night);
+            Map<String, Long> counts = new TreeMap<>();
+            long occupied = 0;
+            if (byStatus != null) {
+                counts.putAll(byStatus);
+                for (Map.Entry<String, Long> entry : byStatus.entrySet()) {
+                    if (!CANCELLED.equals(entry.getKey())) {
+                        occupied += entry.getValue();
+                    }
+                }
+            }
+            result.add(new NightOccupancy(night, counts, occupied));
+        }
+        return new HotelOccupancy(hotelName, from, to, result);
+    }
+
+    private void apply(Booking booking, int delta) {
+        if (booking.getHotelName() == null || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+            return;
+        }
+        // Hotel entries are kept: they are bounded by the number of hotel names, and removing one could
+        // race with a change that has already looked it up.
+        String key = hotelKey(booking.getHotelName());
+        ConcurrentHashMap<LocalDate, Map<String, Long>> nights = counters.get(key);
+        if (nights == null) {
+            nights = counters.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+        String status = statusKey(booking.getStatus());
+        for (LocalDate night = booking.getCheckInDate(); night.isBefore(booking.getCheckOutDate()); night = night.plusDays(1)) {
+            nights.compute(night, (n, byStatus) -> add(byStatus, status, delta));
+        }
+    }
+
+    // Returns a new map, so readers never see one being changed, or null once every count is zero.
+    private static Map<String, Long> add(Map<String, Long> byStatus, String status, int delta) {
+        Map<String, Long> result = byStatus == null ? new HashMap<>() : new HashMap<>(byStatus);
+        long count = result.getOrDefault(status, 0L) + delta;
+        if (count == 0) {
+            result.remove(status);
+        } else {
+            result.put(status, count);
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    /** Number of nights of a hotel with at least one booking counted. */
+    int trackedNights(String hotelName) {
+        Map<LocalDate, Map<String, Long>> nights = counters.get(hotelKey(hotelName));
+        return nights == null ? 0 : nights.size();
+    }
+
+    static String hotelKey(String hotelName) {
+        return hotelName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String statusKey(String status) {
+        return status == null || status.isEmpty() ? UNKNOWN_STATUS : status.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.SearchCacheStats;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of search results keyed by normalized query.
+ * <p>
+ * Entries are not expired by time. Instead the caller passes a freshness check on every lookup, typically
+ * a comparison of the versions the entry was computed at with the current ones, and stale entries are
+ * dropped and counted as invalidations. Once the cache is full, the second-chance (CLOCK) policy evicts
+ * the oldest entry that has not been hit since it was last considered, so popular queries stay cached
+ * while one-off queries pass through.
+ *
+ * @param <V> The cached result type; must be immutable.
+ */
+public class SearchResultCache<V> {
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Insertion order of entries, scanned from the head to find an eviction victim.
+    private final ConcurrentLinkedQueue<Entry<V>> clock = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxEntries Maximum number of queries cached at once.
+     */
+    public SearchResultCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Search cache size must be positive.");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Looks up the cached result of a query.
+     *
+     * @param key The normalized query.
+     * @param isCurrent Tells whether a cached result still matches the store.
+     * @return The cached result, or null on a miss, in which case the caller computes and {@link #put}s it.
+     */
+    public V get(String key, Predicate<V> isCurrent) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (isCurrent.test(entry.value)) {
+                entry.referenced = true;
+                hits.increment();
+                return entry.value;
+            }
+            if (entries.remove(key, entry)) {
+                clock.remove(entry);
+                invalidations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the result of a query, evicting other entries if the cache is full.
+     *
+     * @param key The normalized query.
+     * @param value The result, computed from versions read before the search ran.
+     */
+    public void put(String key, V value) {
+        Entry<V> entry = new Entry<>(key, value);
+        Entry<V> previous = entries.put(key, entry);
+        if (previous != null) {
+            clock.remove(previous);
+        }
+        clock.add(entry);
+        evictIfNecessary();
+    }
+
+    /**
+     * @return The hit, miss, eviction and invalidation counts since startup, and the current size.
+     */
+    public SearchCacheStats stats() {
+        return new SearchCacheStats(maxEntries, entries.size(), hits.sum(), misses.sum(),
+                evictions.sum(), invalidations.sum());
+    }
+
+    private void evictIfNecessary() {
+        int secondChances = 0;
+        while (entries.size() > maxEntries) {
+            Entry<V> oldest = clock.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (oldest.referenced && secondChances++ < maxEntries) {
+                oldest.referenced = false;
+                clock.add(oldest);
+                continue;
+            }
+            if (entries.remove(oldest.key, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final String key;
+        final V value;
+        volatile boolean referenced;
+
+        Entry(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.hotelbooking.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Formats and writes request log records on a dedicated background thread.
+ * Request threads only hand records over through a bounded queue; when the queue is full the
+ * record is dropped and counted rather than blocking the request.
+ */
+public class AsyncRequestLogWriter {
+
+    private static final Logger requestLogger = LoggerFactory.getLogger("com.hotelbooking.requests");
+    private static final Logger logger = LoggerFactory.getLogger(AsyncRequestLogWriter.class);
+
+    private final BlockingQueue<RequestLogRecord> queue;
+    private final LogRedactor redactor;
+    private final Thread writerThread;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * Creates the writer and starts its daemon thread.
+     *
+     * @param queueCapacity Maximum number of records waiting to be written.
+     * @param redactor Redactor applied to payloads, query strings and headers before writing.
+     */
+    public AsyncRequestLogWriter(int queueCapacity, LogRedactor redactor) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.redactor = redactor;
+        this.writerThread = new Thread(this::run, "request-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Hands a record to the writer thread without blocking.
+     *
+     * @param record The record to write.
+     * @return False if the queue was full and the record was dropped.
+     */
+    public boolean submit(RequestLogRecord record) {
+        if (running && queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops accepting records, writes what is still queued and stops the writer thread.
+     *
+     * @param timeoutMillis How long to wait for the queue to drain.
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.sum() > 0) {
+            logger.warn("Request log writer dropped {} records because its queue was full.", dropped.sum());
+        }
+    }
+
+    private void run() {
+        List<RequestLogRecord> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                RequestLogRecord first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 255);
+            } catch (InterruptedException e) {
+                // Shutdown requested; the loop condition drains what is left.
+                queue.drainTo(batch);
+            }
+            for (RequestLogRecord record : batch) {
+                write(record);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(RequestLogRecord record) {
+        try {
+            requestLogger.info(format(record));
+            written.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write request log record: {}", e.getMessage());
+        }
+    }
+
+    String format(RequestLogRecord record) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("[REQUEST] ").append(record.getMethod()).append(' ').append(record.getUri());
+        if (record.getQueryString() != null) {
+            sb.append('?').append(redactor.redactQueryString(record.getQueryString()));
+        }
+        sb.append(", Status: ").append(record.getStatus())
+                .append(", Duration: ").append(TimeUnit.NANOSECONDS.toMicros(record.getDurationNanos()) / 1000.0).append("ms")
+                .append(", Reason: ").append(record.getReason());
+        if (record.getClientAddress() != null) {
+            sb.append(", Client: ").append(record.getClientAddress());
+        }
+        if (record.getHeaders() != null) {
+            sb.append(", Headers: [");
+            boolean first = true;
+            for (Map.Entry<String, String> header : record.getHeaders().entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(header.getKey()).append(": ").append(redactor.redactHeader(header.getKey(), header.getValue()));
+                first = false;
+            }
+            sb.append(']');
+        }
+        if (record.getPayload() != null && record.getPayload().length > 0) {
+            Charset charset = record.getCharset() != null ? record.getCharset() : StandardCharsets.UTF_8;
+            sb.append(", Payload: ").append(redactor.redactPayload(new String(record.getPayload(), charset)));
+            if (record.isPayloadTruncated()) {
+                sb.append("...(truncated)");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotelbooking.logging;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Masks sensitive values in request data before it is written to the log.
+ * JSON string/number values and query parameters are matched by field name; headers by name (case-insensitive).
+ */
+public class LogRedactor {
+
+    static final String MASK = "***";
+
+    private final Pattern jsonFieldPattern;
+    private final Pattern queryParamPattern;
+    private final Set<String> redactedHeaders;
+
+    /**
+     * @param redactedFields JSON field and query parameter names to mask.
+     * @param redactedHeaders Header names to mask.
+     */
+    public LogRedactor(Collection<String> redactedFields, Collection<String> redactedHeaders) {
+        if (redactedFields.isEmpty()) {
+            this.jsonFieldPattern = null;
+            this.queryParamPattern = null;
+        } else {
+            String names = redactedFields.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+            this.jsonFieldPattern = Pattern.compile("(\"(?:" + names + ")\"\\s*:\\s*)(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\]\\s]+)");
+            this.queryParamPattern = Pattern.compile("((?:^|&)(?:" + names + ")=)[^&]*");
+        }
+        this.redactedHeaders = redactedHeaders.stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Masks redacted fields in a JSON (or JSON-like) payload.
+     *
+     * @param payload The payload text, possibly truncated.
+     * @return The payload with redacted values replaced by a mask.
+     */
+    public String redactPayload(String payload) {
+        if (payload == null || jsonFieldPattern == null) {
+            return payload;
+        }
+        return jsonFieldPattern.matcher(payload).replaceAll("$1\"" + MASK + "\"");
+    }
+
+    /**
+     * Masks redacted parameters in a query string.
+     *
+     * @param queryString The raw query string, without the leading '?'.
+     * @return The query string with redacted values replaced by a mask.
+     */
+    public String redactQueryString(String queryString) {
+        if (queryString == null || queryParamPattern == null) {
+            return queryString;
+        }
+        return queryParamPattern.matcher(queryString).replaceAll("$1" + MASK);
+    }
+
+    /**
+     * Masks a header value if the header is configured as sensitive.
+     *
+     * @param name The header name.
+     * @param value The header value.
+     * @return The value, or a mask for sensitive headers.
+     */
+    public String redactHeader(String name, String value) {
+        return redactedHeaders.contains(name.toLowerCase(Locale.ROOT)) ? MASK : value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hotelbooking.logging;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the request IDs written to the analytics log.
+ * <p>
+ * An ID is a random prefix chosen once per JVM followed by a counter, e.g. {@code 3f9c2a71d04e-1a2b}.
+ * That keeps IDs unique across restarts and cluster nodes for log correlation, while generating one
+ * costs an atomic increment and a short string instead of a {@code UUID.randomUUID()} call, which
+ * reads from the shared SecureRandom and builds a 36-character string on every request.
+ */
+public final class RequestIds {
+
+    private static final String PREFIX = String.format("%012x-", new SecureRandom().nextLong() >>> 16);
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private RequestIds() {
+    }
+
+    /**
+     * @return A new request ID, unique within this JVM.
+     */
+    public static String next() {
+        return PREFIX.concat(Long.toHexString(COUNTER.incrementAndGet()));
+    }
+}
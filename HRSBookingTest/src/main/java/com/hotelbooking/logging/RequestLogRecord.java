@@ -0,0 +1,90 @@
+package com.hotelbooking.logging;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Raw data of one logged request, captured on the request thread and formatted later by
+ * {@link AsyncRequestLogWriter}.
+ */
+public class RequestLogRecord {
+
+    /**
+     * Why a request was selected for logging.
+     */
+    public enum Reason {
+        SAMPLED, ERROR, SLOW
+    }
+
+    private final String method;
+    private final String uri;
+    private final String queryString;
+    private final String clientAddress;
+    private final Map<String, String> headers;
+    private final byte[] payload;
+    private final boolean payloadTruncated;
+    private final Charset charset;
+    private final int status;
+    private final long durationNanos;
+    private final Reason reason;
+
+    public RequestLogRecord(String method, String uri, String queryString, String clientAddress,
+                            Map<String, String> headers, byte[] payload, boolean payloadTruncated, Charset charset,
+                            int status, long durationNanos, Reason reason) {
+        this.method = method;
+        this.uri = uri;
+        this.queryString = queryString;
+        this.clientAddress = clientAddress;
+        this.headers = headers;
+        this.payload = payload;
+        this.payloadTruncated = payloadTruncated;
+        this.charset = charset;
+        this.status = status;
+        this.durationNanos = durationNanos;
+        this.reason = reason;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getQueryString() {
+        return queryString;
+    }
+
+    public String getClientAddress() {
+        return clientAddress;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public boolean isPayloadTruncated() {
+        return payloadTruncated;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
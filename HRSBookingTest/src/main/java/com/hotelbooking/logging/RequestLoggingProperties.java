@@ -0,0 +1,153 @@
+package com.hotelbooking.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings for {@link SampledRequestLoggingFilter}, bound from the "booking.request-logging" prefix.
+ * <p>
+ * Path keys in {@code endpoint-sample-rates} need bracket notation in properties files, e.g.
+ * {@code booking.request-logging.endpoint-sample-rates[/bookings/search]=0.001}.
+ */
+@ConfigurationProperties(prefix = "booking.request-logging")
+public class RequestLoggingProperties {
+
+    private boolean enabled = true;
+    // Fraction of requests logged when no endpoint or status specific rate applies.
+    private double sampleRate = 0.01;
+    // Sample rate per request path prefix; the longest matching prefix wins.
+    private Map<String, Double> endpointSampleRates = new HashMap<>();
+    // Sample rate per HTTP status code; overrides the endpoint rate for that status.
+    private Map<Integer, Double> statusSampleRates = new HashMap<>();
+    // Requests finishing with at least this status are always logged.
+    private int alwaysLogStatusFrom = 500;
+    // Requests slower than this are always logged.
+    private long slowRequestThresholdMs = 1000;
+    private boolean includeQueryString = true;
+    private boolean includeClientInfo = true;
+    private boolean includeHeaders = false;
+    private boolean includePayload = true;
+    private int maxPayloadLength = 1024;
+    // JSON fields and query parameters whose values are masked before writing.
+    private Set<String> redactedFields = new HashSet<>(Set.of("guestName"));
+    // Headers whose values are masked before writing (case-insensitive).
+    private Set<String> redactedHeaders = new HashSet<>(Set.of("authorization", "cookie", "set-cookie"));
+    // Capacity of the hand-off queue to the writer thread; records are dropped when it is full.
+    private int queueCapacity = 8192;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Map<String, Double> getEndpointSampleRates() {
+        return endpointSampleRates;
+    }
+
+    public void setEndpointSampleRates(Map<String, Double> endpointSampleRates) {
+        this.endpointSampleRates = endpointSampleRates;
+    }
+
+    public Map<Integer, Double> getStatusSampleRates() {
+        return statusSampleRates;
+    }
+
+    public void setStatusSampleRates(Map<Integer, Double> statusSampleRates) {
+        this.statusSampleRates = statusSampleRates;
+    }
+
+    public int getAlwaysLogStatusFrom() {
+        return alwaysLogStatusFrom;
+    }
+
+    public void setAlwaysLogStatusFrom(int alwaysLogStatusFrom) {
+        this.alwaysLogStatusFrom = alwaysLogStatusFrom;
+    }
+
+    public long getSlowRequestThresholdMs() {
+        return slowRequestThresholdMs;
+    }
+
+    public void setSlowRequestThresholdMs(long slowRequestThresholdMs) {
+        this.slowRequestThresholdMs = slowRequestThresholdMs;
+    }
+
+    public boolean isIncludeQueryString() {
+        return includeQueryString;
+    }
+
+    public void setIncludeQueryString(boolean includeQueryString) {
+        this.includeQueryString = includeQueryString;
+    }
+
+    public boolean isIncludeClientInfo() {
+        return includeClientInfo;
+    }
+
+    public void setIncludeClientInfo(boolean includeClientInfo) {
+        this.includeClientInfo = includeClientInfo;
+    }
+
+    public boolean isIncludeHeaders() {
+        return includeHeaders;
+    }
+
+    public void setIncludeHeaders(boolean includeHeaders) {
+        this.includeHeaders = includeHeaders;
+    }
+
+    public boolean isIncludePayload() {
+        return includePayload;
+    }
+
+    public void setIncludePayload(boolean includePayload) {
+        this.includePayload = includePayload;
+    }
+
+    public int getMaxPayloadLength() {
+        return maxPayloadLength;
+    }
+
+    public void setMaxPayloadLength(int maxPayloadLength) {
+        this.maxPayloadLength = maxPayloadLength;
+    }
+
+    public Set<String> getRedactedFields() {
+        return redactedFields;
+    }
+
+    public void setRedactedFields(Set<String> redactedFields) {
+        this.redactedFields = redactedFields;
+    }
+
+    public Set<String> getRedactedHeaders() {
+        return redactedHeaders;
+    }
+
+    public void setRedactedHeaders(Set<String> redactedHeaders) {
+        this.redactedHeaders = redactedHeaders;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
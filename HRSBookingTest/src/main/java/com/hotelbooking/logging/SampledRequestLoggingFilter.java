@@ -0,0 +1,166 @@
+package com.hotelbooking.logging;
+
+import com.hotelbooking.tracing.RequestTracer;
+import com.hotelbooking.tracing.TraceStage;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request logging filter that replaces CommonsRequestLoggingFilter for production traffic.
+ * <p>
+ * Only a sample of requests is logged (configurable per endpoint and per status), while errors and slow
+ * requests are always logged. The payload is captured only for requests that can be sampled, is bounded
+ * in size, and is redacted and formatted on a background thread by {@link AsyncRequestLogWriter}.
+ */
+public class SampledRequestLoggingFilter extends OncePerRequestFilter {
+
+    private final RequestLoggingProperties properties;
+    private final AsyncRequestLogWriter writer;
+    // Endpoint prefixes sorted longest first, so the first match is the most specific one.
+    private final String[] endpointPrefixes;
+    private final double[] endpointRates;
+    private final double maxStatusRate;
+    private final long slowThresholdNanos;
+
+    public SampledRequestLoggingFilter(RequestLoggingProperties properties) {
+        this(properties, new AsyncRequestLogWriter(properties.getQueueCapacity(),
+                new LogRedactor(properties.getRedactedFields(), properties.getRedactedHeaders())));
+    }
+
+    SampledRequestLoggingFilter(RequestLoggingProperties properties, AsyncRequestLogWriter writer) {
+        this.properties = properties;
+        this.writer = writer;
+        this.endpointPrefixes = properties.getEndpointSampleRates().keySet().stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toArray(String[]::new);
+        this.endpointRates = Arrays.stream(endpointPrefixes)
+                .mapToDouble(prefix -> properties.getEndpointSampleRates().get(prefix))
+                .toArray();
+        this.maxStatusRate = properties.getStatusSampleRates().values().stream()
+                .mapToDouble(Double::doubleValue).max().orElse(0.0);
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowRequestThresholdMs());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        // One roll per request: the same value decides payload capture up front and sampling afterwards,
+        // so every sampled request has its payload available.
+        double roll = ThreadLocalRandom.current().nextDouble();
+        double endpointRate = endpointRate(request.getRequestURI());
+        boolean capturePayload = properties.isIncludePayload() && roll < Math.max(endpointRate, maxStatusRate);
+
+        HttpServletRequest requestToUse = request;
+        if (capturePayload && !(request instanceof ContentCachingRequestWrapper)) {
+            requestToUse = new ContentCachingRequestWrapper(request, properties.getMaxPayloadLength());
+        }
+
+        RequestTracer.lap(TraceStage.LOGGING);
+        boolean failed = true;
+        try {
+            filterChain.doFilter(requestToUse, response);
+            failed = false;
+        } finally {
+            RequestTracer.lap(TraceStage.SERIALIZATION);
+            long durationNanos = System.nanoTime() - startTime;
+            // An exception escaping the chain ends up as a 500, whatever status was set so far.
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            RequestLogRecord.Reason reason = selectReason(roll, endpointRate, status, durationNanos);
+            if (reason != null) {
+                writer.submit(createRecord(requestToUse, status, durationNanos, reason));
+            }
+            RequestTracer.lap(TraceStage.LOGGING);
+        }
+    }
+
+    /**
+     * Decides whether a finished request is logged.
+     *
+     * @return The reason it is logged, or null if it is not.
+     */
+    RequestLogRecord.Reason selectReason(double roll, double endpointRate, int status, long durationNanos) {
+        if (status >= properties.getAlwaysLogStatusFrom()) {
+            return RequestLogRecord.Reason.ERROR;
+        }
+        if (durationNanos >= slowThresholdNanos) {
+            return RequestLogRecord.Reason.SLOW;
+        }
+        Double statusRate = properties.getStatusSampleRates().get(status);
+        double rate = statusRate != null ? statusRate : endpointRate;
+        return roll < rate ? RequestLogRecord.Reason.SAMPLED : null;
+    }
+
+    /**
+     * @return The sample rate of the longest configured prefix of the path, or the default rate.
+     */
+    double endpointRate(String path) {
+        for (int i = 0; i < endpointPrefixes.length; i++) {
+            if (path.startsWith(endpointPrefixes[i])) {
+                return endpointRates[i];
+            }
+        }
+        return properties.getSampleRate();
+    }
+
+    private RequestLogRecord createRecord(HttpServletRequest request, int status, long durationNanos,
+                                          RequestLogRecord.Reason reason) {
+        String queryString = properties.isIncludeQueryString() ? request.getQueryString() : null;
+        String client = properties.isIncludeClientInfo() ? request.getRemoteAddr() : null;
+
+        Map<String, String> headers = null;
+        if (properties.isIncludeHeaders()) {
+            headers = new LinkedHashMap<>();
+            Enumeration<String> names = request.getHeaderNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                headers.put(name, request.getHeader(name));
+            }
+        }
+
+        byte[] payload = null;
+        boolean truncated = false;
+        Charset charset = null;
+        if (request instanceof ContentCachingRequestWrapper) {
+            ContentCachingRequestWrapper wrapper = (ContentCachingRequestWrapper) request;
+            payload = wrapper.getContentAsByteArray();
+            truncated = request.getContentLength() > payload.length;
+            String encoding = wrapper.getCharacterEncoding();
+            charset = encoding != null && Charset.isSupported(encoding) ? Charset.forName(encoding) : null;
+        }
+
+        return new RequestLogRecord(request.getMethod(), request.getRequestURI(), queryString, client,
+                headers, payload, truncated, charset, status, durationNanos, reason);
+    }
+
+    public AsyncRequestLogWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Flushes queued records when the application context shuts down.
+     */
+    @Override
+    public void destroy() {
+        writer.shutdown(5000);
+    }
+}
@@ -1,22 +1,37 @@
 package com.hotelbooking.model;
 
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
 import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents a hotel booking.
  * This is a simple POJO (Plain Old Java Object) for data transfer and in-memory storage.
+ * It is also mapped as a JPA entity for the optional "persistence" profile (see BookingPersister);
+ * the column names are spelled out because the write-behind persister writes them with plain JDBC.
  */
+@Entity
+@Table(name = "bookings")
 public class Booking {
+    @Id
+    @Column(name = "id", length = 64)
     private String id;
+    @Column(name = "hotel_name")
     private String hotelName;
+    @Column(name = "guest_name")
     private String guestName;
+    @Column(name = "check_in_date")
     private LocalDate checkInDate;
+    @Column(name = "check_out_date")
     private LocalDate checkOutDate;
+    @Column(name = "status", length = 16)
     private String status; // e.g., CONFIRMED, PENDING, CANCELLED
 
     /**
-     * Default constructor for Jackson deserialization.
+     * Default constructor for Jackson deserialization (and JPA).
      */
     public Booking() {
     }
@@ -40,6 +55,15 @@ public class Booking {
         this.status = status;
     }
 
+    /**
+     * Copy constructor. Creates a detached snapshot of another booking.
+     *
+     * @param other The booking to copy.
+     */
+    public Booking(Booking other) {
+        this(other.id, other.hotelName, other.guestName, other.checkInDate, other.checkOutDate, other.status);
+    }
+
     // Getters and Setters
 
     public String getId() {
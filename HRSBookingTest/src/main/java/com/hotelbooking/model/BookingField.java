@@ -0,0 +1,102 @@
+package com.hotelbooking.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The JSON properties of a {@link Booking}, for responses that only include some of them
+ * (see {@link BookingProjection}). Declared in the order the full Booking is serialized in.
+ */
+public enum BookingField {
+    ID("id"),
+    HOTEL_NAME("hotelName"),
+    GUEST_NAME("guestName"),
+    CHECK_IN_DATE("checkInDate"),
+    CHECK_OUT_DATE("checkOutDate"),
+    STATUS("status");
+
+    private final String propertyName;
+
+    BookingField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Writes this property of a booking as the next field of the current JSON object.
+     * Dates go through the application's LocalDate serializer so they are formatted like in the full Booking.
+     */
+    void write(Booking booking, JsonGenerator generator, SerializerProvider provider,
+               JsonSerializer<Object> dateSerializer) throws IOException {
+        switch (this) {
+            case ID:
+                generator.writeStringField(propertyName, booking.getId());
+                break;
+            case HOTEL_NAME:
+                generator.writeStringField(propertyName, booking.getHotelName());
+                break;
+            case GUEST_NAME:
+                generator.writeStringField(propertyName, booking.getGuestName());
+                break;
+            case CHECK_IN_DATE:
+                writeDate(propertyName, booking.getCheckInDate(), generator, provider, dateSerializer);
+                break;
+            case CHECK_OUT_DATE:
+                writeDate(propertyName, booking.getCheckOutDate(), generator, provider, dateSerializer);
+                break;
+            default:
+                generator.writeStringField(propertyName, booking.getStatus());
+        }
+    }
+
+    private static void writeDate(String propertyName, LocalDate date, JsonGenerator generator,
+                                  SerializerProvider provider, JsonSerializer<Object> dateSerializer) throws IOException {
+        generator.writeFieldName(propertyName);
+        if (date == null) {
+            generator.writeNull();
+        } else {
+            dateSerializer.serialize(date, generator, provider);
+        }
+    }
+
+    /**
+     * Parses a comma separated list of property names, e.g. "id,status,checkInDate".
+     *
+     * @param value The property names, as in the Booking JSON (case-sensitive); blanks between commas are ignored.
+     * @return The selected fields, in declaration order.
+     * @throws IllegalArgumentException If the list is empty or names an unknown property.
+     */
+    public static Set<BookingField> parseList(String value) {
+        Set<BookingField> fields = EnumSet.noneOf(BookingField.class);
+        if (value != null) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (!trimmed.isEmpty()) {
+                    fields.add(fromPropertyName(trimmed));
+                }
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking field must be selected.");
+        }
+        return fields;
+    }
+
+    private static BookingField fromPropertyName(String propertyName) {
+        for (BookingField field : values()) {
+            if (field.propertyName.equals(propertyName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown booking field: " + propertyName);
+    }
+}
@@ -0,0 +1,40 @@
+package com.hotelbooking.model;
+
+import java.util.List;
+
+/**
+ * Body of a batched lookup: the IDs of the bookings to fetch.
+ */
+public class BookingLookupRequest {
+    private List<String> ids;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public BookingLookupRequest() {
+    }
+
+    /**
+     * Constructs a new BookingLookupRequest instance.
+     *
+     * @param ids The booking IDs to look up.
+     */
+    public BookingLookupRequest(List<String> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingLookupRequest{" +
+                "ids=" + ids +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.hotelbooking.model;
+
+import java.util.List;
+
+/**
+ * Result of a batched lookup: the bookings that were found and the IDs that were not.
+ * Both lists follow the order of the requested IDs, with duplicates removed.
+ */
+public class BookingLookupResult {
+    private List<Booking> bookings;
+    private List<String> missingIds;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public BookingLookupResult() {
+    }
+
+    /**
+     * Constructs a new BookingLookupResult instance.
+     *
+     * @param bookings The bookings found.
+     * @param missingIds The requested IDs without a booking.
+     */
+    public BookingLookupResult(List<Booking> bookings, List<String> missingIds) {
+        this.bookings = bookings;
+        this.missingIds = missingIds;
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<Booking> bookings) {
+        this.bookings = bookings;
+    }
+
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<String> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingLookupResult{" +
+                "bookings=" + bookings +
+                ", missingIds=" + missingIds +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotelbooking.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A list of bookings serialized as a JSON array of objects holding only the selected fields.
+ * The fields are written straight from each Booking to the generator, without building a
+ * Map or copy per booking.
+ */
+public class BookingProjection implements JsonSerializable {
+    private final List<Booking> bookings;
+    private final Set<BookingField> fields;
+
+    /**
+     * Constructs a new BookingProjection instance.
+     *
+     * @param bookings The bookings to write.
+     * @param fields The fields to include, written in {@link BookingField} declaration order.
+     */
+    public BookingProjection(List<Booking> bookings, Set<BookingField> fields) {
+        this.bookings = bookings;
+        this.fields = fields;
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public Set<BookingField> getFields() {
+        return fields;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        JsonSerializer<Object> dateSerializer = provider.findValueSerializer(LocalDate.class); // Looked up once per response
+        generator.writeStartArray(bookings, bookings.size());
+        for (Booking booking : bookings) {
+            generator.writeStartObject(booking);
+            for (BookingField field : fields) {
+                field.write(booking, generator, provider, dateSerializer);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, provider); // Never serialized polymorphically
+    }
+
+    @Override
+    public String toString() {
+        return "BookingProjection{" +
+                "bookings=" + bookings.size() +
+                ", fields=" + fields +
+                '}';
+    }
+}
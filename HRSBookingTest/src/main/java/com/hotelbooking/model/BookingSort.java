@@ -0,0 +1,107 @@
+package com.hotelbooking.model;
+
+import java.util.Comparator;
+
+/**
+ * Server-side order of a booking list, parsed from a {@code sort=} parameter such as "checkInDate"
+ * or "-hotelName" (a leading '-' sorts descending). Bookings that compare equal are ordered by ID,
+ * so a sorted page is stable across requests.
+ */
+public final class BookingSort {
+
+    /**
+     * The properties a booking list can be sorted by.
+     */
+    public enum Key {
+        CHECK_IN_DATE("checkInDate",
+                Comparator.comparing(Booking::getCheckInDate, Comparator.nullsLast(Comparator.naturalOrder()))),
+        HOTEL_NAME("hotelName",
+                Comparator.comparing(Booking::getHotelName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))),
+        /** In lifecycle order: PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED. */
+        STATUS("status", Comparator.comparingInt(BookingSort::statusRank));
+
+        private final String propertyName;
+        private final Comparator<Booking> comparator;
+
+        Key(String propertyName, Comparator<Booking> comparator) {
+            this.propertyName = propertyName;
+            this.comparator = comparator;
+        }
+
+        public String getPropertyName() {
+            return propertyName;
+        }
+    }
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final Comparator<Booking> BY_ID =
+            Comparator.comparing(Booking::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Key key;
+    private final boolean descending;
+    private final Comparator<Booking> comparator;
+
+    /**
+     * Constructs a new BookingSort instance.
+     *
+     * @param key The property to sort by.
+     * @param descending True to sort from the largest value down.
+     */
+    public BookingSort(Key key, boolean descending) {
+        this.key = key;
+        this.descending = descending;
+        Comparator<Booking> byKey = descending ? key.comparator.reversed() : key.comparator;
+        this.comparator = byKey.thenComparing(BY_ID);
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return The comparator for this order, with ties broken by booking ID.
+     */
+    public Comparator<Booking> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Parses a sort parameter.
+     *
+     * @param value The property name as in the Booking JSON, optionally prefixed with '-' for descending order.
+     * @return The sort order.
+     * @throws IllegalArgumentException If the value is blank or names a property that cannot be sorted by.
+     */
+    public static BookingSort parse(String value) {
+        String trimmed = value == null ? "" : value.trim();
+        boolean descending = trimmed.startsWith("-");
+        String propertyName = descending ? trimmed.substring(1) : trimmed;
+        for (Key key : Key.values()) {
+            if (key.propertyName.equals(propertyName)) {
+                return new BookingSort(key, descending);
+            }
+        }
+        throw new IllegalArgumentException("Cannot sort bookings by '" + value + "'; use checkInDate, hotelName or status.");
+    }
+
+    private static int statusRank(Booking booking) {
+        String status = booking.getStatus();
+        if (status != null) {
+            for (BookingStatus candidate : STATUSES) {
+                if (candidate.name().equalsIgnoreCase(status)) {
+                    return candidate.ordinal();
+                }
+            }
+        }
+        return STATUSES.length; // Unknown statuses last
+    }
+
+    @Override
+    public String toString() {
+        return (descending ? "-" : "") + key.propertyName;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hotelbooking.model;
+
+/**
+ * Lifecycle of a booking.
+ * <pre>
+ * PENDING ──► CONFIRMED ──► CHECKED_IN ──► CHECKED_OUT
+ *    │            │
+ *    └────────────┴──► CANCELLED
+ * </pre>
+ * CHECKED_OUT and CANCELLED are final. A booking's status is still exposed as a String on {@link Booking}
+ * (its enum name), so the JSON format is unchanged.
+ */
+public enum BookingStatus {
+    PENDING,
+    CONFIRMED,
+    CHECKED_IN,
+    CHECKED_OUT,
+    CANCELLED;
+
+    /**
+     * @param target The status to move to.
+     * @return True if a booking in this status may move to the target status.
+     */
+    public boolean canTransitionTo(BookingStatus target) {
+        switch (this) {
+            case PENDING:
+                return target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED:
+                return target == CHECKED_IN || target == CANCELLED;
+            case CHECKED_IN:
+                return target == CHECKED_OUT;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return True if a new booking may start in this status.
+     */
+    public boolean isInitial() {
+        return this == PENDING || this == CONFIRMED;
+    }
+
+    private static final BookingStatus[] VALUES = values();
+
+    /**
+     * Parses a status name, ignoring case and surrounding whitespace.
+     *
+     * @param value The status name, e.g. "confirmed".
+     * @return The status.
+     * @throws IllegalArgumentException If the value is not a known status.
+     */
+    public static BookingStatus parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Booking status cannot be null.");
+        }
+        BookingStatus status = find(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
+        return status;
+    }
+
+    /**
+     * Like {@link #parse(String)}, but without throwing, for validation on hot paths.
+     *
+     * @param value The status name, e.g. "confirmed".
+     * @return The status, or null if the value is null or not a known status.
+     */
+    public static BookingStatus find(String value) {
+        if (value == null) {
+            return null;
+        }
+        String name = value.trim();
+        for (BookingStatus status : VALUES) {
+            if (status.name().equalsIgnoreCase(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
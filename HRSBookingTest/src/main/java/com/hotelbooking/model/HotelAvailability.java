@@ -0,0 +1,77 @@
+package com.hotelbooking.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Hotels with a free room on every night of a date range (from inclusive, to exclusive).
+ */
+public class HotelAvailability {
+    private LocalDate from;
+    private LocalDate to;
+    private int hotelsChecked;
+    private List<String> availableHotels;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public HotelAvailability() {
+    }
+
+    /**
+     * Constructs a new HotelAvailability instance.
+     *
+     * @param from The first night of the range.
+     * @param to The day after the last night of the range.
+     * @param hotelsChecked The number of hotels known when the search ran.
+     * @param availableHotels The names of the hotels with a free room every night, sorted ignoring case.
+     */
+    public HotelAvailability(LocalDate from, LocalDate to, int hotelsChecked, List<String> availableHotels) {
+        this.from = from;
+        this.to = to;
+        this.hotelsChecked = hotelsChecked;
+        this.availableHotels = availableHotels;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getHotelsChecked() {
+        return hotelsChecked;
+    }
+
+    public void setHotelsChecked(int hotelsChecked) {
+        this.hotelsChecked = hotelsChecked;
+    }
+
+    public List<String> getAvailableHotels() {
+        return availableHotels;
+    }
+
+    public void setAvailableHotels(List<String> availableHotels) {
+        this.availableHotels = availableHotels;
+    }
+
+    @Override
+    public String toString() {
+        return "HotelAvailability{" +
+                "from=" + from +
+                ", to=" + to +
+                ", hotelsChecked=" + hotelsChecked +
+                ", availableHotels=" + availableHotels +
+                '}';
+    }
+}
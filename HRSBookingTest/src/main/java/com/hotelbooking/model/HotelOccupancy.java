@@ -0,0 +1,77 @@
+package com.hotelbooking.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-night occupancy of one hotel over a date range (from inclusive, to exclusive).
+ */
+public class HotelOccupancy {
+    private String hotelName;
+    private LocalDate from;
+    private LocalDate to;
+    private List<NightOccupancy> nights;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public HotelOccupancy() {
+    }
+
+    /**
+     * Constructs a new HotelOccupancy instance.
+     *
+     * @param hotelName The name of the hotel.
+     * @param from The first night of the range.
+     * @param to The day after the last night of the range.
+     * @param nights One entry per night in the range, in date order.
+     */
+    public HotelOccupancy(String hotelName, LocalDate from, LocalDate to, List<NightOccupancy> nights) {
+        this.hotelName = hotelName;
+        this.from = from;
+        this.to = to;
+        this.nights = nights;
+    }
+
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    public void setHotelName(String hotelName) {
+        this.hotelName = hotelName;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<NightOccupancy> getNights() {
+        return nights;
+    }
+
+    public void setNights(List<NightOccupancy> nights) {
+        this.nights = nights;
+    }
+
+    @Override
+    public String toString() {
+        return "HotelOccupancy{" +
+                "hotelName='" + hotelName + '\'' +
+                ", from=" + from +
+                ", to=" + to +
+                ", nights=" + nights +
+                '}';
+    }
+}
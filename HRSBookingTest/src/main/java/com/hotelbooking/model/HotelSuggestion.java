@@ -0,0 +1,65 @@
+package com.hotelbooking.model;
+
+import java.util.Objects;
+
+/**
+ * A hotel name offered by autocomplete, together with the number of bookings it has.
+ */
+public class HotelSuggestion {
+    private String hotelName;
+    private long bookingCount;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public HotelSuggestion() {
+    }
+
+    /**
+     * Constructs a new HotelSuggestion instance.
+     *
+     * @param hotelName The name of the hotel.
+     * @param bookingCount The number of bookings for the hotel.
+     */
+    public HotelSuggestion(String hotelName, long bookingCount) {
+        this.hotelName = hotelName;
+        this.bookingCount = bookingCount;
+    }
+
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    public void setHotelName(String hotelName) {
+        this.hotelName = hotelName;
+    }
+
+    public long getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HotelSuggestion that = (HotelSuggestion) o;
+        return bookingCount == that.bookingCount && Objects.equals(hotelName, that.hotelName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hotelName, bookingCount);
+    }
+
+    @Override
+    public String toString() {
+        return "HotelSuggestion{" +
+                "hotelName='" + hotelName + '\'' +
+                ", bookingCount=" + bookingCount +
+                '}';
+    }
+}
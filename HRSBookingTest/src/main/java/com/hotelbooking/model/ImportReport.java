@@ -0,0 +1,144 @@
+package com.hotelbooking.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many lines were read, imported and rejected, and why.
+ */
+public class ImportReport {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<LineError> errors;
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public ImportReport() {
+    }
+
+    /**
+     * Constructs a new ImportReport instance.
+     *
+     * @param received Number of non-empty data lines read.
+     * @param imported Number of bookings created.
+     * @param failed Number of lines rejected.
+     * @param errors The first rejected lines, in line order.
+     * @param errorsTruncated True if more lines were rejected than are listed.
+     * @param durationMs Time taken by the import.
+     */
+    public ImportReport(long received, long imported, long failed, List<LineError> errors, boolean errorsTruncated, long durationMs) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.durationMs = durationMs;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<LineError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "received=" + received +
+                ", imported=" + imported +
+                ", failed=" + failed +
+                ", errors=" + errors +
+                ", errorsTruncated=" + errorsTruncated +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+
+    /**
+     * A rejected input line.
+     */
+    public static class LineError {
+        private long line;
+        private String message;
+
+        /**
+         * Default constructor for Jackson deserialization.
+         */
+        public LineError() {
+        }
+
+        /**
+         * @param line The 1-based line number in the input.
+         * @param message Why the line was rejected.
+         */
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + message;
+        }
+    }
+}
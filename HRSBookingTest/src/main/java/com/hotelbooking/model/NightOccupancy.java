@@ -0,0 +1,66 @@
+package com.hotelbooking.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Number of bookings staying at a hotel on one night, broken down by status.
+ * A booking occupies the nights from its check-in date up to, but not including, its check-out date.
+ */
+public class NightOccupancy {
+    private LocalDate date;
+    private Map<String, Long> bookingsByStatus;
+    private long occupied; // All bookings except CANCELLED ones
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public NightOccupancy() {
+    }
+
+    /**
+     * Constructs a new NightOccupancy instance.
+     *
+     * @param date The night, identified by its date.
+     * @param bookingsByStatus Number of bookings per status; statuses without bookings are left out.
+     * @param occupied Number of bookings that are not cancelled.
+     */
+    public NightOccupancy(LocalDate date, Map<String, Long> bookingsByStatus, long occupied) {
+        this.date = date;
+        this.bookingsByStatus = bookingsByStatus;
+        this.occupied = occupied;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Map<String, Long> getBookingsByStatus() {
+        return bookingsByStatus;
+    }
+
+    public void setBookingsByStatus(Map<String, Long> bookingsByStatus) {
+        this.bookingsByStatus = bookingsByStatus;
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public void setOccupied(long occupied) {
+        this.occupied = occupied;
+    }
+
+    @Override
+    public String toString() {
+        return "NightOccupancy{" +
+                "date=" + date +
+                ", bookingsByStatus=" + bookingsByStatus +
+                ", occupied=" + occupied +
+                '}';
+    }
+}
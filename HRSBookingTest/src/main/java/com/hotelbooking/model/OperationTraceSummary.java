@@ -0,0 +1,76 @@
+package com.hotelbooking.model;
+
+import java.util.List;
+
+/**
+ * Per-stage latency breakdown of the sampled traces of one operation, e.g. "POST /bookings".
+ */
+public class OperationTraceSummary {
+    private String operation;
+    private int traceCount;
+    private StageLatency total;
+    private List<StageLatency> stages;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public OperationTraceSummary() {
+    }
+
+    /**
+     * Constructs a new OperationTraceSummary instance.
+     *
+     * @param operation The HTTP method and path pattern.
+     * @param traceCount Number of traces the percentiles are computed from.
+     * @param total Latency of whole requests.
+     * @param stages Latency of each stage, in stage order.
+     */
+    public OperationTraceSummary(String operation, int traceCount, StageLatency total, List<StageLatency> stages) {
+        this.operation = operation;
+        this.traceCount = traceCount;
+        this.total = total;
+        this.stages = stages;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public int getTraceCount() {
+        return traceCount;
+    }
+
+    public void setTraceCount(int traceCount) {
+        this.traceCount = traceCount;
+    }
+
+    public StageLatency getTotal() {
+        return total;
+    }
+
+    public void setTotal(StageLatency total) {
+        this.total = total;
+    }
+
+    public List<StageLatency> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<StageLatency> stages) {
+        this.stages = stages;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationTraceSummary{" +
+                "operation='" + operation + '\'' +
+                ", traceCount=" + traceCount +
+                ", total=" + total +
+                ", stages=" + stages +
+                '}';
+    }
+}
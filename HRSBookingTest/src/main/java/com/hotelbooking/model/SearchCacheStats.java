@@ -0,0 +1,106 @@
+package com.hotelbooking.model;
+
+/**
+ * Counters of the hotel name search result cache, as reported by GET /diagnostics/search-cache.
+ */
+public class SearchCacheStats {
+    private int maxEntries;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public SearchCacheStats() {
+    }
+
+    /**
+     * Constructs a new SearchCacheStats instance.
+     *
+     * @param maxEntries The maximum number of cached queries.
+     * @param size The number of queries cached now.
+     * @param hits Lookups answered from the cache.
+     * @param misses Lookups that ran the search, including those that found a stale entry.
+     * @param evictions Entries removed to make room for others.
+     * @param invalidations Entries removed because a mutation made them stale.
+     */
+    public SearchCacheStats(int maxEntries, int size, long hits, long misses, long evictions, long invalidations) {
+        this.maxEntries = maxEntries;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public void setInvalidations(long invalidations) {
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * @return The share of lookups answered from the cache, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : hits / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchCacheStats{" +
+                "maxEntries=" + maxEntries +
+                ", size=" + size +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", invalidations=" + invalidations +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotelbooking.model;
+
+/**
+ * Latency distribution of one request stage (or of whole requests) over the sampled traces, in microseconds.
+ */
+public class StageLatency {
+    private String stage;
+    private double p50Micros;
+    private double p90Micros;
+    private double p99Micros;
+    private double maxMicros;
+    private double meanMicros;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public StageLatency() {
+    }
+
+    /**
+     * Constructs a new StageLatency instance.
+     *
+     * @param stage The stage name, or "TOTAL" for whole requests.
+     * @param p50Micros The median.
+     * @param p90Micros The 90th percentile.
+     * @param p99Micros The 99th percentile.
+     * @param maxMicros The slowest sample.
+     * @param meanMicros The average.
+     */
+    public StageLatency(String stage, double p50Micros, double p90Micros, double p99Micros, double maxMicros, double meanMicros) {
+        this.stage = stage;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+        this.meanMicros = meanMicros;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public void setP50Micros(double p50Micros) {
+        this.p50Micros = p50Micros;
+    }
+
+    public double getP90Micros() {
+        return p90Micros;
+    }
+
+    public void setP90Micros(double p90Micros) {
+        this.p90Micros = p90Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public void setP99Micros(double p99Micros) {
+        this.p99Micros = p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    public void setMaxMicros(double maxMicros) {
+        this.maxMicros = maxMicros;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public void setMeanMicros(double meanMicros) {
+        this.meanMicros = meanMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "StageLatency{" +
+                "stage='" + stage + '\'' +
+                ", p50Micros=" + p50Micros +
+                ", p90Micros=" + p90Micros +
+                ", p99Micros=" + p99Micros +
+                ", maxMicros=" + maxMicros +
+                ", meanMicros=" + meanMicros +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotelbooking.model;
+
+import java.util.List;
+
+/**
+ * Summary of the request traces currently held in memory, grouped by operation.
+ */
+public class TraceReport {
+    private boolean enabled;
+    private double sampleRate;
+    private int traceCount;
+    private List<OperationTraceSummary> operations;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public TraceReport() {
+    }
+
+    /**
+     * Constructs a new TraceReport instance.
+     *
+     * @param enabled Whether requests are currently being traced.
+     * @param sampleRate Fraction of requests traced.
+     * @param traceCount Number of traces summarized.
+     * @param operations Breakdown per operation, most frequent first.
+     */
+    public TraceReport(boolean enabled, double sampleRate, int traceCount, List<OperationTraceSummary> operations) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.traceCount = traceCount;
+        this.operations = operations;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getTraceCount() {
+        return traceCount;
+    }
+
+    public void setTraceCount(int traceCount) {
+        this.traceCount = traceCount;
+    }
+
+    public List<OperationTraceSummary> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<OperationTraceSummary> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceReport{" +
+                "enabled=" + enabled +
+                ", sampleRate=" + sampleRate +
+                ", traceCount=" + traceCount +
+                ", operations=" + operations +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package com.hotelbooking.persistence;
+
+import com.hotelbooking.service.BookingMutationListener;
+import com.hotelbooking.service.BookingService;
+
+/**
+ * Copies changes of the in-memory booking store to the database by listening to {@link BookingService}.
+ */
+public abstract class BookingPersister implements BookingMutationListener {
+
+    protected final BookingService bookingService;
+
+    protected BookingPersister(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Starts listening. The store is expected to hold what the database holds already (see
+     * PersistenceConfiguration), so the stored bookings are not written again.
+     */
+    public void start() {
+        bookingService.addMutationListener(this, false);
+    }
+
+    /**
+     * Stops listening and writes any changes that have not reached the database yet.
+     */
+    public void stop() {
+        bookingService.removeMutationListener(this);
+    }
+
+    /**
+     * Blocks until every change made so far has been written.
+     *
+     * @param timeoutMillis How long to wait at most.
+     * @return False if changes were still unwritten when the timeout expired.
+     */
+    public abstract boolean flush(long timeoutMillis) throws InterruptedException;
+}
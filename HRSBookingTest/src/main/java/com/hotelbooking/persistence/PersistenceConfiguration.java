@@ -0,0 +1,41 @@
+package com.hotelbooking.persistence;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Wires persistence of bookings when the "persistence" profile is active. Bookings are still served from
+ * memory: the store is loaded from the database at startup and changes are copied back by a
+ * {@link BookingPersister}, write-behind by default (see booking.persistence.*).
+ */
+@Configuration
+@Profile("persistence")
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistenceConfiguration.class);
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public BookingPersister bookingPersister(PersistenceProperties properties, BookingService bookingService,
+                                             BookingRepository repository, JdbcTemplate jdbcTemplate,
+                                             TransactionTemplate transactionTemplate) {
+        List<Booking> stored = repository.findAll();
+        stored.forEach(bookingService::applyReplicatedBooking);
+        logger.info("Loaded {} bookings from the database; persisting changes {}.", stored.size(), properties.getMode());
+        if (properties.getMode() == PersistenceProperties.WriteMode.WRITE_THROUGH) {
+            return new WriteThroughBookingPersister(bookingService, repository);
+        }
+        return new WriteBehindBookingPersister(bookingService, jdbcTemplate, transactionTemplate, properties);
+    }
+}
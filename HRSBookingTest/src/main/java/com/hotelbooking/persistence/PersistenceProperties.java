@@ -0,0 +1,90 @@
+package com.hotelbooking.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for persisting bookings in the "persistence" profile, bound from the "booking.persistence" prefix.
+ */
+@ConfigurationProperties(prefix = "booking.persistence")
+public class PersistenceProperties {
+
+    /**
+     * How changes reach the database.
+     */
+    public enum WriteMode {
+        /** Every change is saved through BookingRepository before the request completes. */
+        WRITE_THROUGH,
+        /** Changes are acknowledged from memory and written in coalesced JDBC batches. */
+        WRITE_BEHIND
+    }
+
+    private WriteMode mode = WriteMode.WRITE_BEHIND;
+    // Distinct booking IDs with an unwritten change; writers wait when it is full.
+    private int queueCapacity = 10_000;
+    // Maximum number of bookings written in one flush.
+    private int batchSize = 500;
+    // How long the flusher collects changes before writing a batch that is not full yet.
+    private long flushIntervalMs = 50;
+    // How long a writer waits for room in a full queue before the change is applied anyway (and counted as overflow).
+    private long enqueueTimeoutMs = 5_000;
+    // How often a row that fails on its own is written before it is logged and dropped.
+    private int maxWriteAttempts = 3;
+    // How long shutdown waits for the remaining changes to be written.
+    private long shutdownTimeoutMs = 30_000;
+
+    public WriteMode getMode() {
+        return mode;
+    }
+
+    public void setMode(WriteMode mode) {
+        this.mode = mode;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public long getEnqueueTimeoutMs() {
+        return enqueueTimeoutMs;
+    }
+
+    public void setEnqueueTimeoutMs(long enqueueTimeoutMs) {
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+    }
+
+    public int getMaxWriteAttempts() {
+        return maxWriteAttempts;
+    }
+
+    public void setMaxWriteAttempts(int maxWriteAttempts) {
+        this.maxWriteAttempts = maxWriteAttempts;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+}
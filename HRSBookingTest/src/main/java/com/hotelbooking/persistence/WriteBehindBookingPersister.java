@@ -0,0 +1,387 @@
+package com.hotelbooking.persistence;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes booking changes to the database behind the request: mutations are acknowledged from memory and
+ * a background flusher writes them in JDBC batches, one transaction per flush.
+ * <p>
+ * Only the latest state of each booking is kept until it is written, so repeated changes to the same ID
+ * between two flushes cost one row write. A flush starts when {@code batchSize} IDs are waiting or
+ * {@code flushIntervalMs} after the first of them arrived. Saves are batched UPDATEs followed by batched
+ * INSERTs for the rows that did not exist yet, so the flusher never needs to know whether a row exists.
+ * <p>
+ * Backpressure: at most {@code queueCapacity} IDs should wait. A writer about to change a booking that is
+ * not queued yet waits for room before the change is applied, outside the store's locks (up to
+ * {@code enqueueTimeoutMs}). The change itself never blocks: if the queue is still full then, it is queued
+ * anyway and counted as an overflow, so the queue can briefly exceed its capacity.
+ * <p>
+ * Failures: while the database is unreachable a flush is retried as a whole. Any other failure splits the
+ * batch in halves until the failing rows are isolated; a single row that fails {@code maxWriteAttempts}
+ * times is logged and dropped, so one bad row cannot stop persistence. {@link #stop()} writes everything
+ * still pending before it returns.
+ */
+public class WriteBehindBookingPersister extends BookingPersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindBookingPersister.class);
+
+    static final String UPDATE_SQL = "UPDATE bookings SET hotel_name = ?, guest_name = ?, check_in_date = ?, "
+            + "check_out_date = ?, status = ? WHERE id = ?";
+    static final String INSERT_SQL = "INSERT INTO bookings (hotel_name, guest_name, check_in_date, check_out_date, "
+            + "status, id) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String DELETE_SQL = "DELETE FROM bookings WHERE id = ?";
+    private static final long RETRY_DELAY_MS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PersistenceProperties properties;
+    // Latest unwritten state per ID; a DELETED entry marks a deletion.
+    private final Map<String, Booking> pending = new ConcurrentHashMap<>();
+    // IDs with an entry in pending, in the order they first changed. Each holds a slot unless it is in overflowed.
+    private final LinkedBlockingQueue<String> dirtyIds = new LinkedBlockingQueue<>();
+    private final Semaphore slots;
+    // Queued IDs that were enqueued while the queue was full and hold no slot.
+    private final Set<String> overflowed = ConcurrentHashMap.newKeySet();
+    // Queued or in-flight IDs; zero once everything is written.
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Thread flusher;
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    private static final Booking DELETED = new Booking();
+    // Queued to end the current collection window early. Compared by identity, so it cannot clash with an ID.
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String WAKE_UP = new String("wake-up");
+
+    public WriteBehindBookingPersister(BookingService bookingService, JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate, PersistenceProperties properties) {
+        super(bookingService);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.slots = new Semaphore(properties.getQueueCapacity());
+        this.flusher = new Thread(this::run, "booking-write-behind");
+        this.flusher.setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+        flusher.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        running = false;
+        // Not interrupted: some JDBC drivers (H2 among them) close their files when an I/O thread is interrupted.
+        dirtyIds.add(WAKE_UP);
+        try {
+            flusher.join(properties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!pending.isEmpty()) {
+            logger.error("Write-behind stopped with {} bookings not written to the database.", pending.size());
+        }
+        logger.info("Write-behind stopped: {} changes written as {} rows in {} flushes, {} queue overflows, {} rows dropped.",
+                changes.sum(), rowsWritten.sum(), flushes.sum(), overflows.sum(), dropped.sum());
+    }
+
+    @Override
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        dirtyIds.add(WAKE_UP); // Skip the rest of the current collection window
+        while (outstanding.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.sum();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    int getAvailableSlots() {
+        return slots.availablePermits();
+    }
+
+    // --- BookingMutationListener ---
+
+    @Override
+    public void beforeMutation(String bookingId) {
+        if (pending.containsKey(bookingId)) {
+            return; // Will coalesce and needs no room
+        }
+        try {
+            // Only waits for room; the change takes the slot itself, so a racing writer may still overflow.
+            if (slots.tryAcquire(properties.getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                slots.release();
+            } else {
+                logger.warn("Write-behind queue full for {} ms; changing booking {} anyway.",
+                        properties.getEnqueueTimeoutMs(), bookingId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The callbacks below run inside the store's per-key compute and never block.
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        enqueue(booking.getId(), booking);
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        enqueue(current.getId(), current);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        enqueue(booking.getId(), DELETED);
+    }
+
+    private void enqueue(String id, Booking latest) {
+        changes.increment();
+        // Stored bookings are immutable snapshots, so keeping the reference is enough.
+        if (pending.put(id, latest) != null) {
+            return; // Coalesced with the unwritten change already queued for this ID
+        }
+        outstanding.incrementAndGet();
+        if (!slots.tryAcquire()) {
+            overflows.increment();
+            overflowed.add(id);
+        }
+        dirtyIds.add(id);
+    }
+
+    // --- Flusher thread ---
+
+    private void run() {
+        List<String> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !dirtyIds.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                logger.warn("Write-behind flusher interrupted; writing {} collected bookings.", batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<String> batch) throws InterruptedException {
+        String first = dirtyIds.poll(1, TimeUnit.SECONDS);
+        if (first == null || first == WAKE_UP) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (batch.size() < properties.getBatchSize()) {
+            dirtyIds.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (removeWakeUps(batch) || batch.size() >= properties.getBatchSize() || remaining <= 0 || !running) {
+                return;
+            }
+            String next = dirtyIds.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == WAKE_UP) {
+                return;
+            }
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private static boolean removeWakeUps(List<String> batch) {
+        boolean found = false;
+        for (Iterator<String> iterator = batch.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == WAKE_UP) {
+                iterator.remove();
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private void write(List<String> ids) {
+        List<Change> batch = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            // Checked before the ID leaves pending: a change enqueued after that is a new entry with its own slot.
+            boolean holdsSlot = !overflowed.remove(id);
+            batch.add(new Change(id, pending.remove(id), holdsSlot));
+        }
+        writeBatch(batch);
+        flushes.increment();
+    }
+
+    private void writeBatch(List<Change> batch) {
+        int attempt = 1;
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeRows(batch));
+                rowsWritten.add(batch.size());
+                batch.forEach(this::finish);
+                return;
+            } catch (RuntimeException e) {
+                if (isUnavailable(e)) {
+                    if (!running) {
+                        // Shutting down: give the database a last few chances, then report what is lost.
+                        logger.error("Write-behind flush of {} bookings failed during shutdown: {}", batch.size(), e.getMessage());
+                        requeue(batch);
+                        sleepQuietly(properties.getFlushIntervalMs());
+                        return;
+                    }
+                    // Every row would fail alike, so neither split the batch nor count the attempt.
+                    logger.warn("Write-behind flush of {} bookings failed, retrying: {}", batch.size(), e.getMessage());
+                } else if (batch.size() > 1) {
+                    logger.warn("Write-behind flush of {} bookings failed, retrying in halves: {}", batch.size(), e.getMessage());
+                    int half = batch.size() / 2;
+                    writeBatch(batch.subList(0, half));
+                    writeBatch(batch.subList(half, batch.size()));
+                    return;
+                } else if (attempt >= properties.getMaxWriteAttempts()) {
+                    Change change = batch.get(0);
+                    logger.error("Dropping change to booking {} after {} failed writes: {}", change.id, attempt, e.getMessage(), e);
+                    dropped.increment();
+                    finish(change);
+                    return;
+                } else {
+                    logger.warn("Write-behind write of booking {} failed, retrying: {}", batch.get(0).id, e.getMessage());
+                    attempt++;
+                }
+                sleepQuietly(RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private void writeRows(List<Change> batch) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Booking> saves = new ArrayList<>(batch.size());
+        for (Change change : batch) {
+            if (change.latest == DELETED) {
+                deletes.add(new Object[]{change.id});
+            } else {
+                saves.add(change.latest);
+            }
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        }
+        if (!saves.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows(saves));
+            List<Booking> inserts = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) { // SUCCESS_NO_INFO (-2) means the row was updated
+                    inserts.add(saves.get(i));
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows(inserts));
+            }
+        }
+    }
+
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    // Puts changes back after a failed flush during shutdown; newer changes to the same ID win.
+    private void requeue(List<Change> batch) {
+        for (Change change : batch) {
+            if (pending.putIfAbsent(change.id, change.latest) == null) {
+                if (!change.holdsSlot) {
+                    overflowed.add(change.id);
+                }
+                dirtyIds.add(change.id);
+            } else {
+                finish(change);
+            }
+        }
+    }
+
+    private void finish(Change change) {
+        if (change.holdsSlot) {
+            slots.release();
+        }
+        outstanding.decrementAndGet();
+    }
+
+    private static List<Object[]> rows(List<Booking> bookings) {
+        List<Object[]> rows = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            rows.add(new Object[]{booking.getHotelName(), booking.getGuestName(), booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getStatus(), booking.getId()});
+        }
+        return rows;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A queued change taken by the flusher.
+    private static final class Change {
+        final String id;
+        final Booking latest;
+        final boolean holdsSlot;
+
+        Change(String id, Booking latest, boolean holdsSlot) {
+            this.id = id;
+            this.latest = latest;
+            this.holdsSlot = holdsSlot;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotelbooking.persistence;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.service.BookingService;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+/**
+ * Saves every change through {@link BookingRepository} as part of the change: one save() or delete
+ * (each its own transaction, with a lookup first) per mutation. A failed save aborts the change, which
+ * then fails with the database error and leaves the store unchanged. Throughput is bounded by database
+ * round trips, which run while the store holds the booking's lock; see {@link WriteBehindBookingPersister}
+ * for the batched alternative.
+ */
+public class WriteThroughBookingPersister extends BookingPersister {
+
+    private final BookingRepository repository;
+
+    public WriteThroughBookingPersister(BookingService bookingService, BookingRepository repository) {
+        super(bookingService);
+        this.repository = repository;
+    }
+
+    @Override
+    public boolean isRequired() {
+        return true;
+    }
+
+    @Override
+    public void onBookingCreated(Booking booking) {
+        repository.save(booking);
+    }
+
+    @Override
+    public void onBookingUpdated(Booking previous, Booking current) {
+        repository.save(current);
+    }
+
+    @Override
+    public void onBookingDeleted(Booking booking) {
+        try {
+            repository.deleteById(booking.getId());
+        } catch (EmptyResultDataAccessException e) {
+            // Never persisted, nothing to delete
+        }
+    }
+
+    @Override
+    public boolean flush(long timeoutMillis) {
+        return true; // Nothing is ever pending
+    }
+}
@@ -0,0 +1,250 @@
+package com.hotelbooking.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reconstructs requests from the {@code com.hotelbooking.analytics} log: each {@code [REQ_START]} line gives
+ * the method, path and body of a request, and the {@code [REQ_END]} line with the same RequestId its status,
+ * duration and, for creates, the ID of the new booking.
+ * <p>
+ * Lines are expected in Spring Boot's default log layout, which starts with a
+ * {@code yyyy-MM-dd HH:mm:ss.SSS} timestamp; other log output in the same file is ignored. Query
+ * parameters are logged unencoded, with "null" for absent ones, so they are re-encoded and absent ones
+ * dropped; values containing '&amp;' cannot be told apart from separators. Booking bodies are logged in
+ * {@code Booking.toString()} form and converted back to JSON. Requests whose log line lacks the data to
+ * repeat them (the IDs of lookups, the body of bulk imports) are counted as skipped.
+ */
+public class AnalyticsLogParser {
+
+    private static final String START_MARKER = "[REQ_START] ";
+    private static final String END_MARKER = "[REQ_END] ";
+    private static final String[] TRAILING_FIELDS = {", Body: ", ", Ids: ", ", Accept: ", ", ContentType: "};
+
+    private static final Pattern ANSI_ESCAPE = Pattern.compile("\u001B\\[[;\\d]*m");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final int TIMESTAMP_LENGTH = "yyyy-MM-dd HH:mm:ss.SSS".length();
+    private static final Pattern STATUS = Pattern.compile("Status: (\\d+)");
+    private static final Pattern DURATION = Pattern.compile("Duration: (\\d+)ms");
+    private static final Pattern BOOKING_ID = Pattern.compile("BookingId: ([^,]+)");
+    private static final Pattern BOOKING = Pattern.compile(
+            "Booking\\{id='(.*)', hotelName='(.*)', guestName='(.*)', checkInDate=(.*), checkOutDate=(.*), status='(.*)'}");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param objectMapper Writes the JSON bodies.
+     */
+    public AnalyticsLogParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads a whole log.
+     *
+     * @param reader The log, one entry per line.
+     * @return The replayable requests in start order, with offsets relative to the first one.
+     * @throws IOException If the log cannot be read.
+     */
+    public Capture parse(BufferedReader reader) throws IOException {
+        Map<String, Pending> byRequestId = new LinkedHashMap<>();
+        Map<String, Integer> skipped = new TreeMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int start = line.indexOf(START_MARKER);
+            if (start >= 0) {
+                String clean = stripAnsi(line);
+                Pending pending = parseStart(clean, clean.indexOf(START_MARKER) + START_MARKER.length(), skipped);
+                if (pending != null) {
+                    byRequestId.put(pending.requestId, pending);
+                }
+                continue;
+            }
+            int end = line.indexOf(END_MARKER);
+            if (end >= 0) {
+                parseEnd(line.substring(end + END_MARKER.length()), byRequestId);
+            }
+        }
+
+        List<Pending> ordered = new ArrayList<>(byRequestId.values());
+        // Requests are logged when they start; on several threads, the lines can be slightly out of order.
+        ordered.sort((a, b) -> Long.compare(a.startedAtMillis, b.startedAtMillis));
+        long first = ordered.isEmpty() ? 0 : ordered.get(0).startedAtMillis;
+        List<CapturedRequest> requests = new ArrayList<>(ordered.size());
+        for (Pending pending : ordered) {
+            requests.add(new CapturedRequest(pending.startedAtMillis - first, pending.method, pending.path,
+                    pending.accept, pending.body, pending.status, pending.durationMillis, pending.createdId));
+        }
+        return new Capture(requests, skipped);
+    }
+
+    private Pending parseStart(String line, int fieldsStart, Map<String, Integer> skipped) {
+        String fields = line.substring(fieldsStart);
+        String requestId = between(fields, "RequestId: ", ", Method: ");
+        String method = between(fields, ", Method: ", ", Path: ");
+        int pathStart = fields.indexOf(", Path: ");
+        if (requestId == null || method == null || pathStart < 0) {
+            skip(skipped, "unrecognized line");
+            return null;
+        }
+        pathStart += ", Path: ".length();
+        int pathEnd = fields.length();
+        for (String field : TRAILING_FIELDS) {
+            int index = fields.indexOf(field, pathStart);
+            if (index >= 0 && index < pathEnd) {
+                pathEnd = index;
+            }
+        }
+        String rawPath = fields.substring(pathStart, pathEnd);
+        String trailing = fields.substring(pathEnd);
+
+        if (trailing.startsWith(", Ids: ")) {
+            skip(skipped, "lookup (IDs not logged)");
+            return null;
+        }
+        if (rawPath.startsWith("/bookings/bulk/import")) {
+            skip(skipped, "bulk import (body not logged)");
+            return null;
+        }
+        Pending pending = new Pending(requestId, method, encodePath(rawPath), timestampOf(line));
+        if (trailing.startsWith(", Accept: ")) {
+            pending.accept = trailing.substring(", Accept: ".length());
+        } else if (trailing.startsWith(", Body: ")) {
+            pending.body = toJson(trailing.substring(", Body: ".length()));
+            if (pending.body == null) {
+                skip(skipped, "unparseable body");
+                return null;
+            }
+        }
+        return pending;
+    }
+
+    private static void parseEnd(String fields, Map<String, Pending> byRequestId) {
+        String requestId = between(fields, "RequestId: ", ",");
+        Pending pending = requestId == null ? null : byRequestId.get(requestId);
+        if (pending == null) {
+            return;
+        }
+        Matcher status = STATUS.matcher(fields);
+        if (status.find()) {
+            pending.status = Integer.parseInt(status.group(1));
+        }
+        Matcher duration = DURATION.matcher(fields);
+        if (duration.find()) {
+            pending.durationMillis = Long.parseLong(duration.group(1));
+        }
+        Matcher bookingId = BOOKING_ID.matcher(fields);
+        if (bookingId.find()) {
+            pending.createdId = bookingId.group(1);
+        }
+    }
+
+    /**
+     * Converts a logged path to a request path: drops absent ("null") query parameters and URL-encodes the rest.
+     */
+    static String encodePath(String rawPath) {
+        int query = rawPath.indexOf('?');
+        String path = (query < 0 ? rawPath : rawPath.substring(0, query)).replace(" ", "%20");
+        if (query < 0) {
+            return path;
+        }
+        StringBuilder encoded = new StringBuilder(path);
+        char separator = '?';
+        for (String parameter : rawPath.substring(query + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : parameter.substring(equals + 1);
+            if (value.isEmpty() || value.equals("null")) {
+                continue;
+            }
+            encoded.append(separator).append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Converts a logged {@code Booking.toString()} to the JSON the client sent, leaving out "null" fields.
+     *
+     * @return The JSON body, or null if the text is not a logged booking.
+     */
+    String toJson(String loggedBooking) {
+        Matcher matcher = BOOKING.matcher(loggedBooking);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String[] names = {"id", "hotelName", "guestName", "checkInDate", "checkOutDate", "status"};
+        ObjectNode json = objectMapper.createObjectNode();
+        for (int i = 0; i < names.length; i++) {
+            String value = matcher.group(i + 1);
+            if (!value.equals("null")) {
+                json.put(names[i], value);
+            }
+        }
+        return json.toString();
+    }
+
+    private static long timestampOf(String line) {
+        if (line.length() < TIMESTAMP_LENGTH) {
+            return 0;
+        }
+        try {
+            return LocalDateTime.parse(line.substring(0, TIMESTAMP_LENGTH), TIMESTAMP).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0; // No timestamp: replayed back to back
+        }
+    }
+
+    private static String between(String text, String prefix, String suffix) {
+        int start = text.indexOf(prefix);
+        if (start < 0) {
+            return null;
+        }
+        start += prefix.length();
+        int end = text.indexOf(suffix, start);
+        return end < 0 ? null : text.substring(start, end);
+    }
+
+    private static String stripAnsi(String line) {
+        return line.indexOf('\u001B') < 0 ? line : ANSI_ESCAPE.matcher(line).replaceAll("");
+    }
+
+    private static void skip(Map<String, Integer> skipped, String reason) {
+        skipped.merge(reason, 1, Integer::sum);
+    }
+
+    private static final class Pending {
+        final String requestId;
+        final String method;
+        final String path;
+        final long startedAtMillis;
+        String accept;
+        String body;
+        int status;
+        long durationMillis = -1;
+        String createdId;
+
+        Pending(String requestId, String method, String path, long startedAtMillis) {
+            this.requestId = requestId;
+            this.method = method;
+            this.path = path;
+            this.startedAtMillis = startedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.hotelbooking.replay;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded traffic ready for replay: the requests in the order they started, and the number of recorded
+ * requests that could not be reconstructed, by reason.
+ */
+public final class Capture {
+
+    private final List<CapturedRequest> requests;
+    private final Map<String, Integer> skipped;
+
+    /**
+     * @param requests The replayable requests, ordered by offset.
+     * @param skipped Requests left out, by reason.
+     */
+    public Capture(List<CapturedRequest> requests, Map<String, Integer> skipped) {
+        this.requests = Collections.unmodifiableList(requests);
+        this.skipped = Collections.unmodifiableMap(skipped);
+    }
+
+    public List<CapturedRequest> getRequests() {
+        return requests;
+    }
+
+    public Map<String, Integer> getSkipped() {
+        return skipped;
+    }
+}
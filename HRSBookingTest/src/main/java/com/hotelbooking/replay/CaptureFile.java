@@ -0,0 +1,96 @@
+package com.hotelbooking.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact capture format: a header line, then one tab-separated line per request with the offset in
+ * milliseconds, method, path, Accept header, recorded status, recorded duration in milliseconds, created
+ * booking ID and JSON body, "-" standing for an absent value. Paths are URL-encoded and JSON escapes tabs
+ * and newlines, so neither contains a separator. Unlike the log, it holds only replayable requests and
+ * is read without pattern matching.
+ */
+public final class CaptureFile {
+
+    /** First line of every capture file. */
+    public static final String HEADER = "# hotel-booking capture v1";
+
+    private static final String ABSENT = "-";
+
+    private CaptureFile() {
+    }
+
+    /**
+     * @param firstLine The first line of a file.
+     * @return Whether the file is a capture file rather than a log.
+     */
+    public static boolean isCapture(String firstLine) {
+        return HEADER.equals(firstLine);
+    }
+
+    /**
+     * Writes requests in the capture format.
+     *
+     * @param requests The requests, ordered by offset.
+     * @param writer The destination; not closed.
+     * @throws IOException If writing fails.
+     */
+    public static void write(List<CapturedRequest> requests, Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (CapturedRequest request : requests) {
+            writer.write(Long.toString(request.getOffsetMillis()));
+            writeField(writer, request.getMethod());
+            writeField(writer, request.getPath());
+            writeField(writer, request.getAccept());
+            writeField(writer, Integer.toString(request.getRecordedStatus()));
+            writeField(writer, Long.toString(request.getRecordedMillis()));
+            writeField(writer, request.getCreatedId());
+            writeField(writer, request.getBody());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Reads a capture file, including its header line.
+     *
+     * @param reader The capture file.
+     * @return The requests, with nothing skipped.
+     * @throws IOException If reading fails.
+     * @throws IllegalArgumentException If the file is not in the capture format.
+     */
+    public static Capture read(BufferedReader reader) throws IOException {
+        if (!isCapture(reader.readLine())) {
+            throw new IllegalArgumentException("Not a capture file; expected the header \"" + HEADER + "\".");
+        }
+        List<CapturedRequest> requests = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 8) {
+                throw new IllegalArgumentException("Line " + lineNumber + " has " + fields.length + " fields, expected 8.");
+            }
+            requests.add(new CapturedRequest(Long.parseLong(fields[0]), fields[1], fields[2], valueOf(fields[3]),
+                    valueOf(fields[7]), Integer.parseInt(fields[4]), Long.parseLong(fields[5]), valueOf(fields[6])));
+        }
+        return new Capture(requests, Collections.emptyMap());
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        writer.write('\t');
+        writer.write(value == null ? ABSENT : value);
+    }
+
+    private static String valueOf(String field) {
+        return ABSENT.equals(field) ? null : field;
+    }
+}
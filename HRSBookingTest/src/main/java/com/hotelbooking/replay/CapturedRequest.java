@@ -0,0 +1,136 @@
+package com.hotelbooking.replay;
+
+/**
+ * One recorded request, as read from the analytics log or a capture file. Immutable.
+ */
+public final class CapturedRequest {
+
+    private final long offsetMillis;
+    private final String method;
+    private final String path;
+    private final String accept;
+    private final String body;
+    private final int recordedStatus;
+    private final long recordedMillis;
+    private final String createdId;
+
+    /**
+     * @param offsetMillis Time since the first recorded request.
+     * @param method The HTTP method.
+     * @param path The path with its URL-encoded query string, e.g. "/bookings/search?hotelName=Grand+Hyatt".
+     * @param accept The Accept header, or null for the default.
+     * @param body The JSON request body, or null.
+     * @param recordedStatus The status the recorded request finished with, or 0 if its end was not logged.
+     * @param recordedMillis The server-side duration of the recorded request, or -1 if not logged.
+     * @param createdId For creates, the ID the recorded request assigned, so later requests for it can be
+     *                  redirected to the booking created during the replay; otherwise null.
+     */
+    public CapturedRequest(long offsetMillis, String method, String path, String accept, String body,
+                           int recordedStatus, long recordedMillis, String createdId) {
+        this.offsetMillis = offsetMillis;
+        this.method = method;
+        this.path = path;
+        this.accept = accept;
+        this.body = body;
+        this.recordedStatus = recordedStatus;
+        this.recordedMillis = recordedMillis;
+        this.createdId = createdId;
+    }
+
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public int getRecordedStatus() {
+        return recordedStatus;
+    }
+
+    public long getRecordedMillis() {
+        return recordedMillis;
+    }
+
+    public String getCreatedId() {
+        return createdId;
+    }
+
+    /**
+     * @return The booking ID in the path, e.g. "abc" for /bookings/abc/confirm, or null if there is none.
+     */
+    public String getBookingId() {
+        return bookingIdOf(path);
+    }
+
+    /**
+     * @return The method and path pattern the request is reported under, e.g. "GET /bookings/{id}".
+     */
+    public String getEndpoint() {
+        int query = path.indexOf('?');
+        String plainPath = query < 0 ? path : path.substring(0, query);
+        String id = bookingIdOf(plainPath);
+        return method + " " + (id == null ? plainPath : plainPath.replace("/bookings/" + id, "/bookings/{id}"));
+    }
+
+    /**
+     * @return A copy of this request with the booking ID in its path replaced.
+     */
+    CapturedRequest withBookingId(String bookingId) {
+        String rest = path.substring("/bookings/".length() + getBookingId().length());
+        String replaced = "/bookings/" + bookingId + rest;
+        return new CapturedRequest(offsetMillis, method, replaced, accept, body, recordedStatus, recordedMillis, createdId);
+    }
+
+    // The second path segment under /bookings, unless it names a collection endpoint rather than a booking.
+    static String bookingIdOf(String path) {
+        if (!path.startsWith("/bookings/")) {
+            return null;
+        }
+        int end = path.length();
+        for (int i = "/bookings/".length(); i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        String segment = path.substring("/bookings/".length(), end);
+        switch (segment) {
+            case "":
+            case "search":
+            case "arrivals":
+            case "departures":
+            case "autocomplete":
+            case "occupancy":
+            case "lookup":
+            case "bulk":
+                return null;
+            default:
+                return segment;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CapturedRequest{" +
+                "offsetMillis=" + offsetMillis +
+                ", method='" + method + '\'' +
+                ", path='" + path + '\'' +
+                ", recordedStatus=" + recordedStatus +
+                '}';
+    }
+}
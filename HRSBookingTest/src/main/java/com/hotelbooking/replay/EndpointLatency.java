@@ -0,0 +1,119 @@
+package com.hotelbooking.replay;
+
+/**
+ * Client-side latency of the replayed requests of one endpoint, in milliseconds.
+ */
+public class EndpointLatency {
+    private String endpoint;
+    private int requests;
+    private int statusMismatches;
+    private int failed;
+    private double p50Millis;
+    private double p90Millis;
+    private double p99Millis;
+    private double maxMillis;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public EndpointLatency() {
+    }
+
+    /**
+     * Constructs a new EndpointLatency instance.
+     *
+     * @param endpoint The method and path pattern, e.g. "GET /bookings/{id}".
+     * @param requests The number of replayed requests.
+     * @param statusMismatches Requests answered with a different status than recorded.
+     * @param failed Requests that got no response (connection errors, timeouts).
+     * @param p50Millis The median.
+     * @param p90Millis The 90th percentile.
+     * @param p99Millis The 99th percentile.
+     * @param maxMillis The slowest request.
+     */
+    public EndpointLatency(String endpoint, int requests, int statusMismatches, int failed,
+                           double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.statusMismatches = statusMismatches;
+        this.failed = failed;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public void setRequests(int requests) {
+        this.requests = requests;
+    }
+
+    public int getStatusMismatches() {
+        return statusMismatches;
+    }
+
+    public void setStatusMismatches(int statusMismatches) {
+        this.statusMismatches = statusMismatches;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public void setP50Millis(double p50Millis) {
+        this.p50Millis = p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public void setP90Millis(double p90Millis) {
+        this.p90Millis = p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public void setP99Millis(double p99Millis) {
+        this.p99Millis = p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointLatency{" +
+                "endpoint='" + endpoint + '\'' +
+                ", requests=" + requests +
+                ", p50Millis=" + p50Millis +
+                ", p99Millis=" + p99Millis +
+                '}';
+    }
+}
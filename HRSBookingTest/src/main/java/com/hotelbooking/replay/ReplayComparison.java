@@ -0,0 +1,120 @@
+package com.hotelbooking.replay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-endpoint latency change between a baseline replay and a candidate replay of the same capture,
+ * e.g. the previous build and the current one.
+ * <p>
+ * Endpoints with fewer than {@link #MIN_REQUESTS} requests in either run are listed but never reported as
+ * regressions: their percentiles rest on too few samples to tell a change from noise.
+ */
+public final class ReplayComparison {
+
+    /** Fewest requests of an endpoint, in each run, for its change to count as a regression. */
+    public static final int MIN_REQUESTS = 20;
+
+    private final ReplayReport baseline;
+    private final ReplayReport candidate;
+    private final List<Row> rows;
+
+    private ReplayComparison(ReplayReport baseline, ReplayReport candidate, List<Row> rows) {
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Pairs up the endpoints of two reports; endpoints in only one of them are left out.
+     *
+     * @param baseline The report to compare against.
+     * @param candidate The report being judged.
+     * @return The comparison.
+     */
+    public static ReplayComparison of(ReplayReport baseline, ReplayReport candidate) {
+        Map<String, EndpointLatency> before = new LinkedHashMap<>();
+        for (EndpointLatency latency : baseline.getEndpoints()) {
+            before.put(latency.getEndpoint(), latency);
+        }
+        List<Row> rows = new ArrayList<>();
+        for (EndpointLatency after : candidate.getEndpoints()) {
+            EndpointLatency matching = before.get(after.getEndpoint());
+            if (matching != null) {
+                rows.add(new Row(matching, after));
+            }
+        }
+        return new ReplayComparison(baseline, candidate, rows);
+    }
+
+    /**
+     * @param thresholdPercent The largest acceptable increase of the p50 or p99 latency, in percent.
+     * @return The endpoints whose p50 or p99 latency grew by more than the threshold.
+     */
+    public List<String> getRegressions(double thresholdPercent) {
+        List<String> regressions = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.isRegression(thresholdPercent)) {
+                regressions.add(row.endpoint());
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @param thresholdPercent The threshold used to mark regressions.
+     * @return A table of the p50 and p99 latencies of each endpoint in both runs and their change.
+     */
+    public String format(double thresholdPercent) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "Baseline:  %s, %d requests in %d ms (max schedule lag %d ms)%n",
+                baseline.getTarget(), baseline.getRequests(), baseline.getDurationMillis(), baseline.getMaxScheduleLagMillis()));
+        table.append(String.format(Locale.ROOT, "Candidate: %s, %d requests in %d ms (max schedule lag %d ms)%n",
+                candidate.getTarget(), candidate.getRequests(), candidate.getDurationMillis(), candidate.getMaxScheduleLagMillis()));
+        table.append(String.format(Locale.ROOT, "%-40s %8s %10s %10s %8s %10s %10s %8s%n",
+                "Endpoint", "Requests", "p50 base", "p50 cand", "p50 chg", "p99 base", "p99 cand", "p99 chg"));
+        for (Row row : rows) {
+            table.append(String.format(Locale.ROOT, "%-40s %8d %10.2f %10.2f %7.1f%% %10.2f %10.2f %7.1f%%%s%n",
+                    row.endpoint(), row.after.getRequests(),
+                    row.before.getP50Millis(), row.after.getP50Millis(), row.p50ChangePercent(),
+                    row.before.getP99Millis(), row.after.getP99Millis(), row.p99ChangePercent(),
+                    row.isRegression(thresholdPercent) ? "  REGRESSION" : ""));
+        }
+        return table.toString();
+    }
+
+    private static final class Row {
+        final EndpointLatency before;
+        final EndpointLatency after;
+
+        Row(EndpointLatency before, EndpointLatency after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        String endpoint() {
+            return after.getEndpoint();
+        }
+
+        double p50ChangePercent() {
+            return changePercent(before.getP50Millis(), after.getP50Millis());
+        }
+
+        double p99ChangePercent() {
+            return changePercent(before.getP99Millis(), after.getP99Millis());
+        }
+
+        boolean isRegression(double thresholdPercent) {
+            return before.getRequests() >= MIN_REQUESTS && after.getRequests() >= MIN_REQUESTS
+                    && (p50ChangePercent() > thresholdPercent || p99ChangePercent() > thresholdPercent);
+        }
+
+        private static double changePercent(double before, double after) {
+            return before == 0 ? 0 : (after - before) * 100 / before;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.hotelbooking.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one replay: per-endpoint latency and how faithfully the recorded timing could be kept.
+ * Saved as JSON so the runs of two builds can be compared with {@link ReplayComparison}.
+ */
+public class ReplayReport {
+    private String target;
+    private double speed;
+    private int requests;
+    private int seededBookings;
+    private long durationMillis;
+    private long maxScheduleLagMillis;
+    private List<EndpointLatency> endpoints = new ArrayList<>();
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public ReplayReport() {
+    }
+
+    /**
+     * Constructs a new ReplayReport instance.
+     *
+     * @param target The base URL the traffic was replayed against.
+     * @param speed The speed-up over the recorded timing; 0 for back to back.
+     * @param requests The number of requests replayed.
+     * @param seededBookings Placeholder bookings created for IDs the capture uses but never creates.
+     * @param durationMillis The wall-clock time of the replay.
+     * @param maxScheduleLagMillis The furthest any request was sent behind its scheduled time; if large,
+     *                             the replayer could not keep up and the traffic shape was not preserved.
+     * @param endpoints Latency per endpoint, sorted by endpoint.
+     */
+    public ReplayReport(String target, double speed, int requests, int seededBookings, long durationMillis,
+                        long maxScheduleLagMillis, List<EndpointLatency> endpoints) {
+        this.target = target;
+        this.speed = speed;
+        this.requests = requests;
+        this.seededBookings = seededBookings;
+        this.durationMillis = durationMillis;
+        this.maxScheduleLagMillis = maxScheduleLagMillis;
+        this.endpoints = endpoints;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public void setRequests(int requests) {
+        this.requests = requests;
+    }
+
+    public int getSeededBookings() {
+        return seededBookings;
+    }
+
+    public void setSeededBookings(int seededBookings) {
+        this.seededBookings = seededBookings;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getMaxScheduleLagMillis() {
+        return maxScheduleLagMillis;
+    }
+
+    public void setMaxScheduleLagMillis(long maxScheduleLagMillis) {
+        this.maxScheduleLagMillis = maxScheduleLagMillis;
+    }
+
+    public List<EndpointLatency> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(List<EndpointLatency> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayReport{" +
+                "target='" + target + '\'' +
+                ", speed=" + speed +
+                ", requests=" + requests +
+                ", durationMillis=" + durationMillis +
+                ", endpoints=" + endpoints +
+                '}';
+    }
+}
@@ -0,0 +1,238 @@
+package com.hotelbooking.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends recorded requests to a running instance at their recorded offsets, optionally sped up, and
+ * measures the latency of each as seen by the client.
+ * <p>
+ * Requests are sent asynchronously, so a slow response does not delay the ones scheduled after it; only
+ * the in-flight limit does, and how far requests fell behind schedule is reported. Booking IDs are
+ * remapped: a request for a booking created earlier in the capture waits for that create to finish and
+ * uses the new booking's ID, and IDs the capture uses but never creates can be seeded with placeholder
+ * bookings beforehand, so that lookups hit rather than miss as they did in production. The statuses
+ * of seeded bookings differ from the recorded ones, so transitions on them may answer differently;
+ * such requests are counted as status mismatches.
+ */
+public class TrafficReplayer {
+
+    static final String SEED_HOTEL_NAME = "Replay Seed Hotel";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String target;
+    private final double speed;
+    private final int maxInFlight;
+    private final boolean seedMissing;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param target The base URL of the instance, e.g. "http://localhost:8080".
+     * @param speed The speed-up over the recorded timing, e.g. 1 for the original timing or 10 for ten
+     *              times faster; 0 sends requests back to back, limited only by {@code maxInFlight}.
+     * @param maxInFlight The most requests awaiting a response at once.
+     * @param seedMissing Whether to create placeholder bookings for IDs the capture uses but never creates.
+     * @param objectMapper Reads the IDs of created bookings from responses.
+     */
+    public TrafficReplayer(String target, double speed, int maxInFlight, boolean seedMissing, ObjectMapper objectMapper) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Replay speed cannot be negative.");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight.");
+        }
+        this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.speed = speed;
+        this.maxInFlight = maxInFlight;
+        this.seedMissing = seedMissing;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replays requests and waits for all responses.
+     *
+     * @param requests The requests, ordered by offset.
+     * @return The per-endpoint latencies.
+     * @throws IOException If seeding a placeholder booking fails.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public ReplayReport replay(List<CapturedRequest> requests) throws IOException, InterruptedException {
+        // Recorded booking ID -> ID of the same booking in the replay target
+        Map<String, CompletableFuture<String>> ids = new HashMap<>();
+        for (CapturedRequest request : requests) {
+            if (request.getCreatedId() != null) {
+                ids.put(request.getCreatedId(), new CompletableFuture<>());
+            }
+        }
+        int seeded = seedMissing ? seed(requests, ids) : 0;
+
+        Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<Void>> responses = new ArrayList<>(requests.size());
+        long maxLagNanos = 0;
+        long start = System.nanoTime();
+        for (CapturedRequest request : requests) {
+            long due = speed > 0 ? start + (long) (TimeUnit.MILLISECONDS.toNanos(request.getOffsetMillis()) / speed) : 0;
+            if (speed > 0) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+            inFlight.acquire();
+            if (speed > 0) {
+                maxLagNanos = Math.max(maxLagNanos, System.nanoTime() - due);
+            }
+            CompletableFuture<String> bookingId = request.getBookingId() == null ? null : ids.get(request.getBookingId());
+            CompletableFuture<CapturedRequest> ready = bookingId == null
+                    ? CompletableFuture.completedFuture(request)
+                    : bookingId.thenApply(request::withBookingId);
+            responses.add(ready.thenCompose(remapped -> send(request, remapped, recorders, ids))
+                    .whenComplete((ignored, error) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        List<EndpointLatency> endpoints = new ArrayList<>();
+        for (Map.Entry<String, Recorder> entry : new TreeMap<>(recorders).entrySet()) {
+            endpoints.add(entry.getValue().toLatency(entry.getKey()));
+        }
+        return new ReplayReport(target, speed, requests.size(), seeded, durationMillis,
+                TimeUnit.NANOSECONDS.toMillis(maxLagNanos), endpoints);
+    }
+
+    private CompletableFuture<Void> send(CapturedRequest recorded, CapturedRequest request, Map<String, Recorder> recorders,
+                                         Map<String, CompletableFuture<String>> ids) {
+        HttpRequest httpRequest = toHttpRequest(request);
+        long sent = System.nanoTime();
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString()).handle((response, error) -> {
+            long nanos = System.nanoTime() - sent;
+            Recorder recorder = recorders.computeIfAbsent(recorded.getEndpoint(), endpoint -> new Recorder());
+            String createdId = null;
+            if (error != null) {
+                recorder.fail();
+            } else {
+                recorder.record(nanos, recorded.getRecordedStatus() != 0 && response.statusCode() != recorded.getRecordedStatus());
+                if (recorded.getCreatedId() != null && response.statusCode() == 201) {
+                    createdId = idOf(response.body());
+                }
+            }
+            if (recorded.getCreatedId() != null) {
+                // A failed create leaves the recorded ID, so requests for it still run (and miss, as they would)
+                ids.get(recorded.getCreatedId()).complete(createdId != null ? createdId : recorded.getCreatedId());
+            }
+            return null;
+        });
+    }
+
+    private int seed(List<CapturedRequest> requests, Map<String, CompletableFuture<String>> ids)
+            throws IOException, InterruptedException {
+        int seeded = 0;
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        String body = objectMapper.createObjectNode()
+                .put("hotelName", SEED_HOTEL_NAME)
+                .put("guestName", "Replay")
+                .put("checkInDate", checkIn.toString())
+                .put("checkOutDate", checkIn.plusDays(2).toString())
+                .toString();
+        for (CapturedRequest request : requests) {
+            String recordedId = request.getBookingId();
+            if (recordedId == null || ids.containsKey(recordedId)) {
+                continue;
+            }
+            HttpResponse<String> response = httpClient.send(toHttpRequest(
+                    new CapturedRequest(0, "POST", "/bookings", null, body, 0, -1, null)), HttpResponse.BodyHandlers.ofString());
+            String id = response.statusCode() == 201 ? idOf(response.body()) : null;
+            if (id == null) {
+                throw new IOException("Could not seed a booking for " + recordedId + ": HTTP " + response.statusCode());
+            }
+            ids.put(recordedId, CompletableFuture.completedFuture(id));
+            seeded++;
+        }
+        return seeded;
+    }
+
+    private HttpRequest toHttpRequest(CapturedRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + request.getPath()))
+                .timeout(REQUEST_TIMEOUT);
+        if (request.getAccept() != null) {
+            builder.header("Accept", request.getAccept());
+        }
+        if (request.getBody() != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(request.getMethod(), HttpRequest.BodyPublishers.ofString(request.getBody()));
+        } else {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    private String idOf(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            return id != null && id.isTextual() ? id.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Latencies of one endpoint; written from the HTTP client's threads.
+    private static final class Recorder {
+        private long[] nanos = new long[64];
+        private int count;
+        private int statusMismatches;
+        private int failed;
+
+        synchronized void record(long latencyNanos, boolean statusMismatch) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (statusMismatch) {
+                statusMismatches++;
+            }
+        }
+
+        synchronized void fail() {
+            failed++;
+        }
+
+        synchronized EndpointLatency toLatency(String endpoint) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new EndpointLatency(endpoint, count + failed, statusMismatches, failed,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : toMillis(sorted[sorted.length - 1]));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            return sorted.length == 0 ? 0 : toMillis(sorted[(int) Math.min(sorted.length - 1, sorted.length * quantile)]);
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
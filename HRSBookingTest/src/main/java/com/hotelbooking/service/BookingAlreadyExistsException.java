@@ -0,0 +1,19 @@
+package com.hotelbooking.service;
+
+/**
+ * Thrown when a new booking is sent with the ID of a booking that already exists. Creating it would
+ * replace the stored booking and bypass the status rules that updates and transitions enforce.
+ */
+public class BookingAlreadyExistsException extends IllegalStateException {
+
+    private final String bookingId;
+
+    public BookingAlreadyExistsException(String bookingId) {
+        super("Booking " + bookingId + " already exists.");
+        this.bookingId = bookingId;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+}
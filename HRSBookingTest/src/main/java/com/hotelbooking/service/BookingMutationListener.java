@@ -0,0 +1,57 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.model.Booking;
+
+/**
+ * Callback for changes to the booking store.
+ * Notifications for the same booking ID are delivered one at a time, in the order the changes were
+ * applied, so implementations can maintain derived state incrementally. They run inside the store's
+ * per-key update, so they must be fast and must not call back into {@link BookingService} for the same booking.
+ */
+public interface BookingMutationListener {
+
+    /**
+     * Called before a change to a booking is applied, outside the store's locks. Unlike the callbacks
+     * below, it may block, e.g. to wait for room in a write queue.
+     *
+     * @param bookingId The ID of the booking about to change.
+     */
+    default void beforeMutation(String bookingId) {
+    }
+
+    /**
+     * Whether a failure of this listener must abort the change. Such listeners are notified before the
+     * others, and an exception they throw propagates out of the mutation, leaving the store and the
+     * other listeners unchanged. Failures of other listeners are logged and ignored.
+     *
+     * @return True if the change must not be applied unless this listener accepted it.
+     */
+    default boolean isRequired() {
+        return false;
+    }
+
+    /**
+     * Called after a booking was added to the store.
+     *
+     * @param booking The stored booking.
+     */
+    default void onBookingCreated(Booking booking) {
+    }
+
+    /**
+     * Called after a stored booking changed (including status changes such as cancellation).
+     *
+     * @param previous A snapshot of the booking before the change.
+     * @param current The booking after the change.
+     */
+    default void onBookingUpdated(Booking previous, Booking current) {
+    }
+
+    /**
+     * Called after a booking was removed from the store.
+     *
+     * @param booking The removed booking.
+     */
+    default void onBookingDeleted(Booking booking) {
+    }
+}
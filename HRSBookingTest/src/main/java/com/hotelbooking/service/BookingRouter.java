@@ -0,0 +1,37 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+
+import java.util.Optional;
+
+/**
+ * Routes operations on bookings that are owned by another node in clustered mode.
+ * {@link BookingService} handles keys for which {@link #isLocal(String)} is true itself and
+ * delegates everything else to the router.
+ */
+public interface BookingRouter {
+
+    /**
+     * @param bookingId The booking ID.
+     * @return True if this node owns the booking.
+     */
+    boolean isLocal(String bookingId);
+
+    /**
+     * @return A new booking ID that is owned by this node.
+     */
+    String newLocalId();
+
+    Optional<Booking> getBookingById(String id);
+
+    Booking createBooking(Booking booking);
+
+    Optional<Booking> updateBooking(String id, Booking updatedBooking);
+
+    Optional<Booking> transitionBooking(String id, BookingStatus target);
+
+    boolean cancelBooking(String id);
+
+    boolean deleteBooking(String id);
+}
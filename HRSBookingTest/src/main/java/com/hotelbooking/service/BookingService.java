@@ -1,44 +1,152 @@
 package com.hotelbooking.service;
 
+import com.hotelbooking.index.AvailabilityIndex;
+import com.hotelbooking.index.AvailabilityProperties;
+import com.hotelbooking.index.BookingDateIndex;
+import com.hotelbooking.index.HotelNameIndex;
+import com.hotelbooking.index.HotelNameTrie;
+import com.hotelbooking.index.OccupancyIndex;
 import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingLookupResult;
+import com.hotelbooking.model.BookingSort;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.model.HotelAvailability;
+import com.hotelbooking.model.HotelOccupancy;
+import com.hotelbooking.model.HotelSuggestion;
+import com.hotelbooking.model.SearchCacheStats;
+import com.hotelbooking.tracing.RequestTracer;
+import com.hotelbooking.tracing.TraceStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /**
  * Service layer for managing hotel bookings.
  * Stores booking data in-memory using a ConcurrentHashMap.
+ * <p>
+ * Status changes follow the {@link BookingStatus} state machine. Updates and transitions never modify a
+ * stored booking; they replace it with a new snapshot inside the map's per-key compute, so concurrent
+ * transitions on the same booking are decided one at a time (exactly one of two concurrent cancellations
+ * wins) while other bookings are unaffected and readers never block.
  */
 @Service
 public class BookingService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
 
+    /** Maximum number of distinct hotels whose bookings a fuzzy search returns. */
+    public static final int MAX_FUZZY_HOTELS = 10;
+
+    /**
+     * Longest stay a booking may have. The occupancy and availability indexes keep per-night state, so an
+     * unbounded stay would let one request allocate millions of entries.
+     */
+    public static final int MAX_STAY_NIGHTS = 365;
+
+    /** Longest range served by {@link #getOccupancy(String, LocalDate, LocalDate)}. */
+    public static final int MAX_OCCUPANCY_NIGHTS = 366;
+
+    /** Maximum number of IDs resolved by one {@link #getBookingsByIds(List)} call. */
+    public static final int MAX_LOOKUP_IDS = 1000;
+
+    /** Default number of hotel name searches whose results are cached. */
+    public static final int DEFAULT_SEARCH_CACHE_SIZE = 1024;
+
+    /** Number of nights from today served by {@link #findAvailableHotels(LocalDate, LocalDate)}. */
+    public static final int AVAILABILITY_HORIZON_DAYS = 730;
+
+    /** Rooms per hotel until capacities are configured. */
+    public static final int DEFAULT_HOTEL_CAPACITY = 50;
+
     // In-memory store for bookings. Using ConcurrentHashMap for thread-safety.
     private final ConcurrentHashMap<String, Booking> bookings = new ConcurrentHashMap<>();
 
+    // Notified of every change, one key at a time (see BookingMutationListener).
+    private final List<BookingMutationListener> mutationListeners = new CopyOnWriteArrayList<>();
+
+    // Per-hotel, per-night counters maintained from the mutation notifications.
+    private final OccupancyIndex occupancyIndex = new OccupancyIndex();
+
+    // Per-hotel bitmaps of fully booked nights, for availability search.
+    private final AvailabilityIndex availabilityIndex =
+            new AvailabilityIndex(AVAILABILITY_HORIZON_DAYS, DEFAULT_HOTEL_CAPACITY);
+
+    // Distinct hotel names with booking counts, for autocomplete.
+    private final HotelNameTrie hotelNameTrie = new HotelNameTrie();
+
+    // Distinct hotel names with their booking IDs and trigrams, for exact and fuzzy search.
+    private final HotelNameIndex hotelNameIndex;
+
+    // Booking IDs sorted by check-in and check-out date, for arrival and departure lists.
+    private final BookingDateIndex dateIndex = new BookingDateIndex();
+
+    // Set in clustered mode; routes operations on bookings owned by other nodes.
+    private volatile BookingRouter router;
+
     /**
      * Initializes the in-memory store with some sample data.
      */
     public BookingService() {
+        this(true);
+    }
+
+    /**
+     * Initializes the in-memory store, optionally with some sample data.
+     *
+     * @param loadSampleData Whether to add the sample bookings. Clustered nodes turn this off,
+     *                       because sample IDs are not partitioned.
+     */
+    public BookingService(boolean loadSampleData) {
+        this(loadSampleData, DEFAULT_SEARCH_CACHE_SIZE);
+    }
+
+    /**
+     * Initializes the in-memory store, optionally with some sample data.
+     *
+     * @param loadSampleData Whether to add the sample bookings. Clustered nodes turn this off,
+     *                       because sample IDs are not partitioned.
+     * @param searchCacheSize Maximum number of hotel name searches whose results are cached; 0 turns caching off.
+     */
+    @Autowired
+    public BookingService(@Value("${booking.sample-data.enabled:true}") boolean loadSampleData,
+                          @Value("${booking.search-cache.max-entries:" + DEFAULT_SEARCH_CACHE_SIZE + "}") int searchCacheSize) {
+        hotelNameIndex = new HotelNameIndex(searchCacheSize);
+        mutationListeners.add(occupancyIndex);
+        mutationListeners.add(availabilityIndex);
+        mutationListeners.add(hotelNameTrie);
+        mutationListeners.add(hotelNameIndex);
+        mutationListeners.add(dateIndex);
+        if (!loadSampleData) {
+            logger.info("In-memory booking store initialized without sample data.");
+            return;
+        }
         // Add some initial sample data
         Booking booking1 = new Booking(UUID.randomUUID().toString(), "Grand Hyatt", "Alice Smith", LocalDate.now().plusDays(5), LocalDate.now().plusDays(10), "CONFIRMED");
         Booking booking2 = new Booking(UUID.randomUUID().toString(), "Hilton Garden Inn", "Bob Johnson", LocalDate.now().plusMonths(1), LocalDate.now().plusMonths(1).plusDays(3), "PENDING");
         Booking booking3 = new Booking(UUID.randomUUID().toString(), "Marriott Marquis", "Charlie Brown", LocalDate.now().plusMonths(2), LocalDate.now().plusMonths(2).plusDays(7), "CONFIRMED");
         Booking booking4 = new Booking(UUID.randomUUID().toString(), "Grand Hotel & Casino", "David Lee", LocalDate.now().plusDays(15), LocalDate.now().plusDays(20), "PENDING");
 
-        bookings.put(booking1.getId(), booking1);
-        bookings.put(booking2.getId(), booking2);
-        bookings.put(booking3.getId(), booking3);
-        bookings.put(booking4.getId(), booking4);
+        store(booking1);
+        store(booking2);
+        store(booking3);
+        store(booking4);
 
         logger.info("In-memory booking store initialized with {} sample bookings.", bookings.size());
     }
@@ -49,32 +157,156 @@ public class BookingService {
      * @param booking The booking object to create.
      * @return The created booking with its ID.
      * @throws IllegalArgumentException If booking data is invalid.
+     * @throws BookingAlreadyExistsException If the booking has the ID of an existing booking.
      */
     public Booking createBooking(Booking booking) {
+        validateNewBooking(booking);
+        BookingRouter currentRouter = router;
+        boolean local = assignDefaults(booking, currentRouter);
+        RequestTracer.lap(TraceStage.VALIDATION);
+        if (!local) {
+            return currentRouter.createBooking(booking);
+        }
+
+        beforeMutation(booking.getId());
+        insert(booking);
+        logger.info("Booking created successfully: {}", booking.getId());
+        return booking;
+    }
+
+    /**
+     * Creates many bookings at once, as used by bulk import.
+     * Applies the same rules as {@link #createBooking(Booking)}, but validates the whole batch before
+     * storing any of it and logs one summary line instead of one line per booking. Bookings are then
+     * stored in order; the batch is not atomic against concurrent creates.
+     *
+     * @param batch The bookings to create.
+     * @return The number of bookings created.
+     * @throws IllegalArgumentException If any booking in the batch is invalid or has the ID of an existing
+     *                                  booking; nothing is stored then.
+     * @throws BookingAlreadyExistsException If a booking with the ID of one in the batch was created
+     *                                       concurrently; the bookings before it in the batch are stored,
+     *                                       those after it are not.
+     */
+    public int createBookings(List<Booking> batch) {
+        Set<String> ids = new HashSet<>();
+        for (Booking booking : batch) {
+            validateNewBooking(booking);
+            String id = booking.getId();
+            if (id != null && !id.isEmpty() && (!ids.add(id) || bookings.containsKey(id))) {
+                throw new IllegalArgumentException("Booking " + id + " already exists.");
+            }
+        }
+        BookingRouter currentRouter = router;
+        for (Booking booking : batch) {
+            if (assignDefaults(booking, currentRouter)) {
+                beforeMutation(booking.getId());
+                insert(booking);
+            } else {
+                currentRouter.createBooking(booking);
+            }
+        }
+        logger.debug("Created batch of {} bookings.", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Checks a booking against the rules for new bookings.
+     *
+     * @param booking The booking to check.
+     * @throws IllegalArgumentException If booking data is invalid.
+     */
+    public static void validateNewBooking(Booking booking) {
+        String error = findNewBookingError(booking);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    /**
+     * Checks a booking against the rules for new bookings without throwing, so callers on the request
+     * path can reject invalid input without the cost of an exception.
+     *
+     * @param booking The booking to check.
+     * @return Null if the booking is valid, otherwise the reason it is not.
+     */
+    public static String findNewBookingError(Booking booking) {
         if (booking == null || booking.getHotelName() == null || booking.getGuestName() == null ||
                 booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
-            throw new IllegalArgumentException("Booking details cannot be null or empty.");
+            return "Booking details cannot be null or empty.";
         }
         if (booking.getCheckInDate().isAfter(booking.getCheckOutDate())) {
-            throw new IllegalArgumentException("Check-in date cannot be after check-out date.");
+            return "Check-in date cannot be after check-out date.";
+        }
+        if (isTooLong(booking)) {
+            return "A stay cannot be longer than " + MAX_STAY_NIGHTS + " nights.";
         }
         if (booking.getCheckInDate().isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Check-in date cannot be in the past.");
+            return "Check-in date cannot be in the past.";
+        }
+        if (booking.getStatus() != null && !booking.getStatus().isEmpty()) {
+            BookingStatus status = BookingStatus.find(booking.getStatus());
+            if (status == null) {
+                return "Unknown booking status: " + booking.getStatus();
+            }
+            if (!status.isInitial()) {
+                return "New bookings must be PENDING or CONFIRMED.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks the arguments of {@link #updateBooking(String, Booking)} without throwing.
+     *
+     * @param id The ID of the booking to update.
+     * @param updatedBooking The booking object with updated details.
+     * @return Null if the update is valid, otherwise the reason it is not.
+     */
+    public static String findUpdateError(String id, Booking updatedBooking) {
+        if (id == null || id.trim().isEmpty()) {
+            return "Booking ID cannot be null or empty for update.";
+        }
+        if (updatedBooking == null || updatedBooking.getHotelName() == null || updatedBooking.getGuestName() == null ||
+                updatedBooking.getCheckInDate() == null || updatedBooking.getCheckOutDate() == null) {
+            return "Updated booking details cannot be null or empty.";
         }
+        if (updatedBooking.getCheckInDate().isAfter(updatedBooking.getCheckOutDate())) {
+            return "Check-in date cannot be after check-out date for update.";
+        }
+        if (isTooLong(updatedBooking)) {
+            return "A stay cannot be longer than " + MAX_STAY_NIGHTS + " nights.";
+        }
+        if (updatedBooking.getStatus() != null && !updatedBooking.getStatus().isEmpty()
+                && BookingStatus.find(updatedBooking.getStatus()) == null) {
+            return "Unknown booking status: " + updatedBooking.getStatus();
+        }
+        return null;
+    }
 
-        // Set initial status if not provided
+    private static boolean isTooLong(Booking booking) {
+        return booking.getCheckInDate().plusDays(MAX_STAY_NIGHTS).isBefore(booking.getCheckOutDate());
+    }
+
+    /**
+     * Fills in the default status and a new ID where missing.
+     *
+     * @return True if the booking belongs in the local store, false if it must be routed to another node.
+     */
+    private static boolean assignDefaults(Booking booking, BookingRouter currentRouter) {
+        // Set initial status if not provided, and store it in its canonical spelling
         if (booking.getStatus() == null || booking.getStatus().isEmpty()) {
-            booking.setStatus("PENDING");
+            booking.setStatus(BookingStatus.PENDING.name());
+        } else {
+            booking.setStatus(BookingStatus.parse(booking.getStatus()).name());
         }
 
         // Generate a unique ID for the booking if not already set
         if (booking.getId() == null || booking.getId().isEmpty()) {
-            booking.setId(UUID.randomUUID().toString());
+            booking.setId(currentRouter != null ? currentRouter.newLocalId() : UUID.randomUUID().toString());
+            return true;
         }
-
-        bookings.put(booking.getId(), booking);
-        logger.info("Booking created successfully: {}", booking.getId());
-        return booking;
+        return currentRouter == null || currentRouter.isLocal(booking.getId());
     }
 
     /**
@@ -88,11 +320,55 @@ public class BookingService {
             throw new IllegalArgumentException("Booking ID cannot be null or empty.");
         }
         logger.debug("Attempting to retrieve booking by ID: {}", id);
+        BookingRouter currentRouter = router;
+        if (currentRouter != null && !currentRouter.isLocal(id)) {
+            return currentRouter.getBookingById(id);
+        }
         return Optional.ofNullable(bookings.get(id));
     }
 
+    /**
+     * Retrieves many bookings by ID in one pass over the in-memory store.
+     * In clustered mode, IDs owned by other nodes are fetched from their owners one at a time.
+     *
+     * @param ids The IDs to look up; duplicates are resolved once.
+     * @return The bookings found and the IDs without a booking, both in request order.
+     * @throws IllegalArgumentException If no IDs, more than {@link #MAX_LOOKUP_IDS} IDs, or a blank ID is given.
+     */
+    public BookingLookupResult getBookingsByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking ID is required for a lookup.");
+        }
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_IDS + " booking IDs can be looked up at once.");
+        }
+        BookingRouter currentRouter = router;
+        Set<String> seen = new HashSet<>(ids.size() * 2);
+        List<Booking> found = new ArrayList<>(ids.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (id == null || id.trim().isEmpty()) {
+                throw new IllegalArgumentException("Booking IDs in a lookup cannot be null or empty.");
+            }
+            if (!seen.add(id)) {
+                continue;
+            }
+            Booking booking = currentRouter != null && !currentRouter.isLocal(id)
+                    ? currentRouter.getBookingById(id).orElse(null)
+                    : bookings.get(id);
+            if (booking != null) {
+                found.add(booking);
+            } else {
+                missing.add(id);
+            }
+        }
+        logger.debug("Looked up {} booking IDs, {} missing.", seen.size(), missing.size());
+        return new BookingLookupResult(found, missing);
+    }
+
     /**
      * Retrieves all bookings from the in-memory store.
+     * In clustered mode this covers only the bookings owned by this node.
      *
      * @return A list of all bookings.
      */
@@ -101,8 +377,82 @@ public class BookingService {
         return new ArrayList<>(bookings.values());
     }
 
+    /**
+     * Retrieves a page of bookings from the in-memory store, optionally in a given order.
+     * In clustered mode this covers only the bookings owned by this node.
+     *
+     * @param sort The order of the page, or null for store order.
+     * @param limit The maximum number of bookings to return.
+     * @return The first {@code limit} bookings in the given order.
+     * @throws IllegalArgumentException If limit is not positive.
+     */
+    public List<Booking> getAllBookings(BookingSort sort, int limit) {
+        logger.debug("Attempting to retrieve up to {} bookings sorted by {}.", limit, sort);
+        return sortAndLimit(bookings.values(), sort, limit);
+    }
+
+    /**
+     * Orders bookings and keeps the first {@code limit} of them. A page smaller than the input is
+     * selected with a bounded heap in O(n log limit), so the full input is never sorted for a small page.
+     *
+     * @param source The bookings to order; not modified.
+     * @param sort The order, or null to keep the source order.
+     * @param limit The maximum number of bookings to return.
+     * @return A new list with at most {@code limit} bookings.
+     * @throws IllegalArgumentException If limit is not positive.
+     */
+    public static List<Booking> sortAndLimit(Collection<Booking> source, BookingSort sort, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        if (sort == null) {
+            List<Booking> page = new ArrayList<>(Math.min(limit, source.size()));
+            for (Booking booking : source) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(booking);
+            }
+            return page;
+        }
+        Comparator<Booking> order = sort.comparator();
+        if (limit >= source.size()) {
+            List<Booking> all = new ArrayList<>(source);
+            all.sort(order);
+            return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all; // The store grew meanwhile
+        }
+        // Max-heap of the best bookings so far; its head is the worst one kept.
+        PriorityQueue<Booking> best = new PriorityQueue<>(limit, order.reversed());
+        for (Booking booking : source) {
+            if (best.size() < limit) {
+                best.add(booking);
+            } else if (order.compare(booking, best.peek()) < 0) {
+                best.poll();
+                best.add(booking);
+            }
+        }
+        Booking[] page = new Booking[best.size()];
+        for (int i = page.length - 1; i >= 0; i--) {
+            page[i] = best.poll();
+        }
+        return Arrays.asList(page);
+    }
+
+    /**
+     * Streams all bookings straight from the in-memory store, without copying them first.
+     * The stream is weakly consistent: bookings changed while it is consumed may or may not be included.
+     * In clustered mode this covers only the bookings owned by this node.
+     *
+     * @return A lazy stream of all bookings.
+     */
+    public Stream<Booking> streamAllBookings() {
+        return bookings.values().stream();
+    }
+
     /**
      * Searches for bookings by hotel name in the in-memory store.
+     * The matching booking IDs of repeated queries come from a cache that mutations of the matched hotels
+     * invalidate (see {@link HotelNameIndex}); the bookings themselves are always read from the store.
      *
      * @param hotelName The partial or full hotel name to search for.
      * @return A list of bookings matching the criteria.
@@ -114,43 +464,250 @@ public class BookingService {
         }
         final String lowerCaseHotelName = hotelName.toLowerCase();
         logger.debug("Searching for bookings with hotel name containing: {}", hotelName);
-        return bookings.values().stream()
-                .filter(booking -> booking.getHotelName().toLowerCase().contains(lowerCaseHotelName))
-                .collect(Collectors.toList());
+        // Match against the distinct hotel names, then fetch only the matching bookings.
+        return resolve(hotelNameIndex.findIdsByHotelNameContaining(lowerCaseHotelName));
+    }
+
+    /**
+     * @return The hit, miss, eviction and invalidation counters of the hotel name search cache.
+     */
+    public SearchCacheStats getSearchCacheStats() {
+        return hotelNameIndex.getSearchCacheStats();
+    }
+
+    /**
+     * Searches for bookings by hotel name, tolerating typos such as "Hiltn Garden" or "Mariott".
+     * Uses a trigram index over the distinct hotel names, so the cost does not grow with the number of bookings.
+     *
+     * @param hotelName The hotel name as typed.
+     * @return The bookings of the most similar hotels (at most {@link #MAX_FUZZY_HOTELS}), best match first.
+     * @throws IllegalArgumentException If hotelName is null or empty.
+     */
+    public List<Booking> searchBookingsByHotelNameFuzzy(String hotelName) {
+        if (hotelName == null || hotelName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Hotel name for search cannot be null or empty.");
+        }
+        logger.debug("Fuzzy searching for bookings with hotel name similar to: {}", hotelName);
+        return resolve(hotelNameIndex.findIdsBySimilarHotelName(hotelName, MAX_FUZZY_HOTELS));
+    }
+
+    /**
+     * Finds the bookings arriving (or departing) within a date range, in date order.
+     * Walks a sorted date index, so only bookings in the range are visited.
+     * In clustered mode this covers only the bookings owned by this node.
+     *
+     * @param field CHECK_IN for arrivals, CHECK_OUT for departures.
+     * @param from The first date, inclusive.
+     * @param to The last date, inclusive.
+     * @param hotelName Optional hotel name to filter on (case-insensitive, exact match).
+     * @param status Optional status to filter on (case-insensitive).
+     * @return A lazy stream of the matching bookings; consume it promptly.
+     * @throws IllegalArgumentException If the range is missing or ends before it starts.
+     */
+    public Stream<Booking> findBookingsByDate(BookingDateIndex.DateField field, LocalDate from, LocalDate to,
+                                              String hotelName, String status) {
+        if (field == null || from == null || to == null) {
+            throw new IllegalArgumentException("Date field and range cannot be null.");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Date range cannot end before it starts.");
+        }
+        logger.debug("Finding bookings by {} from {} to {} (hotel: {}, status: {})", field, from, to, hotelName, status);
+        Stream<Booking> result = dateIndex.findIds(field, from, to)
+                .map(bookings::get)
+                // Skip bookings deleted or moved out of the range since the index lookup
+                .filter(booking -> booking != null && isWithin(dateOf(booking, field), from, to));
+        if (hotelName != null && !hotelName.trim().isEmpty()) {
+            String hotel = hotelName.trim();
+            result = result.filter(booking -> hotel.equalsIgnoreCase(booking.getHotelName()));
+        }
+        if (status != null && !status.trim().isEmpty()) {
+            String wantedStatus = status.trim();
+            result = result.filter(booking -> wantedStatus.equalsIgnoreCase(booking.getStatus()));
+        }
+        return result;
+    }
+
+    /**
+     * Suggests hotel names starting with a prefix, ranked by their number of bookings.
+     * Served from a prefix trie that is maintained as bookings change, not by scanning the bookings.
+     * In clustered mode this covers only the bookings owned by this node.
+     *
+     * @param prefix The typed prefix (case-insensitive); empty returns the hotels with most bookings.
+     * @param limit The maximum number of suggestions.
+     * @return The matching hotel names with their booking counts, best first.
+     * @throws IllegalArgumentException If prefix is null or limit is out of range.
+     */
+    public List<HotelSuggestion> autocompleteHotelNames(String prefix, int limit) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Autocomplete prefix cannot be null.");
+        }
+        if (limit < 1 || limit > HotelNameTrie.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Autocomplete limit must be between 1 and " + HotelNameTrie.MAX_SUGGESTIONS + ".");
+        }
+        logger.debug("Autocompleting hotel names for prefix: {}", prefix);
+        return hotelNameTrie.suggest(prefix, limit);
+    }
+
+    /**
+     * Retrieves the number of bookings per night and status for a hotel.
+     * Served from incrementally maintained counters, so the cost depends on the number of nights only.
+     * In clustered mode this covers only the bookings owned by this node.
+     *
+     * @param hotelName The hotel name (case-insensitive, exact match).
+     * @param from The first night.
+     * @param to The day after the last night.
+     * @return The occupancy of every night in the range.
+     * @throws IllegalArgumentException If hotelName is empty or the range is empty or too long.
+     */
+    public HotelOccupancy getOccupancy(String hotelName, LocalDate from, LocalDate to) {
+        if (hotelName == null || hotelName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Hotel name for occupancy cannot be null or empty.");
+        }
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Occupancy range must end after it starts.");
+        }
+        if (from.plusDays(MAX_OCCUPANCY_NIGHTS).isBefore(to)) {
+            throw new IllegalArgumentException("Occupancy range cannot be longer than " + MAX_OCCUPANCY_NIGHTS + " nights.");
+        }
+        logger.debug("Retrieving occupancy for hotel {} from {} to {}", hotelName, from, to);
+        return occupancyIndex.getOccupancy(hotelName, from, to);
+    }
+
+    /**
+     * Sets the number of rooms per hotel used by availability search.
+     * Called by Spring with the booking.availability.* settings; may be called again at any time.
+     *
+     * @param properties The default capacity and the capacities of individual hotels.
+     * @throws IllegalArgumentException If a capacity is not positive.
+     */
+    @Autowired
+    public void configureAvailability(AvailabilityProperties properties) {
+        availabilityIndex.setCapacities(properties.getDefaultCapacity(), properties.getCapacities());
+        logger.info("Availability configured with {} rooms per hotel and {} hotel-specific capacities.",
+                properties.getDefaultCapacity(), properties.getCapacities().size());
+    }
+
+    /**
+     * Finds the hotels with at least one free room on every night of a range.
+     * Answered from per-hotel bitmaps of fully booked nights (see {@link AvailabilityIndex}), so the cost
+     * depends on the number of hotels and nights, not on the number of bookings.
+     *
+     * @param from The first night; not before today.
+     * @param to The day after the last night; at most {@link #AVAILABILITY_HORIZON_DAYS} after today.
+     * @return The available hotels among those known to this node.
+     * @throws IllegalArgumentException If the range is invalid.
+     */
+    public HotelAvailability findAvailableHotels(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Availability range must end after it starts.");
+        }
+        if (from.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Availability cannot be searched for past nights.");
+        }
+        if (LocalDate.now().plusDays(AVAILABILITY_HORIZON_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Availability is only known for the next " + AVAILABILITY_HORIZON_DAYS + " nights.");
+        }
+        logger.debug("Searching availability from {} to {}", from, to);
+        int hotelsChecked = availabilityIndex.getHotelCount();
+        return new HotelAvailability(from, to, hotelsChecked, availabilityIndex.findAvailableHotels(from, to));
     }
 
     /**
      * Updates an existing booking in the in-memory store.
+     * A status in the updated booking must be a legal transition from the current status; when it is
+     * missing, the current status is kept.
      *
      * @param id The ID of the booking to update.
      * @param updatedBooking The booking object with updated details.
      * @return The updated booking, or Optional.empty() if not found.
      * @throws IllegalArgumentException If booking data is invalid.
+     * @throws IllegalBookingTransitionException If the status change is not allowed.
      */
     public Optional<Booking> updateBooking(String id, Booking updatedBooking) {
+        String error = findUpdateError(id, updatedBooking);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return updateValidatedBooking(id, updatedBooking);
+    }
+
+    /**
+     * Same as {@link #updateBooking(String, Booking)} for arguments the caller has already checked with
+     * {@link #findUpdateError(String, Booking)}, so they are not validated twice.
+     *
+     * @param id The ID of the booking to update.
+     * @param updatedBooking The booking object with updated details.
+     * @return The updated booking, or Optional.empty() if not found.
+     * @throws IllegalBookingTransitionException If the status change is not allowed.
+     */
+    public Optional<Booking> updateValidatedBooking(String id, Booking updatedBooking) {
+        BookingStatus requestedStatus = updatedBooking.getStatus() == null || updatedBooking.getStatus().isEmpty()
+                ? null : BookingStatus.find(updatedBooking.getStatus());
+        RequestTracer.lap(TraceStage.VALIDATION);
+
+        BookingRouter currentRouter = router;
+        if (currentRouter != null && !currentRouter.isLocal(id)) {
+            return currentRouter.updateBooking(id, updatedBooking);
+        }
+
+        beforeMutation(id);
+        Optional<Booking> result = Optional.ofNullable(bookings.computeIfPresent(id, (key, existingBooking) -> {
+            BookingStatus currentStatus = BookingStatus.parse(existingBooking.getStatus());
+            BookingStatus newStatus = requestedStatus == null ? currentStatus : requestedStatus;
+            if (newStatus != currentStatus && !currentStatus.canTransitionTo(newStatus)) {
+                throw new IllegalBookingTransitionException(id, currentStatus, newStatus);
+            }
+            // Replace the stored booking with a new snapshot instead of changing it in place
+            Booking replacement = new Booking(id, updatedBooking.getHotelName(), updatedBooking.getGuestName(),
+                    updatedBooking.getCheckInDate(), updatedBooking.getCheckOutDate(), newStatus.name());
+            notifyUpdated(existingBooking, replacement);
+            return replacement;
+        }));
+        result.ifPresent(booking -> logger.info("Booking updated successfully for ID: {}", id));
+        return result;
+    }
+
+    /**
+     * Moves a booking to a new status, if the state machine allows it from the booking's current status.
+     * The check and the change are atomic per booking: of several concurrent identical transitions
+     * exactly one succeeds and the others fail with {@link IllegalBookingTransitionException}.
+     *
+     * @param id The ID of the booking.
+     * @param target The status to move to.
+     * @return The booking in its new status, or Optional.empty() if not found.
+     * @throws IllegalArgumentException If booking ID is invalid.
+     * @throws IllegalBookingTransitionException If the booking cannot move to the target status.
+     */
+    public Optional<Booking> transitionBooking(String id, BookingStatus target) {
         if (id == null || id.trim().isEmpty()) {
-            throw new IllegalArgumentException("Booking ID cannot be null or empty for update.");
+            throw new IllegalArgumentException("Booking ID cannot be null or empty for a status change.");
         }
-        if (updatedBooking == null || updatedBooking.getHotelName() == null || updatedBooking.getGuestName() == null ||
-                updatedBooking.getCheckInDate() == null || updatedBooking.getCheckOutDate() == null) {
-            throw new IllegalArgumentException("Updated booking details cannot be null or empty.");
+        if (target == null) {
+            throw new IllegalArgumentException("Target status cannot be null.");
         }
-        if (updatedBooking.getCheckInDate().isAfter(updatedBooking.getCheckOutDate())) {
-            throw new IllegalArgumentException("Check-in date cannot be after check-out date for update.");
+        BookingRouter currentRouter = router;
+        if (currentRouter != null && !currentRouter.isLocal(id)) {
+            return currentRouter.transitionBooking(id, target);
         }
 
-        return Optional.ofNullable(bookings.get(id)).map(existingBooking -> {
-            // Update fields from the provided updatedBooking
-            existingBooking.setHotelName(updatedBooking.getHotelName());
-            existingBooking.setGuestName(updatedBooking.getGuestName());
-            existingBooking.setCheckInDate(updatedBooking.getCheckInDate());
-            existingBooking.setCheckOutDate(updatedBooking.getCheckOutDate());
-            existingBooking.setStatus(updatedBooking.getStatus());
+        beforeMutation(id);
+        Optional<Booking> result = Optional.ofNullable(bookings.computeIfPresent(id,
+                (key, existingBooking) -> transition(existingBooking, target)));
+        result.ifPresent(booking -> logger.info("Booking {} moved to {}", id, target));
+        return result;
+    }
 
-            // No explicit save needed for in-memory map, just update the object in place
-            logger.info("Booking updated successfully for ID: {}", id);
-            return existingBooking;
-        });
+    // Runs inside the map's per-key compute, so the check and the change are one atomic step.
+    private Booking transition(Booking existingBooking, BookingStatus target) {
+        BookingStatus currentStatus = BookingStatus.parse(existingBooking.getStatus());
+        if (!currentStatus.canTransitionTo(target)) {
+            throw new IllegalBookingTransitionException(existingBooking.getId(), currentStatus, target);
+        }
+        Booking replacement = new Booking(existingBooking);
+        replacement.setStatus(target.name());
+        notifyUpdated(existingBooking, replacement);
+        return replacement;
     }
 
     /**
@@ -159,24 +716,38 @@ public class BookingService {
      * @param id The ID of the booking to cancel.
      * @return True if the booking was cancelled, false if not found or already cancelled.
      * @throws IllegalArgumentException If booking ID is invalid.
+     * @throws IllegalBookingTransitionException If the booking is checked in or checked out.
      */
     public boolean cancelBooking(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Booking ID cannot be null or empty for cancellation.");
         }
 
-        return Optional.ofNullable(bookings.get(id)).map(bookingToCancel -> {
-            if ("CANCELLED".equalsIgnoreCase(bookingToCancel.getStatus())) {
-                logger.info("Booking with ID {} is already cancelled.", id);
-                return false; // Already cancelled
+        BookingRouter currentRouter = router;
+        if (currentRouter != null && !currentRouter.isLocal(id)) {
+            return currentRouter.cancelBooking(id);
+        }
+
+        beforeMutation(id);
+        // Decided in one compute: a separate "already cancelled?" read could see the booking deleted meanwhile.
+        boolean[] alreadyCancelled = new boolean[1];
+        Booking result = bookings.computeIfPresent(id, (key, existingBooking) -> {
+            if (BookingStatus.CANCELLED.name().equals(existingBooking.getStatus())) {
+                alreadyCancelled[0] = true;
+                return existingBooking;
             }
-            bookingToCancel.setStatus("CANCELLED");
-            logger.info("Booking cancelled successfully for ID: {}", id);
-            return true;
-        }).orElseGet(() -> {
+            return transition(existingBooking, BookingStatus.CANCELLED);
+        });
+        if (result == null) {
             logger.warn("Booking with ID {} not found for cancellation.", id);
             return false;
-        });
+        }
+        if (alreadyCancelled[0]) {
+            logger.info("Booking with ID {} is already cancelled.", id);
+            return false;
+        }
+        logger.info("Booking {} moved to {}", id, BookingStatus.CANCELLED);
+        return true;
     }
 
     /**
@@ -190,8 +761,19 @@ public class BookingService {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Booking ID cannot be null or empty for deletion.");
         }
-        if (bookings.containsKey(id)) {
-            bookings.remove(id);
+        BookingRouter currentRouter = router;
+        if (currentRouter != null && !currentRouter.isLocal(id)) {
+            return currentRouter.deleteBooking(id);
+        }
+
+        beforeMutation(id);
+        boolean[] deleted = new boolean[1];
+        bookings.computeIfPresent(id, (key, bookingToDelete) -> {
+            notifyDeleted(bookingToDelete);
+            deleted[0] = true;
+            return null;
+        });
+        if (deleted[0]) {
             logger.info("Booking deleted successfully for ID: {}", id);
             return true;
         } else {
@@ -199,4 +781,165 @@ public class BookingService {
             return false;
         }
     }
+
+    /**
+     * Stores a booking copied from another node as-is, without validation or routing.
+     * Used by replication, where the owning node has already validated the change.
+     *
+     * @param booking The replicated booking.
+     */
+    public void applyReplicatedBooking(Booking booking) {
+        beforeMutation(booking.getId());
+        store(booking);
+    }
+
+    /**
+     * Removes a booking deleted on another node, without routing.
+     *
+     * @param id The ID of the replicated deletion.
+     */
+    public void applyReplicatedDeletion(String id) {
+        beforeMutation(id);
+        bookings.computeIfPresent(id, (key, previous) -> {
+            notifyDeleted(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Registers a listener for changes to the store. Bookings already in the store are replayed to it
+     * as creations, so listeners should be added before the service takes traffic.
+     *
+     * @param listener The listener to add.
+     */
+    public void addMutationListener(BookingMutationListener listener) {
+        addMutationListener(listener, true);
+    }
+
+    /**
+     * Registers a listener for changes to the store.
+     *
+     * @param listener The listener to add.
+     * @param replayExisting False for a listener whose state already reflects the store, such as a
+     *                       persister that has just loaded it; true to replay the stored bookings as creations.
+     */
+    public void addMutationListener(BookingMutationListener listener, boolean replayExisting) {
+        if (listener.isRequired()) {
+            // Notified first, so that its failure aborts a change before any other listener has seen it
+            mutationListeners.add(0, listener);
+        } else {
+            mutationListeners.add(listener);
+        }
+        if (replayExisting) {
+            bookings.values().forEach(listener::onBookingCreated);
+        }
+    }
+
+    /**
+     * Unregisters a listener. Notifications already being delivered on other threads may still reach it.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeMutationListener(BookingMutationListener listener) {
+        mutationListeners.remove(listener);
+    }
+
+    /**
+     * Enables clustered mode by routing operations on bookings owned by other nodes.
+     *
+     * @param router The router, or null to go back to single-node mode.
+     */
+    public void setRouter(BookingRouter router) {
+        this.router = router;
+    }
+
+    private static LocalDate dateOf(Booking booking, BookingDateIndex.DateField field) {
+        return field == BookingDateIndex.DateField.CHECK_IN ? booking.getCheckInDate() : booking.getCheckOutDate();
+    }
+
+    private static boolean isWithin(LocalDate date, LocalDate from, LocalDate to) {
+        return date != null && !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    private List<Booking> resolve(List<String> ids) {
+        List<Booking> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking != null) { // Skip bookings deleted since the index lookup
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+
+    // Adds a new booking; unlike store, never replaces an existing one.
+    private void insert(Booking booking) {
+        Booking stored = bookings.compute(booking.getId(), (key, previous) -> {
+            if (previous != null) {
+                return previous;
+            }
+            notifyCreated(booking);
+            return booking;
+        });
+        if (stored != booking) {
+            throw new BookingAlreadyExistsException(booking.getId());
+        }
+    }
+
+    private void store(Booking booking) {
+        bookings.compute(booking.getId(), (key, previous) -> {
+            if (previous == null) {
+                notifyCreated(booking);
+            } else {
+                notifyUpdated(previous, booking);
+            }
+            return booking;
+        });
+    }
+
+    // Called outside the map's locks, where listeners may block
+    private void beforeMutation(String id) {
+        for (BookingMutationListener listener : mutationListeners) {
+            listener.beforeMutation(id);
+        }
+    }
+
+    private void notifyCreated(Booking booking) {
+        for (BookingMutationListener listener : mutationListeners) {
+            try {
+                listener.onBookingCreated(booking);
+            } catch (RuntimeException e) {
+                if (listener.isRequired()) {
+                    throw e;
+                }
+                logger.error("Mutation listener failed on create of booking {}: {}", booking.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void notifyUpdated(Booking previous, Booking current) {
+        for (BookingMutationListener listener : mutationListeners) {
+            try {
+                listener.onBookingUpdated(previous, current);
+            } catch (RuntimeException e) {
+                if (listener.isRequired()) {
+                    throw e;
+                }
+                logger.error("Mutation listener failed on update of booking {}: {}", current.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void notifyDeleted(Booking booking) {
+        for (BookingMutationListener listener : mutationListeners) {
+            try {
+                listener.onBookingDeleted(booking);
+            } catch (RuntimeException e) {
+                if (listener.isRequired()) {
+                    throw e;
+                }
+                logger.error("Mutation listener failed on delete of booking {}: {}", booking.getId(), e.getMessage(), e);
+            }
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package com.hotelbooking.service;
+
+/**
+ * Thrown when an Idempotency-Key cannot be honoured for the current request.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    /**
+     * Why the key could not be used.
+     */
+    public enum Reason {
+        /** The key was already used with a different request payload. */
+        PAYLOAD_MISMATCH,
+        /** The first request with this key is still running and did not finish in time. */
+        IN_PROGRESS
+    }
+
+    private final Reason reason;
+
+    public IdempotencyKeyConflictException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
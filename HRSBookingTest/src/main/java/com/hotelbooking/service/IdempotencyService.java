@@ -0,0 +1,226 @@
+package com.hotelbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an Idempotency-Key header.
+ * Entries live in a concurrent map of key -> (request fingerprint, response), so requests with different
+ * keys never wait for each other. A queue of the keys in insertion order bounds it: expired entries and,
+ * once the queue is full, the oldest ones are dropped from its head. Keys whose request failed stay in the
+ * queue, and count against its capacity, until they reach the head.
+ * A retry with the same key and payload gets the stored response back without running the action again,
+ * and concurrent duplicates wait for the first in-flight execution instead of running twice.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    // Most in-flight entries passed over at the head of the queue per eviction, so that it never spins.
+    private static final int MAX_IN_FLIGHT_SKIPS = 16;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Entries in insertion order, including ones since replaced in or removed from entries; queued counts them.
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long waitTimeoutMillis;
+
+    /**
+     * @param maxEntries Maximum number of keys remembered at once.
+     * @param ttlSeconds How long a completed response is replayed for.
+     * @param waitTimeoutMillis How long a duplicate waits for the in-flight request with the same key.
+     */
+    public IdempotencyService(@Value("${booking.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${booking.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${booking.idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Idempotency cache size must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Runs the action once per key. Later calls with the same key and fingerprint get the stored result.
+     * If the action throws, nothing is stored, so a later retry runs it again; callers already waiting
+     * on the failed execution receive the same exception.
+     *
+     * @param key The client supplied Idempotency-Key.
+     * @param fingerprint A fingerprint of the request payload (see {@link #fingerprint(Object)}).
+     * @param action The action to run for the first request with this key.
+     * @return The result together with a flag telling whether it was replayed.
+     * @throws IdempotencyKeyConflictException If the key was used with another payload or is still in flight.
+     */
+    public <T> IdempotentResult<T> execute(String key, String fingerprint, Supplier<T> action) {
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be null or empty.");
+        }
+        long now = System.nanoTime();
+        Entry fresh = new Entry(key, fingerprint);
+        Entry existing = entries.compute(key,
+                (k, current) -> current == null || current.isExpired(now, ttlNanos) ? fresh : current);
+        if (existing == fresh) {
+            insertionOrder.add(fresh);
+            queued.incrementAndGet();
+            evictIfNecessary(now);
+            return runFirst(fresh, action);
+        }
+
+        if (!existing.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyConflictException(IdempotencyKeyConflictException.Reason.PAYLOAD_MISMATCH,
+                    "Idempotency key was already used with a different request payload.");
+        }
+        logger.debug("Replaying stored response for idempotency key {}", key);
+        return new IdempotentResult<>(awaitResult(existing), true);
+    }
+
+    /**
+     * @return The number of keys currently remembered.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Computes a stable SHA-256 fingerprint of a request payload from its string form.
+     *
+     * @param request The request payload.
+     * @return A Base64 encoded digest.
+     */
+    public static String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.valueOf(request).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    private <T> IdempotentResult<T> runFirst(Entry entry, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            // Do not remember failures; waiting duplicates see the same error and a later retry runs again.
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        entry.completedAt = System.nanoTime();
+        entry.result.complete(result);
+        return new IdempotentResult<>(result, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitResult(Entry entry) {
+        try {
+            return (T) entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException(IdempotencyKeyConflictException.Reason.IN_PROGRESS,
+                    "A request with this idempotency key is still being processed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException(IdempotencyKeyConflictException.Reason.IN_PROGRESS,
+                    "Interrupted while waiting for the request with this idempotency key.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // Drops expired entries and, while the queue is over capacity, the oldest completed ones, stopping at the
+    // first entry that is neither. Runs concurrently on several threads; each queued entry is taken by one.
+    private void evictIfNecessary(long now) {
+        int inFlightSkipped = 0;
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null) {
+            boolean current = entries.get(oldest.key) == oldest;
+            boolean full = queued.get() > maxEntries;
+            if (current && !full && !oldest.isExpired(now, ttlNanos)) {
+                return;
+            }
+            if (!insertionOrder.remove(oldest)) {
+                continue; // Taken by another thread
+            }
+            if (current && !oldest.result.isDone()) {
+                // Never evict an in-flight entry, that would let a duplicate run concurrently.
+                insertionOrder.add(oldest);
+                if (++inFlightSkipped >= MAX_IN_FLIGHT_SKIPS) {
+                    return; // Allow a temporary overshoot
+                }
+                continue;
+            }
+            queued.decrementAndGet();
+            if (current) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    /**
+     * Result of an idempotent execution.
+     */
+    public static final class IdempotentResult<T> {
+        private final T value;
+        private final boolean replayed;
+
+        IdempotentResult(T value, boolean replayed) {
+            this.value = value;
+            this.replayed = replayed;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return True if the value is a stored response from an earlier request with the same key.
+         */
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final String fingerprint;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long completedAt;
+
+        Entry(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return result.isDone() && now - completedAt > ttlNanos;
+        }
+    }
+}
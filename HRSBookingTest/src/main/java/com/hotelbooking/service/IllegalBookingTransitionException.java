@@ -0,0 +1,21 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.model.BookingStatus;
+
+/**
+ * Thrown when a booking cannot move to the requested status from the status it is in,
+ * for example confirming a cancelled booking, or the second of two concurrent cancellations.
+ */
+public class IllegalBookingTransitionException extends IllegalStateException {
+
+    public IllegalBookingTransitionException(String bookingId, BookingStatus from, BookingStatus to) {
+        super("Booking " + bookingId + " cannot move from " + from + " to " + to + ".");
+    }
+
+    /**
+     * Recreates the exception from its message, e.g. when it was raised on another cluster node.
+     */
+    public IllegalBookingTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,245 @@
+package com.hotelbooking.tracing;
+
+import com.hotelbooking.model.OperationTraceSummary;
+import com.hotelbooking.model.StageLatency;
+import com.hotelbooking.model.TraceReport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-stage timing of a sample of requests.
+ * <p>
+ * {@link RequestTracingFilter} calls {@link #begin()} and {@link #end(String, int)} around each request;
+ * controller and service code calls {@link #lap(TraceStage)} at stage boundaries. Like SLF4J's MDC the
+ * methods are static and act on the current thread, so code can be instrumented without threading a
+ * context object through it. Each thread keeps one reusable span buffer, so a lap is a thread-local
+ * lookup plus, for sampled requests only, one {@code System.nanoTime()} call. Nothing is allocated until
+ * a sampled request ends and its record is stored in a bounded ring that overwrites the oldest trace.
+ */
+public final class RequestTracer {
+
+    private static final TraceStage[] STAGES = TraceStage.values();
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final ThreadLocal<SpanBuffer> BUFFERS = ThreadLocal.withInitial(SpanBuffer::new);
+
+    private static volatile boolean enabled;
+    private static volatile double sampleRate;
+    private static volatile Ring ring = new Ring(DEFAULT_CAPACITY);
+
+    private RequestTracer() {
+    }
+
+    /**
+     * Applies new settings. Changing the capacity discards the traces recorded so far.
+     *
+     * @param tracingEnabled Whether requests are traced at all.
+     * @param rate Fraction of requests traced, between 0 and 1.
+     * @param capacity Number of traces kept; rounded up to a power of two.
+     */
+    public static void configure(boolean tracingEnabled, double rate, int capacity) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Trace sample rate must be between 0 and 1.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Trace capacity must be positive.");
+        }
+        if (ring.capacity() != Ring.roundUp(capacity)) {
+            ring = new Ring(capacity);
+        }
+        sampleRate = rate;
+        enabled = tracingEnabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Starts a trace on the current thread if this request is sampled.
+     *
+     * @return True if the request is traced.
+     */
+    public static boolean begin() {
+        if (!enabled) {
+            return false;
+        }
+        SpanBuffer buffer = BUFFERS.get();
+        double rate = sampleRate;
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            buffer.active = false;
+            return false;
+        }
+        Arrays.fill(buffer.stageNanos, 0L);
+        buffer.startNanos = System.nanoTime();
+        buffer.lastNanos = buffer.startNanos;
+        buffer.active = true;
+        return true;
+    }
+
+    /**
+     * Attributes the time since the previous lap (or since {@link #begin()}) to a stage.
+     * Does nothing if the current thread is not tracing a request.
+     *
+     * @param stage The stage that just ended.
+     */
+    public static void lap(TraceStage stage) {
+        if (!enabled) {
+            return;
+        }
+        SpanBuffer buffer = BUFFERS.get();
+        if (buffer.active) {
+            long now = System.nanoTime();
+            buffer.stageNanos[stage.ordinal()] += now - buffer.lastNanos;
+            buffer.lastNanos = now;
+        }
+    }
+
+    /**
+     * Ends the current thread's trace and stores it. The request duration runs up to the last lap,
+     * so the stages add up to the total.
+     *
+     * @param operation The HTTP method and path pattern, e.g. "GET /bookings/{id}".
+     * @param status The response status.
+     */
+    public static void end(String operation, int status) {
+        SpanBuffer buffer = BUFFERS.get();
+        if (!buffer.active) {
+            return;
+        }
+        buffer.active = false;
+        long durationNanos = buffer.lastNanos - buffer.startNanos;
+        // Derive the start time from the duration rather than reading the wall clock in begin().
+        long startedAtMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        ring.add(new TraceRecord(operation, status, startedAtMillis, durationNanos, buffer.stageNanos.clone()));
+    }
+
+    /**
+     * @param limit Maximum number of traces to return.
+     * @return The most recent traces, newest first.
+     */
+    public static List<TraceRecord> recentTraces(int limit) {
+        return ring.snapshot(limit);
+    }
+
+    /**
+     * Computes per-stage percentiles of the traces currently held, per operation.
+     *
+     * @param operation Only summarize this operation, or null for all.
+     * @return The report, with the most frequently traced operation first.
+     */
+    public static TraceReport report(String operation) {
+        Map<String, List<TraceRecord>> byOperation = new LinkedHashMap<>();
+        List<TraceRecord> traces = ring.snapshot(Integer.MAX_VALUE);
+        for (TraceRecord trace : traces) {
+            if (operation == null || operation.equals(trace.getOperation())) {
+                byOperation.computeIfAbsent(trace.getOperation(), key -> new ArrayList<>()).add(trace);
+            }
+        }
+        List<OperationTraceSummary> summaries = new ArrayList<>();
+        int traceCount = 0;
+        for (Map.Entry<String, List<TraceRecord>> entry : byOperation.entrySet()) {
+            List<TraceRecord> records = entry.getValue();
+            traceCount += records.size();
+            long[] values = new long[records.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = records.get(i).getDurationNanos();
+            }
+            StageLatency total = latency("TOTAL", values);
+            List<StageLatency> stages = new ArrayList<>(STAGES.length);
+            for (TraceStage stage : STAGES) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = records.get(i).getStageNanos(stage);
+                }
+                stages.add(latency(stage.name(), values));
+            }
+            summaries.add(new OperationTraceSummary(entry.getKey(), records.size(), total, stages));
+        }
+        summaries.sort(Comparator.comparingInt(OperationTraceSummary::getTraceCount).reversed()
+                .thenComparing(OperationTraceSummary::getOperation));
+        return new TraceReport(enabled, sampleRate, traceCount, summaries);
+    }
+
+    /**
+     * Discards all recorded traces.
+     */
+    public static void clear() {
+        ring = new Ring(ring.capacity());
+    }
+
+    private static StageLatency latency(String stage, long[] nanos) {
+        Arrays.sort(nanos);
+        long sum = 0;
+        for (long value : nanos) {
+            sum += value;
+        }
+        return new StageLatency(stage,
+                TraceRecord.toMicros(percentile(nanos, 50)),
+                TraceRecord.toMicros(percentile(nanos, 90)),
+                TraceRecord.toMicros(percentile(nanos, 99)),
+                TraceRecord.toMicros(nanos[nanos.length - 1]),
+                TraceRecord.toMicros(sum / nanos.length));
+    }
+
+    // Nearest-rank percentile of sorted values.
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static final class SpanBuffer {
+        final long[] stageNanos = new long[STAGES.length];
+        long startNanos;
+        long lastNanos;
+        boolean active;
+    }
+
+    private static final class Ring {
+        private final AtomicReferenceArray<TraceRecord> slots;
+        private final int mask;
+        private final AtomicLong next = new AtomicLong();
+
+        Ring(int capacity) {
+            int size = roundUp(capacity);
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        static int roundUp(int capacity) {
+            return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+
+        void add(TraceRecord record) {
+            slots.set((int) (next.getAndIncrement() & mask), record);
+        }
+
+        List<TraceRecord> snapshot(int limit) {
+            long newest = next.get() - 1;
+            long oldest = Math.max(0, newest - mask);
+            List<TraceRecord> records = new ArrayList<>((int) Math.min(limit, newest - oldest + 1));
+            for (long sequence = newest; sequence >= oldest && records.size() < limit; sequence--) {
+                TraceRecord record = slots.get((int) (sequence & mask));
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            return records;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotelbooking.tracing;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Starts and ends a {@link RequestTracer} trace around a sample of requests.
+ * <p>
+ * Runs before the other filters, so request logging and body binding count towards the traced time.
+ * Traces are grouped by the matched path pattern rather than the raw path, so "/bookings/{id}" is one
+ * operation however many IDs are requested.
+ */
+public class RequestTracingFilter extends OncePerRequestFilter implements Ordered {
+
+    public RequestTracingFilter(TracingProperties properties) {
+        RequestTracer.configure(properties.isEnabled(), properties.getSampleRate(), properties.getCapacity());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!RequestTracer.begin()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTracer.lap(TraceStage.SERIALIZATION);
+            RequestTracer.end(operation(request), response.getStatus());
+        }
+    }
+
+    private static String operation(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotelbooking.tracing;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One sampled request as kept in the trace ring: its total duration and the time spent in each stage.
+ * Immutable; durations are held in nanoseconds and exposed in microseconds.
+ */
+public final class TraceRecord {
+
+    private static final TraceStage[] STAGES = TraceStage.values();
+
+    private final String operation;
+    private final int status;
+    private final long startedAtMillis;
+    private final long durationNanos;
+    private final long[] stageNanos;
+
+    TraceRecord(String operation, int status, long startedAtMillis, long durationNanos, long[] stageNanos) {
+        this.operation = operation;
+        this.status = status;
+        this.startedAtMillis = startedAtMillis;
+        this.durationNanos = durationNanos;
+        this.stageNanos = stageNanos;
+    }
+
+    /**
+     * @return The HTTP method and path pattern, e.g. "GET /bookings/{id}".
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return Instant.ofEpochMilli(startedAtMillis);
+    }
+
+    public double getDurationMicros() {
+        return toMicros(durationNanos);
+    }
+
+    /**
+     * @return Microseconds per stage, in stage order.
+     */
+    public Map<String, Double> getStageMicros() {
+        Map<String, Double> micros = new LinkedHashMap<>();
+        for (TraceStage stage : STAGES) {
+            micros.put(stage.name(), toMicros(stageNanos[stage.ordinal()]));
+        }
+        return micros;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    long getStageNanos(TraceStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    static double toMicros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceRecord{" +
+                "operation='" + operation + '\'' +
+                ", status=" + status +
+                ", startedAt=" + getStartedAt() +
+                ", durationMicros=" + getDurationMicros() +
+                ", stageMicros=" + getStageMicros() +
+                '}';
+    }
+}
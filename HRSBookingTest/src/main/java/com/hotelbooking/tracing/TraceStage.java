@@ -0,0 +1,19 @@
+package com.hotelbooking.tracing;
+
+/**
+ * Stages a traced request is split into. Time is attributed to a stage when the code calls
+ * {@link RequestTracer#lap(TraceStage)} at the end of that stage, so each stage covers everything
+ * since the previous lap.
+ */
+public enum TraceStage {
+    /** Filters, handler lookup and binding the request body and parameters, up to the controller method. */
+    BINDING,
+    /** Checking the input against the booking rules. */
+    VALIDATION,
+    /** Reading or changing the booking store and its indexes, or forwarding to the owning cluster node. */
+    STORE,
+    /** Writing the analytics log lines. */
+    LOGGING,
+    /** Converting the result to JSON and writing the response, after the controller returns. */
+    SERIALIZATION
+}
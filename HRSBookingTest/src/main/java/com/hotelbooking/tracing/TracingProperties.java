@@ -0,0 +1,40 @@
+package com.hotelbooking.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for {@link RequestTracingFilter}, bound from the "booking.tracing" prefix.
+ */
+@ConfigurationProperties(prefix = "booking.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+    // Fraction of requests traced.
+    private double sampleRate = 0.01;
+    // Number of most recent traces kept in memory; rounded up to a power of two.
+    private int capacity = 4096;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+}
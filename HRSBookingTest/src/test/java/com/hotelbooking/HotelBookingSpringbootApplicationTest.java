@@ -0,0 +1,95 @@
+package com.hotelbooking;
+
+import com.hotelbooking.controller.BookingController;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.persistence.BookingPersister;
+import com.hotelbooking.persistence.WriteBehindBookingPersister;
+import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how the application context is wired by default and with the startup and persistence profiles.
+ */
+class HotelBookingSpringbootApplicationTest {
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+    class DefaultProfile {
+
+        @Autowired
+        private ConfigurableApplicationContext context;
+
+        @Test
+        @DisplayName("Should start without a database and without the JPA setup")
+        void shouldStartWithoutDatabase() {
+            assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+            assertNotNull(context.getBean(BookingService.class));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+    @ActiveProfiles("fast-startup")
+    class FastStartupProfile {
+
+        @Autowired
+        private ConfigurableApplicationContext context;
+
+        @Test
+        @DisplayName("Should create beans lazily but keep the booking store eager")
+        void shouldInitializeLazilyExceptTheStore() {
+            String[] services = context.getBeanNamesForType(BookingService.class);
+            String[] controllers = context.getBeanNamesForType(BookingController.class);
+            assertTrue(context.getBeanFactory().containsSingleton(services[0]));
+            assertFalse(context.getBeanFactory().containsSingleton(controllers[0]));
+
+            context.getBean(BookingController.class);
+            assertTrue(context.getBeanFactory().containsSingleton(controllers[0]));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+    @ActiveProfiles("persistence")
+    class PersistenceProfile {
+
+        @Autowired
+        private BookingService bookingService;
+
+        @Autowired
+        private BookingRepository repository;
+
+        @Autowired
+        private BookingPersister persister;
+
+        @Test
+        @DisplayName("Should write bookings behind to the JPA-mapped table")
+        void shouldWriteBehindToDatabase() throws Exception {
+            assertTrue(persister instanceof WriteBehindBookingPersister);
+            Booking booking = bookingService.createBooking(new Booking(null, "Grand Hyatt", "Alice",
+                    LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+            bookingService.transitionBooking(booking.getId(), BookingStatus.CONFIRMED);
+
+            assertTrue(persister.flush(10_000));
+            Booking stored = repository.findById(booking.getId()).orElseThrow();
+            assertEquals(bookingService.getBookingById(booking.getId()).get(), stored);
+
+            bookingService.deleteBooking(booking.getId());
+            assertTrue(persister.flush(10_000));
+            assertFalse(repository.existsById(booking.getId()));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of hotel name autocomplete compared with the substring scan behind GET /bookings/search,
+ * while a background thread keeps creating bookings (so caches are regularly invalidated).
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.AutocompleteBenchmark [bookings] [distinctHotels] > /dev/null
+ * </pre>
+ */
+public class AutocompleteBenchmark {
+
+    private static final String[] WORDS = {"Grand", "Hilton", "Hyatt", "Marriott", "Plaza", "Park", "Royal", "Ritz"};
+
+    public static void main(String[] args) throws Exception {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int hotels = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        BookingService service = new BookingService(false);
+        for (int i = 0; i < bookings; i++) {
+            service.createBooking(newBooking(i % hotels));
+        }
+
+        Thread writer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                service.createBooking(newBooking(ThreadLocalRandom.current().nextInt(hotels)));
+                try {
+                    TimeUnit.MICROSECONDS.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+
+        String[] prefixes = {"g", "gr", "gra", "grand", "grand p", "h", "hy", "ma", "r", "ritz 1"};
+        measure("autocomplete", 50_000, i -> service.autocompleteHotelNames(prefixes[i % prefixes.length], 10).size());
+        measure("search scan", 200, i -> service.searchBookingsByHotelName(prefixes[i % prefixes.length]).size());
+        writer.interrupt();
+    }
+
+    private static void measure(String name, int iterations, java.util.function.IntUnaryOperator call) {
+        for (int i = 0; i < iterations; i++) {
+            call.applyAsInt(i); // warm-up
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            call.applyAsInt(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.err.printf("%-13s p50 %8.1f us  p99 %8.1f us  max %8.1f us%n", name,
+                nanos[iterations / 2] / 1000.0, nanos[iterations * 99 / 100] / 1000.0, nanos[iterations - 1] / 1000.0);
+    }
+
+    private static Booking newBooking(int hotel) {
+        String name = WORDS[hotel % WORDS.length] + " " + WORDS[(hotel / WORDS.length) % WORDS.length] + " " + hotel;
+        return new Booking(null, name, "Guest", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), "CONFIRMED");
+    }
+}
@@ -0,0 +1,100 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.index.AvailabilityProperties;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of finding the hotels with a free room for a stay, answered from the availability bitmaps,
+ * compared with counting the bookings of every hotel per night over a scan of all bookings.
+ * Hotels have a small capacity, so a share of nights is fully booked.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.AvailabilityBenchmark [hotels] [bookings] [capacity] [secondsPerRun] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded.
+ */
+public class AvailabilityBenchmark {
+
+    public static void main(String[] args) {
+        int hotels = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int bookings = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        BookingService service = new BookingService(false);
+        AvailabilityProperties properties = new AvailabilityProperties();
+        properties.setDefaultCapacity(capacity);
+        service.configureAvailability(properties);
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < bookings; i++) {
+            LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(300));
+            service.createBooking(new Booking(null, "Hotel " + random.nextInt(hotels), "Guest",
+                    checkIn, checkIn.plusDays(1 + random.nextInt(7)), "CONFIRMED"));
+        }
+        System.err.printf("loaded %,d bookings in %,d ms%n", bookings, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        run("bitmap", seconds, (from, to) -> service.findAvailableHotels(from, to).getAvailableHotels().size());
+        run("scan", seconds, (from, to) -> scan(service, capacity, from, to));
+    }
+
+    private interface Query {
+        int run(LocalDate from, LocalDate to);
+    }
+
+    private static void run(String name, int seconds, Query query) {
+        Random random = new Random(7);
+        long[] latencies = new long[1 << 16];
+        int queries = 0;
+        long available = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            LocalDate from = LocalDate.now().plusDays(1 + random.nextInt(300));
+            LocalDate to = from.plusDays(1 + random.nextInt(14));
+            long start = System.nanoTime();
+            available += query.run(from, to);
+            latencies[queries++ & (latencies.length - 1)] = System.nanoTime() - start;
+        }
+        long[] sorted = Arrays.copyOf(latencies, Math.min(queries, latencies.length));
+        Arrays.sort(sorted);
+        System.err.printf("%-7s %,8d queries  p50 %,10.1f us  p99 %,10.1f us  avg available %,.0f%n", name, queries,
+                sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99)] / 1e3, available / (double) queries);
+    }
+
+    // What a search without the index would do: count every active booking's nights in the range per hotel.
+    private static int scan(BookingService service, int capacity, LocalDate from, LocalDate to) {
+        int nights = (int) (to.toEpochDay() - from.toEpochDay());
+        Map<String, int[]> counts = new HashMap<>();
+        List<Booking> all = service.getAllBookings();
+        for (Booking booking : all) {
+            int[] perNight = counts.computeIfAbsent(booking.getHotelName().trim().toLowerCase(Locale.ROOT), k -> new int[nights]);
+            if ("CANCELLED".equals(booking.getStatus())) {
+                continue;
+            }
+            long first = Math.max(booking.getCheckInDate().toEpochDay(), from.toEpochDay());
+            long end = Math.min(booking.getCheckOutDate().toEpochDay(), to.toEpochDay());
+            for (long night = first; night < end; night++) {
+                perNight[(int) (night - from.toEpochDay())]++;
+            }
+        }
+        int available = 0;
+        for (int[] perNight : counts.values()) {
+            if (Arrays.stream(perNight).allMatch(count -> count < capacity)) {
+                available++;
+            }
+        }
+        return available;
+    }
+}
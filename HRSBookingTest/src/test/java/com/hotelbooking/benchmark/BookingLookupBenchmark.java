@@ -0,0 +1,140 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency of a "page view" that needs N bookings: N single GETs one after the other, N single GETs
+ * issued in parallel, and one batched POST /bookings/lookup.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.BookingLookupBenchmark [pageViews] [fanOutThreads] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded.
+ */
+public class BookingLookupBenchmark {
+
+    private static final int[] PAGE_SIZES = {20, 200};
+
+    public static void main(String[] args) throws Exception {
+        int pageViews = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelBookingSpringbootApplication.class)
+                .properties("server.port=0", "booking.sample-data.enabled=false")
+                .run();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            BookingService service = context.getBean(BookingService.class);
+            String[] ids = new String[10_000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = service.createBooking(new Booking(null, "Hotel " + (i % 50), "Guest " + i,
+                        LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), "CONFIRMED")).getId();
+            }
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            for (int pageSize : PAGE_SIZES) {
+                String[] names = {"sequential GETs", "parallel GETs", "batched lookup"};
+                long[][] micros = new long[names.length][pageViews];
+                for (int view = -pageViews / 4; view < pageViews; view++) { // First quarter is warm-up
+                    List<String> page = randomPage(ids, pageSize);
+                    long[] results = {
+                            timeMicros(() -> sequential(client, baseUrl, page)),
+                            timeMicros(() -> parallel(client, baseUrl, page, executor)),
+                            timeMicros(() -> batched(client, baseUrl, page)),
+                    };
+                    if (view >= 0) {
+                        for (int i = 0; i < names.length; i++) {
+                            micros[i][view] = results[i];
+                        }
+                    }
+                }
+                for (int i = 0; i < names.length; i++) {
+                    long[] sorted = micros[i].clone();
+                    Arrays.sort(sorted);
+                    System.err.printf("%3d bookings  %-16s median %,8d us   p99 %,8d us%n", pageSize, names[i],
+                            sorted[sorted.length / 2], sorted[(int) Math.ceil(sorted.length * 0.99) - 1]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            context.close();
+        }
+    }
+
+    private interface PageView {
+        void run() throws Exception;
+    }
+
+    private static long timeMicros(PageView pageView) throws Exception {
+        long start = System.nanoTime();
+        pageView.run();
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    private static List<String> randomPage(String[] ids, int size) {
+        List<String> page = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            page.add(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        }
+        return page;
+    }
+
+    private static void sequential(HttpClient client, String baseUrl, List<String> page) throws Exception {
+        for (String id : page) {
+            expectOk(client.send(get(baseUrl, id), HttpResponse.BodyHandlers.ofString()));
+        }
+    }
+
+    private static void parallel(HttpClient client, String baseUrl, List<String> page,
+                                 ExecutorService executor) throws Exception {
+        List<Future<HttpResponse<String>>> responses = new ArrayList<>(page.size());
+        for (String id : page) {
+            responses.add(executor.submit(() -> client.send(get(baseUrl, id), HttpResponse.BodyHandlers.ofString())));
+        }
+        for (Future<HttpResponse<String>> response : responses) {
+            expectOk(response.get());
+        }
+    }
+
+    private static void batched(HttpClient client, String baseUrl, List<String> page) throws Exception {
+        StringBuilder body = new StringBuilder("{\"ids\":[");
+        for (int i = 0; i < page.size(); i++) {
+            body.append(i == 0 ? "\"" : ",\"").append(page.get(i)).append('"');
+        }
+        body.append("]}");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/lookup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        expectOk(client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static HttpRequest get(String baseUrl, String id) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/" + id)).GET().build();
+    }
+
+    private static void expectOk(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotelbooking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotelbooking.bulk.BookingExporter;
+import com.hotelbooking.bulk.BookingImporter;
+import com.hotelbooking.bulk.BulkFormat;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.ImportReport;
+import com.hotelbooking.service.BookingService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Import and export rate of the bulk import path, compared with one createBooking call per booking.
+ * Input is generated in memory, so the numbers exclude network and disk.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -Xmx3g -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.BulkImportBenchmark [bookings] [threads] > /dev/null
+ * </pre>
+ */
+public class BulkImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        byte[] csv = generateCsv(bookings);
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            BookingService service = new BookingService(false);
+            BookingImporter importer = new BookingImporter(service, objectMapper, threads, 4096);
+            ImportReport report = importer.importBookings(new ByteArrayInputStream(csv), BulkFormat.CSV);
+            importer.close();
+            System.err.printf("CSV import:    %,d bookings in %,d ms = %,.0f bookings/s (%d failed)%n", report.getImported(),
+                    report.getDurationMs(), report.getImported() * 1000.0 / report.getDurationMs(), report.getFailed());
+
+            long start = System.nanoTime();
+            long exported = new BookingExporter(service, objectMapper).exportBookings(OutputStream.nullOutputStream(), BulkFormat.NDJSON);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.err.printf("NDJSON export: %,d bookings in %,d ms = %,.0f bookings/s%n", exported, millis, exported * 1000.0 / millis);
+        }
+
+        BookingService service = new BookingService(false);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < bookings; i++) {
+            service.createBooking(new Booking(null, "Hotel " + (i % 5_000), "Guest " + i,
+                    checkIn.plusDays(i % 60), checkIn.plusDays(i % 60 + 2), "CONFIRMED"));
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.err.printf("createBooking loop: %,d bookings in %,d ms = %,.0f bookings/s%n", bookings, millis, bookings * 1000.0 / millis);
+    }
+
+    private static byte[] generateCsv(int bookings) {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bookings * 80);
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < bookings; i++) {
+            line.setLength(0);
+            line.append(",Hotel ").append(i % 5_000).append(",Guest ").append(i).append(',')
+                    .append(checkIn.plusDays(i % 60)).append(',').append(checkIn.plusDays(i % 60 + 2)).append(",CONFIRMED\n");
+            out.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
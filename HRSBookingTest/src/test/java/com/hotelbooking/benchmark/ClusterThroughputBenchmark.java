@@ -0,0 +1,102 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.cluster.BookingCluster;
+import com.hotelbooking.cluster.ClusterProperties;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a 1, 2 and 4 node cluster running on localhost in one JVM.
+ * Each client thread talks to one node and mixes creates with reads of random earlier bookings,
+ * most of which are owned by other nodes and therefore forwarded over TCP.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.ClusterThroughputBenchmark [clientThreadsPerNode] [seconds] > /dev/null
+ * </pre>
+ * All nodes share the machine, so the numbers show forwarding and replication overhead rather than
+ * the capacity gained by adding hosts.
+ */
+public class ClusterThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threadsPerNode = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        for (int nodes : new int[]{1, 2, 4}) {
+            run(nodes, threadsPerNode, 1); // warm-up
+            double perSecond = run(nodes, threadsPerNode, seconds);
+            System.err.printf("nodes=%d  client threads=%d  %,.0f operations/s%n", nodes, nodes * threadsPerNode, perSecond);
+        }
+    }
+
+    private static double run(int nodeCount, int threadsPerNode, int seconds) throws Exception {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                members.add("node-" + i + "@localhost:" + socket.getLocalPort());
+            }
+        }
+        List<BookingService> services = new ArrayList<>();
+        List<BookingCluster> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            ClusterProperties properties = new ClusterProperties();
+            properties.setEnabled(true);
+            properties.setNodeId("node-" + i);
+            properties.setMembers(members);
+            BookingService service = new BookingService(false);
+            BookingCluster node = new BookingCluster(properties, service);
+            node.start();
+            services.add(service);
+            nodes.add(node);
+        }
+
+        // Shared pool of IDs so reads hit bookings created on every node.
+        String[] ids = new String[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = services.get(i % nodeCount).createBooking(newBooking(i)).getId();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nodeCount * threadsPerNode);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < nodeCount * threadsPerNode; t++) {
+            BookingService service = services.get(t % nodeCount);
+            results.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                while (System.nanoTime() < deadline) {
+                    if (random.nextInt(10) < 2) {
+                        service.createBooking(newBooking(random.nextInt()));
+                    } else {
+                        service.getBookingById(ids[random.nextInt(ids.length)]);
+                    }
+                    operations++;
+                }
+                return operations;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        nodes.forEach(BookingCluster::stop);
+        return total / (double) seconds;
+    }
+
+    private static Booking newBooking(int i) {
+        return new Booking(null, "Hotel " + (i & 63), "Guest " + i,
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), "CONFIRMED");
+    }
+}
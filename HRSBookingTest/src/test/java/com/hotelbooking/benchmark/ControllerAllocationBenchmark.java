@@ -0,0 +1,117 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.controller.BookingController;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Bytes allocated and time per request on the booking endpoints, for hits, misses (unknown IDs) and
+ * invalid bodies. Allocation is read from the JVM's per-thread allocation counter, so only the request
+ * thread's own garbage is counted.
+ * <p>
+ * Two measurements: requests through the DispatcherServlet with MockMvc, which includes exception
+ * handler resolution but not the HTTP connector, and direct calls to the controller, which isolate the
+ * handler methods themselves. MockMvc's own request and response objects are part of the first figure.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.ControllerAllocationBenchmark [requestsPerCase] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded.
+ */
+public class ControllerAllocationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelBookingSpringbootApplication.class)
+                .properties("server.port=0", "booking.sample-data.enabled=false")
+                .run();
+        try {
+            BookingService service = context.getBean(BookingService.class);
+            String[] ids = new String[1_000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = service.createBooking(new Booking(null, "Hotel " + (i % 50), "Guest " + i,
+                        LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), "CONFIRMED")).getId();
+            }
+            LocalDate past = LocalDate.now().minusDays(1);
+            String invalidBody = "{\"hotelName\":\"Grand Hyatt\",\"guestName\":\"Alice\",\"checkInDate\":\""
+                    + past + "\",\"checkOutDate\":\"" + past.plusDays(2) + "\"}";
+            String updateBody = "{\"hotelName\":\"Grand Hyatt\",\"guestName\":\"Alice\",\"checkInDate\":\""
+                    + LocalDate.now().plusDays(1) + "\",\"checkOutDate\":\"" + LocalDate.now().plusDays(2) + "\"}";
+
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+            measure("dispatcher", "GET hit", requests, () -> mockMvc.perform(get("/bookings/{id}", random(ids))));
+            measure("dispatcher", "GET miss", requests, () -> mockMvc.perform(get("/bookings/{id}", "missing-" + random(ids))));
+            measure("dispatcher", "PUT miss", requests, () -> mockMvc.perform(json(put("/bookings/{id}", "missing"), updateBody)));
+            measure("dispatcher", "DELETE miss", requests, () -> mockMvc.perform(delete("/bookings/{id}", "missing")));
+            measure("dispatcher", "POST invalid", requests, () -> mockMvc.perform(json(post("/bookings"), invalidBody)));
+
+            BookingController controller = context.getBean(BookingController.class);
+            Booking update = new Booking(null, "Grand Hyatt", "Alice", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null);
+            Booking invalid = new Booking(null, "Grand Hyatt", "Alice", past, past.plusDays(2), null);
+            measure("controller", "GET hit", requests, () -> controller.getBookingById(random(ids)));
+            measure("controller", "GET miss", requests, () -> controller.getBookingById("missing"));
+            measure("controller", "PUT miss", requests, () -> controller.updateBooking("missing", update));
+            measure("controller", "DELETE miss", requests, () -> controller.cancelBooking("missing"));
+            measure("controller", "POST invalid", requests, () -> controller.createBooking(invalid, null));
+        } finally {
+            context.close();
+        }
+    }
+
+    private interface Request {
+        void run() throws Exception;
+    }
+
+    private static void measure(String layer, String name, int requests, Request request) throws Exception {
+        for (int i = 0; i < requests; i++) { // Warm-up
+            call(request);
+        }
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            call(request);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        System.err.printf("%-10s %-13s %,8d bytes/request  %,8.1f us/request%n",
+                layer, name, bytes / requests, nanos / 1e3 / requests);
+    }
+
+    private static void call(Request request) throws Exception {
+        try {
+            request.run();
+        } catch (RuntimeException e) {
+            // Handler methods that signal errors by throwing, as the dispatcher would catch them
+        }
+    }
+
+    private static RequestBuilder json(MockHttpServletRequestBuilder builder, String body) {
+        return builder.contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    private static String random(String[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,65 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Latency of fuzzy and substring hotel search over a large store.
+ * Queries are hotel names with one random character dropped, so most of them are misspelled.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile} (needs a few GB of heap at 1M bookings):
+ * <pre>
+ * java -Xmx3g -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.FuzzySearchBenchmark [bookings] [distinctHotels] > /dev/null
+ * </pre>
+ */
+public class FuzzySearchBenchmark {
+
+    private static final String[] BRANDS = {"Grand", "Hilton", "Hyatt", "Marriott", "Sheraton", "Radisson", "Holiday", "Ritz"};
+    private static final String[] PLACES = {"Garden", "Plaza", "Central", "Harbour", "Airport", "Riverside", "Park", "Tower"};
+
+    public static void main(String[] args) {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int hotels = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        BookingService service = new BookingService(false);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        for (int i = 0; i < bookings; i++) {
+            service.createBooking(new Booking(null, hotelName(i % hotels), "Guest", checkIn, checkIn.plusDays(1), "CONFIRMED"));
+        }
+
+        Random random = new Random(1);
+        String[] queries = new String[1_000];
+        for (int i = 0; i < queries.length; i++) {
+            String name = hotelName(random.nextInt(hotels));
+            int drop = random.nextInt(name.length());
+            queries[i] = name.substring(0, drop) + name.substring(drop + 1);
+        }
+        measure("fuzzy", 5_000, i -> service.searchBookingsByHotelNameFuzzy(queries[i % queries.length]).size());
+        measure("substring", 200, i -> service.searchBookingsByHotelName(queries[i % queries.length]).size());
+    }
+
+    private static void measure(String name, int iterations, java.util.function.IntUnaryOperator call) {
+        long results = 0;
+        for (int i = 0; i < iterations; i++) {
+            results += call.applyAsInt(i); // warm-up
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            results += call.applyAsInt(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.err.printf("%-9s p50 %9.1f us  p99 %9.1f us  max %9.1f us  (avg %d bookings returned)%n", name,
+                nanos[iterations / 2] / 1000.0, nanos[iterations * 99 / 100] / 1000.0, nanos[iterations - 1] / 1000.0,
+                results / (2L * iterations));
+    }
+
+    private static String hotelName(int hotel) {
+        return BRANDS[hotel % BRANDS.length] + " " + PLACES[(hotel / BRANDS.length) % PLACES.length] + " " + hotel;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hotelbooking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingField;
+import com.hotelbooking.model.BookingProjection;
+import com.hotelbooking.model.BookingSort;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.service.BookingService;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Cost of list responses: serializing every Booking field compared with a projection
+ * (fields=id,status,checkInDate,checkOutDate), and a sorted page selected with the bounded heap
+ * compared with sorting the whole store.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.ListResponseBenchmark [bookings] [pageSize]
+ * </pre>
+ */
+public class ListResponseBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Random random = new Random(1);
+        BookingService service = new BookingService(false);
+        BookingStatus[] statuses = {BookingStatus.PENDING, BookingStatus.CONFIRMED};
+        for (int i = 0; i < count; i++) {
+            LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(365));
+            service.createBooking(new Booking(null, "Hotel " + random.nextInt(5_000), "Guest " + i, checkIn,
+                    checkIn.plusDays(1 + random.nextInt(7)), statuses[random.nextInt(statuses.length)].name()));
+        }
+
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<Booking> page = service.getAllBookings(null, 10_000);
+        Set<BookingField> fields = BookingField.parseList("id,status,checkInDate,checkOutDate");
+        CountingStream sink = new CountingStream();
+        measure("full bookings", 200, () -> write(mapper, page, sink));
+        System.err.printf("%-24s %,d bytes for %,d bookings%n", "", sink.lastSize, page.size());
+        measure("projected bookings", 200, () -> write(mapper, new BookingProjection(page, fields), sink));
+        System.err.printf("%-24s %,d bytes for %,d bookings%n", "", sink.lastSize, page.size());
+
+        BookingSort sort = BookingSort.parse("checkInDate");
+        measure("full sort, first " + pageSize, 20, () -> {
+            List<Booking> all = new ArrayList<>(service.getAllBookings());
+            all.sort(sort.comparator());
+            return all.subList(0, pageSize).size();
+        });
+        measure("top-" + pageSize + " heap", 20, () -> service.getAllBookings(sort, pageSize).size());
+    }
+
+    private static int write(ObjectMapper mapper, Object value, CountingStream sink) throws Exception {
+        sink.size = 0;
+        mapper.writeValue(sink, value);
+        sink.lastSize = sink.size;
+        return (int) sink.size;
+    }
+
+    private static void measure(String name, int iterations, Callable<Integer> call) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            call.call(); // warm-up
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            call.call();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.err.printf("%-24s p50 %9.1f us  p99 %9.1f us%n", name,
+                nanos[iterations / 2] / 1000.0, nanos[iterations * 99 / 100] / 1000.0);
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long size;
+        long lastSize;
+
+        @Override
+        public void write(int b) {
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            size += len;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.persistence.BookingPersister;
+import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.service.BookingService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the "persistence" profile with write-through and write-behind persistence, against
+ * an embedded H2 database on disk. Each writer creates a booking and then updates it a few times, so
+ * write-behind can batch the inserts and coalesce the updates.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.PersistenceThroughputBenchmark [threads] [seconds] [updatesPerBooking] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded. "Acknowledged" counts changes
+ * returned to the caller; "durable" also waits until write-behind has written all of them.
+ */
+public class PersistenceThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int updatesPerBooking = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        Path directory = Files.createTempDirectory("booking-persistence-benchmark");
+
+        for (String mode : new String[]{"write-through", "write-behind"}) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelBookingSpringbootApplication.class)
+                    .profiles("persistence")
+                    .properties("spring.main.web-application-type=none",
+                            "spring.datasource.url=jdbc:h2:file:" + directory.resolve(mode).toAbsolutePath(),
+                            "booking.persistence.mode=" + mode,
+                            "logging.level.com.hotelbooking=WARN")
+                    .run();
+            try {
+                BookingService service = context.getBean(BookingService.class);
+                BookingPersister persister = context.getBean(BookingPersister.class);
+                run(service, threads, 2, updatesPerBooking); // Warm-up
+                persister.flush(60_000);
+
+                long start = System.nanoTime();
+                long changes = run(service, threads, seconds, updatesPerBooking);
+                double acknowledgedSeconds = (System.nanoTime() - start) / 1e9;
+                persister.flush(600_000);
+                double durableSeconds = (System.nanoTime() - start) / 1e9;
+
+                long rows = context.getBean(BookingRepository.class).count();
+                System.err.printf("%-14s %,10.0f changes/s acknowledged  %,10.0f changes/s durable  (%,d changes, %,d rows)%n",
+                        mode, changes / acknowledgedSeconds, changes / durableSeconds, changes, rows);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static long run(BookingService service, int threads, int seconds, int updatesPerBooking) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    LocalDate checkIn = LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(300));
+                    Booking booking = service.createBooking(new Booking(null, "Hotel " + ThreadLocalRandom.current().nextInt(100),
+                            "Guest", checkIn, checkIn.plusDays(2), "PENDING"));
+                    count++;
+                    for (int i = 0; i < updatesPerBooking; i++) {
+                        service.updateBooking(booking.getId(), new Booking(null, booking.getHotelName(), "Guest " + i,
+                                checkIn, checkIn.plusDays(2), null));
+                        count++;
+                    }
+                }
+                return count;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+}
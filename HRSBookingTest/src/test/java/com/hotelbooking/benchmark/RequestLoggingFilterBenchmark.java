@@ -0,0 +1,97 @@
+package com.hotelbooking.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.hotelbooking.logging.RequestLoggingProperties;
+import com.hotelbooking.logging.SampledRequestLoggingFilter;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.CommonsRequestLoggingFilter;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput through the old CommonsRequestLoggingFilter configuration versus
+ * SampledRequestLoggingFilter with its default settings.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.RequestLoggingFilterBenchmark [threads] [seconds] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded.
+ */
+public class RequestLoggingFilterBenchmark {
+
+    private static final byte[] BODY = ("{\"hotelName\":\"Grand Hyatt\",\"guestName\":\"Alice Smith\","
+            + "\"checkInDate\":\"2030-01-10\",\"checkOutDate\":\"2030-01-15\",\"status\":\"PENDING\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    // Stands in for the dispatcher servlet: reads the body the way JSON binding does.
+    private static final FilterChain APPLICATION = (request, response) -> request.getInputStream().readAllBytes();
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        // The old setup ran with logging.level.root=DEBUG, which is what makes the commons filter log.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(CommonsRequestLoggingFilter.class)).setLevel(Level.DEBUG);
+
+        CommonsRequestLoggingFilter oldFilter = new CommonsRequestLoggingFilter();
+        oldFilter.setIncludeClientInfo(true);
+        oldFilter.setIncludeQueryString(true);
+        oldFilter.setIncludePayload(true);
+        oldFilter.setMaxPayloadLength(64000);
+        oldFilter.setIncludeHeaders(true);
+        oldFilter.setAfterMessagePrefix("REQUEST DATA: ");
+        oldFilter.init(new MockFilterConfig());
+
+        SampledRequestLoggingFilter newFilter = new SampledRequestLoggingFilter(new RequestLoggingProperties());
+        newFilter.init(new MockFilterConfig());
+
+        run("warm-up old", oldFilter, threads, seconds);
+        run("warm-up new", newFilter, threads, seconds);
+        double oldRate = run("CommonsRequestLoggingFilter", oldFilter, threads, seconds);
+        double newRate = run("SampledRequestLoggingFilter", newFilter, threads, seconds);
+        System.err.printf("speed-up: %.2fx%n", newRate / oldRate);
+
+        newFilter.destroy();
+    }
+
+    private static double run(String name, Filter filter, int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bookings");
+                    request.setContentType("application/json");
+                    request.addHeader("Accept", "application/json");
+                    request.setContent(BODY);
+                    filter.doFilter(request, new MockHttpServletResponse(), APPLICATION);
+                    count++;
+                }
+                return count;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        double perSecond = total / (double) seconds;
+        System.err.printf("%-28s threads=%d  %,.0f requests/s%n", name, threads, perSecond);
+        return perSecond;
+    }
+}
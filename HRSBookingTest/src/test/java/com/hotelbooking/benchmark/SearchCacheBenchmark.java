@@ -0,0 +1,138 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.SearchCacheStats;
+import com.hotelbooking.service.BookingService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of hotel name search with and without the search result cache, on a query mix where a few
+ * popular hotels get most of the traffic: query i (by popularity rank) is drawn with probability
+ * proportional to 1 / i^s (Zipf). Runs read-only and with a share of writes (creates, hotel changes and
+ * cancellations of random bookings), which invalidate cached results.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.SearchCacheBenchmark [hotels] [bookings] [zipfExponent] [secondsPerRun] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded.
+ */
+public class SearchCacheBenchmark {
+
+    private static final double[] WRITE_SHARES = {0.0, 0.05};
+
+    public static void main(String[] args) {
+        int hotels = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int bookings = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        String[] names = new String[hotels];
+        for (int i = 0; i < hotels; i++) {
+            names[i] = "Hotel " + i + " Plaza";
+        }
+        double[] cumulative = zipf(hotels, exponent);
+
+        for (double writeShare : WRITE_SHARES) {
+            for (int cacheSize : new int[]{0, BookingService.DEFAULT_SEARCH_CACHE_SIZE}) {
+                BookingService service = load(names, bookings, cacheSize);
+                run(service, names, cumulative, writeShare, 1); // Warm-up
+                double[] result = run(service, names, cumulative, writeShare, seconds);
+                SearchCacheStats stats = service.getSearchCacheStats();
+                System.err.printf("writes %4.1f%%  cache %-5s %,10.0f searches/s  p50 %,7.1f us  p99 %,7.1f us  "
+                                + "hit rate %5.1f%%  evictions %,d  invalidations %,d%n",
+                        writeShare * 100, cacheSize > 0 ? "on" : "off", result[0], result[1], result[2],
+                        stats.getHitRate() * 100, stats.getEvictions(), stats.getInvalidations());
+            }
+        }
+    }
+
+    private static BookingService load(String[] names, int bookings, int cacheSize) {
+        BookingService service = new BookingService(false, cacheSize);
+        Random random = new Random(42);
+        for (int i = 0; i < bookings; i++) {
+            service.createBooking(booking(names[random.nextInt(names.length)], random));
+        }
+        return service;
+    }
+
+    /**
+     * @return Searches per second, median and 99th percentile latency in microseconds.
+     */
+    private static double[] run(BookingService service, String[] names, double[] cumulative, double writeShare,
+                                int seconds) {
+        Random random = new Random(7);
+        List<Booking> all = service.getAllBookings();
+        long[] latencies = new long[1 << 20];
+        int searches = 0;
+        long searchNanos = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            if (random.nextDouble() < writeShare) {
+                write(service, names, cumulative, all, random);
+                continue;
+            }
+            String query = names[sample(cumulative, random)].toLowerCase();
+            long start = System.nanoTime();
+            service.searchBookingsByHotelName(query);
+            long nanos = System.nanoTime() - start;
+            searchNanos += nanos;
+            latencies[searches++ & (latencies.length - 1)] = nanos;
+        }
+        long[] sorted = Arrays.copyOf(latencies, Math.min(searches, latencies.length));
+        Arrays.sort(sorted);
+        return new double[]{searches / (searchNanos / 1e9), sorted[sorted.length / 2] / 1e3,
+                sorted[(int) (sorted.length * 0.99)] / 1e3};
+    }
+
+    // Writes follow the same popularity as reads, so they hit the cached hotels.
+    private static void write(BookingService service, String[] names, double[] cumulative, List<Booking> all,
+                              Random random) {
+        String hotel = names[sample(cumulative, random)];
+        int kind = random.nextInt(3);
+        if (kind == 0) {
+            all.add(service.createBooking(booking(hotel, random)));
+            return;
+        }
+        Booking some = all.get(random.nextInt(all.size()));
+        if (kind == 1) {
+            service.updateBooking(some.getId(), new Booking(null, hotel, some.getGuestName(),
+                    some.getCheckInDate(), some.getCheckOutDate(), null));
+        } else {
+            try {
+                service.cancelBooking(some.getId());
+            } catch (IllegalStateException e) {
+                // Checked in or out already; cancellations of those are rejected
+            }
+        }
+    }
+
+    private static Booking booking(String hotel, Random random) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(300));
+        return new Booking(null, hotel, "Guest", checkIn, checkIn.plusDays(1 + random.nextInt(7)), "CONFIRMED");
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
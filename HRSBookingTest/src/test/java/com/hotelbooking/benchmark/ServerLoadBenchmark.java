@@ -0,0 +1,173 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load harness for comparing embedded server engines and their settings on the /bookings workload.
+ * <p>
+ * Starts the application on a random port with whichever engine is on the classpath (see the tomcat,
+ * undertow and jetty Maven profiles), seeds bookings, and runs closed-loop clients over keep-alive
+ * connections, one connection per client, with a read-heavy mix: 70% GET /bookings/{id}, 15% hotel name
+ * search, 5% sorted first page of GET /bookings, 5% POST /bookings and 5% PUT /bookings/{id}.
+ * Extra arguments of the form key=value are passed to the application, e.g. server.tomcat.threads.max=16
+ * or server.http2.enabled=true (the clients then upgrade to cleartext HTTP/2).
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}, or through scripts/compare-server-engines.sh:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q -Pundertow dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.ServerLoadBenchmark [clients] [secondsPerRun] [key=value ...] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded. The clients share the machine with
+ * the server, so run it on hardware like production's and compare engines under the same conditions only.
+ */
+public class ServerLoadBenchmark {
+
+    private static final int SEEDED_BOOKINGS = 10_000;
+    private static final int HOTELS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String[] settings = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : new String[0];
+        boolean http2 = Arrays.asList(settings).contains("server.http2.enabled=true");
+
+        List<String> properties = new ArrayList<>(Arrays.asList("server.port=0", "booking.sample-data.enabled=false"));
+        properties.addAll(Arrays.asList(settings));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelBookingSpringbootApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+        try {
+            String[] ids = seed(context.getBean(BookingService.class));
+            WebServer server = ((ServletWebServerApplicationContext) context).getWebServer();
+            String base = "http://localhost:" + server.getPort();
+
+            run(base, ids, clients, Math.max(5, seconds / 2), http2); // Warm-up, mostly for the JIT
+            long[] result = run(base, ids, clients, seconds, http2);
+            System.err.printf("%-8s %-55s clients %3d  %,8.0f requests/s  p50 %,7.2f ms  p99 %,7.2f ms  errors %d%n",
+                    server.getClass().getSimpleName().replace("ServletWebServer", "").replace("WebServer", "").toLowerCase(),
+                    settings.length == 0 ? "(defaults)" : String.join(" ", settings), clients,
+                    result[0] / (double) seconds, result[1] / 1e6, result[2] / 1e6, result[3]);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String[] seed(BookingService service) {
+        Random random = new Random(42);
+        String[] ids = new String[SEEDED_BOOKINGS];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = service.createBooking(booking(random)).getId();
+        }
+        return ids;
+    }
+
+    /**
+     * @return Requests completed, median and 99th percentile latency in nanoseconds, and failed requests.
+     */
+    private static long[] run(String base, String[] ids, int clients, int seconds, boolean http2) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int seed = c;
+            futures.add(pool.submit(() -> client(base, ids, seed, deadline, http2)));
+        }
+        List<long[]> latencies = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        for (Future<long[]> future : futures) {
+            long[] client = future.get();
+            // Last element is the error count, the others are latencies
+            errors += client[client.length - 1];
+            requests += client.length - 1;
+            latencies.add(Arrays.copyOf(client, client.length - 1));
+        }
+        pool.shutdown();
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new long[]{requests, all[all.length / 2], all[(int) (all.length * 0.99)], errors};
+    }
+
+    private static long[] client(String base, String[] ids, int seed, long deadline, boolean http2) throws Exception {
+        // One client per thread, so every thread keeps its own connection
+        HttpClient http = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Random random = new Random(seed);
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = nextRequest(base, ids, random);
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long nanos = System.nanoTime() - start;
+            if (response.statusCode() >= 400) {
+                errors++;
+            }
+            if (count == latencies.length - 1) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[count++] = nanos;
+        }
+        latencies[count] = errors;
+        return Arrays.copyOf(latencies, count + 1);
+    }
+
+    private static HttpRequest nextRequest(String base, String[] ids, Random random) {
+        int kind = random.nextInt(100);
+        String id = ids[random.nextInt(ids.length)];
+        if (kind < 70) {
+            return HttpRequest.newBuilder(URI.create(base + "/bookings/" + id)).build();
+        }
+        if (kind < 85) {
+            return HttpRequest.newBuilder(URI.create(base + "/bookings/search?hotelName=hotel%20" + random.nextInt(HOTELS) + "%20")).build();
+        }
+        if (kind < 90) {
+            return HttpRequest.newBuilder(URI.create(base + "/bookings?sort=checkInDate&limit=20")).build();
+        }
+        String body = json(booking(random));
+        if (kind < 95) {
+            return HttpRequest.newBuilder(URI.create(base + "/bookings"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        return HttpRequest.newBuilder(URI.create(base + "/bookings/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Booking booking(Random random) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(300));
+        return new Booking(null, "Hotel " + random.nextInt(HOTELS) + " Plaza", "Guest " + random.nextInt(1000),
+                checkIn, checkIn.plusDays(1 + random.nextInt(7)), null);
+    }
+
+    private static String json(Booking booking) {
+        return "{\"hotelName\":\"" + booking.getHotelName() + "\",\"guestName\":\"" + booking.getGuestName()
+                + "\",\"checkInDate\":\"" + booking.getCheckInDate() + "\",\"checkOutDate\":\"" + booking.getCheckOutDate() + "\"}";
+    }
+}
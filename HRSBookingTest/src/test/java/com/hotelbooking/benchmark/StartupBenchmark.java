@@ -0,0 +1,130 @@
+package com.hotelbooking.benchmark;
+
+import java.io.File;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the application: time from launching the JVM to the first successful request, and the
+ * resident memory at that point, for the default setup, the "fast-startup" profile and that profile with
+ * the AppCDS archive.
+ * <p>
+ * Not a unit test; build the jar layout and archive first, then run it manually:
+ * <pre>
+ * scripts/build-cds-archive.sh
+ * java -cp target/test-classes com.hotelbooking.benchmark.StartupBenchmark [runs]
+ * </pre>
+ * Each configuration is started {@code runs} times (interleaved) and the median is reported.
+ * RSS is read from /proc, so it is only reported on Linux.
+ */
+public class StartupBenchmark {
+
+    private static final Path LAYOUT = Paths.get("target", "cds");
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        if (!Files.exists(LAYOUT.resolve("app.jsa"))) {
+            System.err.println("Run scripts/build-cds-archive.sh first.");
+            System.exit(1);
+        }
+
+        String[][] configurations = {
+                {"default"},
+                {"fast-startup", "--spring.profiles.active=fast-startup"},
+                {"fast-startup + AppCDS", "--spring.profiles.active=fast-startup",
+                        "-XX:SharedArchiveFile=" + LAYOUT.resolve("app.jsa")},
+        };
+        long[][] startupMillis = new long[configurations.length][runs];
+        long[][] rssKb = new long[configurations.length][runs];
+        for (int run = 0; run < runs; run++) {
+            for (int c = 0; c < configurations.length; c++) {
+                long[] result = start(configurations[c]);
+                startupMillis[c][run] = result[0];
+                rssKb[c][run] = result[1];
+            }
+        }
+        for (int c = 0; c < configurations.length; c++) {
+            long rss = median(rssKb[c]);
+            System.err.printf("%-24s time to first request %,6d ms   RSS %s%n", configurations[c][0],
+                    median(startupMillis[c]), rss < 0 ? "n/a" : String.format("%,d MB", rss / 1024));
+        }
+    }
+
+    /**
+     * @return The milliseconds until the first request succeeded, and the RSS in KB at that point (-1 if unknown).
+     */
+    private static long[] start(String[] configuration) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        Arrays.stream(configuration).skip(1).filter(option -> option.startsWith("-XX:")).forEach(command::add);
+        command.add("-jar");
+        command.add(LAYOUT.resolve("app.jar").toString());
+        command.add("--server.port=" + port);
+        Arrays.stream(configuration).skip(1).filter(option -> option.startsWith("--")).forEach(command::add);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (!respondsOk(new URL("http://localhost:" + port + "/bookings"))) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(configuration[0] + " exited with " + process.exitValue());
+                }
+                Thread.sleep(5);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{millis, rssKb(process.pid())};
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static boolean respondsOk(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(100);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (Exception e) {
+            return false; // Not listening yet
+        }
+    }
+
+    private static long rssKb(long pid) {
+        File status = new File("/proc/" + pid + "/status");
+        try {
+            for (String line : Files.readAllLines(status.toPath())) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (Exception e) {
+            // Not on Linux
+        }
+        return -1;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
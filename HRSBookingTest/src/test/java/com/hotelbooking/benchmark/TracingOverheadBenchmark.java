@@ -0,0 +1,177 @@
+package com.hotelbooking.benchmark;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.controller.BookingController;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.tracing.RequestTracer;
+import com.hotelbooking.tracing.TraceStage;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of request tracing, with tracing off, at the default 1% sample rate and with every request traced.
+ * <p>
+ * Two measurements against the real application: a direct loop over the controller, which isolates the
+ * instrumentation cost per request, and HTTP requests (80% GET by ID, 20% create) against the embedded
+ * server. The modes are interleaved over several rounds and the median round is reported, so drift
+ * between rounds does not favour one mode.
+ * <p>
+ * Not a unit test; run it manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.hotelbooking.benchmark.TracingOverheadBenchmark [clientThreads] [secondsPerRound] [rounds] > /dev/null
+ * </pre>
+ * Results are printed to stderr so the log output can be discarded.
+ */
+public class TracingOverheadBenchmark {
+
+    private static final String[] MODES = {"off", "sampled 1%", "all requests"};
+    private static final String BODY = "{\"hotelName\":\"Grand Hyatt\",\"guestName\":\"Alice Smith\","
+            + "\"checkInDate\":\"" + LocalDate.now().plusDays(10) + "\",\"checkOutDate\":\""
+            + LocalDate.now().plusDays(12) + "\",\"status\":\"PENDING\"}";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelBookingSpringbootApplication.class)
+                .properties("server.port=0", "booking.sample-data.enabled=false")
+                .run();
+        try {
+            BookingService service = context.getBean(BookingService.class);
+            String[] ids = new String[1_000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = service.createBooking(new Booking(null, "Hotel " + (i % 50), "Guest " + i,
+                        LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), "CONFIRMED")).getId();
+            }
+
+            BookingController controller = context.getBean(BookingController.class);
+            double[] nanosPerRequest = compare("controller loop", "ns/request", rounds,
+                    mode -> directLoop(controller, ids, seconds), false);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            double[] requestsPerSecond = compare("HTTP", "requests/s", rounds,
+                    mode -> http(baseUrl, ids, threads, seconds), true);
+
+            // HTTP throughput differences are usually within run-to-run noise, so also relate the cost
+            // measured in the controller loop to the time an HTTP request takes.
+            double tracedCost = nanosPerRequest[2] - nanosPerRequest[0];
+            double httpNanos = 1e9 / requestsPerSecond[0];
+            System.err.printf("a traced request costs %.0f ns more, %.2f%% of the %.0f us per HTTP request; "
+                    + "at a 1%% sample rate that is %.3f%%%n", tracedCost, tracedCost / httpNanos * 100,
+                    httpNanos / 1000, tracedCost / httpNanos);
+        } finally {
+            context.close();
+        }
+    }
+
+    private interface Measurement {
+        double run(int mode) throws Exception;
+    }
+
+    /**
+     * @return The median result per mode.
+     */
+    private static double[] compare(String name, String unit, int rounds, Measurement measurement,
+                                    boolean higherIsBetter) throws Exception {
+        for (int mode = 0; mode < MODES.length; mode++) { // Warm-up
+            configure(mode);
+            measurement.run(mode);
+        }
+        double[][] results = new double[MODES.length][rounds];
+        for (int round = 0; round < rounds; round++) {
+            for (int mode = 0; mode < MODES.length; mode++) {
+                configure(mode);
+                results[mode][round] = measurement.run(mode);
+            }
+        }
+        double[] medians = new double[MODES.length];
+        for (int mode = 0; mode < MODES.length; mode++) {
+            medians[mode] = median(results[mode]);
+        }
+        double baseline = medians[0];
+        for (int mode = 0; mode < MODES.length; mode++) {
+            double value = medians[mode];
+            double overhead = higherIsBetter ? (baseline / value - 1) * 100 : (value / baseline - 1) * 100;
+            System.err.printf("%-16s tracing %-13s %,12.0f %s  overhead %+.1f%%%n", name, MODES[mode], value, unit, overhead);
+        }
+        RequestTracer.configure(false, 0.0, 4096);
+        return medians;
+    }
+
+    private static void configure(int mode) {
+        RequestTracer.configure(mode > 0, mode == 1 ? 0.01 : 1.0, 4096);
+        RequestTracer.clear();
+    }
+
+    // Calls the controller the way the tracing filter and dispatcher would, without HTTP.
+    private static double directLoop(BookingController controller, String[] ids, int seconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        long requests = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1_000; i++) {
+                boolean traced = RequestTracer.begin();
+                controller.getBookingById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+                if (traced) {
+                    RequestTracer.lap(TraceStage.SERIALIZATION);
+                    RequestTracer.end("GET /bookings/{id}", 200);
+                }
+            }
+            requests += 1_000;
+        }
+        return (System.nanoTime() - start) / (double) requests;
+    }
+
+    private static double http(String baseUrl, String[] ids, int threads, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = random.nextInt(10) < 2
+                            ? HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(BODY)).build()
+                            : HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/" + ids[random.nextInt(ids.length)]))
+                                    .GET().build();
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    count++;
+                }
+                return count;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        return total / (double) seconds;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
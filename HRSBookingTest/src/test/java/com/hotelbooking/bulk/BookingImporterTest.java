@@ -0,0 +1,187 @@
+package com.hotelbooking.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.ImportReport;
+import com.hotelbooking.service.BookingMutationListener;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bulk import and export, including CSV quoting and per-line error reporting.
+ */
+class BookingImporterTest {
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(1);
+    private BookingService bookingService;
+    private ObjectMapper objectMapper;
+    private BookingImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Small chunks so that the tests cover several chunks in flight.
+        importer = new BookingImporter(bookingService, objectMapper, 3, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.close();
+    }
+
+    @Test
+    @DisplayName("Should import valid CSV lines and report invalid ones with their line numbers")
+    void shouldImportCsvAndReportErrors() throws Exception {
+        String csv = BookingCsv.HEADER + "\n"
+                + ",Grand Hyatt,Alice," + checkIn + "," + checkIn.plusDays(2) + ",CONFIRMED\n"
+                + ",\"Grand Hotel, Casino\",\"Bob \"\"B\"\" Jones\"," + checkIn + "," + checkIn.plusDays(1) + ",\n"
+                + "\n"
+                + ",Grand Hyatt,Carol," + checkIn.plusDays(3) + "," + checkIn + ",CONFIRMED\n"
+                + ",Grand Hyatt,Dave,not-a-date," + checkIn + ",\n"
+                + ",Grand Hyatt,Eve\n";
+
+        ImportReport report = importer.importBookings(stream(csv), BulkFormat.CSV);
+
+        assertEquals(5, report.getReceived());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(5, report.getErrors().get(0).getLine());
+        assertEquals("Check-in date cannot be after check-out date.", report.getErrors().get(0).getMessage());
+        assertEquals(6, report.getErrors().get(1).getLine());
+        assertEquals("Invalid checkInDate: not-a-date", report.getErrors().get(1).getMessage());
+        assertEquals(7, report.getErrors().get(2).getLine());
+
+        Booking quoted = bookingService.searchBookingsByHotelName("casino").get(0);
+        assertEquals("Grand Hotel, Casino", quoted.getHotelName());
+        assertEquals("Bob \"B\" Jones", quoted.getGuestName());
+        assertEquals("PENDING", quoted.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON and report malformed JSON")
+    void shouldImportNdjson() throws Exception {
+        String ndjson = "{\"hotelName\":\"Grand Hyatt\",\"guestName\":\"Alice\",\"checkInDate\":\"" + checkIn
+                + "\",\"checkOutDate\":\"" + checkIn.plusDays(1) + "\"}\n"
+                + "{\"hotelName\":\n";
+
+        ImportReport report = importer.importBookings(stream(ndjson), BulkFormat.NDJSON);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+    }
+
+    @Test
+    @DisplayName("Should import each ID once when it appears in chunks stored in parallel, and count it that way")
+    void shouldImportDuplicateIdsOnce() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int copy = 0; copy < 2; copy++) {
+            for (int i = 0; i < 100; i++) {
+                csv.append("dup-").append(i).append(",Grand Hyatt,Guest ").append(copy).append(',')
+                        .append(checkIn).append(',').append(checkIn.plusDays(1)).append(",CONFIRMED\n");
+            }
+        }
+
+        ImportReport report = importer.importBookings(stream(csv.toString()), BulkFormat.CSV);
+
+        assertEquals(200, report.getReceived());
+        assertEquals(100, report.getImported());
+        assertEquals(100, report.getFailed());
+        assertEquals(100, bookingService.getAllBookings().size());
+        assertTrue(report.getErrors().stream().allMatch(error -> error.getMessage().endsWith(" already exists.")),
+                report.getErrors().toString());
+    }
+
+    @Test
+    @DisplayName("Should count the rows stored before an ID that was created concurrently as imported")
+    void shouldCountRowsStoredBeforeConcurrentCreate() throws Exception {
+        AtomicBoolean raced = new AtomicBoolean();
+        bookingService.addMutationListener(new BookingMutationListener() {
+            @Override
+            public void beforeMutation(String bookingId) {
+                // Another client creates row-3 after the batch was checked but before it is stored.
+                if (bookingId.equals("row-3") && raced.compareAndSet(false, true)) {
+                    bookingService.createBooking(new Booking("row-3", "Other Hotel", "Other",
+                            checkIn, checkIn.plusDays(1), null));
+                }
+            }
+        });
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            csv.append("row-").append(i).append(",Grand Hyatt,Guest,").append(checkIn).append(',')
+                    .append(checkIn.plusDays(1)).append(",CONFIRMED\n");
+        }
+
+        ImportReport report = importer.importBookings(stream(csv.toString()), BulkFormat.CSV);
+
+        assertEquals(5, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals("Booking row-3 already exists.", report.getErrors().get(0).getMessage());
+        assertEquals(5, bookingService.searchBookingsByHotelName("Grand Hyatt").size());
+        assertEquals("Other Hotel", bookingService.getBookingById("row-3").orElseThrow().getHotelName());
+    }
+
+    @Test
+    @DisplayName("Should cap the number of reported errors but count them all")
+    void shouldCapReportedErrors() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < BookingImporter.MAX_REPORTED_ERRORS + 50; i++) {
+            csv.append("broken line ").append(i).append('\n');
+        }
+
+        ImportReport report = importer.importBookings(stream(csv.toString()), BulkFormat.CSV);
+
+        assertEquals(BookingImporter.MAX_REPORTED_ERRORS + 50, report.getFailed());
+        assertEquals(BookingImporter.MAX_REPORTED_ERRORS, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Export followed by import should reproduce every booking, in both formats")
+    void shouldRoundTrip() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            bookingService.createBooking(new Booking(null, "Hotel " + (i % 17) + (i % 5 == 0 ? ", Annex" : ""),
+                    "Guest \"" + i + "\"", checkIn, checkIn.plusDays(1 + i % 4), i % 2 == 0 ? "CONFIRMED" : "PENDING"));
+        }
+        Set<Booking> original = new HashSet<>(bookingService.getAllBookings());
+        BookingExporter exporter = new BookingExporter(bookingService, objectMapper);
+
+        for (BulkFormat format : BulkFormat.values()) {
+            ByteArrayOutputStream exported = new ByteArrayOutputStream();
+            assertEquals(1_000, exporter.exportBookings(exported, format));
+
+            BookingService target = new BookingService(false);
+            BookingImporter targetImporter = new BookingImporter(target, objectMapper, 2, 64);
+            try {
+                ImportReport report = targetImporter.importBookings(new ByteArrayInputStream(exported.toByteArray()), format);
+                assertEquals(0, report.getFailed(), format + " " + report.getErrors());
+            } finally {
+                targetImporter.close();
+            }
+            assertEquals(original, new HashSet<>(target.getAllBookings()), format.name());
+        }
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
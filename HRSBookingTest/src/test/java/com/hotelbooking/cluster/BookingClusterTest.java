@@ -0,0 +1,277 @@
+package com.hotelbooking.cluster;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IllegalBookingTransitionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several cluster nodes on localhost in one JVM and checks routing, replication and failover.
+ */
+class BookingClusterTest {
+
+    private final List<BookingService> services = new ArrayList<>();
+    private final List<BookingCluster> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            members.add("node-" + i + "@localhost:" + freePort());
+        }
+        for (int i = 0; i < 3; i++) {
+            ClusterProperties properties = new ClusterProperties();
+            properties.setEnabled(true);
+            properties.setNodeId("node-" + i);
+            properties.setMembers(members);
+            properties.setRetryFailedMemberAfterMs(200);
+            BookingService service = new BookingService(false);
+            BookingCluster node = new BookingCluster(properties, service);
+            node.start();
+            services.add(service);
+            nodes.add(node);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(BookingCluster::stop);
+    }
+
+    @Test
+    @DisplayName("Should assign new bookings to the node that created them")
+    void shouldCreateBookingsOnLocalNode() {
+        Booking created = services.get(0).createBooking(newBooking("Local Hotel"));
+
+        assertTrue(nodes.get(0).isLocal(created.getId()));
+        assertEquals(1, services.get(0).getAllBookings().size());
+    }
+
+    @Test
+    @DisplayName("Should forward reads and writes for bookings owned by another node")
+    void shouldForwardOperationsToOwner() {
+        Booking created = services.get(0).createBooking(newBooking("Forwarded Hotel"));
+
+        Optional<Booking> read = services.get(1).getBookingById(created.getId());
+        assertTrue(read.isPresent());
+        assertEquals("Forwarded Hotel", read.get().getHotelName());
+
+        assertTrue(services.get(2).cancelBooking(created.getId()));
+        assertEquals("CANCELLED", services.get(0).getBookingById(created.getId()).orElseThrow().getStatus());
+        assertFalse(services.get(1).getBookingById("missing-id").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should surface validation errors from the owner as IllegalArgumentException")
+    void shouldForwardValidationErrors() {
+        Booking created = services.get(0).createBooking(newBooking("Validated Hotel"));
+        Booking invalid = newBooking("Validated Hotel");
+        invalid.setCheckOutDate(invalid.getCheckInDate().minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> services.get(1).updateBooking(created.getId(), invalid));
+    }
+
+    @Test
+    @DisplayName("Should forward status transitions and surface conflicts from the owner")
+    void shouldForwardTransitions() {
+        Booking created = services.get(0).createBooking(newBooking("Transition Hotel"));
+
+        assertEquals("CHECKED_IN", services.get(1).transitionBooking(created.getId(), BookingStatus.CHECKED_IN)
+                .orElseThrow().getStatus());
+        assertThrows(IllegalBookingTransitionException.class, () -> services.get(2).cancelBooking(created.getId()));
+        assertEquals("CHECKED_IN", services.get(0).getBookingById(created.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should serve bookings from the follower when the owner is down")
+    void shouldFailOverToFollower() throws Exception {
+        Booking created = services.get(0).createBooking(newBooking("Replicated Hotel"));
+        int followerIndex = followerIndexOf(created.getId());
+        await(() -> nodes.get(followerIndex).getReplicaCount() == 1);
+
+        nodes.get(0).stop();
+
+        int readerIndex = 3 - followerIndex; // The node that is neither owner nor follower
+        Optional<Booking> read = services.get(readerIndex).getBookingById(created.getId());
+        assertTrue(read.isPresent());
+        assertEquals("Replicated Hotel", read.get().getHotelName());
+    }
+
+    @Test
+    @DisplayName("Should not repeat a write on the follower when the owner received it but did not answer")
+    void shouldNotFailOverWriteAfterTimeout() throws Exception {
+        try (ServerSocket hungOwner = new ServerSocket(0)) {
+            // Accepts connections and reads nothing, like a member stuck in a long pause.
+            List<Socket> accepted = new CopyOnWriteArrayList<>();
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(hungOwner.accept());
+                    }
+                } catch (IOException ignored) {
+                    // Socket closed at the end of the test
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            List<String> members = List.of("a@localhost:" + freePort(), "b@localhost:" + freePort(),
+                    "hung@localhost:" + hungOwner.getLocalPort());
+            List<BookingService> clusterServices = new ArrayList<>();
+            for (String nodeId : new String[]{"a", "b"}) {
+                ClusterProperties properties = new ClusterProperties();
+                properties.setEnabled(true);
+                properties.setNodeId(nodeId);
+                properties.setMembers(members);
+                properties.setReadTimeoutMs(200);
+                BookingService service = new BookingService(false);
+                BookingCluster node = new BookingCluster(properties, service);
+                node.start();
+                nodes.add(node);
+                clusterServices.add(service);
+            }
+            BookingCluster a = nodes.get(nodes.size() - 2);
+            BookingCluster b = nodes.get(nodes.size() - 1);
+            ConsistentHashRing ring = new ConsistentHashRing(List.of(a.getSelf(), b.getSelf(),
+                    ClusterMember.parse(members.get(2))), 64);
+            String id;
+            do {
+                id = UUID.randomUUID().toString();
+            } while (!ring.owner(id).getId().equals("hung"));
+            Booking booking = newBooking("Hung Hotel");
+            booking.setId(id);
+
+            assertThrows(ClusterUnavailableException.class, () -> clusterServices.get(0).createBooking(booking));
+            assertEquals(0, a.getReplicaCount() + b.getReplicaCount());
+
+            // Reads still fail over; the follower has nothing for this booking.
+            assertFalse(clusterServices.get(0).getBookingById(id).isPresent());
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep sending writes to an owner that timed out once")
+    void shouldSendWritesToOwnerAfterTimeout() throws Exception {
+        try (ServerSocket slowOwner = new ServerSocket(0)) {
+            // Leaves the first request unanswered, then answers every DELETE as applied.
+            List<String> received = new CopyOnWriteArrayList<>();
+            List<Socket> accepted = new CopyOnWriteArrayList<>();
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        Socket socket = slowOwner.accept();
+                        accepted.add(socket);
+                        Thread handler = new Thread(() -> answer(socket, received));
+                        handler.setDaemon(true);
+                        handler.start();
+                    }
+                } catch (IOException ignored) {
+                    // Socket closed at the end of the test
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            List<String> members = List.of("a@localhost:" + freePort(), "b@localhost:" + freePort(),
+                    "slow@localhost:" + slowOwner.getLocalPort());
+            ClusterProperties properties = new ClusterProperties();
+            properties.setEnabled(true);
+            properties.setNodeId("a");
+            properties.setMembers(members);
+            properties.setReadTimeoutMs(200);
+            properties.setRetryFailedMemberAfterMs(60_000);
+            BookingService service = new BookingService(false);
+            BookingCluster a = new BookingCluster(properties, service);
+            a.start();
+            nodes.add(a);
+            ConsistentHashRing ring = new ConsistentHashRing(List.of(a.getSelf(), ClusterMember.parse(members.get(1)),
+                    ClusterMember.parse(members.get(2))), 64);
+            String id;
+            do {
+                id = UUID.randomUUID().toString();
+            } while (!ring.owner(id).getId().equals("slow"));
+            String slowId = id;
+
+            assertThrows(ClusterUnavailableException.class, () -> service.deleteBooking(slowId));
+            // The owner is now marked unavailable, but the next write must still go to it.
+            assertTrue(service.deleteBooking(slowId));
+            assertEquals(2, received.stream().filter(line -> line.startsWith(ClusterProtocol.DELETE)).count());
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+
+    private static void answer(Socket socket, List<String> received) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                received.add(line);
+                if (received.size() > 1) {
+                    writer.write(ClusterProtocol.message(ClusterProtocol.OK, "true") + "\n");
+                    writer.flush();
+                }
+            }
+        } catch (IOException ignored) {
+            // Closed by the client or at the end of the test
+        }
+    }
+
+    private int followerIndexOf(String id) {
+        for (int i = 1; i < nodes.size(); i++) {
+            ClusterMember follower = new ConsistentHashRing(List.of(
+                    nodes.get(0).getSelf(), nodes.get(1).getSelf(), nodes.get(2).getSelf()), 64).follower(id);
+            if (follower.equals(nodes.get(i).getSelf())) {
+                return i;
+            }
+        }
+        throw new AssertionError("Owner has no follower");
+    }
+
+    private static Booking newBooking(String hotelName) {
+        return new Booking(null, hotelName, "Guest", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), "CONFIRMED");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
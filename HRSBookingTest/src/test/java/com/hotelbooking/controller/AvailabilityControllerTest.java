@@ -0,0 +1,59 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.model.HotelAvailability;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the availability search endpoint.
+ */
+@WebMvcTest(AvailabilityController.class)
+@ContextConfiguration(classes = HotelBookingSpringbootApplication.class)
+class AvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @Test
+    @DisplayName("Should search one night from today when no range is given")
+    void shouldDefaultToTonight() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(bookingService.findAvailableHotels(today, today.plusDays(1))).thenReturn(
+                new HotelAvailability(today, today.plusDays(1), 3, Arrays.asList("Grand Hyatt", "Ritz Carlton")));
+
+        mockMvc.perform(get("/availability"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotelsChecked", is(3)))
+                .andExpect(jsonPath("$.availableHotels[1]", is("Ritz Carlton")));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for an invalid range")
+    void shouldRejectInvalidRange() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(5);
+        when(bookingService.findAvailableHotels(from, from))
+                .thenThrow(new IllegalArgumentException("Availability range must end after it starts."));
+
+        mockMvc.perform(get("/availability").param("from", from.toString()).param("to", from.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Availability range must end after it starts."));
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.bulk.BookingExporter;
+import com.hotelbooking.bulk.BookingImporter;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web layer tests for the BookingBulkController, with a real importer and exporter over a mocked BookingService.
+ */
+@WebMvcTest(BookingBulkController.class)
+@ContextConfiguration(classes = HotelBookingSpringbootApplication.class)
+@Import({BookingImporter.class, BookingExporter.class})
+class BookingBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @Test
+    @DisplayName("Should import CSV via POST /bookings/bulk/import and report invalid lines")
+    void shouldImportCsv() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        when(bookingService.createBookings(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        String csv = ",Grand Hyatt,Alice," + checkIn + "," + checkIn.plusDays(1) + ",\n"
+                + ",Grand Hyatt,Bob," + checkIn.minusDays(5) + "," + checkIn + ",\n";
+
+        mockMvc.perform(post("/bookings/bulk/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].message", is("Check-in date cannot be in the past.")));
+    }
+
+    @Test
+    @DisplayName("Should return 415 for an unsupported import content type")
+    void shouldRejectUnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/bookings/bulk/import")
+                        .contentType("application/xml")
+                        .content("<bookings/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @DisplayName("Should export CSV via GET /bookings/bulk/export?format=csv")
+    void shouldExportCsv() throws Exception {
+        LocalDate checkIn = LocalDate.of(2030, 1, 15);
+        when(bookingService.streamAllBookings()).thenReturn(Stream.of(
+                new Booking("b1", "Grand Hyatt", "Alice", checkIn, checkIn.plusDays(2), "CONFIRMED")));
+
+        mockMvc.perform(get("/bookings/bulk/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,hotelName,guestName,checkInDate,checkOutDate,status\n"
+                        + "b1,Grand Hyatt,Alice,2030-01-15,2030-01-17,CONFIRMED\n"));
+    }
+}
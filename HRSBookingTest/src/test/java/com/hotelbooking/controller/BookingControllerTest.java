@@ -4,28 +4,50 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.index.BookingDateIndex;
 import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingLookupRequest;
+import com.hotelbooking.model.BookingLookupResult;
+import com.hotelbooking.model.BookingSort;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.model.HotelOccupancy;
+import com.hotelbooking.model.HotelSuggestion;
+import com.hotelbooking.model.NightOccupancy;
+import com.hotelbooking.service.BookingAlreadyExistsException;
 import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IdempotencyService;
+import com.hotelbooking.service.IllegalBookingTransitionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +58,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(BookingController.class) // Focuses on testing the web layer
 @ContextConfiguration(classes = HotelBookingSpringbootApplication.class) // Load necessary Spring context
+@Import(IdempotencyService.class) // Real idempotency cache, the web slice does not scan services
 class BookingControllerTest {
 
     @Autowired
@@ -44,6 +67,9 @@ class BookingControllerTest {
     @MockBean // Creates a mock instance of BookingService and adds it to the Spring context
     private BookingService bookingService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -75,6 +101,63 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is("PENDING")));
     }
 
+    @Test
+    @DisplayName("Should replay the stored response for a retried POST with the same Idempotency-Key")
+    void shouldReplayCreateBookingWithSameIdempotencyKey() throws Exception {
+        String bookingId = UUID.randomUUID().toString();
+        String idempotencyKey = UUID.randomUUID().toString();
+        Booking newBooking = new Booking(null, "Retry Hotel", "Jane Doe",
+                LocalDate.now().plusDays(10), LocalDate.now().plusDays(15), "PENDING");
+        Booking createdBooking = new Booking(bookingId, "Retry Hotel", "Jane Doe",
+                LocalDate.now().plusDays(10), LocalDate.now().plusDays(15), "PENDING");
+
+        when(bookingService.createBooking(any(Booking.class))).thenReturn(createdBooking);
+
+        mockMvc.perform(post("/bookings")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newBooking)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.id", is(bookingId)));
+
+        mockMvc.perform(post("/bookings")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newBooking)))
+                .andExpect(status().isCreated()) // Same status as the original response
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(bookingId)));
+
+        verify(bookingService, times(1)).createBooking(any(Booking.class)); // The store is touched only once
+    }
+
+    @Test
+    @DisplayName("Should return 422 when an Idempotency-Key is reused with a different body")
+    void shouldReturn422ForIdempotencyKeyReusedWithDifferentBody() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        Booking firstBooking = new Booking(null, "First Hotel", "Jane Doe",
+                LocalDate.now().plusDays(10), LocalDate.now().plusDays(15), "PENDING");
+        Booking secondBooking = new Booking(null, "Second Hotel", "Jane Doe",
+                LocalDate.now().plusDays(10), LocalDate.now().plusDays(15), "PENDING");
+
+        when(bookingService.createBooking(any(Booking.class))).thenReturn(
+                new Booking(UUID.randomUUID().toString(), "First Hotel", "Jane Doe",
+                        LocalDate.now().plusDays(10), LocalDate.now().plusDays(15), "PENDING"));
+
+        mockMvc.perform(post("/bookings")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(firstBooking)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/bookings")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(secondBooking)))
+                .andExpect(status().isUnprocessableEntity()); // Expect HTTP 422 Unprocessable Entity
+    }
+
     @Test
     @DisplayName("Should return 400 for invalid booking data on POST")
     void shouldReturn400ForInvalidBookingDataOnPost() throws Exception {
@@ -108,6 +191,44 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].hotelName", is("Hotel B")));
     }
 
+    @Test
+    @DisplayName("Should write only the selected fields via GET /bookings?fields=")
+    void shouldProjectSelectedFields() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        Booking booking = new Booking("b1", "Hotel A", "Guest A", checkIn, checkIn.plusDays(1), "CONFIRMED");
+        when(bookingService.getAllBookings()).thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings").param("fields", "status,id,checkInDate"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":\"b1\",\"checkInDate\":\"" + checkIn + "\",\"status\":\"CONFIRMED\"}]", true));
+    }
+
+    @Test
+    @DisplayName("Should pass the sort order and limit of GET /bookings to the service")
+    void shouldGetSortedPageOfBookings() throws Exception {
+        Booking booking = new Booking("b1", "Hotel A", "Guest A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "PENDING");
+        when(bookingService.getAllBookings(any(BookingSort.class), eq(5))).thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings").param("sort", "-checkInDate").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        ArgumentCaptor<BookingSort> sort = ArgumentCaptor.forClass(BookingSort.class);
+        verify(bookingService).getAllBookings(sort.capture(), eq(5));
+        assertEquals(BookingSort.Key.CHECK_IN_DATE, sort.getValue().getKey());
+        assertTrue(sort.getValue().isDescending());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an unknown field or sort property on GET /bookings")
+    void shouldReturn400ForUnknownFieldOrSort() throws Exception {
+        mockMvc.perform(get("/bookings").param("fields", "id,price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown booking field: price"));
+        mockMvc.perform(get("/bookings").param("sort", "guestName"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should get a booking by ID via GET /bookings/{id}")
     void shouldGetBookingById() throws Exception {
@@ -124,6 +245,120 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.hotelName", is("Unique Hotel")));
     }
 
+    @Test
+    @DisplayName("Should return 409 for a POST with the ID of an existing booking")
+    void shouldReturn409ForExistingIdOnPost() throws Exception {
+        Booking duplicate = new Booking("b1", "Grand Hyatt", "Alice",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null);
+        when(bookingService.createBooking(any(Booking.class))).thenThrow(new BookingAlreadyExistsException("b1"));
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid booking before it reaches the service, without storing it under its key")
+    void shouldRejectInvalidBookingBeforeService() throws Exception {
+        Booking pastBooking = new Booking(null, "Grand Hyatt", "Alice",
+                LocalDate.now().minusDays(2), LocalDate.now().plusDays(1), null);
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/bookings")
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(pastBooking)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                    .andExpect(content().string("Check-in date cannot be in the past."));
+        }
+        verify(bookingService, never()).createBooking(any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("Should replay a stored create even if the retried body would no longer pass validation")
+    void shouldReplayCreateThatNoLongerValidates() throws Exception {
+        // Stored while the check-in date was still in the future.
+        Booking stale = new Booking(null, "Grand Hyatt", "Alice",
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), null);
+        String idempotencyKey = UUID.randomUUID().toString();
+        Booking created = new Booking("b1", "Grand Hyatt", "Alice", stale.getCheckInDate(), stale.getCheckOutDate(), "PENDING");
+        idempotencyService.execute(idempotencyKey, IdempotencyService.fingerprint(stale),
+                () -> new ResponseEntity<>(created, HttpStatus.CREATED));
+
+        mockMvc.perform(post("/bookings")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stale)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is("b1")));
+        verify(bookingService, never()).createBooking(any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a stay ending in the far future on POST and PUT before it reaches the service")
+    void shouldRejectFarFutureCheckOut() throws Exception {
+        Booking endless = new Booking(null, "Grand Hyatt", "Alice",
+                LocalDate.now().plusDays(1), LocalDate.of(9999, 12, 31), null);
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(endless)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A stay cannot be longer than " + BookingService.MAX_STAY_NIGHTS + " nights."));
+        mockMvc.perform(put("/bookings/b1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(endless)))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).createBooking(any(Booking.class));
+        verify(bookingService, never()).updateValidatedBooking(any(), any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("Should look up several bookings via POST /bookings/lookup")
+    void shouldLookUpBookings() throws Exception {
+        Booking booking = new Booking("b1", "Grand Hyatt", "Alice",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED");
+        when(bookingService.getBookingsByIds(List.of("b1", "b2")))
+                .thenReturn(new BookingLookupResult(List.of(booking), List.of("b2")));
+
+        mockMvc.perform(post("/bookings/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingLookupRequest(List.of("b1", "b2")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings", hasSize(1)))
+                .andExpect(jsonPath("$.bookings[0].id", is("b1")))
+                .andExpect(jsonPath("$.missingIds[0]", is("b2")));
+    }
+
+    @Test
+    @DisplayName("Should look up several bookings via GET /bookings?ids=")
+    void shouldLookUpBookingsWithQueryParameter() throws Exception {
+        when(bookingService.getBookingsByIds(List.of("b1", "b2")))
+                .thenReturn(new BookingLookupResult(List.of(), List.of("b1", "b2")));
+
+        mockMvc.perform(get("/bookings").param("ids", "b1,b2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings", hasSize(0)))
+                .andExpect(jsonPath("$.missingIds", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an invalid lookup")
+    void shouldReturn400ForInvalidLookup() throws Exception {
+        when(bookingService.getBookingsByIds(any()))
+                .thenThrow(new IllegalArgumentException("At least one booking ID is required for a lookup."));
+
+        mockMvc.perform(post("/bookings/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("At least one booking ID is required for a lookup."));
+    }
+
     @Test
     @DisplayName("Should return 404 for non-existent booking ID on GET")
     void shouldReturn404ForNonExistentBookingId() throws Exception {
@@ -145,7 +380,7 @@ class BookingControllerTest {
         Booking returnedBooking = new Booking(bookingId, "New Hotel Name", "New Guest Name",
                 LocalDate.now().plusDays(2), LocalDate.now().plusDays(6), "CONFIRMED");
 
-        when(bookingService.updateBooking(eq(bookingId), any(Booking.class))).thenReturn(Optional.of(returnedBooking));
+        when(bookingService.updateValidatedBooking(eq(bookingId), any(Booking.class))).thenReturn(Optional.of(returnedBooking));
 
         mockMvc.perform(put("/bookings/{id}", bookingId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -163,7 +398,7 @@ class BookingControllerTest {
         Booking updatedDetails = new Booking(null, "Non Existent Update", "Guest",
                 LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED");
 
-        when(bookingService.updateBooking(eq(nonExistentId), any(Booking.class))).thenReturn(Optional.empty());
+        when(bookingService.updateValidatedBooking(eq(nonExistentId), any(Booking.class))).thenReturn(Optional.empty());
 
         mockMvc.perform(put("/bookings/{id}", nonExistentId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -193,6 +428,52 @@ class BookingControllerTest {
                 .andExpect(content().string("Booking not found or already cancelled with ID: " + nonExistentId));
     }
 
+    @Test
+    @DisplayName("Should confirm a pending booking via POST /bookings/{id}/confirm")
+    void shouldConfirmBooking() throws Exception {
+        String bookingId = UUID.randomUUID().toString();
+        Booking confirmed = new Booking(bookingId, "Grand Hyatt", "Alice",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED");
+        when(bookingService.transitionBooking(bookingId, BookingStatus.CONFIRMED)).thenReturn(Optional.of(confirmed));
+
+        mockMvc.perform(post("/bookings/{id}/confirm", bookingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("CONFIRMED")));
+    }
+
+    @Test
+    @DisplayName("Should return 409 for an illegal status transition")
+    void shouldReturn409ForIllegalTransition() throws Exception {
+        String bookingId = UUID.randomUUID().toString();
+        when(bookingService.transitionBooking(bookingId, BookingStatus.CHECKED_IN)).thenThrow(
+                new IllegalBookingTransitionException(bookingId, BookingStatus.CANCELLED, BookingStatus.CHECKED_IN));
+
+        mockMvc.perform(post("/bookings/{id}/check-in", bookingId))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Booking " + bookingId + " cannot move from CANCELLED to CHECKED_IN."));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for a status transition of a non-existent booking")
+    void shouldReturn404ForTransitionOfNonExistentBooking() throws Exception {
+        String nonExistentId = UUID.randomUUID().toString();
+        when(bookingService.transitionBooking(nonExistentId, BookingStatus.CHECKED_OUT)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/bookings/{id}/check-out", nonExistentId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return 409 when DELETE cancels a checked-in booking")
+    void shouldReturn409ForCancellingCheckedInBooking() throws Exception {
+        String bookingId = UUID.randomUUID().toString();
+        when(bookingService.cancelBooking(bookingId)).thenThrow(
+                new IllegalBookingTransitionException(bookingId, BookingStatus.CHECKED_IN, BookingStatus.CANCELLED));
+
+        mockMvc.perform(delete("/bookings/{id}", bookingId))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("Should search bookings by hotel name via GET /bookings/search?hotelName={name}")
     void shouldSearchBookingsByHotelName() throws Exception {
@@ -212,6 +493,22 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].hotelName", is("Grand Plaza")));
     }
 
+    @Test
+    @DisplayName("Should sort, limit and project search results")
+    void shouldSortLimitAndProjectSearchResults() throws Exception {
+        Booking later = new Booking("b1", "Grand Hyatt", "Guest A", LocalDate.now().plusDays(5), LocalDate.now().plusDays(6), "CONFIRMED");
+        Booking earlier = new Booking("b2", "Grand Plaza", "Guest B", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "PENDING");
+        when(bookingService.searchBookingsByHotelName("Grand")).thenReturn(Arrays.asList(later, earlier));
+
+        mockMvc.perform(get("/bookings/search")
+                        .param("hotelName", "Grand")
+                        .param("sort", "checkInDate")
+                        .param("limit", "1")
+                        .param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":\"b2\"}]", true));
+    }
+
     @Test
     @DisplayName("Should return empty list if no bookings found for search")
     void shouldReturnEmptyListForNotFoundSearch() throws Exception {
@@ -238,4 +535,120 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest()) // Expect HTTP 400 Bad Request
                 .andExpect(content().string("Hotel name for search cannot be null or empty."));
     }
+
+    @Test
+    @DisplayName("Should return per-night occupancy via GET /bookings/occupancy")
+    void shouldGetOccupancy() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(2);
+        HotelOccupancy occupancy = new HotelOccupancy("Grand Hyatt", from, to, Arrays.asList(
+                new NightOccupancy(from, Map.of("CONFIRMED", 3L, "CANCELLED", 1L), 3),
+                new NightOccupancy(from.plusDays(1), Map.of(), 0)));
+
+        when(bookingService.getOccupancy("Grand Hyatt", from, to)).thenReturn(occupancy);
+
+        mockMvc.perform(get("/bookings/occupancy")
+                        .param("hotelName", "Grand Hyatt")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nights", hasSize(2)))
+                .andExpect(jsonPath("$.nights[0].date", is(from.toString())))
+                .andExpect(jsonPath("$.nights[0].bookingsByStatus.CONFIRMED", is(3)))
+                .andExpect(jsonPath("$.nights[0].occupied", is(3)))
+                .andExpect(jsonPath("$.nights[1].occupied", is(0)));
+    }
+
+    @Test
+    @DisplayName("Should return hotel name suggestions via GET /bookings/autocomplete")
+    void shouldAutocompleteHotelNames() throws Exception {
+        when(bookingService.autocompleteHotelNames("gr", 5)).thenReturn(Arrays.asList(
+                new HotelSuggestion("Grand Hyatt", 12), new HotelSuggestion("Grand Hotel & Casino", 3)));
+
+        mockMvc.perform(get("/bookings/autocomplete")
+                        .param("prefix", "gr")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].hotelName", is("Grand Hyatt")))
+                .andExpect(jsonPath("$[0].bookingCount", is(12)));
+    }
+
+    @Test
+    @DisplayName("Should use fuzzy search via GET /bookings/search?mode=fuzzy")
+    void shouldSearchBookingsFuzzy() throws Exception {
+        Booking booking = new Booking(UUID.randomUUID().toString(), "Marriott Marquis", "Guest A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED");
+        when(bookingService.searchBookingsByHotelNameFuzzy("Mariott")).thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings/search")
+                        .param("hotelName", "Mariott")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].hotelName", is("Marriott Marquis")));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an unknown search mode")
+    void shouldReturn400ForUnknownSearchMode() throws Exception {
+        mockMvc.perform(get("/bookings/search")
+                        .param("hotelName", "Grand")
+                        .param("mode", "phonetic"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown search mode: phonetic"));
+    }
+
+    @Test
+    @DisplayName("Should list arrivals via GET /bookings/arrivals")
+    void shouldGetArrivals() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(1);
+        Booking booking = new Booking(UUID.randomUUID().toString(), "Grand Hyatt", "Guest A", day, day.plusDays(2), "CONFIRMED");
+        when(bookingService.findBookingsByDate(BookingDateIndex.DateField.CHECK_IN, day, day.plusDays(1), "Grand Hyatt", null))
+                .thenReturn(Stream.of(booking));
+
+        mockMvc.perform(get("/bookings/arrivals")
+                        .param("from", day.toString())
+                        .param("to", day.plusDays(1).toString())
+                        .param("hotelName", "Grand Hyatt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].guestName", is("Guest A")));
+    }
+
+    @Test
+    @DisplayName("Should stream departures as NDJSON via GET /bookings/departures")
+    void shouldStreamDeparturesAsNdjson() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(3);
+        Booking first = new Booking("b1", "Grand Hyatt", "Guest A", day.minusDays(2), day, "CONFIRMED");
+        Booking second = new Booking("b2", "Grand Hyatt", "Guest B", day.minusDays(1), day, "PENDING");
+        when(bookingService.findBookingsByDate(BookingDateIndex.DateField.CHECK_OUT, day, day, null, null))
+                .thenReturn(Stream.of(first, second));
+
+        String body = mockMvc.perform(get("/bookings/departures")
+                        .param("from", day.toString())
+                        .accept(BookingController.NDJSON_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookingController.NDJSON_MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(first, objectMapper.readValue(lines[0], Booking.class));
+        assertEquals(second, objectMapper.readValue(lines[1], Booking.class));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the arrivals range ends before it starts")
+    void shouldReturn400ForInvalidArrivalsRange() throws Exception {
+        LocalDate day = LocalDate.now();
+        when(bookingService.findBookingsByDate(BookingDateIndex.DateField.CHECK_IN, day, day.minusDays(1), null, null))
+                .thenThrow(new IllegalArgumentException("Date range cannot end before it starts."));
+
+        mockMvc.perform(get("/bookings/arrivals")
+                        .param("from", day.toString())
+                        .param("to", day.minusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Date range cannot end before it starts."));
+    }
 }
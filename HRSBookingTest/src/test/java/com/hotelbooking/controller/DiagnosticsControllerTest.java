@@ -0,0 +1,101 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.HotelBookingSpringbootApplication;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.SearchCacheStats;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IdempotencyService;
+import com.hotelbooking.tracing.RequestTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the trace diagnostics endpoints, with requests traced through the real tracing filter.
+ */
+@WebMvcTest({BookingController.class, DiagnosticsController.class})
+@ContextConfiguration(classes = HotelBookingSpringbootApplication.class)
+@Import(IdempotencyService.class)
+class DiagnosticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        // The tracer is static and shared with other test contexts, so set it up for every test.
+        RequestTracer.configure(true, 1.0, 4096);
+        RequestTracer.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestTracer.configure(false, 0.0, 4096);
+        RequestTracer.clear();
+    }
+
+    @Test
+    @DisplayName("Should report per-stage percentiles for traced requests, grouped by path pattern")
+    void shouldReportTracedRequests() throws Exception {
+        Booking booking = new Booking("b1", "Grand Hyatt", "Alice",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED");
+        when(bookingService.getBookingById("b1")).thenReturn(Optional.of(booking));
+        when(bookingService.getBookingById("b2")).thenReturn(Optional.of(booking));
+
+        mockMvc.perform(get("/bookings/{id}", "b1")).andExpect(status().isOk());
+        mockMvc.perform(get("/bookings/{id}", "b2")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/diagnostics/traces").param("operation", "GET /bookings/{id}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.traceCount", is(2)))
+                .andExpect(jsonPath("$.operations", hasSize(1)))
+                .andExpect(jsonPath("$.operations[0].operation", is("GET /bookings/{id}")))
+                .andExpect(jsonPath("$.operations[0].stages", hasSize(5)))
+                .andExpect(jsonPath("$.operations[0].stages[0].stage", is("BINDING")));
+
+        mockMvc.perform(get("/diagnostics/traces/recent").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].operation", is("GET /diagnostics/traces")))
+                .andExpect(jsonPath("$[0].stageMicros.SERIALIZATION").exists());
+    }
+
+    @Test
+    @DisplayName("Should clear traces and reject an out-of-range limit")
+    void shouldClearTracesAndValidateLimit() throws Exception {
+        mockMvc.perform(delete("/diagnostics/traces")).andExpect(status().isNoContent());
+        mockMvc.perform(get("/diagnostics/traces/recent").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should report the search cache counters")
+    void shouldReportSearchCacheStats() throws Exception {
+        when(bookingService.getSearchCacheStats()).thenReturn(new SearchCacheStats(1024, 3, 30, 10, 0, 2));
+
+        mockMvc.perform(get("/diagnostics/search-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", is(30)))
+                .andExpect(jsonPath("$.invalidations", is(2)))
+                .andExpect(jsonPath("$.hitRate", is(0.75)));
+    }
+}
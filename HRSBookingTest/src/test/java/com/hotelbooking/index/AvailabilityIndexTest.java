@@ -0,0 +1,241 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.HotelAvailability;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IllegalBookingTransitionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the availability bitmaps maintained by BookingService, checked against a count over all bookings.
+ */
+class AvailabilityIndexTest {
+
+    private static final String[] HOTELS = {"Grand Hyatt", "Hilton Garden Inn", "Marriott Marquis", "Ritz Carlton"};
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+        AvailabilityProperties properties = new AvailabilityProperties();
+        properties.setDefaultCapacity(3);
+        properties.getCapacities().put("Grand Hyatt", 2);
+        properties.getCapacities().put("Ritz Carlton", 1);
+        bookingService.configureAvailability(properties);
+    }
+
+    @Test
+    @DisplayName("Should list a hotel only while it has a free room on every night of the range")
+    void shouldTrackFullNights() {
+        LocalDate night = LocalDate.now().plusDays(10);
+        Booking first = bookingService.createBooking(booking("Grand Hyatt", night, night.plusDays(2), "CONFIRMED"));
+        assertTrue(available(night, night.plusDays(1)).contains("Grand Hyatt"));
+
+        bookingService.createBooking(booking(" GRAND HYATT ", night.plusDays(1), night.plusDays(3), "PENDING"));
+        assertTrue(available(night, night.plusDays(1)).contains("Grand Hyatt"));
+        assertFalse(available(night, night.plusDays(2)).contains("Grand Hyatt"));
+        assertFalse(available(night.minusDays(5), night.plusDays(30)).contains("Grand Hyatt"));
+        assertTrue(available(night.plusDays(2), night.plusDays(3)).contains("Grand Hyatt"));
+
+        bookingService.cancelBooking(first.getId());
+        assertTrue(available(night, night.plusDays(30)).contains("Grand Hyatt"));
+    }
+
+    @Test
+    @DisplayName("Should list configured hotels without bookings and apply capacity changes to existing bookings")
+    void shouldApplyConfiguredCapacities() {
+        LocalDate night = LocalDate.now().plusDays(3);
+        bookingService.createBooking(booking("Hilton Garden Inn", night, night.plusDays(1), "CONFIRMED"));
+        assertEquals(Arrays.asList("Grand Hyatt", "Hilton Garden Inn", "Ritz Carlton"), available(night, night.plusDays(1)));
+
+        AvailabilityProperties properties = new AvailabilityProperties();
+        properties.setDefaultCapacity(1);
+        bookingService.configureAvailability(properties);
+        assertEquals(Arrays.asList("Grand Hyatt", "Ritz Carlton"), available(night, night.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should match a count over all bookings after random creates, updates, transitions and deletes")
+    void shouldMatchFullRecomputation() {
+        Random random = new Random(42);
+        List<String> ids = new ArrayList<>();
+        // Hotels are known once configured or booked, and stay known after their bookings are deleted.
+        Set<String> known = new HashSet<>(Arrays.asList("grand hyatt", "ritz carlton"));
+        for (int i = 0; i < 3000; i++) {
+            int action = ids.isEmpty() ? 0 : random.nextInt(5);
+            if (action <= 1) {
+                Booking created = bookingService.createBooking(randomBooking(random));
+                known.add(created.getHotelName().toLowerCase());
+                ids.add(created.getId());
+            } else if (action == 2) {
+                Booking change = randomBooking(random);
+                known.add(change.getHotelName().toLowerCase());
+                change.setStatus(null);
+                bookingService.updateBooking(ids.get(random.nextInt(ids.size())), change);
+            } else if (action == 3) {
+                try {
+                    bookingService.cancelBooking(ids.get(random.nextInt(ids.size())));
+                } catch (IllegalBookingTransitionException e) {
+                    // Already cancelled
+                }
+            } else {
+                bookingService.deleteBooking(ids.remove(random.nextInt(ids.size())));
+            }
+            if (i % 50 == 0) {
+                LocalDate from = LocalDate.now().plusDays(random.nextInt(200));
+                LocalDate to = from.plusDays(1 + random.nextInt(150));
+                List<String> actual = available(from, to).stream().map(String::toLowerCase).collect(Collectors.toList());
+                assertEquals(expectedAvailable(known, from, to), actual, "range " + from + " to " + to);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll the window forward, picking up bookings beyond the old horizon")
+    void shouldRollWindowForward() {
+        MutableClock clock = new MutableClock(LocalDate.of(2030, 1, 1));
+        AvailabilityIndex index = new AvailabilityIndex(100, 1, clock);
+        LocalDate farAhead = LocalDate.of(2030, 7, 1);
+        index.onBookingCreated(booking("Grand Hyatt", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), "CONFIRMED"));
+        index.onBookingCreated(booking("Grand Hyatt", farAhead, farAhead.plusDays(3), "CONFIRMED"));
+        assertThrows(IllegalArgumentException.class, () -> index.findAvailableHotels(farAhead, farAhead.plusDays(1)));
+
+        clock.set(LocalDate.of(2030, 5, 1));
+        assertEquals(Collections.emptyList(), index.findAvailableHotels(farAhead, farAhead.plusDays(1)));
+        assertEquals(Collections.emptyList(), index.findAvailableHotels(farAhead.plusDays(2), farAhead.plusDays(4)));
+        assertEquals(Collections.singletonList("Grand Hyatt"), index.findAvailableHotels(farAhead.plusDays(3), farAhead.plusDays(9)));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.findAvailableHotels(LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 11)));
+
+        // Removing bookings that have rolled out of the window must not disturb the counts.
+        index.onBookingDeleted(booking("Grand Hyatt", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), "CONFIRMED"));
+        assertEquals(Collections.emptyList(), index.findAvailableHotels(farAhead, farAhead.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should keep stays beyond the window as boundaries and expand them as it rolls")
+    void shouldKeepDistantStaysAsBoundaries() {
+        MutableClock clock = new MutableClock(LocalDate.of(2030, 1, 1));
+        AvailabilityIndex index = new AvailabilityIndex(100, 1, clock);
+        Booking endless = booking("Grand Hyatt", LocalDate.of(2030, 3, 1), LocalDate.of(9999, 12, 31), "CONFIRMED");
+        Booking distant = booking("Grand Hyatt", LocalDate.of(2040, 1, 1), LocalDate.of(2040, 1, 5), "CONFIRMED");
+        index.onBookingCreated(endless);
+        index.onBookingCreated(distant);
+        assertEquals(4, index.getBoundaryCount("Grand Hyatt"));
+        assertEquals(Collections.emptyList(), index.findAvailableHotels(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 2)));
+
+        clock.set(LocalDate.of(2030, 6, 1));
+        assertEquals(Collections.emptyList(), index.findAvailableHotels(LocalDate.of(2030, 8, 1), LocalDate.of(2030, 9, 9)));
+
+        index.onBookingDeleted(endless);
+        clock.set(LocalDate.of(2039, 12, 1));
+        assertEquals(Collections.emptyList(), index.findAvailableHotels(LocalDate.of(2040, 1, 4), LocalDate.of(2040, 1, 5)));
+        assertEquals(Collections.singletonList("Grand Hyatt"), index.findAvailableHotels(LocalDate.of(2039, 12, 1), LocalDate.of(2040, 1, 1)));
+        assertEquals(Collections.singletonList("Grand Hyatt"), index.findAvailableHotels(LocalDate.of(2040, 1, 5), LocalDate.of(2040, 3, 1)));
+        assertEquals(0, index.getBoundaryCount("Grand Hyatt"));
+    }
+
+    @Test
+    @DisplayName("Should test bit ranges within and across words")
+    void shouldTestBitRanges() {
+        long[] words = new long[4];
+        words[1] = 1L << 63; // Bit 127
+        assertTrue(AvailabilityIndex.noneSet(words, 0, 127));
+        assertFalse(AvailabilityIndex.noneSet(words, 127, 128));
+        assertFalse(AvailabilityIndex.noneSet(words, 0, 256));
+        assertTrue(AvailabilityIndex.noneSet(words, 128, 256));
+        assertFalse(AvailabilityIndex.noneSet(words, 64, 192));
+        words[2] = 1L; // Bit 128
+        assertFalse(AvailabilityIndex.noneSet(words, 128, 129));
+        assertTrue(AvailabilityIndex.noneSet(words, 129, 256));
+    }
+
+    @Test
+    @DisplayName("Should reject empty, past and too distant ranges")
+    void shouldRejectInvalidRanges() {
+        LocalDate today = LocalDate.now();
+        assertThrows(IllegalArgumentException.class, () -> bookingService.findAvailableHotels(today, today));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.findAvailableHotels(today.minusDays(1), today.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.findAvailableHotels(today,
+                today.plusDays(BookingService.AVAILABILITY_HORIZON_DAYS + 1)));
+        assertNotNull(bookingService.findAvailableHotels(today, today.plusDays(BookingService.AVAILABILITY_HORIZON_DAYS)));
+    }
+
+    private List<String> available(LocalDate from, LocalDate to) {
+        HotelAvailability availability = bookingService.findAvailableHotels(from, to);
+        return availability.getAvailableHotels();
+    }
+
+    private List<String> expectedAvailable(Set<String> known, LocalDate from, LocalDate to) {
+        Map<String, Integer> capacities = new HashMap<>();
+        capacities.put("Grand Hyatt", 2);
+        capacities.put("Ritz Carlton", 1);
+        return Arrays.stream(HOTELS)
+                .filter(hotel -> known.contains(hotel.toLowerCase()))
+                .filter(hotel -> from.datesUntil(to).allMatch(night -> bookingService.getAllBookings().stream()
+                        .filter(b -> b.getHotelName().trim().equalsIgnoreCase(hotel) && !"CANCELLED".equals(b.getStatus()))
+                        .filter(b -> !b.getCheckInDate().isAfter(night) && b.getCheckOutDate().isAfter(night))
+                        .count() < capacities.getOrDefault(hotel, 3)))
+                .map(String::toLowerCase)
+                .collect(Collectors.toList());
+    }
+
+    private static Booking randomBooking(Random random) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(300));
+        String hotel = HOTELS[random.nextInt(HOTELS.length)];
+        return booking(random.nextBoolean() ? hotel : hotel.toUpperCase(), checkIn,
+                checkIn.plusDays(1 + random.nextInt(20)), random.nextBoolean() ? "PENDING" : "CONFIRMED");
+    }
+
+    private static Booking booking(String hotel, LocalDate checkIn, LocalDate checkOut, String status) {
+        return new Booking(null, hotel, "Guest", checkIn, checkOut, status);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(LocalDate today) {
+            set(today);
+        }
+
+        void set(LocalDate today) {
+            now = today.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
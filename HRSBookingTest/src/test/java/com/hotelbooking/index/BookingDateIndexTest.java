@@ -0,0 +1,118 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.hotelbooking.index.BookingDateIndex.DateField.CHECK_IN;
+import static com.hotelbooking.index.BookingDateIndex.DateField.CHECK_OUT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for arrival and departure queries served by BookingService from the BookingDateIndex.
+ */
+class BookingDateIndexTest {
+
+    private final LocalDate today = LocalDate.now();
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+    }
+
+    @Test
+    @DisplayName("Should return arrivals in the range in check-in order")
+    void shouldReturnArrivalsInOrder() {
+        Booking later = book("Grand Hyatt", today.plusDays(3), today.plusDays(5), "CONFIRMED");
+        Booking earlier = book("Grand Hyatt", today.plusDays(1), today.plusDays(5), "CONFIRMED");
+        book("Grand Hyatt", today.plusDays(4), today.plusDays(6), "CONFIRMED");
+
+        List<Booking> arrivals = bookingService.findBookingsByDate(CHECK_IN, today.plusDays(1), today.plusDays(3), null, null)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(earlier, later), arrivals);
+        assertEquals(2, bookingService.findBookingsByDate(CHECK_OUT, today.plusDays(5), today.plusDays(5), null, null).count());
+    }
+
+    @Test
+    @DisplayName("Should filter by hotel and status")
+    void shouldFilterByHotelAndStatus() {
+        Booking match = book("Grand Hyatt", today.plusDays(1), today.plusDays(2), "CONFIRMED");
+        book("Grand Hyatt", today.plusDays(1), today.plusDays(2), "PENDING");
+        book("Marriott Marquis", today.plusDays(1), today.plusDays(2), "CONFIRMED");
+
+        List<Booking> arrivals = bookingService.findBookingsByDate(CHECK_IN, today, today.plusDays(7), "grand hyatt", "confirmed")
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(match), arrivals);
+    }
+
+    @Test
+    @DisplayName("Should move bookings on update and drop them on delete")
+    void shouldFollowUpdatesAndDeletes() {
+        Booking booking = book("Grand Hyatt", today.plusDays(1), today.plusDays(2), "CONFIRMED");
+        bookingService.updateBooking(booking.getId(), new Booking(null, "Grand Hyatt", "Guest",
+                today.plusDays(10), today.plusDays(12), "CONFIRMED"));
+
+        assertEquals(0, bookingService.findBookingsByDate(CHECK_IN, today, today.plusDays(5), null, null).count());
+        assertEquals(1, bookingService.findBookingsByDate(CHECK_IN, today.plusDays(10), today.plusDays(10), null, null).count());
+        assertEquals(1, bookingService.findBookingsByDate(CHECK_OUT, today.plusDays(12), today.plusDays(12), null, null).count());
+
+        bookingService.deleteBooking(booking.getId());
+        assertEquals(0, bookingService.findBookingsByDate(CHECK_IN, today, today.plusDays(30), null, null).count());
+    }
+
+    @Test
+    @DisplayName("Should reject a range that ends before it starts")
+    void shouldRejectInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.findBookingsByDate(CHECK_IN, today.plusDays(1), today, null, null));
+    }
+
+    @Test
+    @DisplayName("Range queries should match a scan of all bookings after random changes")
+    void rangeQueriesShouldMatchScan() {
+        Random random = new Random(3);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int action = random.nextInt(10);
+            if (ids.isEmpty() || action < 6) {
+                LocalDate checkIn = today.plusDays(random.nextInt(30));
+                ids.add(book("Hotel " + random.nextInt(5), checkIn, checkIn.plusDays(1 + random.nextInt(5)), "CONFIRMED").getId());
+            } else if (action < 8) {
+                LocalDate checkIn = today.plusDays(random.nextInt(30));
+                bookingService.updateBooking(ids.get(random.nextInt(ids.size())),
+                        new Booking(null, "Hotel 1", "Guest", checkIn, checkIn.plusDays(2), null));
+            } else {
+                bookingService.deleteBooking(ids.remove(random.nextInt(ids.size())));
+            }
+        }
+
+        LocalDate from = today.plusDays(5);
+        LocalDate to = today.plusDays(15);
+        Set<String> expected = bookingService.getAllBookings().stream()
+                .filter(b -> !b.getCheckInDate().isBefore(from) && !b.getCheckInDate().isAfter(to))
+                .map(Booking::getId).collect(Collectors.toSet());
+        List<Booking> actual = bookingService.findBookingsByDate(CHECK_IN, from, to, null, null).collect(Collectors.toList());
+
+        assertEquals(expected, actual.stream().map(Booking::getId).collect(Collectors.toSet()));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 1; i < actual.size(); i++) {
+            assertFalse(actual.get(i).getCheckInDate().isBefore(actual.get(i - 1).getCheckInDate()));
+        }
+    }
+
+    private Booking book(String hotelName, LocalDate checkIn, LocalDate checkOut, String status) {
+        return bookingService.createBooking(new Booking(null, hotelName, "Guest", checkIn, checkOut, status));
+    }
+}
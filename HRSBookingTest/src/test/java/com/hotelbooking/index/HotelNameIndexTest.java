@@ -0,0 +1,143 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.SearchCacheStats;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for exact and fuzzy hotel name search served by BookingService from the HotelNameIndex.
+ */
+class HotelNameIndexTest {
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+        book("Hilton Garden Inn");
+        book("Hilton Garden Inn");
+        book("Marriott Marquis");
+        book("Grand Hyatt");
+        book("Grand Hotel & Casino");
+    }
+
+    @Test
+    @DisplayName("Fuzzy search should find hotels despite typos")
+    void shouldTolerateTypos() {
+        List<Booking> hilton = bookingService.searchBookingsByHotelNameFuzzy("Hiltn Garden");
+        assertEquals(2, hilton.size());
+        assertTrue(hilton.stream().allMatch(b -> b.getHotelName().equals("Hilton Garden Inn")));
+
+        List<Booking> marriott = bookingService.searchBookingsByHotelNameFuzzy("Mariott");
+        assertEquals("Marriott Marquis", marriott.get(0).getHotelName());
+
+        assertTrue(bookingService.searchBookingsByHotelNameFuzzy("Sheraton").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fuzzy search should rank the closest hotel first")
+    void shouldRankBySimilarity() {
+        List<String> hotels = bookingService.searchBookingsByHotelNameFuzzy("Grand Hyat").stream()
+                .map(Booking::getHotelName).distinct().collect(Collectors.toList());
+        assertEquals("Grand Hyatt", hotels.get(0));
+    }
+
+    @Test
+    @DisplayName("Search should follow updates and deletes")
+    void shouldFollowUpdatesAndDeletes() {
+        Booking booking = bookingService.searchBookingsByHotelName("marquis").get(0);
+        bookingService.updateBooking(booking.getId(), new Booking(null, "Ritz Carlton", booking.getGuestName(),
+                booking.getCheckInDate(), booking.getCheckOutDate(), booking.getStatus()));
+
+        assertTrue(bookingService.searchBookingsByHotelName("marquis").isEmpty());
+        assertTrue(bookingService.searchBookingsByHotelNameFuzzy("Mariott").isEmpty());
+        assertEquals(1, bookingService.searchBookingsByHotelNameFuzzy("Ritz Carlten").size());
+
+        bookingService.deleteBooking(booking.getId());
+        assertTrue(bookingService.searchBookingsByHotelName("ritz").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Substring search should match a scan of all bookings after random changes")
+    void substringSearchShouldMatchScan() {
+        Random random = new Random(11);
+        for (int i = 0; i < 1_000; i++) {
+            Booking created = book("Hotel " + random.nextInt(50));
+            if (random.nextInt(3) == 0) {
+                bookingService.deleteBooking(created.getId());
+            }
+        }
+        for (String fragment : new String[]{"hotel 1", "HOTEL 4", "1", "garden", "zzz"}) {
+            Set<String> expected = bookingService.getAllBookings().stream()
+                    .filter(b -> b.getHotelName().toLowerCase().contains(fragment.toLowerCase()))
+                    .map(Booking::getId).collect(Collectors.toSet());
+            Set<String> actual = new HashSet<>();
+            bookingService.searchBookingsByHotelName(fragment).forEach(b -> actual.add(b.getId()));
+            assertEquals(expected, actual, fragment);
+        }
+    }
+
+    @Test
+    @DisplayName("Cached substring searches should never be stale, and survive changes that keep the hotel")
+    void cachedSearchShouldFollowEveryChange() {
+        Random random = new Random(7);
+        String[] fragments = {"hotel 1", "Hotel 2", "garden", "hotel"};
+        for (int i = 0; i < 2_000; i++) {
+            int roll = random.nextInt(10);
+            List<Booking> all = bookingService.getAllBookings();
+            Booking some = all.get(random.nextInt(all.size()));
+            if (roll < 4) {
+                book("Hotel " + random.nextInt(30)); // Also adds hotel names the cached queries match
+            } else if (roll < 6) {
+                bookingService.deleteBooking(some.getId());
+            } else if (roll < 8) {
+                bookingService.updateBooking(some.getId(), new Booking(null, "Hotel " + random.nextInt(30),
+                        some.getGuestName(), some.getCheckInDate(), some.getCheckOutDate(), null));
+            } else {
+                bookingService.cancelBooking(some.getId());
+            }
+            String fragment = fragments[random.nextInt(fragments.length)];
+            List<Booking> expected = bookingService.getAllBookings().stream()
+                    .filter(b -> b.getHotelName().toLowerCase().contains(fragment.toLowerCase()))
+                    .sorted(Comparator.comparing(Booking::getId)).collect(Collectors.toList());
+            List<Booking> actual = bookingService.searchBookingsByHotelName(fragment).stream()
+                    .sorted(Comparator.comparing(Booking::getId)).collect(Collectors.toList());
+            assertEquals(expected, actual, "After change " + i + ", searching " + fragment);
+        }
+
+        Booking ritz = book("Ritz Carlton");
+        assertEquals(List.of(ritz), bookingService.searchBookingsByHotelName("ritz"));
+        long invalidations = bookingService.getSearchCacheStats().getInvalidations();
+        bookingService.cancelBooking(ritz.getId());
+        assertEquals("CANCELLED", bookingService.searchBookingsByHotelName("RITZ").get(0).getStatus());
+
+        SearchCacheStats stats = bookingService.getSearchCacheStats();
+        assertEquals(invalidations, stats.getInvalidations()); // A status change keeps the cached IDs valid
+        assertTrue(stats.getHits() > 0 && stats.getMisses() > 0 && stats.getInvalidations() > 0, stats.toString());
+    }
+
+    @Test
+    @DisplayName("Trigrams should be built per word with padding")
+    void shouldBuildPaddedTrigrams() {
+        assertEquals(Set.of("  i", " in", "inn", "nn "), HotelNameIndex.trigrams("Inn"));
+        assertEquals(HotelNameIndex.trigrams("Grand Hyatt"), HotelNameIndex.trigrams("grand, HYATT"));
+    }
+
+    private Booking book(String hotelName) {
+        return bookingService.createBooking(new Booking(null, hotelName, "Guest",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.HotelSuggestion;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for hotel name autocomplete served by BookingService from the HotelNameTrie.
+ */
+class HotelNameTrieTest {
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+    }
+
+    @Test
+    @DisplayName("Should rank names by booking count and match prefixes case-insensitively")
+    void shouldRankByBookingCount() {
+        book("Grand Hyatt", 3);
+        book("Grand Hotel & Casino", 5);
+        book("Hilton Garden Inn", 7);
+
+        List<HotelSuggestion> suggestions = bookingService.autocompleteHotelNames("GRAND", 10);
+
+        assertEquals(List.of(new HotelSuggestion("Grand Hotel & Casino", 5), new HotelSuggestion("Grand Hyatt", 3)),
+                suggestions);
+        assertEquals(1, bookingService.autocompleteHotelNames("", 1).size());
+        assertEquals("Hilton Garden Inn", bookingService.autocompleteHotelNames("", 1).get(0).getHotelName());
+        assertTrue(bookingService.autocompleteHotelNames("Marriott", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should follow deletes and hotel changes on update")
+    void shouldFollowDeletesAndUpdates() {
+        List<String> ids = book("Grand Hyatt", 2);
+        bookingService.autocompleteHotelNames("gr", 10); // Populate the caches before changing counts
+
+        bookingService.deleteBooking(ids.get(0));
+        assertEquals(List.of(new HotelSuggestion("Grand Hyatt", 1)), bookingService.autocompleteHotelNames("gr", 10));
+
+        Booking moved = bookingService.getBookingById(ids.get(1)).orElseThrow();
+        bookingService.updateBooking(moved.getId(), new Booking(null, "Marriott Marquis", moved.getGuestName(),
+                moved.getCheckInDate(), moved.getCheckOutDate(), moved.getStatus()));
+        assertTrue(bookingService.autocompleteHotelNames("gr", 10).isEmpty());
+        assertEquals(List.of(new HotelSuggestion("Marriott Marquis", 1)), bookingService.autocompleteHotelNames("m", 10));
+    }
+
+    @Test
+    @DisplayName("Should reject out of range limits")
+    void shouldRejectInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> bookingService.autocompleteHotelNames("g", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.autocompleteHotelNames("g", HotelNameTrie.MAX_SUGGESTIONS + 1));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.autocompleteHotelNames(null, 5));
+    }
+
+    @Test
+    @DisplayName("Suggestions should match a scan of all bookings after random changes")
+    void suggestionsShouldMatchScan() {
+        Random random = new Random(7);
+        List<String> ids = new ArrayList<>();
+        String[] prefixes = {"", "h", "ho", "hotel 1", "hotel 2", "hotel 3"};
+        for (int i = 0; i < 3_000; i++) {
+            if (ids.isEmpty() || random.nextInt(4) > 0) {
+                ids.add(book("Hotel " + random.nextInt(300), 1).get(0));
+            } else {
+                bookingService.deleteBooking(ids.remove(random.nextInt(ids.size())));
+            }
+            if (i % 100 == 0) {
+                String prefix = prefixes[random.nextInt(prefixes.length)];
+                assertEquals(scan(prefix, 10), bookingService.autocompleteHotelNames(prefix, 10), "prefix " + prefix);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the cache of a prefix through count changes that do not empty its last place")
+    void shouldUpdateCachedSuggestionsInPlace() {
+        HotelNameTrie trie = new HotelNameTrie();
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j <= i; j++) {
+                trie.onBookingCreated(booking("Hotel " + i));
+            }
+        }
+        assertEquals(new HotelSuggestion("Hotel 29", 30), trie.suggest("h", 1).get(0));
+
+        trie.onBookingCreated(booking("Hotel 0"));
+        trie.onBookingDeleted(booking("Hotel 29"));
+        trie.onBookingCreated(booking("Hotel 5"));
+        List<HotelSuggestion> top = trie.suggest("h", HotelNameTrie.MAX_SUGGESTIONS);
+        assertEquals(List.of(new HotelSuggestion("Hotel 28", 29), new HotelSuggestion("Hotel 29", 29)), top.subList(0, 2));
+        assertEquals(new HotelSuggestion("Hotel 10", 11), top.get(HotelNameTrie.MAX_SUGGESTIONS - 1));
+        assertEquals(1, trie.cacheBuilds("h"));
+
+        // The last listed name losing bookings may now rank below one that was not listed.
+        trie.onBookingDeleted(booking("Hotel 10"));
+        trie.onBookingDeleted(booking("Hotel 10"));
+        top = trie.suggest("h", HotelNameTrie.MAX_SUGGESTIONS);
+        assertEquals(new HotelSuggestion("Hotel 9", 10), top.get(HotelNameTrie.MAX_SUGGESTIONS - 1));
+        assertEquals(2, trie.cacheBuilds("h"));
+    }
+
+    @Test
+    @DisplayName("Suggestions should match a scan of all bookings after concurrent changes and lookups")
+    void suggestionsShouldMatchScanAfterConcurrentChanges() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> reader = executor.submit(() -> {
+            while (writing.get()) {
+                bookingService.autocompleteHotelNames("", 10);
+                bookingService.autocompleteHotelNames("hotel 1", 10);
+            }
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            writers.add(executor.submit(() -> {
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < 2_000; i++) {
+                    if (ids.isEmpty() || random.nextInt(3) > 0) {
+                        ids.add(book("Hotel " + random.nextInt(50), 1).get(0));
+                    } else {
+                        bookingService.deleteBooking(ids.remove(random.nextInt(ids.size())));
+                    }
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        reader.get();
+        executor.shutdown();
+
+        for (String prefix : new String[] {"", "hotel 1"}) {
+            assertEquals(scan(prefix, 10), bookingService.autocompleteHotelNames(prefix, 10), "prefix " + prefix);
+        }
+    }
+
+    private static Booking booking(String hotelName) {
+        return new Booking(null, hotelName, "Guest", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED");
+    }
+
+    private List<String> book(String hotelName, int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(bookingService.createBooking(new Booking(null, hotelName, "Guest " + i,
+                    LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "CONFIRMED")).getId());
+        }
+        return ids;
+    }
+
+    private List<HotelSuggestion> scan(String prefix, int limit) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Booking booking : bookingService.getAllBookings()) {
+            if (booking.getHotelName().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                counts.merge(booking.getHotelName(), 1L, Long::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new HotelSuggestion(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HotelSuggestion::getBookingCount).reversed()
+                        .thenComparing(HotelSuggestion::getHotelName))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,173 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.HotelOccupancy;
+import com.hotelbooking.model.NightOccupancy;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.IllegalBookingTransitionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the occupancy counters maintained by BookingService, checked against a full recomputation.
+ */
+class OccupancyIndexTest {
+
+    private static final String[] HOTELS = {"Grand Hyatt", "Hilton Garden Inn", "Marriott Marquis"};
+    private static final String[] STATUSES = {"PENDING", "CONFIRMED"};
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+    }
+
+    @Test
+    @DisplayName("Should count every night of a stay but not the check-out day")
+    void shouldCountNightsOfStay() {
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        bookingService.createBooking(new Booking(null, "Grand Hyatt", "Alice", checkIn, checkIn.plusDays(2), "CONFIRMED"));
+
+        HotelOccupancy occupancy = bookingService.getOccupancy("grand hyatt ", checkIn.minusDays(1), checkIn.plusDays(3));
+
+        assertEquals(4, occupancy.getNights().size());
+        assertEquals(0, occupancy.getNights().get(0).getOccupied());
+        assertEquals(Map.of("CONFIRMED", 1L), occupancy.getNights().get(1).getBookingsByStatus());
+        assertEquals(1, occupancy.getNights().get(2).getOccupied());
+        assertEquals(0, occupancy.getNights().get(3).getOccupied());
+    }
+
+    @Test
+    @DisplayName("Should move counts on update and exclude cancelled bookings from occupied")
+    void shouldFollowUpdatesCancellationsAndDeletes() {
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        Booking booking = bookingService.createBooking(new Booking(null, "Grand Hyatt", "Alice", checkIn, checkIn.plusDays(1), "PENDING"));
+
+        bookingService.updateBooking(booking.getId(), new Booking(null, "Grand Hyatt", "Alice", checkIn.plusDays(1), checkIn.plusDays(2), "CONFIRMED"));
+        NightOccupancy first = bookingService.getOccupancy("Grand Hyatt", checkIn, checkIn.plusDays(2)).getNights().get(0);
+        NightOccupancy second = bookingService.getOccupancy("Grand Hyatt", checkIn, checkIn.plusDays(2)).getNights().get(1);
+        assertTrue(first.getBookingsByStatus().isEmpty());
+        assertEquals(Map.of("CONFIRMED", 1L), second.getBookingsByStatus());
+
+        bookingService.cancelBooking(booking.getId());
+        second = bookingService.getOccupancy("Grand Hyatt", checkIn.plusDays(1), checkIn.plusDays(2)).getNights().get(0);
+        assertEquals(Map.of("CANCELLED", 1L), second.getBookingsByStatus());
+        assertEquals(0, second.getOccupied());
+
+        bookingService.deleteBooking(booking.getId());
+        second = bookingService.getOccupancy("Grand Hyatt", checkIn.plusDays(1), checkIn.plusDays(2)).getNights().get(0);
+        assertTrue(second.getBookingsByStatus().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop the counters of a night once its last booking is gone")
+    void shouldRemoveNightsWithoutBookings() {
+        OccupancyIndex index = new OccupancyIndex();
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        Booking kept = new Booking("b1", "Grand Hyatt", "Alice", checkIn, checkIn.plusDays(1), "CONFIRMED");
+        Booking deleted = new Booking("b2", "Grand Hyatt", "Bob", checkIn, checkIn.plusDays(3), "PENDING");
+        index.onBookingCreated(kept);
+        index.onBookingCreated(deleted);
+        assertEquals(3, index.trackedNights("Grand Hyatt"));
+
+        index.onBookingDeleted(deleted);
+        assertEquals(1, index.trackedNights("Grand Hyatt"));
+        assertEquals(Map.of("CONFIRMED", 1L), index.getOccupancy("Grand Hyatt", checkIn, checkIn.plusDays(1))
+                .getNights().get(0).getBookingsByStatus());
+
+        index.onBookingDeleted(kept);
+        assertEquals(0, index.trackedNights("Grand Hyatt"));
+    }
+
+    @Test
+    @DisplayName("Should reject empty and overly long ranges")
+    void shouldRejectInvalidRanges() {
+        LocalDate today = LocalDate.now();
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getOccupancy("Grand Hyatt", today, today));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getOccupancy("Grand Hyatt", today, today.plusDays(BookingService.MAX_OCCUPANCY_NIGHTS + 1)));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getOccupancy(" ", today, today.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Counters should match a full recomputation after concurrent random mutations")
+    void countersShouldMatchRecomputation() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = 42 + t;
+            futures.add(executor.submit(() -> mutateRandomly(new Random(seed), 2_000)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(60);
+        for (String hotel : HOTELS) {
+            Map<LocalDate, Map<String, Long>> expected = recompute(hotel, from, to);
+            for (NightOccupancy night : bookingService.getOccupancy(hotel, from, to).getNights()) {
+                assertEquals(expected.getOrDefault(night.getDate(), Map.of()), night.getBookingsByStatus(),
+                        hotel + " on " + night.getDate());
+            }
+        }
+    }
+
+    private void mutateRandomly(Random random, int operations) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            int action = random.nextInt(10);
+            if (ids.isEmpty() || action < 4) {
+                ids.add(bookingService.createBooking(randomBooking(random)).getId());
+            } else if (action < 7) {
+                try {
+                    bookingService.updateBooking(ids.get(random.nextInt(ids.size())), randomBooking(random));
+                } catch (IllegalBookingTransitionException e) {
+                    // Random statuses are often not a legal next state, e.g. CONFIRMED -> PENDING.
+                }
+            } else if (action < 9) {
+                bookingService.cancelBooking(ids.get(random.nextInt(ids.size())));
+            } else {
+                bookingService.deleteBooking(ids.remove(random.nextInt(ids.size())));
+            }
+        }
+    }
+
+    private static Booking randomBooking(Random random) {
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(45));
+        return new Booking(null, HOTELS[random.nextInt(HOTELS.length)], "Guest", checkIn,
+                checkIn.plusDays(random.nextInt(7)), STATUSES[random.nextInt(STATUSES.length)]);
+    }
+
+    private Map<LocalDate, Map<String, Long>> recompute(String hotel, LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<String, Long>> counts = new HashMap<>();
+        for (Booking booking : bookingService.getAllBookings()) {
+            if (!booking.getHotelName().equalsIgnoreCase(hotel)) {
+                continue;
+            }
+            for (LocalDate night = booking.getCheckInDate(); night.isBefore(booking.getCheckOutDate()); night = night.plusDays(1)) {
+                if (!night.isBefore(from) && night.isBefore(to)) {
+                    counts.computeIfAbsent(night, key -> new TreeMap<>()).merge(booking.getStatus(), 1L, Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+}
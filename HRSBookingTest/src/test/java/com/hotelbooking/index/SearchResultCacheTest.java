@@ -0,0 +1,55 @@
+package com.hotelbooking.index;
+
+import com.hotelbooking.model.SearchCacheStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the eviction policy, freshness checks and counters of the SearchResultCache.
+ */
+class SearchResultCacheTest {
+
+    @Test
+    @DisplayName("Should give recently hit entries a second chance before evicting them")
+    void shouldEvictUnreferencedEntriesFirst() {
+        SearchResultCache<String> cache = new SearchResultCache<>(2);
+        cache.put("popular", "p");
+        cache.put("rare", "r");
+        assertEquals("p", cache.get("popular", value -> true));
+
+        cache.put("new", "n"); // "popular" is the oldest, but was hit; "rare" goes
+        assertEquals("p", cache.get("popular", value -> true));
+        assertNull(cache.get("rare", value -> true));
+        assertEquals("n", cache.get("new", value -> true));
+
+        SearchCacheStats stats = cache.stats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(3, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.75, stats.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Should drop an entry whose version no longer matches and count an invalidation")
+    void shouldInvalidateStaleEntries() {
+        AtomicLong version = new AtomicLong();
+        SearchResultCache<Long> cache = new SearchResultCache<>(10);
+        cache.put("hyatt", version.get());
+
+        assertEquals(0L, cache.get("hyatt", cached -> cached == version.get()));
+        version.incrementAndGet();
+        assertNull(cache.get("hyatt", cached -> cached == version.get()));
+        assertNull(cache.get("hyatt", cached -> true)); // Removed, not just skipped
+
+        SearchCacheStats stats = cache.stats();
+        assertEquals(0, stats.getSize());
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(2, stats.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> new SearchResultCache<String>(0));
+    }
+}
@@ -0,0 +1,119 @@
+package com.hotelbooking.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the sampled request logging filter and its redaction rules.
+ */
+class SampledRequestLoggingFilterTest {
+
+    private RequestLoggingProperties properties;
+    private CapturingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RequestLoggingProperties();
+        properties.setSampleRate(0.0);
+        properties.setSlowRequestThresholdMs(60_000);
+        writer = new CapturingWriter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown(1000);
+    }
+
+    @Test
+    @DisplayName("Should always log server errors even when sampling is off")
+    void shouldAlwaysLogErrors() throws Exception {
+        SampledRequestLoggingFilter filter = new SampledRequestLoggingFilter(properties, writer);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(503));
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, writer.records.size());
+        assertEquals(503, writer.records.get(0).getStatus());
+        assertEquals(RequestLogRecord.Reason.ERROR, writer.records.get(0).getReason());
+    }
+
+    @Test
+    @DisplayName("Should capture a bounded payload for sampled requests")
+    void shouldCaptureBoundedPayloadForSampledRequests() throws Exception {
+        properties.setSampleRate(1.0);
+        properties.setMaxPayloadLength(10);
+        SampledRequestLoggingFilter filter = new SampledRequestLoggingFilter(properties, writer);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bookings");
+        request.setContent("{\"hotelName\":\"Grand Hyatt\"}".getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> req.getInputStream().readAllBytes()); // The application reads the body
+
+        RequestLogRecord record = writer.records.get(0);
+        assertEquals(RequestLogRecord.Reason.SAMPLED, record.getReason());
+        assertEquals(10, record.getPayload().length);
+        assertTrue(record.isPayloadTruncated());
+    }
+
+    @Test
+    @DisplayName("Should pick the longest endpoint prefix and let status rates override it")
+    void shouldApplyEndpointAndStatusRates() {
+        properties.setEndpointSampleRates(Map.of("/bookings", 0.5, "/bookings/search", 0.01));
+        properties.setStatusSampleRates(Map.of(404, 1.0));
+        SampledRequestLoggingFilter filter = new SampledRequestLoggingFilter(properties, writer);
+
+        assertEquals(0.01, filter.endpointRate("/bookings/search"));
+        assertEquals(0.5, filter.endpointRate("/bookings/123"));
+        assertEquals(0.0, filter.endpointRate("/other"));
+
+        assertNull(filter.selectReason(0.2, 0.01, 200, 0));
+        assertEquals(RequestLogRecord.Reason.SAMPLED, filter.selectReason(0.2, 0.01, 404, 0));
+        assertEquals(RequestLogRecord.Reason.SLOW,
+                filter.selectReason(0.9, 0.0, 200, TimeUnit.MINUTES.toNanos(2)));
+    }
+
+    @Test
+    @DisplayName("Should redact configured payload fields, query parameters and headers")
+    void shouldRedactSensitiveValues() {
+        LogRedactor redactor = new LogRedactor(Set.of("guestName"), Set.of("Authorization"));
+
+        assertEquals("{\"hotelName\":\"Hilton\",\"guestName\":\"***\"}",
+                redactor.redactPayload("{\"hotelName\":\"Hilton\",\"guestName\":\"Alice \\\"Al\\\" Smith\"}"));
+        assertEquals("hotelName=Hilton&guestName=***", redactor.redactQueryString("hotelName=Hilton&guestName=Alice"));
+        assertEquals("***", redactor.redactHeader("authorization", "Bearer secret"));
+        assertEquals("application/json", redactor.redactHeader("Content-Type", "application/json"));
+    }
+
+    /**
+     * Writer that records submissions in memory instead of handing them to the writer thread.
+     */
+    private static class CapturingWriter extends AsyncRequestLogWriter {
+        final List<RequestLogRecord> records = new CopyOnWriteArrayList<>();
+
+        CapturingWriter() {
+            super(16, new LogRedactor(Set.of(), Set.of()));
+        }
+
+        @Override
+        public boolean submit(RequestLogRecord record) {
+            records.add(record);
+            return true;
+        }
+    }
+}
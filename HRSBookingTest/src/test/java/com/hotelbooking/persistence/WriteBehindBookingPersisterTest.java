@@ -0,0 +1,214 @@
+package com.hotelbooking.persistence;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.service.BookingService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for write-behind persistence against an in-memory H2 database.
+ */
+class WriteBehindBookingPersisterTest {
+
+    private BookingService bookingService;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private PersistenceProperties properties;
+    private WriteBehindBookingPersister persister;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Same table as Hibernate creates from the Booking mapping in the "persistence" profile.
+        jdbcTemplate.execute("CREATE TABLE bookings (id VARCHAR(64) PRIMARY KEY, hotel_name VARCHAR(255), "
+                + "guest_name VARCHAR(255), check_in_date DATE, check_out_date DATE, status VARCHAR(16))");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        bookingService = new BookingService(false);
+        properties = new PersistenceProperties();
+        properties.setFlushIntervalMs(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (persister != null) {
+            persister.stop();
+        }
+    }
+
+    private void start(TransactionTemplate transactionTemplate) {
+        persister = new WriteBehindBookingPersister(bookingService, jdbcTemplate, transactionTemplate, properties);
+        persister.start();
+    }
+
+    private Booking book(String guestName) {
+        return bookingService.createBooking(new Booking(null, "Grand Hyatt", guestName,
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should write creates, updates and deletes to the database")
+    void shouldPersistChanges() throws Exception {
+        start(new TransactionTemplate(transactionManager));
+        Booking kept = book("Alice");
+        Booking deleted = book("Bob");
+        assertTrue(persister.flush(5_000));
+        assertEquals(2, rowCount());
+
+        bookingService.transitionBooking(kept.getId(), BookingStatus.CONFIRMED);
+        bookingService.deleteBooking(deleted.getId());
+        assertTrue(persister.flush(5_000));
+
+        assertEquals(1, rowCount());
+        assertEquals("CONFIRMED", jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?",
+                String.class, kept.getId()));
+        assertEquals(LocalDate.now().plusDays(1), jdbcTemplate.queryForObject(
+                "SELECT check_in_date FROM bookings WHERE id = ?", LocalDate.class, kept.getId()));
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated changes to one booking into a single row write")
+    void shouldCoalesceChanges() throws Exception {
+        properties.setFlushIntervalMs(60_000); // Only flush() ends the window
+        start(new TransactionTemplate(transactionManager));
+        Booking booking = book("Alice");
+        for (int i = 0; i < 100; i++) {
+            bookingService.updateBooking(booking.getId(), new Booking(null, "Grand Hyatt", "Guest " + i,
+                    LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+        }
+        Booking shortLived = book("Carol");
+        bookingService.deleteBooking(shortLived.getId());
+
+        assertTrue(persister.flush(5_000));
+
+        assertEquals(2, persister.getRowsWritten()); // One save and one (no-op) delete for 103 changes
+        assertEquals(List.of("Guest 99"), jdbcTemplate.queryForList("SELECT guest_name FROM bookings", String.class));
+    }
+
+    @Test
+    @DisplayName("Should write all pending changes on stop")
+    void shouldFlushOnStop() {
+        properties.setFlushIntervalMs(60_000);
+        properties.setBatchSize(10_000);
+        start(new TransactionTemplate(transactionManager));
+        for (int i = 0; i < 250; i++) {
+            book("Guest " + i);
+        }
+
+        persister.stop();
+        persister = null;
+
+        assertEquals(250, rowCount());
+    }
+
+    @Test
+    @DisplayName("Should make writers wait while the queue is full")
+    void shouldApplyBackpressure() throws Exception {
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(2);
+        properties.setFlushIntervalMs(0);
+        CountDownLatch databaseAvailable = new CountDownLatch(1);
+        start(new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                try {
+                    databaseAvailable.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.execute(action);
+            }
+        });
+        book("Alice");
+        book("Bob");
+
+        Thread writer = new Thread(() -> book("Carol"));
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.TIMED_WAITING, writer.getState());
+
+        databaseAvailable.countDown();
+        writer.join(5_000);
+        assertFalse(writer.isAlive());
+        assertTrue(persister.flush(5_000));
+        assertEquals(3, rowCount());
+        assertEquals(0, persister.getOverflowCount());
+    }
+
+    @Test
+    @DisplayName("Should drop a row that keeps failing without holding back the rest of its batch")
+    void shouldDropBadRow() throws Exception {
+        properties.setFlushIntervalMs(60_000);
+        properties.setMaxWriteAttempts(2);
+        start(new TransactionTemplate(transactionManager));
+        book("Alice");
+        Booking bad = bookingService.createBooking(new Booking(null, "H".repeat(300), "Bob",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+        book("Carol");
+
+        assertTrue(persister.flush(10_000));
+        assertEquals(2, rowCount());
+        assertEquals(1, persister.getDroppedCount());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE id = ?", Integer.class, bad.getId()));
+
+        book("Dave");
+        assertTrue(persister.flush(5_000));
+        assertEquals(3, rowCount());
+        assertEquals(properties.getQueueCapacity(), persister.getAvailableSlots());
+    }
+
+    @Test
+    @DisplayName("Should give back only the slots that overflowed changes never took")
+    void shouldNotLeakSlotsOnOverflow() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBatchSize(1);
+        properties.setEnqueueTimeoutMs(0);
+        CountDownLatch databaseAvailable = new CountDownLatch(1);
+        start(new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                try {
+                    databaseAvailable.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.execute(action);
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            book("Guest " + i);
+        }
+        assertEquals(3, persister.getOverflowCount());
+        assertFalse(persister.flush(100));
+
+        databaseAvailable.countDown();
+        assertTrue(persister.flush(5_000));
+        assertEquals(4, rowCount());
+        assertEquals(1, persister.getAvailableSlots());
+    }
+}
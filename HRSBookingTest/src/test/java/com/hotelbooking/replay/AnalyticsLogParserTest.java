@@ -0,0 +1,109 @@
+package com.hotelbooking.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reconstructing requests from the analytics log and for the compact capture format.
+ */
+class AnalyticsLogParserTest {
+
+    private static final String PREFIX = "  INFO 31776 --- [nio-8080-exec-1] com.hotelbooking.analytics               : ";
+
+    private final AnalyticsLogParser parser = new AnalyticsLogParser(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should join start and end lines by request ID and reconstruct paths, bodies and timing")
+    void shouldReconstructRequests() throws Exception {
+        String log = String.join("\n",
+                "2026-10-19 01:53:06.779" + PREFIX + "[REQ_START] RequestId: r1, Method: POST, Path: /bookings, Body: "
+                        + "Booking{id='null', hotelName='Grand Hyatt', guestName='Alice', checkInDate=2026-11-01, checkOutDate=2026-11-03, status='null'}",
+                "2026-10-19 01:53:06.790" + PREFIX + "[REQ_START] RequestId: r2, Method: GET, Path: /bookings/search?hotelName=Grand Hyatt&mode=null",
+                "2026-10-19 01:53:06.781" + PREFIX + "[REQ_END] RequestId: r1, Status: 201, Action: Create, BookingId: b-1, Duration: 2ms",
+                "2026-10-19 01:53:06.900  INFO 31776 --- [           main] o.s.b.w.embedded.tomcat.TomcatWebServer  : Tomcat started",
+                "2026-10-19 01:53:07.001" + PREFIX + "[REQ_START] RequestId: r3, Method: POST, Path: /bookings/b-1/confirm",
+                "2026-10-19 01:53:07.003" + PREFIX + "[REQ_END] RequestId: r3, Status: 200, Action: Confirm, Duration: 1ms",
+                "2026-10-19 01:53:06.795" + PREFIX + "[REQ_END] RequestId: r2, Status: 200, Action: Search, Duration: 5ms");
+
+        Capture capture = parser.parse(new BufferedReader(new StringReader(log)));
+
+        List<CapturedRequest> requests = capture.getRequests();
+        assertEquals(3, requests.size());
+        CapturedRequest create = requests.get(0);
+        assertEquals(0, create.getOffsetMillis());
+        assertEquals("POST /bookings", create.getEndpoint());
+        assertEquals("{\"hotelName\":\"Grand Hyatt\",\"guestName\":\"Alice\",\"checkInDate\":\"2026-11-01\",\"checkOutDate\":\"2026-11-03\"}",
+                create.getBody());
+        assertEquals(201, create.getRecordedStatus());
+        assertEquals("b-1", create.getCreatedId());
+
+        CapturedRequest search = requests.get(1);
+        assertEquals(11, search.getOffsetMillis());
+        assertEquals("/bookings/search?hotelName=Grand+Hyatt", search.getPath());
+        assertEquals(5, search.getRecordedMillis());
+        assertNull(search.getBookingId());
+
+        CapturedRequest confirm = requests.get(2);
+        assertEquals(222, confirm.getOffsetMillis());
+        assertEquals("b-1", confirm.getBookingId());
+        assertEquals("POST /bookings/{id}/confirm", confirm.getEndpoint());
+        assertEquals("/bookings/b-2/confirm", confirm.withBookingId("b-2").getPath());
+        assertTrue(capture.getSkipped().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should skip requests whose log lines lack the data to repeat them, and strip colors")
+    void shouldSkipUnreplayableRequests() throws Exception {
+        String log = String.join("\n",
+                "2026-10-19 01:53:06.779" + PREFIX + "[REQ_START] RequestId: r1, Method: POST, Path: /bookings/lookup, Ids: 3",
+                "2026-10-19 01:53:06.780" + PREFIX + "[REQ_START] RequestId: r2, Method: POST, Path: /bookings/bulk/import",
+                "\u001B[2m2026-10-19 01:53:06.781\u001B[0;39m" + PREFIX
+                        + "[REQ_START] RequestId: r3, Method: GET, Path: /bookings/arrivals?from=2026-11-01&to=null&hotelName=null&status=null, Accept: application/x-ndjson");
+
+        Capture capture = parser.parse(new BufferedReader(new StringReader(log)));
+
+        assertEquals(1, capture.getRequests().size());
+        CapturedRequest arrivals = capture.getRequests().get(0);
+        assertEquals("/bookings/arrivals?from=2026-11-01", arrivals.getPath());
+        assertEquals("application/x-ndjson", arrivals.getAccept());
+        assertEquals(0, arrivals.getRecordedStatus());
+        assertEquals(1, capture.getSkipped().get("lookup (IDs not logged)"));
+        assertEquals(1, capture.getSkipped().get("bulk import (body not logged)"));
+    }
+
+    @Test
+    @DisplayName("Should read back what it writes in the capture format")
+    void shouldRoundTripCaptureFile() throws Exception {
+        List<CapturedRequest> requests = List.of(
+                new CapturedRequest(0, "POST", "/bookings", null, "{\"guestName\":\"Tab\\tby\"}", 201, 3, "b-1"),
+                new CapturedRequest(15, "GET", "/bookings/b-1", null, null, 200, -1, null),
+                new CapturedRequest(20, "GET", "/bookings/departures?from=2026-11-01", "application/x-ndjson", null, 0, -1, null));
+        StringWriter writer = new StringWriter();
+
+        CaptureFile.write(requests, writer);
+        Capture capture = CaptureFile.read(new BufferedReader(new StringReader(writer.toString())));
+
+        assertEquals(requests.size(), capture.getRequests().size());
+        for (int i = 0; i < requests.size(); i++) {
+            CapturedRequest expected = requests.get(i);
+            CapturedRequest actual = capture.getRequests().get(i);
+            assertEquals(expected.getOffsetMillis(), actual.getOffsetMillis());
+            assertEquals(expected.getPath(), actual.getPath());
+            assertEquals(expected.getAccept(), actual.getAccept());
+            assertEquals(expected.getBody(), actual.getBody());
+            assertEquals(expected.getRecordedStatus(), actual.getRecordedStatus());
+            assertEquals(expected.getRecordedMillis(), actual.getRecordedMillis());
+            assertEquals(expected.getCreatedId(), actual.getCreatedId());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> CaptureFile.read(new BufferedReader(new StringReader("not a capture\n"))));
+    }
+}
@@ -0,0 +1,82 @@
+package com.hotelbooking.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.service.BookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays a small capture against the application, checking that booking IDs are remapped and seeded.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "booking.sample-data.enabled=false")
+class TrafficReplayerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    @DisplayName("Should redirect requests to the bookings created or seeded during the replay")
+    void shouldRemapAndSeedBookingIds() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        String body = "{\"hotelName\":\"Replay Test Hotel\",\"guestName\":\"Alice\",\"checkInDate\":\"" + checkIn
+                + "\",\"checkOutDate\":\"" + checkIn.plusDays(2) + "\"}";
+        List<CapturedRequest> capture = List.of(
+                new CapturedRequest(0, "POST", "/bookings", null, body, 201, 2, "recorded-1"),
+                new CapturedRequest(5, "GET", "/bookings/recorded-1", null, null, 200, 1, null),
+                new CapturedRequest(10, "POST", "/bookings/recorded-1/confirm", null, null, 200, 1, null),
+                new CapturedRequest(15, "GET", "/bookings/never-created", null, null, 200, 1, null),
+                new CapturedRequest(20, "GET", "/bookings/search?hotelName=Replay+Test+Hotel", null, null, 200, 1, null));
+
+        ReplayReport report = new TrafficReplayer("http://localhost:" + port, 10, 4, true, new ObjectMapper())
+                .replay(capture);
+
+        assertEquals(5, report.getRequests());
+        assertEquals(1, report.getSeededBookings());
+        Map<String, EndpointLatency> byEndpoint = report.getEndpoints().stream()
+                .collect(Collectors.toMap(EndpointLatency::getEndpoint, Function.identity()));
+        assertEquals(2, byEndpoint.get("GET /bookings/{id}").getRequests());
+        for (EndpointLatency latency : report.getEndpoints()) {
+            assertEquals(0, latency.getStatusMismatches(), latency.getEndpoint());
+            assertEquals(0, latency.getFailed(), latency.getEndpoint());
+        }
+        List<Booking> replayed = bookingService.searchBookingsByHotelName("Replay Test Hotel");
+        assertEquals(1, replayed.size());
+        assertEquals(BookingStatus.CONFIRMED.name(), replayed.get(0).getStatus());
+        assertEquals(1, bookingService.searchBookingsByHotelName(TrafficReplayer.SEED_HOTEL_NAME).size());
+    }
+
+    @Test
+    @DisplayName("Should compare reports per endpoint and flag only well-sampled regressions")
+    void shouldFlagRegressions() {
+        ReplayReport baseline = new ReplayReport("base", 1, 150, 0, 1000, 0, List.of(
+                new EndpointLatency("GET /bookings/{id}", 100, 0, 0, 1.0, 1.5, 2.0, 3.0),
+                new EndpointLatency("POST /bookings", 50, 0, 0, 2.0, 2.5, 4.0, 5.0),
+                new EndpointLatency("GET /bookings", 5, 0, 0, 1.0, 1.0, 1.0, 1.0)));
+        ReplayReport candidate = new ReplayReport("cand", 1, 150, 0, 1000, 0, List.of(
+                new EndpointLatency("GET /bookings/{id}", 100, 0, 0, 1.05, 1.5, 2.1, 3.0),
+                new EndpointLatency("POST /bookings", 50, 0, 0, 2.0, 2.5, 6.0, 9.0),
+                new EndpointLatency("GET /bookings", 5, 0, 0, 9.0, 9.0, 9.0, 9.0)));
+
+        ReplayComparison comparison = ReplayComparison.of(baseline, candidate);
+
+        assertEquals(List.of("POST /bookings"), comparison.getRegressions(10));
+        assertTrue(comparison.format(10).contains("REGRESSION"));
+    }
+}
@@ -0,0 +1,245 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import com.hotelbooking.service.LinearizabilityChecker.Kind;
+import com.hotelbooking.service.LinearizabilityChecker.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency stress test for BookingService: threads run a seeded mix of create, update, transition,
+ * cancel, delete and get operations against a few shared booking IDs, and every per-ID history must be
+ * linearizable (see {@link LinearizabilityChecker}). That rules out lost updates, double cancels,
+ * phantom deletes and reads of states that never existed; reads are also checked for torn fields.
+ * <p>
+ * The seed fixes the operations of every thread and the pauses between them. The interleaving itself is
+ * still up to the scheduler, so a failing seed replays the same scenario rather than the same schedule;
+ * rerun it with {@code -Dbooking.stress.seed=N}, or widen the search with {@code -Dbooking.stress.seeds=N}.
+ */
+class BookingServiceStressTest {
+
+    private static final int THREADS = 4;
+    private static final int IDS = 6;
+    private static final int OPERATIONS_PER_THREAD = 16;
+    private static final int MAX_PAUSE_SPINS = 2_000;
+
+    static LongStream seeds() {
+        Long seed = Long.getLong("booking.stress.seed");
+        return seed != null ? LongStream.of(seed) : LongStream.rangeClosed(1, Long.getLong("booking.stress.seeds", 50L));
+    }
+
+    @ParameterizedTest(name = "seed {0}")
+    @MethodSource("seeds")
+    void concurrentHistoriesShouldBeLinearizable(long seed) throws Exception {
+        Random random = new Random(seed);
+        BookingService bookingService = new BookingService(false);
+        int[] nextTag = {0};
+
+        Map<String, Booking> initial = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < IDS; i++) {
+            String id = "stress-" + i;
+            ids.add(id);
+            if (random.nextInt(5) > 0) { // Some IDs start out absent and only appear through CREATE
+                Booking booking = LinearizabilityChecker.tagged(id, nextTag[0]++, randomInitialStatus(random));
+                initial.put(id, new Booking(bookingService.createBooking(booking)));
+            }
+        }
+
+        List<List<Operation>> plans = new ArrayList<>();
+        List<int[]> pauses = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            List<Operation> plan = new ArrayList<>();
+            int[] pause = new int[OPERATIONS_PER_THREAD];
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                plan.add(randomOperation(random, thread, ids.get(random.nextInt(IDS)), nextTag));
+                pause[i] = random.nextInt(MAX_PAUSE_SPINS);
+            }
+            plans.add(plan);
+            pauses.add(pause);
+        }
+
+        AtomicLong clock = new AtomicLong();
+        ConcurrentLinkedQueue<String> tornReads = new ConcurrentLinkedQueue<>();
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<Operation> plan = plans.get(t);
+            int[] pause = pauses.get(t);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = 0; i < plan.size(); i++) {
+                    pause(pause[i]);
+                    execute(bookingService, plan.get(i), clock, tornReads);
+                }
+            }, "stress-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30_000);
+            assertFalse(thread.isAlive(), "Seed " + seed + ": " + thread.getName() + " did not finish");
+        }
+        assertTrue(tornReads.isEmpty(), "Seed " + seed + ": torn reads " + tornReads);
+
+        Map<String, List<Operation>> histories = new HashMap<>();
+        for (List<Operation> plan : plans) {
+            for (Operation operation : plan) {
+                histories.computeIfAbsent(operation.id, id -> new ArrayList<>()).add(operation);
+            }
+        }
+        Set<String> present = new TreeSet<>();
+        for (String id : ids) {
+            // A final read after every thread finished pins down the state each history must end in.
+            Operation last = new Operation(-1, Kind.GET, id, null, null);
+            execute(bookingService, last, clock, tornReads);
+            if (!LinearizabilityChecker.EMPTY.equals(last.result)) {
+                present.add(id);
+            }
+            List<Operation> history = histories.computeIfAbsent(id, key -> new ArrayList<>());
+            history.add(last);
+            String failure = LinearizabilityChecker.check(initial.get(id), history);
+            assertNull(failure, () -> "Seed " + seed + ", booking " + id + ": " + failure
+                    + "\nReplay with -Dbooking.stress.seed=" + seed);
+        }
+
+        // The store and the hotel name index must agree with the per-ID reads: no phantom or leftover entries.
+        assertEquals(present, bookingService.getAllBookings().stream().map(Booking::getId)
+                .collect(Collectors.toCollection(TreeSet::new)), "Seed " + seed + ": store contents");
+        assertEquals(present, bookingService.searchBookingsByHotelName("hotel-").stream().map(Booking::getId)
+                .collect(Collectors.toCollection(TreeSet::new)), "Seed " + seed + ": hotel name index");
+    }
+
+    @Test
+    @DisplayName("Checker should reject two overlapping cancellations that both succeed")
+    void checkerShouldRejectDoubleCancel() {
+        Booking booking = LinearizabilityChecker.tagged("b", 1, BookingStatus.CONFIRMED.name());
+        List<Operation> history = List.of(
+                recorded(0, Kind.CANCEL, 1, 4, "true"),
+                recorded(1, Kind.CANCEL, 2, 3, "true"));
+
+        assertNotNull(LinearizabilityChecker.check(booking, history));
+        assertNull(LinearizabilityChecker.check(booking, List.of(
+                recorded(0, Kind.CANCEL, 1, 4, "true"),
+                recorded(1, Kind.CANCEL, 2, 3, "false"))));
+    }
+
+    @Test
+    @DisplayName("Checker should reject a read that sees a booking after its deletion completed")
+    void checkerShouldRejectPhantomRead() {
+        Booking booking = LinearizabilityChecker.tagged("b", 1, BookingStatus.PENDING.name());
+        List<Operation> history = List.of(
+                recorded(0, Kind.DELETE, 1, 2, "true"),
+                recorded(1, Kind.GET, 3, 4, booking.toString()));
+
+        assertNotNull(LinearizabilityChecker.check(booking, history));
+    }
+
+    private static Operation recorded(int thread, Kind kind, long invokedAt, long respondedAt, String result) {
+        Operation operation = new Operation(thread, kind, "b", null, null);
+        operation.invokedAt = invokedAt;
+        operation.respondedAt = respondedAt;
+        operation.result = result;
+        return operation;
+    }
+
+    private static Operation randomOperation(Random random, int thread, String id, int[] nextTag) {
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            return new Operation(thread, Kind.GET, id, null, null);
+        } else if (roll < 50) {
+            String status = random.nextInt(4) == 0 ? randomStatus(random).name() : null;
+            return new Operation(thread, Kind.UPDATE, id, LinearizabilityChecker.tagged(id, nextTag[0]++, status), null);
+        } else if (roll < 70) {
+            return new Operation(thread, Kind.TRANSITION, id, null, randomStatus(random));
+        } else if (roll < 85) {
+            return new Operation(thread, Kind.CANCEL, id, null, null);
+        } else if (roll < 93) {
+            return new Operation(thread, Kind.DELETE, id, null, null);
+        } else {
+            return new Operation(thread, Kind.CREATE, id,
+                    LinearizabilityChecker.tagged(id, nextTag[0]++, randomInitialStatus(random)), null);
+        }
+    }
+
+    private static BookingStatus randomStatus(Random random) {
+        return BookingStatus.values()[random.nextInt(BookingStatus.values().length)];
+    }
+
+    private static String randomInitialStatus(Random random) {
+        int roll = random.nextInt(3);
+        return roll == 0 ? null : roll == 1 ? BookingStatus.PENDING.name() : BookingStatus.CONFIRMED.name();
+    }
+
+    private static void pause(int spins) {
+        if (spins % 8 == 0) {
+            Thread.yield(); // Invites a context switch even on a single CPU
+        }
+        for (int i = 0; i < spins; i++) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void execute(BookingService bookingService, Operation operation, AtomicLong clock,
+                                ConcurrentLinkedQueue<String> tornReads) {
+        operation.invokedAt = clock.incrementAndGet();
+        String result;
+        try {
+            switch (operation.kind) {
+                case GET:
+                    Booking read = bookingService.getBookingById(operation.id).orElse(null);
+                    String torn = read == null ? null : LinearizabilityChecker.tornFields(read);
+                    if (torn != null) {
+                        tornReads.add(operation.id + ": " + torn);
+                    }
+                    result = read == null ? LinearizabilityChecker.EMPTY : read.toString();
+                    break;
+                case CREATE:
+                    // The service fills in the default status on the object it is given, so pass a copy.
+                    result = LinearizabilityChecker.describe(bookingService.createBooking(new Booking(operation.argument)));
+                    break;
+                case UPDATE:
+                    result = LinearizabilityChecker.describe(bookingService.updateBooking(operation.id, new Booking(operation.argument)));
+                    break;
+                case TRANSITION:
+                    result = LinearizabilityChecker.describe(bookingService.transitionBooking(operation.id, operation.target));
+                    break;
+                case CANCEL:
+                    result = String.valueOf(bookingService.cancelBooking(operation.id));
+                    break;
+                default:
+                    result = String.valueOf(bookingService.deleteBooking(operation.id));
+            }
+        } catch (IllegalBookingTransitionException e) {
+            result = LinearizabilityChecker.ILLEGAL_TRANSITION;
+        } catch (BookingAlreadyExistsException e) {
+            result = LinearizabilityChecker.ALREADY_EXISTS;
+        } catch (RuntimeException e) {
+            result = "error: " + e;
+        }
+        operation.respondedAt = clock.incrementAndGet();
+        operation.result = result;
+    }
+}
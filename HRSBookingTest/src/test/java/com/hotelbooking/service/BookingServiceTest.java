@@ -1,14 +1,21 @@
 package com.hotelbooking.service;
 
 import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingLookupResult;
+import com.hotelbooking.model.BookingSort;
+import com.hotelbooking.model.BookingStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -52,6 +59,22 @@ class BookingServiceTest {
         assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(invalidBooking));
     }
 
+    @Test
+    @DisplayName("Should reject stays longer than the maximum on create and update")
+    void shouldRejectOverlongStays() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        Booking endless = new Booking(null, "Endless Hotel", "Jane Doe", checkIn, LocalDate.of(9999, 12, 31), null);
+        Booking longest = new Booking(null, "Endless Hotel", "Jane Doe", checkIn,
+                checkIn.plusDays(BookingService.MAX_STAY_NIGHTS), null);
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(endless));
+        Booking created = bookingService.createBooking(longest);
+        assertThrows(IllegalArgumentException.class, () -> bookingService.updateBooking(created.getId(), endless));
+        assertEquals(BookingService.MAX_STAY_NIGHTS,
+                bookingService.getOccupancy("Endless Hotel", checkIn, checkIn.plusDays(BookingService.MAX_STAY_NIGHTS + 1))
+                        .getNights().stream().filter(night -> night.getOccupied() == 1).count());
+    }
+
     @Test
     @DisplayName("Should throw IllegalArgumentException for past check-in date")
     void shouldThrowExceptionForPastCheckInDate() {
@@ -233,4 +256,128 @@ class BookingServiceTest {
     void shouldThrowExceptionForEmptyHotelNameOnSearch() {
         assertThrows(IllegalArgumentException.class, () -> bookingService.searchBookingsByHotelName(""));
     }
+
+    @Test
+    @DisplayName("Should look up many bookings at once and report the missing IDs in request order")
+    void shouldLookUpBookingsByIds() {
+        Booking first = bookingService.createBooking(new Booking(null, "Lookup Hotel", "Guest A",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+        Booking second = bookingService.createBooking(new Booking(null, "Lookup Hotel", "Guest B",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+
+        BookingLookupResult result = bookingService.getBookingsByIds(
+                List.of(second.getId(), "missing-1", first.getId(), second.getId(), "missing-2"));
+
+        assertEquals(List.of(second.getId(), first.getId()),
+                result.getBookings().stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(List.of("missing-1", "missing-2"), result.getMissingIds());
+    }
+
+    @Test
+    @DisplayName("Should reject empty, oversized or blank lookups")
+    void shouldRejectInvalidLookups() {
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByIds(List.of("id", " ")));
+        List<String> tooMany = Collections.nCopies(BookingService.MAX_LOOKUP_IDS + 1, "id");
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByIds(tooMany));
+    }
+
+    @Test
+    @DisplayName("Should select the same top-k page as a full sort")
+    void shouldSelectTopKLikeFullSort() {
+        Random random = new Random(42);
+        List<Booking> source = new ArrayList<>();
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < 500; i++) {
+            LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(30));
+            source.add(new Booking("id-" + i, "Hotel " + random.nextInt(20), "Guest " + i, checkIn,
+                    checkIn.plusDays(1), statuses[random.nextInt(statuses.length)].name()));
+        }
+        for (String sortParameter : List.of("checkInDate", "-checkInDate", "hotelName", "-status")) {
+            BookingSort sort = BookingSort.parse(sortParameter);
+            List<Booking> fullySorted = new ArrayList<>(source);
+            fullySorted.sort(sort.comparator());
+            for (int limit : new int[]{1, 10, 499, 500, 1000}) {
+                assertEquals(fullySorted.subList(0, Math.min(limit, source.size())),
+                        BookingService.sortAndLimit(source, sort, limit), sortParameter + " limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should order statuses by lifecycle and break ties by ID")
+    void shouldSortByStatusLifecycle() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        List<Booking> source = List.of(
+                new Booking("c", "H", "G", date, date.plusDays(1), "CANCELLED"),
+                new Booking("b", "H", "G", date, date.plusDays(1), "PENDING"),
+                new Booking("a", "H", "G", date, date.plusDays(1), "PENDING"),
+                new Booking("d", "H", "G", date, date.plusDays(1), "CHECKED_IN"));
+
+        List<Booking> sorted = BookingService.sortAndLimit(source, BookingSort.parse("status"), 10);
+
+        assertEquals(List.of("a", "b", "d", "c"), sorted.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should limit the store without sorting and reject non-positive limits")
+    void shouldLimitAllBookings() {
+        assertEquals(2, bookingService.getAllBookings(null, 2).size());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getAllBookings(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> BookingSort.parse("guestName"));
+    }
+
+    @Test
+    @DisplayName("Should report validation errors without throwing, with the messages the throwing paths use")
+    void shouldReportValidationErrorsWithoutThrowing() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        Booking reversed = new Booking(null, "H", "G", date, date.minusDays(1), null);
+        Booking checkedIn = new Booking(null, "H", "G", date, date.plusDays(1), "checked_in");
+        Booking unknown = new Booking(null, "H", "G", date, date.plusDays(1), "ARCHIVED");
+
+        assertNull(BookingService.findNewBookingError(new Booking(null, "H", "G", date, date.plusDays(1), " confirmed ")));
+        assertEquals("Check-in date cannot be after check-out date.", BookingService.findNewBookingError(reversed));
+        assertEquals("New bookings must be PENDING or CONFIRMED.", BookingService.findNewBookingError(checkedIn));
+        assertEquals("Unknown booking status: ARCHIVED", BookingService.findNewBookingError(unknown));
+        assertEquals(BookingService.findNewBookingError(reversed),
+                assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(reversed)).getMessage());
+
+        assertNull(BookingService.findUpdateError("id", checkedIn));
+        assertEquals("Booking ID cannot be null or empty for update.", BookingService.findUpdateError(" ", checkedIn));
+        assertEquals("Unknown booking status: ARCHIVED", BookingService.findUpdateError("id", unknown));
+        assertEquals(BookingService.findUpdateError("id", unknown),
+                assertThrows(IllegalArgumentException.class, () -> bookingService.updateBooking("id", unknown)).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should abort a change when a required listener fails, before other listeners see it")
+    void shouldAbortChangeWhenRequiredListenerFails() {
+        Booking booking = bookingService.createBooking(new Booking(null, "Test Hotel", "John Doe",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null));
+        List<String> seen = new ArrayList<>();
+        bookingService.addMutationListener(new BookingMutationListener() {
+            @Override
+            public void onBookingUpdated(Booking previous, Booking current) {
+                seen.add(current.getId());
+            }
+        }, false);
+        bookingService.addMutationListener(new BookingMutationListener() {
+            @Override
+            public boolean isRequired() {
+                return true;
+            }
+
+            @Override
+            public void onBookingUpdated(Booking previous, Booking current) {
+                throw new IllegalStateException("database down");
+            }
+        }, false);
+
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.transitionBooking(booking.getId(), BookingStatus.CONFIRMED));
+
+        assertEquals("PENDING", bookingService.getBookingById(booking.getId()).get().getStatus());
+        assertTrue(seen.isEmpty());
+        assertEquals(1, bookingService.searchBookingsByHotelName("Test Hotel").size());
+    }
 }
@@ -0,0 +1,160 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the booking status state machine, including races between concurrent transitions.
+ */
+class BookingStatusTransitionTest {
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(false);
+    }
+
+    @Test
+    @DisplayName("Should walk a booking through its whole lifecycle")
+    void shouldFollowLifecycle() {
+        String id = book("PENDING").getId();
+
+        assertEquals("CONFIRMED", bookingService.transitionBooking(id, BookingStatus.CONFIRMED).get().getStatus());
+        assertEquals("CHECKED_IN", bookingService.transitionBooking(id, BookingStatus.CHECKED_IN).get().getStatus());
+        assertEquals("CHECKED_OUT", bookingService.transitionBooking(id, BookingStatus.CHECKED_OUT).get().getStatus());
+        assertEquals("CHECKED_OUT", bookingService.getBookingById(id).get().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not let a create with an existing ID reset a finished booking")
+    void shouldRejectCreateWithExistingId() {
+        Booking checkedOut = book("CONFIRMED");
+        bookingService.transitionBooking(checkedOut.getId(), BookingStatus.CHECKED_IN);
+        bookingService.transitionBooking(checkedOut.getId(), BookingStatus.CHECKED_OUT);
+        Booking cancelled = book("PENDING");
+        bookingService.cancelBooking(cancelled.getId());
+
+        for (Booking finished : List.of(checkedOut, cancelled)) {
+            Booking reset = new Booking(finished.getId(), "Other Hotel", "Mallory",
+                    LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), "PENDING");
+            assertThrows(BookingAlreadyExistsException.class, () -> bookingService.createBooking(reset));
+            Booking stored = bookingService.getBookingById(finished.getId()).get();
+            assertEquals(finished.getHotelName(), stored.getHotelName());
+            assertNotEquals("PENDING", stored.getStatus());
+        }
+        assertEquals(0, bookingService.searchBookingsByHotelName("Other Hotel").size());
+    }
+
+    @Test
+    @DisplayName("Should reject a batch containing an existing ID without storing any of it")
+    void shouldRejectBatchWithExistingId() {
+        Booking cancelled = book("PENDING");
+        bookingService.cancelBooking(cancelled.getId());
+        Booking fresh = new Booking(null, "Batch Hotel", "Guest", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null);
+        Booking reset = new Booking(cancelled.getId(), "Batch Hotel", "Guest",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null);
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(List.of(fresh, reset)));
+        assertEquals("CANCELLED", bookingService.getBookingById(cancelled.getId()).get().getStatus());
+        assertEquals(0, bookingService.searchBookingsByHotelName("Batch Hotel").size());
+    }
+
+    @Test
+    @DisplayName("Should reject illegal transitions and leave the booking unchanged")
+    void shouldRejectIllegalTransitions() {
+        Booking cancelled = book("CONFIRMED");
+        assertTrue(bookingService.cancelBooking(cancelled.getId()));
+        assertThrows(IllegalBookingTransitionException.class,
+                () -> bookingService.transitionBooking(cancelled.getId(), BookingStatus.CONFIRMED));
+        assertEquals("CANCELLED", bookingService.getBookingById(cancelled.getId()).get().getStatus());
+
+        Booking pending = book("PENDING");
+        assertThrows(IllegalBookingTransitionException.class,
+                () -> bookingService.transitionBooking(pending.getId(), BookingStatus.CHECKED_IN));
+
+        Booking checkedIn = book("CONFIRMED");
+        bookingService.transitionBooking(checkedIn.getId(), BookingStatus.CHECKED_IN);
+        assertThrows(IllegalBookingTransitionException.class, () -> bookingService.cancelBooking(checkedIn.getId()));
+
+        assertFalse(bookingService.transitionBooking("missing", BookingStatus.CONFIRMED).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should only accept legal statuses from updates and new bookings")
+    void shouldValidateStatusOnUpdateAndCreate() {
+        Booking booking = book("CONFIRMED");
+        Booking keepStatus = new Booking(null, "Grand Hyatt", "Renamed Guest",
+                booking.getCheckInDate(), booking.getCheckOutDate(), null);
+        assertEquals("CONFIRMED", bookingService.updateBooking(booking.getId(), keepStatus).get().getStatus());
+
+        Booking backToPending = new Booking(null, "Grand Hyatt", "Guest",
+                booking.getCheckInDate(), booking.getCheckOutDate(), "PENDING");
+        assertThrows(IllegalBookingTransitionException.class, () -> bookingService.updateBooking(booking.getId(), backToPending));
+        assertEquals("Renamed Guest", bookingService.getBookingById(booking.getId()).get().getGuestName());
+
+        assertThrows(IllegalArgumentException.class, () -> book("CHECKED_OUT"));
+        assertThrows(IllegalArgumentException.class, () -> book("ON_HOLD"));
+        assertEquals("CONFIRMED", book("confirmed").getStatus());
+    }
+
+    @Test
+    @DisplayName("Exactly one of many concurrent check-in or cancel requests should win")
+    void concurrentTransitionsShouldHaveOneWinner() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                // From CONFIRMED both targets are legal, but neither is reachable from the other.
+                String id = book("CONFIRMED").getId();
+                CountDownLatch start = new CountDownLatch(1);
+                List<BookingStatus> winners = Collections.synchronizedList(new ArrayList<>());
+                AtomicInteger conflicts = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    BookingStatus target = t % 2 == 0 ? BookingStatus.CHECKED_IN : BookingStatus.CANCELLED;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            bookingService.transitionBooking(id, target);
+                            winners.add(target);
+                        } catch (IllegalBookingTransitionException e) {
+                            conflicts.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                assertEquals(1, winners.size(), "round " + round);
+                assertEquals(threads - 1, conflicts.get(), "round " + round);
+                assertEquals(winners.get(0).name(), bookingService.getBookingById(id).get().getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Booking book(String status) {
+        return bookingService.createBooking(new Booking(null, "Grand Hyatt", "Guest",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), status));
+    }
+}
@@ -0,0 +1,160 @@
+package com.hotelbooking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the IdempotencyService cache.
+ */
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(3, 60, 5000);
+    }
+
+    @Test
+    @DisplayName("Should run the action once and replay its result for the same key")
+    void shouldReplayResultForSameKey() {
+        AtomicInteger executions = new AtomicInteger();
+
+        IdempotencyService.IdempotentResult<Integer> first =
+                idempotencyService.execute("key-1", "hash", executions::incrementAndGet);
+        IdempotencyService.IdempotentResult<Integer> retry =
+                idempotencyService.execute("key-1", "hash", executions::incrementAndGet);
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertEquals(1, retry.getValue());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different payload")
+    void shouldRejectKeyReusedWithDifferentPayload() {
+        idempotencyService.execute("key-1", "hash-a", () -> "created");
+
+        IdempotencyKeyConflictException e = assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("key-1", "hash-b", () -> "created again"));
+        assertEquals(IdempotencyKeyConflictException.Reason.PAYLOAD_MISMATCH, e.getReason());
+    }
+
+    @Test
+    @DisplayName("Should not remember failed executions")
+    void shouldNotRememberFailures() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("key-1", "hash", () -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+
+        IdempotencyService.IdempotentResult<String> retry = idempotencyService.execute("key-1", "hash", () -> "created");
+        assertFalse(retry.isReplayed());
+        assertEquals("created", retry.getValue());
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest keys once the cache is full")
+    void shouldEvictOldestKeysWhenFull() {
+        for (int i = 0; i < 5; i++) {
+            idempotencyService.execute("key-" + i, "hash", () -> "value");
+        }
+
+        assertEquals(3, idempotencyService.size());
+        IdempotencyService.IdempotentResult<String> evicted = idempotencyService.execute("key-0", "hash", () -> "new value");
+        assertFalse(evicted.isReplayed());
+    }
+
+    @Test
+    @DisplayName("Should drop expired and failed keys instead of keeping them until the cache is full")
+    void shouldDropExpiredAndFailedKeys() {
+        IdempotencyService expiring = new IdempotencyService(100, 0, 5000);
+        for (int i = 0; i < 50; i++) {
+            assertThrows(IllegalStateException.class, () -> expiring.execute("failing", "hash", () -> {
+                throw new IllegalStateException("failed");
+            }));
+            expiring.execute("key-" + i, "hash", () -> "value");
+        }
+
+        // Each new key drops the expired ones before it; the failed key is never remembered.
+        assertEquals(1, expiring.size());
+    }
+
+    @Test
+    @DisplayName("Should let concurrent duplicates wait for the in-flight execution instead of running twice")
+    void shouldRunConcurrentDuplicatesOnce() throws Exception {
+        int threads = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<IdempotencyService.IdempotentResult<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute("key-1", "hash", () -> {
+                        try {
+                            Thread.sleep(50); // Keep the first execution in flight while the others arrive
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return executions.incrementAndGet();
+                    });
+                }));
+            }
+            start.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyService.IdempotentResult<Integer>> future : futures) {
+                IdempotencyService.IdempotentResult<Integer> result = future.get(5, TimeUnit.SECONDS);
+                assertEquals(1, result.getValue());
+                if (result.isReplayed()) {
+                    replayed++;
+                }
+            }
+            assertEquals(1, executions.get());
+            assertEquals(threads - 1, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay bounded when many threads use distinct keys concurrently")
+    void shouldStayBoundedUnderConcurrentKeys() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        String key = thread + "-" + i;
+                        assertFalse(idempotencyService.execute(key, "hash", () -> key).isReplayed());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Each key evicts before it runs, so up to one in-flight key per thread may exceed the capacity.
+        assertTrue(idempotencyService.size() <= 3 + threads, "size " + idempotencyService.size());
+    }
+}
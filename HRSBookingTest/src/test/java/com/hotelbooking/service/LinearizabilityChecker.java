@@ -0,0 +1,254 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.model.Booking;
+import com.hotelbooking.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Checks that a concurrent history of operations on one booking ID is linearizable: that there is a
+ * single order of the operations, consistent with their real-time order, in which a sequential
+ * BookingService would have returned exactly the recorded results.
+ * <p>
+ * Linearizability is compositional, so histories are checked per booking ID. The search is the
+ * Wing &amp; Gong algorithm with memoization of (linearized operations, model state), as in Lowe's
+ * and Kingsbury's checkers; histories are limited to 64 operations per ID.
+ */
+final class LinearizabilityChecker {
+
+    /**
+     * The kinds of operation the stress test runs against a booking ID.
+     */
+    enum Kind {
+        GET, CREATE, UPDATE, TRANSITION, CANCEL, DELETE
+    }
+
+    static final String EMPTY = "empty";
+    static final String ILLEGAL_TRANSITION = "illegal-transition";
+    static final String ALREADY_EXISTS = "already-exists";
+
+    /**
+     * One call and its recorded result. The clock values come from one shared counter, so an operation
+     * precedes another if and only if its response was recorded before the other was invoked.
+     */
+    static final class Operation {
+        final int thread;
+        final Kind kind;
+        final String id;
+        final Booking argument; // CREATE and UPDATE
+        final BookingStatus target; // TRANSITION
+        long invokedAt;
+        long respondedAt;
+        String result;
+
+        Operation(int thread, Kind kind, String id, Booking argument, BookingStatus target) {
+            this.thread = thread;
+            this.kind = kind;
+            this.id = id;
+            this.argument = argument;
+            this.target = target;
+        }
+
+        @Override
+        public String toString() {
+            String detail = argument != null ? " " + tagOf(argument) + (argument.getStatus() != null ? "/" + argument.getStatus() : "")
+                    : target != null ? " " + target : "";
+            return String.format("[%4d..%4d] thread %d %-10s%s -> %s", invokedAt, respondedAt, thread, kind, detail, result);
+        }
+    }
+
+    private LinearizabilityChecker() {
+    }
+
+    /**
+     * Describes a call's return value the way {@link #apply} describes the expected one.
+     */
+    static String describe(Object value) {
+        if (value instanceof Optional) {
+            return ((Optional<?>) value).map(LinearizabilityChecker::describe).orElse(EMPTY);
+        }
+        return String.valueOf(value); // Booking.toString covers every field
+    }
+
+    /**
+     * Builds a booking whose fields all derive from one tag, so a read mixing two writes is recognizable.
+     */
+    static Booking tagged(String id, int tag, String status) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + tag % 50);
+        return new Booking(id, "Hotel-" + tag, "Guest-" + tag, checkIn, checkIn.plusDays(1 + tag % 3), status);
+    }
+
+    /**
+     * @return Null if the booking's fields all come from one tagged write, otherwise a description of the mix.
+     */
+    static String tornFields(Booking booking) {
+        int tag = tagOf(booking);
+        Booking expected = tagged(booking.getId(), tag, booking.getStatus());
+        return expected.equals(booking) ? null : "expected the fields of write " + tag + " but read " + booking;
+    }
+
+    private static int tagOf(Booking booking) {
+        return Integer.parseInt(booking.getHotelName().substring("Hotel-".length()));
+    }
+
+    /**
+     * The sequential specification: the state after the operation and the result it returns.
+     * A null state means no booking with the ID exists.
+     */
+    static Step apply(Operation operation, Booking state) {
+        switch (operation.kind) {
+            case GET:
+                return new Step(state, state == null ? EMPTY : state.toString());
+            case CREATE: {
+                // A client-supplied ID never replaces an existing booking.
+                if (state != null) {
+                    return new Step(state, ALREADY_EXISTS);
+                }
+                Booking created = new Booking(operation.argument);
+                if (created.getStatus() == null) {
+                    created.setStatus(BookingStatus.PENDING.name());
+                }
+                return new Step(created, created.toString());
+            }
+            case UPDATE: {
+                if (state == null) {
+                    return new Step(null, EMPTY);
+                }
+                BookingStatus current = BookingStatus.parse(state.getStatus());
+                BookingStatus requested = operation.argument.getStatus() == null
+                        ? current : BookingStatus.parse(operation.argument.getStatus());
+                if (requested != current && !current.canTransitionTo(requested)) {
+                    return new Step(state, ILLEGAL_TRANSITION);
+                }
+                Booking updated = new Booking(operation.argument);
+                updated.setStatus(requested.name());
+                return new Step(updated, updated.toString());
+            }
+            case TRANSITION: {
+                if (state == null) {
+                    return new Step(null, EMPTY);
+                }
+                if (!BookingStatus.parse(state.getStatus()).canTransitionTo(operation.target)) {
+                    return new Step(state, ILLEGAL_TRANSITION);
+                }
+                Booking moved = new Booking(state);
+                moved.setStatus(operation.target.name());
+                return new Step(moved, moved.toString());
+            }
+            case CANCEL: {
+                if (state == null || BookingStatus.CANCELLED.name().equals(state.getStatus())) {
+                    return new Step(state, "false");
+                }
+                if (!BookingStatus.parse(state.getStatus()).canTransitionTo(BookingStatus.CANCELLED)) {
+                    return new Step(state, ILLEGAL_TRANSITION);
+                }
+                Booking cancelled = new Booking(state);
+                cancelled.setStatus(BookingStatus.CANCELLED.name());
+                return new Step(cancelled, "true");
+            }
+            default: // DELETE
+                return new Step(null, String.valueOf(state != null));
+        }
+    }
+
+    static final class Step {
+        final Booking state;
+        final String result;
+
+        Step(Booking state, String result) {
+            this.state = state;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Searches for a linearization of a history on one booking ID.
+     *
+     * @param initial The booking before any operation ran, or null.
+     * @param history The completed operations on the ID.
+     * @return Null if the history is linearizable, otherwise a report listing the history.
+     */
+    static String check(Booking initial, List<Operation> history) {
+        if (history.size() > 64) {
+            throw new IllegalArgumentException("At most 64 operations per ID can be checked, got " + history.size());
+        }
+        List<Operation> operations = new ArrayList<>(history);
+        operations.sort(Comparator.comparingLong(operation -> operation.invokedAt));
+        Search search = new Search(operations);
+        if (search.linearizable(0L, initial)) {
+            return null;
+        }
+        StringBuilder report = new StringBuilder("No linearization from ").append(initial).append(" for:");
+        for (Operation operation : operations) {
+            report.append("\n  ").append(operation);
+        }
+        return report.toString();
+    }
+
+    private static final class Search {
+        private final List<Operation> operations;
+        private final long all;
+        private final Set<Visited> visited = new HashSet<>();
+
+        Search(List<Operation> operations) {
+            this.operations = operations;
+            this.all = operations.size() == 64 ? -1L : (1L << operations.size()) - 1;
+        }
+
+        boolean linearizable(long done, Booking state) {
+            if (done == all) {
+                return true;
+            }
+            if (!visited.add(new Visited(done, state))) {
+                return false; // Explored from here already
+            }
+            // Only an operation invoked before every pending operation responded can be linearized next.
+            long firstResponse = Long.MAX_VALUE;
+            for (int i = 0; i < operations.size(); i++) {
+                if ((done & (1L << i)) == 0) {
+                    firstResponse = Math.min(firstResponse, operations.get(i).respondedAt);
+                }
+            }
+            for (int i = 0; i < operations.size(); i++) {
+                Operation operation = operations.get(i);
+                if ((done & (1L << i)) != 0 || operation.invokedAt > firstResponse) {
+                    continue;
+                }
+                Step step = apply(operation, state);
+                if (step.result.equals(operation.result) && linearizable(done | (1L << i), step.state)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Visited {
+        private final long done;
+        private final Booking state;
+
+        Visited(long done, Booking state) {
+            this.done = done;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Visited)) return false;
+            Visited other = (Visited) o;
+            return done == other.done && Objects.equals(state, other.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(done) * 31 + Objects.hashCode(state);
+        }
+    }
+}
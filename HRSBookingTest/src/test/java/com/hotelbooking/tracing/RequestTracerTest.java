@@ -0,0 +1,135 @@
+package com.hotelbooking.tracing;
+
+import com.hotelbooking.model.OperationTraceSummary;
+import com.hotelbooking.model.StageLatency;
+import com.hotelbooking.model.TraceReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RequestTracer's per-thread span buffers, the trace ring and the percentile report.
+ */
+class RequestTracerTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTracer.configure(false, 0.0, 4096);
+        RequestTracer.clear();
+    }
+
+    @Test
+    @DisplayName("Stage times should add up to the request duration")
+    void stagesShouldAddUpToTotal() {
+        RequestTracer.configure(true, 1.0, 16);
+        RequestTracer.clear();
+
+        assertTrue(RequestTracer.begin());
+        RequestTracer.lap(TraceStage.BINDING);
+        busyWork();
+        RequestTracer.lap(TraceStage.STORE);
+        RequestTracer.lap(TraceStage.LOGGING);
+        RequestTracer.end("GET /bookings/{id}", 200);
+
+        List<TraceRecord> traces = RequestTracer.recentTraces(10);
+        assertEquals(1, traces.size());
+        TraceRecord trace = traces.get(0);
+        assertEquals("GET /bookings/{id}", trace.getOperation());
+        assertEquals(200, trace.getStatus());
+        long sum = 0;
+        for (TraceStage stage : TraceStage.values()) {
+            sum += trace.getStageNanos(stage);
+        }
+        assertEquals(trace.getDurationNanos(), sum);
+        assertTrue(trace.getStageNanos(TraceStage.STORE) > 0);
+        assertEquals(0, trace.getStageNanos(TraceStage.VALIDATION));
+    }
+
+    @Test
+    @DisplayName("Should record nothing when disabled, unsampled or outside a trace")
+    void shouldIgnoreUntracedRequests() {
+        RequestTracer.configure(false, 1.0, 16);
+        assertFalse(RequestTracer.begin());
+        RequestTracer.end("GET /bookings", 200);
+
+        RequestTracer.configure(true, 0.0, 16);
+        assertFalse(RequestTracer.begin());
+        RequestTracer.lap(TraceStage.STORE);
+        RequestTracer.end("GET /bookings", 200);
+
+        assertTrue(RequestTracer.recentTraces(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent traces, newest first")
+    void ringShouldOverwriteOldestTraces() {
+        RequestTracer.configure(true, 1.0, 6); // Rounded up to 8
+        RequestTracer.clear();
+        for (int i = 0; i < 20; i++) {
+            RequestTracer.begin();
+            RequestTracer.lap(TraceStage.STORE);
+            RequestTracer.end("op-" + i, 200);
+        }
+
+        List<TraceRecord> traces = RequestTracer.recentTraces(100);
+        assertEquals(8, traces.size());
+        assertEquals("op-19", traces.get(0).getOperation());
+        assertEquals("op-12", traces.get(7).getOperation());
+        assertEquals(3, RequestTracer.recentTraces(3).size());
+    }
+
+    @Test
+    @DisplayName("Report should group traces by operation with per-stage percentiles")
+    void reportShouldSummarizePerOperation() {
+        RequestTracer.configure(true, 1.0, 64);
+        RequestTracer.clear();
+        for (int i = 0; i < 10; i++) {
+            trace("GET /bookings/{id}");
+        }
+        for (int i = 0; i < 3; i++) {
+            trace("POST /bookings");
+        }
+
+        TraceReport report = RequestTracer.report(null);
+        assertEquals(13, report.getTraceCount());
+        assertEquals(2, report.getOperations().size());
+        OperationTraceSummary first = report.getOperations().get(0);
+        assertEquals("GET /bookings/{id}", first.getOperation());
+        assertEquals(10, first.getTraceCount());
+        assertEquals(TraceStage.values().length, first.getStages().size());
+        StageLatency total = first.getTotal();
+        assertTrue(total.getP50Micros() <= total.getP90Micros());
+        assertTrue(total.getP90Micros() <= total.getP99Micros());
+        assertTrue(total.getP99Micros() <= total.getMaxMicros());
+
+        TraceReport filtered = RequestTracer.report("POST /bookings");
+        assertEquals(3, filtered.getTraceCount());
+        assertEquals(1, filtered.getOperations().size());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid settings")
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RequestTracer.configure(true, 1.5, 16));
+        assertThrows(IllegalArgumentException.class, () -> RequestTracer.configure(true, 0.5, 0));
+    }
+
+    private static void trace(String operation) {
+        RequestTracer.begin();
+        RequestTracer.lap(TraceStage.BINDING);
+        busyWork();
+        RequestTracer.lap(TraceStage.STORE);
+        RequestTracer.end(operation, 200);
+    }
+
+    private static void busyWork() {
+        long deadline = System.nanoTime() + 20_000;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}